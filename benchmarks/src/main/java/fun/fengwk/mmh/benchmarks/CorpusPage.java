@@ -0,0 +1,58 @@
+package fun.fengwk.mmh.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Saved pages under {@code corpus/}, one per cleaner code path.
+ *
+ * @author fengwk
+ */
+public enum CorpusPage {
+
+    /**
+     * Wikipedia article, exercises the wikipedia.org domain rule.
+     */
+    WIKIPEDIA("wikipedia.html", "https://en.wikipedia.org/wiki/Web_scraping"),
+
+    /**
+     * Sphinx rendered docs, exercises the docs.python.org domain rule.
+     */
+    PYTHON_DOCS("python-docs.html", "https://docs.python.org/3/library/asyncio-task.html"),
+
+    /**
+     * Generic news article with chrome, ads and related links, exercises candidate scoring.
+     */
+    NEWS("news.html", "https://news.example.com/2026/10/17/edge-inference-chips"),
+
+    /**
+     * Client-side rendered shell, near-empty body with large inline scripts.
+     */
+    SPA_SHELL("spa-shell.html", "https://app.example.com/dashboard");
+
+    private final String resource;
+    private final String baseUrl;
+
+    CorpusPage(String resource, String baseUrl) {
+        this.resource = resource;
+        this.baseUrl = baseUrl;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String load() {
+        try (InputStream inputStream = CorpusPage.class.getResourceAsStream("/corpus/" + resource)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("corpus page not found: " + resource);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("failed to load corpus page: " + resource, ex);
+        }
+    }
+
+}
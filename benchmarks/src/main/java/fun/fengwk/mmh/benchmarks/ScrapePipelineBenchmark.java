@@ -0,0 +1,104 @@
+package fun.fengwk.mmh.benchmarks;
+
+import fun.fengwk.mmh.core.service.scrape.parser.CleanedHtml;
+import fun.fengwk.mmh.core.service.scrape.parser.HtmlMainContentCleaner;
+import fun.fengwk.mmh.core.service.scrape.parser.LinkExtractor;
+import fun.fengwk.mmh.core.service.scrape.parser.MarkdownPostProcessor;
+import fun.fengwk.mmh.core.service.scrape.parser.MarkdownRenderer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage and end-to-end benchmarks of the html to markdown pipeline.
+ *
+ * <p>Each stage method starts from the previous stage output prepared in {@link #setUp()}, so stage
+ * numbers are isolated; {@link #pipeline()} runs the same sequence as the scrape runtime.
+ * Run with {@code -prof gc} for allocation rate.
+ *
+ * @author fengwk
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class ScrapePipelineBenchmark {
+
+    @Param({"WIKIPEDIA", "PYTHON_DOCS", "NEWS", "SPA_SHELL"})
+    public CorpusPage page;
+
+    @Param({"true", "false"})
+    public boolean onlyMainContent;
+
+    private final HtmlMainContentCleaner htmlMainContentCleaner = new HtmlMainContentCleaner();
+    private final MarkdownRenderer markdownRenderer = new MarkdownRenderer();
+    private final MarkdownPostProcessor markdownPostProcessor = new MarkdownPostProcessor();
+    private final LinkExtractor linkExtractor = new LinkExtractor();
+
+    private String html;
+    private String baseUrl;
+    private Document document;
+    private CleanedHtml cleaned;
+    private String rawMarkdown;
+
+    @Setup
+    public void setUp() {
+        html = page.load();
+        baseUrl = page.getBaseUrl();
+        document = Jsoup.parse(html, baseUrl);
+        cleaned = clean(document);
+        rawMarkdown = markdownRenderer.render(cleaned.getRoot(), baseUrl);
+    }
+
+    @Benchmark
+    public Document parse() {
+        return Jsoup.parse(html, baseUrl);
+    }
+
+    @Benchmark
+    public CleanedHtml clean() {
+        // Cleaner works on a clone, the shared document stays untouched.
+        return clean(document);
+    }
+
+    @Benchmark
+    public String render() {
+        return markdownRenderer.render(cleaned.getRoot(), baseUrl);
+    }
+
+    @Benchmark
+    public String postProcess() {
+        return markdownPostProcessor.process(rawMarkdown);
+    }
+
+    @Benchmark
+    public List<String> extractLinks() {
+        return linkExtractor.extract(cleaned.getRoot(), baseUrl);
+    }
+
+    @Benchmark
+    public String pipeline() {
+        CleanedHtml pipelineCleaned = clean(Jsoup.parse(html, baseUrl));
+        return markdownPostProcessor.process(markdownRenderer.render(pipelineCleaned.getRoot(), baseUrl));
+    }
+
+    private CleanedHtml clean(Document source) {
+        return htmlMainContentCleaner.clean(source, baseUrl, onlyMainContent, true, true);
+    }
+
+}
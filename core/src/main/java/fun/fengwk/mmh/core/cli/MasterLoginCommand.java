@@ -30,6 +30,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 @RequiredArgsConstructor
 public class MasterLoginCommand implements ApplicationRunner {
 
+    private static final long HANDOFF_RETRY_INTERVAL_MS = 100;
+
     private final LoginLockManager loginLockManager;
     private final MasterLoginRuntime masterLoginRuntime;
     private final BrowserProperties browserProperties;
@@ -46,6 +48,9 @@ public class MasterLoginCommand implements ApplicationRunner {
         Path userDataDir = masterLoginRuntime.resolveUserDataDir(profileId);
         Path lockPath = userDataDir.resolve("browser.lock");
         LoginLockManager.LoginLock loginLock = loginLockManager.tryAcquire(lockPath);
+        if (loginLock == null) {
+            loginLock = requestHandoff(profileId, lockPath);
+        }
         if (loginLock == null) {
             log.warn("login session already running, profileId={}, lockPath={}", profileId, lockPath);
             System.exit(1);
@@ -194,6 +199,22 @@ public class MasterLoginCommand implements ApplicationRunner {
         }
     }
 
+    /**
+     * Ask a running scrape runtime keeping a warm master worker to release the profile, then wait for the lock.
+     */
+    private LoginLockManager.LoginLock requestHandoff(String profileId, Path lockPath) {
+        long handoffTimeoutMs = Math.max(0L, browserProperties.getMasterLoginHandoffTimeoutMs());
+        if (handoffTimeoutMs == 0L || !loginLockManager.requestRelease(lockPath)) {
+            return null;
+        }
+        log.info("master profile busy, requested release, profileId={}, lockPath={}, timeoutMs={}", profileId, lockPath, handoffTimeoutMs);
+        try {
+            return loginLockManager.tryAcquire(lockPath, handoffTimeoutMs, HANDOFF_RETRY_INTERVAL_MS);
+        } finally {
+            loginLockManager.cancelReleaseRequest(lockPath);
+        }
+    }
+
     private long resolveRefreshInterval() {
         long refreshIntervalMs = browserProperties.getMasterLoginRefreshIntervalMs();
         return Math.max(0, refreshIntervalMs);
@@ -1,13 +1,13 @@
 package fun.fengwk.mmh.core.configuration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
 import io.modelcontextprotocol.spec.McpServerTransportProviderBase;
 import org.springframework.ai.mcp.server.common.autoconfigure.McpServerAutoConfiguration;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
 /**
@@ -17,13 +17,16 @@ import org.springframework.context.annotation.Bean;
  */
 @AutoConfiguration(before = McpServerAutoConfiguration.class)
 @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(McpStdioProperties.class)
 public class ConcurrentStdioServerTransportAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
     public McpServerTransportProviderBase concurrentStdioServerTransport(
-        @Qualifier("mcpServerObjectMapper") ObjectMapper mcpServerObjectMapper) {
-        return new ConcurrentStdioServerTransportProvider(new JacksonMcpJsonMapper(mcpServerObjectMapper));
+        @Qualifier("mcpServerObjectMapper") ObjectMapper mcpServerObjectMapper,
+        McpStdioProperties mcpStdioProperties,
+        ToolCallCancellationRegistry toolCallCancellationRegistry) {
+        return new ConcurrentStdioServerTransportProvider(mcpServerObjectMapper, mcpStdioProperties, toolCallCancellationRegistry);
     }
 
 }
@@ -1,7 +1,15 @@
 package fun.fengwk.mmh.core.configuration;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import io.micrometer.core.instrument.Metrics;
 import io.modelcontextprotocol.json.McpJsonMapper;
 import io.modelcontextprotocol.json.TypeRef;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
 import io.modelcontextprotocol.spec.McpError;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpSchema.JSONRPCMessage;
@@ -18,16 +26,17 @@ import reactor.core.publisher.Sinks;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
@@ -38,11 +47,26 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
 
     private static final Logger logger = LoggerFactory.getLogger(ConcurrentStdioServerTransportProvider.class);
 
+    private static final String METRIC_TOOL_BUSY = "mmh.mcp.tool.busy";
+
+    /**
+     * JSON-RPC "Invalid Request", answered for a discarded oversized request.
+     */
+    private static final int INVALID_REQUEST_ERROR_CODE = -32600;
+
     private final McpJsonMapper jsonMapper;
 
+    private final ObjectMapper objectMapper;
+
+    private final int maxMessageBytes;
+
+    private final ToolCallLimiter toolCallLimiter;
+
+    private final ToolCallCancellationRegistry cancellationRegistry;
+
     private final InputStream inputStream;
 
-    private final OutputStream outputStream;
+    private final OutboundWriter outboundWriter;
 
     private McpServerSession session;
 
@@ -50,18 +74,48 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
 
     private final Sinks.One<Void> inboundReady = Sinks.one();
 
+    public ConcurrentStdioServerTransportProvider(ObjectMapper objectMapper, McpStdioProperties properties,
+                                                  ToolCallCancellationRegistry cancellationRegistry) {
+        this(objectMapper, properties, cancellationRegistry, System.in, System.out);
+    }
+
+    /**
+     * Jackson backed provider, messages are parsed from and serialized into the raw byte streams.
+     */
+    public ConcurrentStdioServerTransportProvider(ObjectMapper objectMapper, McpStdioProperties properties,
+                                                  ToolCallCancellationRegistry cancellationRegistry,
+                                                  InputStream inputStream, OutputStream outputStream) {
+        this(new JacksonMcpJsonMapper(objectMapper), objectMapper, properties, cancellationRegistry, inputStream, outputStream);
+    }
+
     public ConcurrentStdioServerTransportProvider(McpJsonMapper jsonMapper) {
         this(jsonMapper, System.in, System.out);
     }
 
     public ConcurrentStdioServerTransportProvider(McpJsonMapper jsonMapper, InputStream inputStream, OutputStream outputStream) {
+        this(jsonMapper, null, new McpStdioProperties(), new ToolCallCancellationRegistry(), inputStream, outputStream);
+    }
+
+    private ConcurrentStdioServerTransportProvider(McpJsonMapper jsonMapper, ObjectMapper objectMapper, McpStdioProperties properties,
+                                                   ToolCallCancellationRegistry cancellationRegistry,
+                                                   InputStream inputStream, OutputStream outputStream) {
         Assert.notNull(jsonMapper, "The JsonMapper can not be null");
+        Assert.notNull(properties, "The McpStdioProperties can not be null");
+        Assert.notNull(cancellationRegistry, "The ToolCallCancellationRegistry can not be null");
         Assert.notNull(inputStream, "The InputStream can not be null");
         Assert.notNull(outputStream, "The OutputStream can not be null");
+        if (properties.getMaxMessageBytes() <= 0) {
+            throw new IllegalArgumentException("The maxMessageBytes must be positive");
+        }
 
         this.jsonMapper = jsonMapper;
+        this.objectMapper = objectMapper;
+        this.maxMessageBytes = properties.getMaxMessageBytes();
+        this.toolCallLimiter = new ToolCallLimiter(properties.getToolCallMaxInFlight(),
+                properties.getLimitedTools() == null ? null : new HashSet<>(properties.getLimitedTools()));
+        this.cancellationRegistry = cancellationRegistry;
         this.inputStream = inputStream;
-        this.outputStream = outputStream;
+        this.outboundWriter = new OutboundWriter(jsonMapper, objectMapper, outputStream);
     }
 
     @Override
@@ -101,6 +155,8 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
         private Scheduler inboundScheduler;
         private Scheduler outboundScheduler;
         private final Sinks.One<Void> outboundReady = Sinks.one();
+        // Messages emitted but not yet written, the output is flushed only when it drops to zero.
+        private final AtomicInteger pendingOutbound = new AtomicInteger();
 
         // Emit timeout: caps the maximum spin-wait duration for concurrent emit contention.
         private static final Duration EMIT_TIMEOUT = Duration.ofSeconds(1);
@@ -117,8 +173,15 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
         public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
             // Use busyLooping to handle FAIL_NON_SERIALIZED from concurrent emit via
             // Thread.onSpinWait(), which is non-blocking and CPU-friendly.
-            return Mono.zip(inboundReady.asMono(), outboundReady.asMono()).then(Mono.fromRunnable(() ->
-                    outboundSink.emitNext(message, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT))));
+            return Mono.zip(inboundReady.asMono(), outboundReady.asMono()).then(Mono.fromRunnable(() -> {
+                pendingOutbound.incrementAndGet();
+                try {
+                    outboundSink.emitNext(message, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+                } catch (RuntimeException e) {
+                    pendingOutbound.decrementAndGet();
+                    throw e;
+                }
+            }));
         }
 
         @Override
@@ -148,28 +211,65 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
         }
 
         private void handleIncomingMessages() {
-            this.inboundSink.asFlux().flatMap(message -> session.handle(message)).doOnTerminate(() -> {
+            this.inboundSink.asFlux().flatMap(this::handleInbound).doOnTerminate(() -> {
                 this.outboundSink.tryEmitComplete();
                 this.inboundScheduler.dispose();
             }).subscribe();
         }
 
+        /**
+         * Slow tool calls need an in-flight permit, without one they are answered busy immediately.
+         */
+        private Mono<Void> handleInbound(JSONRPCMessage message) {
+            if (message instanceof McpSchema.JSONRPCNotification notification
+                    && ToolCallCancellationRegistry.METHOD_NOTIFICATION_CANCELLED.equals(notification.method())) {
+                // Consumed here, the session has no handler for it.
+                cancellationRegistry.cancel(notification);
+                return Mono.empty();
+            }
+            String toolName = toolCallLimiter.limitedToolName(message);
+            if (toolName == null) {
+                return handleCancellable(message);
+            }
+            if (!toolCallLimiter.tryAcquire()) {
+                logger.warn("Rejected busy tool call, tool={}, maxInFlight={}", toolName, toolCallLimiter.getMaxInFlight());
+                Metrics.counter(METRIC_TOOL_BUSY, "tool", toolName).increment();
+                return sendMessage(toolCallLimiter.busyResponse((McpSchema.JSONRPCRequest) message, toolName));
+            }
+            return handleCancellable(message).doFinally(signal -> toolCallLimiter.release());
+        }
+
+        /**
+         * Tool calls get a cancellation token for their lifetime, a later cancel notification trips it.
+         */
+        private Mono<Void> handleCancellable(JSONRPCMessage message) {
+            if (!(message instanceof McpSchema.JSONRPCRequest request)
+                    || !McpSchema.METHOD_TOOLS_CALL.equals(request.method())) {
+                return session.handle(message);
+            }
+            CancellationToken cancellationToken = CancellationToken.create();
+            McpSchema.JSONRPCRequest stampedRequest = cancellationRegistry.register(request, cancellationToken);
+            return session.handle(stampedRequest)
+                    .doFinally(signal -> cancellationRegistry.unregister(request.id(), cancellationToken));
+        }
+
         private void startInboundProcessing() {
             if (isStarted.compareAndSet(false, true)) {
                 this.inboundScheduler.schedule(() -> {
                     inboundReady.tryEmitValue(null);
-                    BufferedReader reader = null;
                     try {
-                        reader = new BufferedReader(new InputStreamReader(inputStream));
+                        JsonRpcLineReader reader = new JsonRpcLineReader(inputStream, maxMessageBytes);
                         while (!isClosing.get()) {
                             try {
-                                String line = reader.readLine();
-                                if (line == null || isClosing.get()) {
+                                int length = reader.readLine();
+                                if (length < 0 || isClosing.get()) {
                                     break;
                                 }
-                                logger.debug("Received JSON message: {}", line);
+                                if (logger.isDebugEnabled()) {
+                                    logger.debug("Received JSON message: {}", new String(reader.buffer(), 0, length, StandardCharsets.UTF_8));
+                                }
                                 try {
-                                    McpSchema.JSONRPCMessage message = McpSchema.deserializeJsonRpcMessage(jsonMapper, line);
+                                    McpSchema.JSONRPCMessage message = deserializeMessage(reader.buffer(), length);
                                     Sinks.EmitResult result = this.inboundSink.tryEmitNext(message);
                                     if (result.isFailure()) {
                                          logger.error("Failed to enqueue inbound message: {}", result);
@@ -178,6 +278,13 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
                                     logIfNotClosing("Error processing inbound message", e);
                                     break;
                                 }
+                            } catch (JsonRpcLineReader.OversizedMessageException e) {
+                                // The line is already skipped, keep the session alive and answer it when possible.
+                                logger.warn("Discarded inbound message, id={}, error={}", e.getId(), e.getMessage());
+                                if (e.getId() != null) {
+                                    sendMessage(oversizedResponse(e)).subscribe(null,
+                                            error -> logger.warn("Failed to answer oversized message, id={}", e.getId(), error));
+                                }
                             } catch (IOException e) {
                                 logIfNotClosing("Error reading from stdin", e);
                                 break;
@@ -203,12 +310,11 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
                     .handle((message, sink) -> {
                         if (message != null && !isClosing.get()) {
                             try {
-                                String jsonMessage = jsonMapper.writeValueAsString(message);
-                                jsonMessage = jsonMessage.replace("\r\n", "\\n").replace("\n", "\\n").replace("\r", "\\n");
-                                synchronized (outputStream) {
-                                    outputStream.write(jsonMessage.getBytes(StandardCharsets.UTF_8));
-                                    outputStream.write("\n".getBytes(StandardCharsets.UTF_8));
-                                    outputStream.flush();
+                                // Only the outbound scheduler thread writes, so no lock is needed.
+                                outboundWriter.write(message);
+                                // A burst of queued responses shares one flush.
+                                if (pendingOutbound.decrementAndGet() == 0) {
+                                    outboundWriter.flush();
                                 }
                                 sink.next(message);
                             } catch (IOException e) {
@@ -225,6 +331,7 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
                     })
                     .doOnComplete(() -> {
                         isClosing.set(true);
+                        outboundWriter.flushQuietly();
                         outboundScheduler.dispose();
                     })
                     .doOnError(e -> {
@@ -239,10 +346,87 @@ public class ConcurrentStdioServerTransportProvider implements McpServerTranspor
             outboundConsumer.apply(outboundSink.asFlux()).subscribe();
         }
 
+        private McpSchema.JSONRPCResponse oversizedResponse(JsonRpcLineReader.OversizedMessageException e) {
+            return new McpSchema.JSONRPCResponse(
+                    McpSchema.JSONRPC_VERSION,
+                    e.getId(),
+                    null,
+                    new McpSchema.JSONRPCResponse.JSONRPCError(INVALID_REQUEST_ERROR_CODE, e.getMessage(), null)
+            );
+        }
+
+        /**
+         * Same dispatch as {@link McpSchema#deserializeJsonRpcMessage}, but parsed straight from the line bytes.
+         */
+        private McpSchema.JSONRPCMessage deserializeMessage(byte[] buffer, int length) throws IOException {
+            if (objectMapper == null) {
+                return McpSchema.deserializeJsonRpcMessage(jsonMapper, new String(buffer, 0, length, StandardCharsets.UTF_8));
+            }
+            JsonNode node = objectMapper.readTree(buffer, 0, length);
+            if (node.has("method")) {
+                return objectMapper.treeToValue(node, node.has("id")
+                        ? McpSchema.JSONRPCRequest.class
+                        : McpSchema.JSONRPCNotification.class);
+            }
+            if (node.has("result") || node.has("error")) {
+                return objectMapper.treeToValue(node, McpSchema.JSONRPCResponse.class);
+            }
+            throw new IllegalArgumentException("Cannot deserialize JSONRPCMessage: " + node.getNodeType());
+        }
+
         private void logIfNotClosing(String message, Exception e) {
             if (!isClosing.get()) {
                 logger.error(message, e);
             }
         }
     }
+
+    /**
+     * Newline delimited message writer over a buffered output stream.
+     */
+    private static final class OutboundWriter {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final McpJsonMapper jsonMapper;
+        private final ObjectWriter objectWriter;
+        private final OutputStream outputStream;
+
+        private OutboundWriter(McpJsonMapper jsonMapper, ObjectMapper objectMapper, OutputStream outputStream) {
+            this.jsonMapper = jsonMapper;
+            // Compact Jackson output never contains raw CR/LF since control chars in strings are always
+            // escaped, so a message is one stdio line as-is. The generator must neither close nor flush
+            // stdout, flushing is batched by the caller.
+            this.objectWriter = objectMapper == null ? null : objectMapper.writer()
+                    .without(SerializationFeature.INDENT_OUTPUT)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            this.outputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        }
+
+        private void write(JSONRPCMessage message) throws IOException {
+            if (objectWriter != null) {
+                objectWriter.writeValue(outputStream, message);
+            } else {
+                // Unknown mapper, its output may be pretty printed.
+                String jsonMessage = jsonMapper.writeValueAsString(message);
+                jsonMessage = jsonMessage.replace("\r\n", "\\n").replace("\n", "\\n").replace("\r", "\\n");
+                outputStream.write(jsonMessage.getBytes(StandardCharsets.UTF_8));
+            }
+            outputStream.write('\n');
+        }
+
+        private void flush() throws IOException {
+            outputStream.flush();
+        }
+
+        private void flushQuietly() {
+            try {
+                outputStream.flush();
+            } catch (IOException e) {
+                logger.debug("Failed to flush stdout on close", e);
+            }
+        }
+
+    }
 }
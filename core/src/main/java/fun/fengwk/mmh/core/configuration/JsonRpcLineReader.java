@@ -0,0 +1,343 @@
+package fun.fengwk.mmh.core.configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Newline delimited message framer over a raw byte stream.
+ *
+ * <p>Each line is collected into a reusable byte buffer so it can be parsed straight from bytes,
+ * without decoding it into a String first. Lines longer than the limit are skipped to the next
+ * newline without being buffered, only their head and a short tail are kept to recover the request
+ * id so the caller can still answer the request.
+ *
+ * @author fengwk
+ */
+final class JsonRpcLineReader {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final int INITIAL_LINE_CAPACITY = 8 * 1024;
+
+    /**
+     * Line buffer capacity kept between lines, a buffer grown beyond it for one large line is dropped.
+     */
+    private static final int RETAINED_LINE_CAPACITY = 64 * 1024;
+
+    /**
+     * Head bytes of a discarded line searched for a top-level {@code "id"} member.
+     */
+    private static final int ID_SCAN_HEAD_BYTES = 4 * 1024;
+
+    /**
+     * Tail bytes of a discarded line kept for an {@code "id"} serialized as the last member.
+     */
+    private static final int ID_SCAN_TAIL_BYTES = 256;
+
+    private final InputStream inputStream;
+    private final int maxMessageBytes;
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private int readPosition;
+    private int readLimit;
+    private byte[] line = new byte[INITIAL_LINE_CAPACITY];
+    private int lineLength;
+    private final byte[] tail = new byte[ID_SCAN_TAIL_BYTES];
+    private int tailLength;
+
+    JsonRpcLineReader(InputStream inputStream, int maxMessageBytes) {
+        if (maxMessageBytes <= 0) {
+            throw new IllegalArgumentException("maxMessageBytes must be positive");
+        }
+        this.inputStream = inputStream;
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    /**
+     * Read the next non-blank line into {@link #buffer()}, the line feed is not included.
+     *
+     * @return line length, or -1 at end of stream
+     * @throws OversizedMessageException if the line exceeds the limit, the line is skipped already
+     */
+    int readLine() throws IOException {
+        // The previous line may still be referenced until now, so the buffer is only shrunk here.
+        if (line.length > RETAINED_LINE_CAPACITY) {
+            line = new byte[INITIAL_LINE_CAPACITY];
+        }
+        while (true) {
+            lineLength = 0;
+            tailLength = 0;
+            long totalLength = 0;
+            boolean lineRead = false;
+            while (true) {
+                if (readPosition >= readLimit && !fill()) {
+                    if (!lineRead) {
+                        return -1;
+                    }
+                    break;
+                }
+                lineRead = true;
+                int end = indexOfLineFeed();
+                int chunkLength = (end < 0 ? readLimit : end) - readPosition;
+                totalLength += chunkLength;
+                if (totalLength <= maxMessageBytes) {
+                    append(chunkLength);
+                }
+                rememberTail(chunkLength);
+                if (end < 0) {
+                    readPosition = readLimit;
+                } else {
+                    readPosition = end + 1;
+                    break;
+                }
+            }
+            if (totalLength > maxMessageBytes) {
+                Object id = extractId();
+                lineLength = 0;
+                throw new OversizedMessageException(totalLength, maxMessageBytes, id);
+            }
+            if (!isBlank()) {
+                return lineLength;
+            }
+        }
+    }
+
+    /**
+     * Bytes of the last line read, valid until the next {@link #readLine()}.
+     */
+    byte[] buffer() {
+        return line;
+    }
+
+    int lineCapacity() {
+        return line.length;
+    }
+
+    private boolean fill() throws IOException {
+        int read = inputStream.read(readBuffer, 0, readBuffer.length);
+        if (read <= 0) {
+            readPosition = 0;
+            readLimit = 0;
+            return false;
+        }
+        readPosition = 0;
+        readLimit = read;
+        return true;
+    }
+
+    private int indexOfLineFeed() {
+        for (int i = readPosition; i < readLimit; i++) {
+            if (readBuffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(int length) {
+        int required = lineLength + length;
+        if (required > line.length) {
+            int newCapacity = (int) Math.min(maxMessageBytes, Math.max(required, (long) line.length * 2));
+            line = Arrays.copyOf(line, newCapacity);
+        }
+        System.arraycopy(readBuffer, readPosition, line, lineLength, length);
+        lineLength = required;
+    }
+
+    private void rememberTail(int length) {
+        if (length >= ID_SCAN_TAIL_BYTES) {
+            System.arraycopy(readBuffer, readPosition + length - ID_SCAN_TAIL_BYTES, tail, 0, ID_SCAN_TAIL_BYTES);
+            tailLength = ID_SCAN_TAIL_BYTES;
+            return;
+        }
+        int keep = Math.min(tailLength, ID_SCAN_TAIL_BYTES - length);
+        System.arraycopy(tail, tailLength - keep, tail, 0, keep);
+        System.arraycopy(readBuffer, readPosition, tail, keep, length);
+        tailLength = keep + length;
+    }
+
+    /**
+     * Recover the request id of a discarded line, a top-level member in the head or the last member.
+     *
+     * @return String or Long id, {@code null} when it cannot be recovered
+     */
+    private Object extractId() {
+        Object id = extractHeadId(line, Math.min(lineLength, ID_SCAN_HEAD_BYTES));
+        return id != null ? id : extractTailId(tail, tailLength);
+    }
+
+    static Object extractHeadId(byte[] bytes, int length) {
+        int depth = 0;
+        int i = 0;
+        while (i < length) {
+            byte b = bytes[i];
+            if (b == '"') {
+                int end = skipString(bytes, i, length);
+                if (end < 0) {
+                    return null;
+                }
+                if (depth == 1 && end - i == 3 && bytes[i + 1] == 'i' && bytes[i + 2] == 'd') {
+                    int colon = skipWhitespace(bytes, end + 1, length);
+                    if (colon < length && bytes[colon] == ':') {
+                        return parseIdValue(bytes, skipWhitespace(bytes, colon + 1, length), length, true);
+                    }
+                }
+                i = end + 1;
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return null;
+    }
+
+    static Object extractTailId(byte[] bytes, int length) {
+        int end = length - 1;
+        while (end >= 0 && isWhitespace(bytes[end])) {
+            end--;
+        }
+        if (end < 0 || bytes[end] != '}') {
+            return null;
+        }
+        // Match a trailing `"id" : value }`, values are numbers or strings without escapes.
+        int valueEnd = end - 1;
+        while (valueEnd >= 0 && isWhitespace(bytes[valueEnd])) {
+            valueEnd--;
+        }
+        int valueStart = valueEnd;
+        if (valueStart >= 0 && bytes[valueStart] == '"') {
+            valueStart--;
+            while (valueStart >= 0 && bytes[valueStart] != '"' && bytes[valueStart] != '\\') {
+                valueStart--;
+            }
+        } else {
+            while (valueStart >= 0 && (Character.isDigit(bytes[valueStart]) || bytes[valueStart] == '-')) {
+                valueStart--;
+            }
+            valueStart++;
+        }
+        if (valueStart < 0 || valueStart > valueEnd) {
+            return null;
+        }
+        int colon = valueStart - 1;
+        while (colon >= 0 && isWhitespace(bytes[colon])) {
+            colon--;
+        }
+        int keyEnd = colon - 1;
+        while (keyEnd >= 0 && isWhitespace(bytes[keyEnd])) {
+            keyEnd--;
+        }
+        if (colon < 0 || bytes[colon] != ':' || keyEnd < 4
+            || bytes[keyEnd] != '"' || bytes[keyEnd - 1] != 'd' || bytes[keyEnd - 2] != 'i' || bytes[keyEnd - 3] != '"') {
+            return null;
+        }
+        int separator = keyEnd - 4;
+        while (separator >= 0 && isWhitespace(bytes[separator])) {
+            separator--;
+        }
+        if (separator < 0 || (bytes[separator] != ',' && bytes[separator] != '{')) {
+            return null;
+        }
+        return parseIdValue(bytes, valueStart, valueEnd + 1, false);
+    }
+
+    /**
+     * @param truncated whether the bytes may stop in the middle of the value
+     */
+    private static Object parseIdValue(byte[] bytes, int start, int length, boolean truncated) {
+        if (start >= length) {
+            return null;
+        }
+        if (bytes[start] == '"') {
+            int end = skipString(bytes, start, length);
+            if (end < 0) {
+                return null;
+            }
+            for (int i = start + 1; i < end; i++) {
+                if (bytes[i] == '\\') {
+                    return null;
+                }
+            }
+            return new String(bytes, start + 1, end - start - 1, StandardCharsets.UTF_8);
+        }
+        int end = start;
+        if (end < length && bytes[end] == '-') {
+            end++;
+        }
+        while (end < length && Character.isDigit(bytes[end])) {
+            end++;
+        }
+        // A number cut off by the scan window cannot be trusted.
+        if (end == start || truncated && end >= length) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return index of the closing quote, -1 when the string is cut off
+     */
+    private static int skipString(byte[] bytes, int start, int length) {
+        for (int i = start + 1; i < length; i++) {
+            if (bytes[i] == '\\') {
+                i++;
+            } else if (bytes[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int start, int length) {
+        int i = start;
+        while (i < length && isWhitespace(bytes[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    private boolean isBlank() {
+        for (int i = 0; i < lineLength; i++) {
+            byte b = line[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Thrown when a line exceeds the configured limit, the reader stays usable.
+     */
+    static final class OversizedMessageException extends IOException {
+
+        private final transient Object id;
+
+        OversizedMessageException(long length, int maxMessageBytes, Object id) {
+            super("inbound message too large, length=" + length + ", maxMessageBytes=" + maxMessageBytes);
+            this.id = id;
+        }
+
+        /**
+         * Recovered request id, {@code null} when the discarded line did not reveal it.
+         */
+        Object getId() {
+            return id;
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package fun.fengwk.mmh.core.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stdio MCP transport configuration.
+ *
+ * @author fengwk
+ */
+@Data
+@ConfigurationProperties(prefix = "mmh.mcp.stdio")
+public class McpStdioProperties {
+
+    /**
+     * Maximum bytes of one inbound JSON-RPC message line, longer lines are discarded.
+     *
+     * <p>A discarded request is answered with a -32600 error when its id is a top-level member within
+     * the first 4 KiB or the last member of the line. Otherwise the id cannot be recovered and the
+     * request is only logged, the client sees it time out.
+     */
+    private int maxMessageBytes = 8 * 1024 * 1024;
+
+    /**
+     * Maximum in-flight calls of the limited tools, further calls are rejected as busy, 0 disables the limit.
+     */
+    private int toolCallMaxInFlight = 8;
+
+    /**
+     * Slow tools subject to the in-flight limit, other tools are never rejected.
+     */
+    private List<String> limitedTools = new ArrayList<>(List.of("scrape", "batch_scrape", "search"));
+
+}
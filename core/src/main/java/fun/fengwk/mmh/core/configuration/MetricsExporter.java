@@ -0,0 +1,139 @@
+package fun.fengwk.mmh.core.configuration;
+
+import fun.fengwk.convention4j.common.lang.StringUtils;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.jmx.JmxConfig;
+import io.micrometer.jmx.JmxMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes meters of {@link Metrics#globalRegistry} without an HTTP port.
+ *
+ * <p>Runtime objects record into the global registry directly, most of them are not Spring beans.
+ * This exporter attaches a JMX registry and a snapshot registry to it, the snapshot is rewritten to
+ * a local text file periodically and once more on shutdown.
+ *
+ * @author fengwk
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetricsExporter {
+
+    private final MetricsProperties metricsProperties;
+    private final MmhProperties mmhProperties;
+
+    private final List<MeterRegistry> registries = new ArrayList<>();
+    private SimpleMeterRegistry snapshotRegistry;
+    private Path snapshotPath;
+    private ScheduledExecutorService snapshotExecutor;
+
+    @PostConstruct
+    public void start() {
+        if (!metricsProperties.isEnabled()) {
+            return;
+        }
+        if (metricsProperties.isJmxEnabled()) {
+            String domain = metricsProperties.getJmxDomain();
+            addRegistry(new JmxMeterRegistry(new JmxConfig() {
+                @Override
+                public String get(String key) {
+                    return null;
+                }
+
+                @Override
+                public String domain() {
+                    return StringUtils.isBlank(domain) ? JmxConfig.super.domain() : domain;
+                }
+            }, Clock.SYSTEM));
+            log.info("metrics jmx export enabled, domain={}", domain);
+        }
+        if (metricsProperties.isFileEnabled()) {
+            snapshotRegistry = new SimpleMeterRegistry();
+            addRegistry(snapshotRegistry);
+            snapshotPath = resolveSnapshotPath();
+            long intervalMs = Math.max(1000L, metricsProperties.getFileIntervalMs());
+            snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mmh-metrics-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotExecutor.scheduleWithFixedDelay(this::writeSnapshot, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            log.info("metrics file export enabled, path={}, intervalMs={}", snapshotPath, intervalMs);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdownNow();
+            writeSnapshot();
+        }
+        for (MeterRegistry registry : registries) {
+            Metrics.removeRegistry(registry);
+            registry.close();
+        }
+        registries.clear();
+    }
+
+    /**
+     * Rewrite the snapshot file atomically, readers never see a partial file.
+     */
+    void writeSnapshot() {
+        if (snapshotRegistry == null) {
+            return;
+        }
+        String snapshot = "# mmh metrics snapshot at " + Instant.now() + System.lineSeparator()
+            + snapshotRegistry.getMetersAsString() + System.lineSeparator();
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(snapshotPath.getParent());
+            Files.writeString(tempPath, snapshot, StandardCharsets.UTF_8);
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception ex) {
+            log.warn("write metrics snapshot failed, path={}, error={}", snapshotPath, ex.getMessage());
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException ignored) {
+                // Best effort cleanup.
+            }
+        }
+    }
+
+    Path getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    private void addRegistry(MeterRegistry registry) {
+        registries.add(registry);
+        Metrics.addRegistry(registry);
+    }
+
+    private Path resolveSnapshotPath() {
+        String filePath = StringUtils.isBlank(metricsProperties.getFilePath())
+            ? mmhProperties.getMetricsFilePath()
+            : metricsProperties.getFilePath();
+        return Paths.get(filePath).toAbsolutePath().normalize();
+    }
+
+}
@@ -0,0 +1,47 @@
+package fun.fengwk.mmh.core.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Metrics export configuration.
+ *
+ * @author fengwk
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mmh.metrics")
+public class MetricsProperties {
+
+    /**
+     * Whether recorded meters are exported at all, meters are no-ops when disabled.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether meters are published as JMX MBeans.
+     */
+    private boolean jmxEnabled = true;
+
+    /**
+     * JMX domain of the published MBeans.
+     */
+    private String jmxDomain = "mmh";
+
+    /**
+     * Whether a text snapshot of all meters is written to a local file periodically.
+     */
+    private boolean fileEnabled = true;
+
+    /**
+     * Snapshot file path, blank means {@code <config-path>/metrics.txt}.
+     */
+    private String filePath;
+
+    /**
+     * Interval between two snapshot file writes.
+     */
+    private long fileIntervalMs = 60000;
+
+}
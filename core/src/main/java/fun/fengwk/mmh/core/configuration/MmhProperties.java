@@ -30,6 +30,15 @@ public class MmhProperties {
         return getSubPath("browser-data");
     }
 
+    /**
+     * 获取抓取结果缓存目录路径
+     *
+     * @return scrape-cache 目录路径
+     */
+    public String getScrapeCachePath() {
+        return getSubPath("scrape-cache");
+    }
+
     /**
      * 获取 Skill 仓库存储目录路径
      *
@@ -39,6 +48,15 @@ public class MmhProperties {
         return getSubPath("skill-repos");
     }
 
+    /**
+     * 获取指标快照文件路径
+     *
+     * @return metrics.txt 文件路径
+     */
+    public String getMetricsFilePath() {
+        return getSubPath("metrics.txt");
+    }
+
     /**
      * 获取子目录路径
      *
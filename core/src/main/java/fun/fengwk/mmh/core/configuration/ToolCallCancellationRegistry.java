@@ -0,0 +1,105 @@
+package fun.fengwk.mmh.core.configuration;
+
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cancellation tokens of in-flight {@code tools/call} requests, keyed by JSON-RPC request id.
+ *
+ * <p>The transport registers a token for every tool call and stamps the request id into the call
+ * {@code _meta}, since sync tool handlers never see the JSON-RPC envelope. A later
+ * {@code notifications/cancelled} for that id cancels the token the handler picked up.
+ *
+ * @author fengwk
+ */
+@Slf4j
+@Component
+public class ToolCallCancellationRegistry {
+
+    /**
+     * Method of the MCP cancellation notification.
+     */
+    static final String METHOD_NOTIFICATION_CANCELLED = "notifications/cancelled";
+
+    /**
+     * {@code _meta} key carrying the JSON-RPC request id to the tool handler.
+     */
+    static final String REQUEST_ID_META_KEY = "fun.fengwk.mmh/requestId";
+
+    private final Map<String, CancellationToken> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * Register a token for the tool call and return the request with the id stamped into {@code _meta}.
+     *
+     * @return stamped request, or the request itself when it is not a tool call
+     */
+    McpSchema.JSONRPCRequest register(McpSchema.JSONRPCRequest request, CancellationToken cancellationToken) {
+        if (!McpSchema.METHOD_TOOLS_CALL.equals(request.method())
+            || request.id() == null
+            || !(request.params() instanceof Map<?, ?> params)) {
+            return request;
+        }
+        String key = String.valueOf(request.id());
+        tokens.put(key, cancellationToken);
+
+        Map<String, Object> stampedParams = new LinkedHashMap<>();
+        params.forEach((name, value) -> stampedParams.put(String.valueOf(name), value));
+        Map<String, Object> meta = new LinkedHashMap<>();
+        if (params.get("_meta") instanceof Map<?, ?> existingMeta) {
+            existingMeta.forEach((name, value) -> meta.put(String.valueOf(name), value));
+        }
+        meta.put(REQUEST_ID_META_KEY, key);
+        stampedParams.put("_meta", meta);
+        return new McpSchema.JSONRPCRequest(request.jsonrpc(), request.method(), request.id(), stampedParams);
+    }
+
+    void unregister(Object requestId, CancellationToken cancellationToken) {
+        tokens.remove(String.valueOf(requestId), cancellationToken);
+    }
+
+    /**
+     * Cancel the tool call named by a {@code notifications/cancelled} notification.
+     *
+     * @return {@code true} when an in-flight call was cancelled
+     */
+    boolean cancel(McpSchema.JSONRPCNotification notification) {
+        if (!(notification.params() instanceof Map<?, ?> params) || params.get("requestId") == null) {
+            return false;
+        }
+        String key = String.valueOf(params.get("requestId"));
+        CancellationToken cancellationToken = tokens.get(key);
+        if (cancellationToken == null) {
+            // Already finished, or not a tool call.
+            return false;
+        }
+        Object reason = params.get("reason");
+        boolean cancelled = cancellationToken.cancel(reason == null ? null : String.valueOf(reason));
+        if (cancelled) {
+            log.info("tool call cancelled by client, requestId={}, reason={}", key, cancellationToken.getReason());
+        }
+        return cancelled;
+    }
+
+    /**
+     * Token of the tool call, {@link CancellationToken#none()} when the call was not registered.
+     */
+    public CancellationToken tokenOf(McpSchema.CallToolRequest request) {
+        if (request == null || request.meta() == null) {
+            return CancellationToken.none();
+        }
+        Object key = request.meta().get(REQUEST_ID_META_KEY);
+        CancellationToken cancellationToken = key == null ? null : tokens.get(String.valueOf(key));
+        return cancellationToken == null ? CancellationToken.none() : cancellationToken;
+    }
+
+    int size() {
+        return tokens.size();
+    }
+
+}
@@ -0,0 +1,78 @@
+package fun.fengwk.mmh.core.configuration;
+
+import io.modelcontextprotocol.spec.McpSchema;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Admission control for slow MCP tool calls.
+ *
+ * <p>Calls of the limited tools share a fixed number of in-flight permits. When none is left the call
+ * is answered with a busy error right away instead of queueing, so slow tools can never occupy
+ * every handler thread and fast tools stay responsive.
+ *
+ * @author fengwk
+ */
+final class ToolCallLimiter {
+
+    /**
+     * JSON-RPC implementation defined server error.
+     */
+    static final int BUSY_ERROR_CODE = -32000;
+
+    private final int maxInFlight;
+    private final Set<String> limitedTools;
+    private final Semaphore permits;
+
+    ToolCallLimiter(int maxInFlight, Set<String> limitedTools) {
+        this.maxInFlight = maxInFlight;
+        this.limitedTools = limitedTools == null ? Set.of() : Set.copyOf(limitedTools);
+        this.permits = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+    }
+
+    /**
+     * Tool name when the message is a {@code tools/call} request subject to the limit, otherwise null.
+     */
+    String limitedToolName(McpSchema.JSONRPCMessage message) {
+        if (permits == null
+            || !(message instanceof McpSchema.JSONRPCRequest request)
+            || !McpSchema.METHOD_TOOLS_CALL.equals(request.method())
+            || !(request.params() instanceof Map<?, ?> params)
+            || !(params.get("name") instanceof String name)) {
+            return null;
+        }
+        return limitedTools.contains(name) ? name : null;
+    }
+
+    boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    int getInFlight() {
+        return permits == null ? 0 : maxInFlight - permits.availablePermits();
+    }
+
+    McpSchema.JSONRPCResponse busyResponse(McpSchema.JSONRPCRequest request, String toolName) {
+        return new McpSchema.JSONRPCResponse(
+            McpSchema.JSONRPC_VERSION,
+            request.id(),
+            null,
+            new McpSchema.JSONRPCResponse.JSONRPCError(
+                BUSY_ERROR_CODE,
+                "server busy: too many slow tool calls in flight (max " + maxInFlight + "), retry " + toolName + " later",
+                null
+            )
+        );
+    }
+
+}
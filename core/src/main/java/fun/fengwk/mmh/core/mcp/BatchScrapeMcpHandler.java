@@ -0,0 +1,118 @@
+package fun.fengwk.mmh.core.mcp;
+
+import fun.fengwk.convention4j.common.lang.StringUtils;
+import fun.fengwk.mmh.core.service.UtilMcpService;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import fun.fengwk.mmh.core.service.browser.runtime.ProfileType;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import io.micrometer.core.instrument.Metrics;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch scrape MCP handler.
+ *
+ * @author fengwk
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchScrapeMcpHandler {
+
+    private final UtilMcpService utilMcpService;
+    private final ScrapeMcpResultMapper scrapeMcpResultMapper;
+    private final ScrapeProperties scrapeProperties;
+
+    public McpSchema.CallToolResult handle(McpSchema.CallToolRequest request) {
+        return handle(request, CancellationToken.none(), ScrapeProgressListener.NOOP);
+    }
+
+    public McpSchema.CallToolResult handle(
+        McpSchema.CallToolRequest request,
+        CancellationToken cancellationToken,
+        ScrapeProgressListener progressListener
+    ) {
+        long startAt = System.currentTimeMillis();
+        try {
+            Map<String, Object> arguments = McpToolSupport.arguments(request);
+            List<String> rawUrls = McpToolSupport.requiredStringList(arguments, "urls");
+            if (rawUrls.isEmpty()) {
+                return errorResult("urls is empty", null);
+            }
+            if (rawUrls.size() > scrapeProperties.getBatchMaxUrls()) {
+                return errorResult("too many urls, max: " + scrapeProperties.getBatchMaxUrls(), null);
+            }
+            // Invalid urls are reported per item by the scrape service, only trim here.
+            List<String> urls = new ArrayList<>(rawUrls.size());
+            for (String url : rawUrls) {
+                urls.add(url == null ? "" : url.trim());
+            }
+
+            String format = McpToolSupport.optionalString(arguments, "format");
+            if (StringUtils.isNotBlank(format)) {
+                String supportedFormat = resolveSupportedFormat(format.trim());
+                if (supportedFormat == null) {
+                    return errorResult("unsupported format: " + format.trim() + ", supported formats: "
+                        + ScrapeMcpToolDefinition.SUPPORTED_FORMATS_HINT, format.trim());
+                }
+                format = supportedFormat;
+            } else {
+                format = null;
+            }
+
+            String profileMode = McpToolSupport.optionalString(arguments, "profileMode");
+            Boolean onlyMainContent = McpToolSupport.optionalBoolean(arguments, "onlyMainContent");
+            Integer waitFor = McpToolSupport.optionalInteger(arguments, "waitFor");
+            Integer concurrency = McpToolSupport.optionalInteger(arguments, "concurrency");
+
+            if (waitFor != null && (waitFor < 0 || waitFor > 60000)) {
+                return errorResult("waitFor out of range", format);
+            }
+            if (concurrency != null && concurrency < 1) {
+                return errorResult("concurrency must be positive", format);
+            }
+            try {
+                ProfileType.fromValue(profileMode);
+            } catch (IllegalArgumentException ex) {
+                return errorResult(ex.getMessage(), format);
+            }
+
+            List<ScrapeResponse> responses = utilMcpService.batchScrape(
+                urls, format, onlyMainContent, waitFor, profileMode, concurrency, cancellationToken, progressListener
+            );
+            long elapsedMs = System.currentTimeMillis() - startAt;
+            return Metrics.timer(ScrapeMcpHandler.METRIC_RESULT_SERIALIZE, "tool", "batch_scrape")
+                .record(() -> scrapeMcpResultMapper.toBatchResult(urls, responses, elapsedMs));
+        } catch (IllegalArgumentException ex) {
+            return errorResult(ex.getMessage(), null);
+        } catch (Exception ex) {
+            log.warn("batch scrape tool call failed, error={}", ex.getMessage(), ex);
+            return errorResult(ex.getMessage(), null);
+        }
+    }
+
+    private McpSchema.CallToolResult errorResult(String error, String format) {
+        return scrapeMcpResultMapper.toResult("", ScrapeResponse.builder()
+            .error(error)
+            .format(format)
+            .build());
+    }
+
+    private String resolveSupportedFormat(String format) {
+        for (String supportedFormat : ScrapeMcpToolDefinition.SUPPORTED_FORMATS) {
+            if (supportedFormat.equalsIgnoreCase(format)) {
+                return supportedFormat;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,75 @@
+package fun.fengwk.mmh.core.mcp;
+
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch scrape MCP tool definition.
+ *
+ * @author fengwk
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchScrapeMcpToolDefinition {
+
+    private final ScrapeProperties scrapeProperties;
+
+    public McpSchema.Tool tool() {
+        int maxUrls = scrapeProperties.getBatchMaxUrls();
+        int maxConcurrency = scrapeProperties.getBatchMaxConcurrency();
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        Map<String, Object> urlsProperty = McpToolSupport.arrayProperty(
+            "Target page URLs. Each must be a fully-qualified http/https URL. Max " + maxUrls + " URLs.",
+            McpToolSupport.stringProperty("Target page URL.")
+        );
+        urlsProperty.put("minItems", 1);
+        urlsProperty.put("maxItems", maxUrls);
+        properties.put("urls", urlsProperty);
+
+        Map<String, Object> formatProperty = McpToolSupport.stringProperty("Output format shared by all URLs. Optional, default markdown. Allowed: markdown, links, screenshot, fullscreenshot.");
+        formatProperty.put("enum", ScrapeMcpToolDefinition.SUPPORTED_FORMATS);
+        properties.put("format", formatProperty);
+
+        Map<String, Object> profileModeProperty = McpToolSupport.stringProperty("Browser profile mode. Optional, default default. Allowed: default, master.");
+        profileModeProperty.put("enum", List.of("default", "master"));
+        properties.put("profileMode", profileModeProperty);
+
+        properties.put("onlyMainContent", McpToolSupport.booleanProperty("Keep only main content for text outputs. Optional, default false."));
+
+        Map<String, Object> waitForProperty = McpToolSupport.integerProperty("Fixed wait in milliseconds after DOMContentLoaded. Optional. If > 0, skips smart wait. Range: 0-60000.");
+        waitForProperty.put("minimum", 0);
+        waitForProperty.put("maximum", 60000);
+        properties.put("waitFor", waitForProperty);
+
+        Map<String, Object> concurrencyProperty = McpToolSupport.integerProperty("Parallel scrapes for this batch. Optional, default and max " + maxConcurrency + ".");
+        concurrencyProperty.put("minimum", 1);
+        concurrencyProperty.put("maximum", maxConcurrency);
+        properties.put("concurrency", concurrencyProperty);
+
+        return McpSchema.Tool.builder()
+            .name("batch_scrape")
+            .description("""
+                batch_scrape, Fetches several URLs in parallel with shared options, results keep input order.
+                Usage:
+                - Required input: urls
+                - Optional input: format, profileMode, onlyMainContent, waitFor, concurrency
+                - Prefer this over repeated scrape calls when more than one page is needed
+                - profileMode=master runs URLs one by one, the master profile is serialized
+                - Items not finished before the batch deadline are reported as errors
+                Output:
+                - Summary header (total, succeeded, failed, elapsedMs), then one section per URL
+                - Each section has a metadata header (index, url, format, elapsedMs) and content or error
+                - Media/screenshot items are attached as protocol-level image/resource content
+                """)
+            .inputSchema(McpToolSupport.jsonSchema(properties, List.of("urls")))
+            .build();
+    }
+
+}
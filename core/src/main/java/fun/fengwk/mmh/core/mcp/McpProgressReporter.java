@@ -0,0 +1,65 @@
+package fun.fengwk.mmh.core.mcp;
+
+import fun.fengwk.mmh.core.service.scrape.model.ScrapePhase;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Relays scrape progress as MCP {@code notifications/progress} of one tool call.
+ *
+ * <p>Only calls carrying a {@code progressToken} in {@code _meta} get a reporter. Progress must
+ * increase per token, events racing from batch drainers that would go backwards are dropped.
+ *
+ * @author fengwk
+ */
+@Slf4j
+final class McpProgressReporter implements ScrapeProgressListener {
+
+    static final String PROGRESS_TOKEN_META_KEY = "progressToken";
+
+    private final McpSyncServerExchange exchange;
+    private final Object progressToken;
+    private double lastProgress;
+
+    private McpProgressReporter(McpSyncServerExchange exchange, Object progressToken) {
+        this.exchange = exchange;
+        this.progressToken = progressToken;
+    }
+
+    /**
+     * Reporter of the tool call, {@link ScrapeProgressListener#NOOP} when the client asked for no progress.
+     */
+    static ScrapeProgressListener of(McpSyncServerExchange exchange, McpSchema.CallToolRequest request) {
+        if (exchange == null || request == null || request.meta() == null) {
+            return ScrapeProgressListener.NOOP;
+        }
+        Object progressToken = request.meta().get(PROGRESS_TOKEN_META_KEY);
+        return progressToken == null ? ScrapeProgressListener.NOOP : new McpProgressReporter(exchange, progressToken);
+    }
+
+    @Override
+    public void onPhaseCompleted(ScrapePhase phase, long elapsedMs) {
+        send(phase.ordinal() + 1, ScrapePhase.values().length, phase.getValue() + " done in " + elapsedMs + "ms");
+    }
+
+    @Override
+    public void onItemCompleted(int completed, int total, String url) {
+        send(completed, total, "scraped " + completed + "/" + total + ": " + url);
+    }
+
+    private synchronized void send(double progress, double total, String message) {
+        if (progress <= lastProgress) {
+            return;
+        }
+        lastProgress = progress;
+        try {
+            exchange.progressNotification(new McpSchema.ProgressNotification(progressToken, progress, total, message));
+        } catch (Exception ex) {
+            // Progress is best effort, the tool result still reaches the client.
+            log.debug("send progress notification failed, progressToken={}, error={}", progressToken, ex.getMessage());
+        }
+    }
+
+}
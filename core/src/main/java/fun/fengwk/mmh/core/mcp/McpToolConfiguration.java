@@ -1,5 +1,6 @@
 package fun.fengwk.mmh.core.mcp;
 
+import fun.fengwk.mmh.core.configuration.ToolCallCancellationRegistry;
 import fun.fengwk.mmh.core.service.skill.SkillProperties;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -24,7 +25,10 @@ public class McpToolConfiguration {
         SkillMcpToolDefinition skillMcpToolDefinition,
         SkillMcpHandler skillMcpHandler,
         ScrapeMcpToolDefinition scrapeMcpToolDefinition,
-        ScrapeMcpHandler scrapeMcpHandler
+        ScrapeMcpHandler scrapeMcpHandler,
+        BatchScrapeMcpToolDefinition batchScrapeMcpToolDefinition,
+        BatchScrapeMcpHandler batchScrapeMcpHandler,
+        ToolCallCancellationRegistry toolCallCancellationRegistry
     ) {
         List<McpServerFeatures.SyncToolSpecification> specifications = new ArrayList<>();
         if (skillProperties.isMcpToolEnabled()) {
@@ -35,7 +39,19 @@ public class McpToolConfiguration {
         }
         specifications.add(McpServerFeatures.SyncToolSpecification.builder()
             .tool(scrapeMcpToolDefinition.tool())
-            .callHandler((exchange, request) -> scrapeMcpHandler.handle(request))
+            .callHandler((exchange, request) -> scrapeMcpHandler.handle(
+                request,
+                toolCallCancellationRegistry.tokenOf(request),
+                McpProgressReporter.of(exchange, request)
+            ))
+            .build());
+        specifications.add(McpServerFeatures.SyncToolSpecification.builder()
+            .tool(batchScrapeMcpToolDefinition.tool())
+            .callHandler((exchange, request) -> batchScrapeMcpHandler.handle(
+                request,
+                toolCallCancellationRegistry.tokenOf(request),
+                McpProgressReporter.of(exchange, request)
+            ))
             .build());
         return specifications;
     }
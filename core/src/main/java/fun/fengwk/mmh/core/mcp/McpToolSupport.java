@@ -3,6 +3,7 @@ package fun.fengwk.mmh.core.mcp;
 import fun.fengwk.convention4j.common.lang.StringUtils;
 import io.modelcontextprotocol.spec.McpSchema;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -44,6 +45,24 @@ final class McpToolSupport {
         return value;
     }
 
+    static List<String> requiredStringList(Map<String, Object> arguments, String name) {
+        if (!arguments.containsKey(name)) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        Object raw = arguments.get(name);
+        if (!(raw instanceof List<?> values)) {
+            throw new IllegalArgumentException(name + " must be an array of strings");
+        }
+        List<String> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (!(value instanceof String stringValue)) {
+                throw new IllegalArgumentException(name + " must be an array of strings");
+            }
+            result.add(stringValue);
+        }
+        return result;
+    }
+
     static Boolean optionalBoolean(Map<String, Object> arguments, String name) {
         Object raw = arguments.get(name);
         if (raw == null) {
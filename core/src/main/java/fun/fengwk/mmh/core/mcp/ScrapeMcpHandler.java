@@ -2,8 +2,12 @@ package fun.fengwk.mmh.core.mcp;
 
 import fun.fengwk.convention4j.common.lang.StringUtils;
 import fun.fengwk.mmh.core.service.UtilMcpService;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
 import fun.fengwk.mmh.core.service.browser.runtime.ProfileType;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import io.micrometer.core.instrument.Metrics;
 import io.modelcontextprotocol.spec.McpSchema;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,10 +25,22 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ScrapeMcpHandler {
 
+    static final String METRIC_RESULT_SERIALIZE = "mmh.mcp.result.serialize";
+
     private final UtilMcpService utilMcpService;
     private final ScrapeMcpResultMapper scrapeMcpResultMapper;
+    private final ScrapeProperties scrapeProperties;
+    private final ScrapeOutputCursorStore scrapeOutputCursorStore;
 
     public McpSchema.CallToolResult handle(McpSchema.CallToolRequest request) {
+        return handle(request, CancellationToken.none(), ScrapeProgressListener.NOOP);
+    }
+
+    public McpSchema.CallToolResult handle(
+        McpSchema.CallToolRequest request,
+        CancellationToken cancellationToken,
+        ScrapeProgressListener progressListener
+    ) {
         try {
             Map<String, Object> arguments = McpToolSupport.arguments(request);
             String url = McpToolSupport.requiredString(arguments, "url");
@@ -45,6 +61,9 @@ public class ScrapeMcpHandler {
             String profileMode = McpToolSupport.optionalString(arguments, "profileMode");
             Boolean onlyMainContent = McpToolSupport.optionalBoolean(arguments, "onlyMainContent");
             Integer waitFor = McpToolSupport.optionalInteger(arguments, "waitFor");
+            Integer offset = McpToolSupport.optionalInteger(arguments, "offset");
+            Integer maxChars = McpToolSupport.optionalInteger(arguments, "maxChars");
+            String cursor = normalizeOptionalString(McpToolSupport.optionalString(arguments, "cursor"));
 
             if (!McpToolSupport.isSupportedHttpUrl(url)) {
                 return errorResult("unsupported url protocol", null, format);
@@ -52,14 +71,41 @@ public class ScrapeMcpHandler {
             if (waitFor != null && (waitFor < 0 || waitFor > 60000)) {
                 return errorResult("waitFor out of range", null, format);
             }
+            if (offset != null && offset < 0) {
+                return errorResult("offset must not be negative", null, format);
+            }
+            if (maxChars != null && maxChars < 1) {
+                return errorResult("maxChars must be positive", null, format);
+            }
             try {
                 ProfileType.fromValue(profileMode);
             } catch (IllegalArgumentException ex) {
                 return errorResult(ex.getMessage(), null, format);
             }
 
-            ScrapeResponse response = utilMcpService.scrape(url, format, onlyMainContent, waitFor, profileMode);
-            return scrapeMcpResultMapper.toResult(url, response);
+            int outputMaxChars = scrapeProperties.getOutputMaxChars() > 0 ? scrapeProperties.getOutputMaxChars() : Integer.MAX_VALUE;
+            int pageChars = maxChars == null ? outputMaxChars : Math.min(maxChars, outputMaxChars);
+            int pageOffset = offset == null ? 0 : offset;
+
+            ScrapeResponse response;
+            if (cursor != null) {
+                // Continuation pages read the content rendered by the first call.
+                response = scrapeOutputCursorStore.get(cursor, url);
+                if (response == null) {
+                    return errorResult("cursor expired or unknown, call again without cursor", null, format);
+                }
+            } else {
+                response = utilMcpService.scrape(
+                    url, format, onlyMainContent, waitFor, profileMode, cancellationToken, progressListener
+                );
+                if (hasMorePages(response, pageOffset, pageChars)) {
+                    cursor = scrapeOutputCursorStore.put(url, response);
+                }
+            }
+            String resultUrl = url;
+            String resultCursor = cursor;
+            return Metrics.timer(METRIC_RESULT_SERIALIZE, "tool", "scrape")
+                .record(() -> scrapeMcpResultMapper.toResult(resultUrl, response, pageOffset, pageChars, resultCursor));
         } catch (IllegalArgumentException ex) {
             return errorResult(ex.getMessage(), null, null);
         } catch (Exception ex) {
@@ -68,6 +114,13 @@ public class ScrapeMcpHandler {
         }
     }
 
+    private boolean hasMorePages(ScrapeResponse response, int offset, int pageChars) {
+        if (response == null || StringUtils.isNotBlank(response.getError()) || response.getContent() == null) {
+            return false;
+        }
+        return (long) offset + pageChars < response.getContent().length();
+    }
+
     private McpSchema.CallToolResult errorResult(String error, Long elapsedMs, String format) {
         return scrapeMcpResultMapper.toResult("", ScrapeResponse.builder()
             .error(error)
@@ -5,6 +5,8 @@ import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 import io.modelcontextprotocol.spec.McpSchema;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Scrape result mapper.
  *
@@ -14,6 +16,22 @@ import org.springframework.stereotype.Component;
 public class ScrapeMcpResultMapper {
 
     public McpSchema.CallToolResult toResult(String url, ScrapeResponse response) {
+        return toResult(url, response, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Map a scrape response, text content is limited to the page {@code [offset, offset + maxChars)}.
+     */
+    public McpSchema.CallToolResult toResult(String url, ScrapeResponse response, int offset, int maxChars) {
+        return toResult(url, response, offset, maxChars, null);
+    }
+
+    /**
+     * Map a scrape page like {@link #toResult(String, ScrapeResponse, int, int)}, the header carries
+     * the cursor while more content remains.
+     */
+    public McpSchema.CallToolResult toResult(
+        String url, ScrapeResponse response, int offset, int maxChars, String cursor) {
         if (response == null) {
             return errorResult("scrape response is null", null, null);
         }
@@ -24,33 +42,104 @@ public class ScrapeMcpResultMapper {
 
         MediaPayload mediaPayload = parseMediaPayload(response.getScreenshotBase64(), response.getScreenshotMime());
         if (mediaPayload != null) {
-            if (mediaPayload.mimeType().startsWith("image/")) {
-                return McpSchema.CallToolResult.builder()
-                    .addContent(new McpSchema.ImageContent(null, mediaPayload.base64Data(), mediaPayload.mimeType()))
-                    .isError(false)
-                    .build();
-            }
-
             return McpSchema.CallToolResult.builder()
-                .addContent(new McpSchema.EmbeddedResource(
-                    null,
-                    new McpSchema.BlobResourceContents(url, mediaPayload.mimeType(), mediaPayload.base64Data())
-                ))
+                .addContent(toMediaContent(url, mediaPayload))
                 .isError(false)
                 .build();
         }
 
+        boolean hasLinks = response.getLinks() != null && !response.getLinks().isEmpty();
+        int totalChars = response.getContent() == null ? 0 : response.getContent().length();
+        if (!hasLinks && offset > totalChars) {
+            return errorResult("offset out of range, totalChars: " + totalChars, response.getElapsedMs(), response.getFormat());
+        }
+
         return McpSchema.CallToolResult.builder()
-            .addTextContent(formatTextOutput(response))
+            .addTextContent(formatTextOutput(response, offset, maxChars, cursor))
             .isError(false)
             .build();
     }
 
+    public McpSchema.CallToolResult toBatchResult(List<String> urls, List<ScrapeResponse> responses, long elapsedMs) {
+        int total = responses == null ? 0 : responses.size();
+        int failed = 0;
+        for (int i = 0; i < total; i++) {
+            ScrapeResponse response = responses.get(i);
+            if (response == null || StringUtils.isNotBlank(response.getError())) {
+                failed++;
+            }
+        }
+
+        McpSchema.CallToolResult.Builder resultBuilder = McpSchema.CallToolResult.builder();
+        StringBuilder text = new StringBuilder(256);
+        text.append("---\n");
+        text.append("total: ").append(total).append('\n');
+        text.append("succeeded: ").append(total - failed).append('\n');
+        text.append("failed: ").append(failed).append('\n');
+        text.append("elapsedMs: ").append(elapsedMs).append('\n');
+        text.append("---");
+
+        for (int i = 0; i < total; i++) {
+            String url = urls != null && i < urls.size() ? urls.get(i) : "";
+            ScrapeResponse response = responses.get(i);
+            text.append("\n\n## [").append(i + 1).append("] ").append(McpToolSupport.nvl(url)).append('\n');
+            if (response == null) {
+                text.append(formatErrorOutput("scrape response is null", null, null));
+                continue;
+            }
+            if (StringUtils.isNotBlank(response.getError())) {
+                text.append(formatErrorOutput(response.getError(), response.getElapsedMs(), response.getFormat()));
+                continue;
+            }
+
+            MediaPayload mediaPayload = parseMediaPayload(response.getScreenshotBase64(), response.getScreenshotMime());
+            if (mediaPayload == null) {
+                text.append(formatTextOutput(response));
+                continue;
+            }
+            // Keep attachments next to their section header.
+            text.append(formatTextOutput(response)).append("\nattachment: ").append(mediaPayload.mimeType());
+            resultBuilder.addTextContent(text.toString().stripLeading());
+            text.setLength(0);
+            resultBuilder.addContent(toMediaContent(url, mediaPayload));
+        }
+        if (!text.isEmpty()) {
+            resultBuilder.addTextContent(text.toString().stripLeading());
+        }
+
+        return resultBuilder
+            .isError(total > 0 && failed == total)
+            .build();
+    }
+
     private String formatTextOutput(ScrapeResponse response) {
-        StringBuilder builder = new StringBuilder(192);
+        return formatTextOutput(response, 0, Integer.MAX_VALUE, null);
+    }
+
+    private String formatTextOutput(ScrapeResponse response, int offset, int maxChars, String cursor) {
+        String content = response.getContent();
+        boolean hasLinks = response.getLinks() != null && !response.getLinks().isEmpty();
+        boolean hasContent = !hasLinks && StringUtils.isNotBlank(content);
+        int totalChars = hasContent ? content.length() : 0;
+        int start = hasContent ? Math.min(offset, totalChars) : 0;
+        int end = hasContent ? pageEnd(content, start, maxChars) : 0;
+        boolean paged = hasContent && (start > 0 || end < totalChars);
+
+        // Size the builder for the page only, the full content is never copied.
+        StringBuilder builder = new StringBuilder(192 + end - start);
         builder.append("---\n");
         builder.append("format: ").append(McpToolSupport.nvl(response.getFormat())).append('\n');
         builder.append("elapsedMs: ").append(McpToolSupport.nvl(response.getElapsedMs())).append('\n');
+        if (paged) {
+            builder.append("totalChars: ").append(totalChars).append('\n');
+            builder.append("offset: ").append(start).append('\n');
+            if (end < totalChars) {
+                builder.append("nextOffset: ").append(end).append('\n');
+                if (cursor != null) {
+                    builder.append("cursor: ").append(cursor).append('\n');
+                }
+            }
+        }
         builder.append("---");
 
         if (response.getLinks() != null && !response.getLinks().isEmpty()) {
@@ -61,23 +150,46 @@ public class ScrapeMcpResultMapper {
             return builder.toString();
         }
 
-        if (StringUtils.isNotBlank(response.getContent())) {
-            builder.append('\n').append(response.getContent());
+        if (hasContent && end > start) {
+            builder.append('\n').append(content, start, end);
         }
         return builder.toString();
     }
 
+    private int pageEnd(String content, int start, int maxChars) {
+        int end = (int) Math.min(content.length(), (long) start + maxChars);
+        // Do not split a surrogate pair across pages.
+        if (end < content.length() && end > start + 1 && Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
     private McpSchema.CallToolResult errorResult(String error, Long elapsedMs, String format) {
+        return McpSchema.CallToolResult.builder()
+            .addTextContent(formatErrorOutput(error, elapsedMs, format))
+            .isError(true)
+            .build();
+    }
+
+    private String formatErrorOutput(String error, Long elapsedMs, String format) {
         StringBuilder builder = new StringBuilder(96);
         builder.append("---\n");
         builder.append("format: ").append(McpToolSupport.nvl(format)).append('\n');
         builder.append("elapsedMs: ").append(McpToolSupport.nvl(elapsedMs)).append('\n');
         builder.append("---\n");
         builder.append("error: ").append(McpToolSupport.nvl(error));
-        return McpSchema.CallToolResult.builder()
-            .addTextContent(builder.toString())
-            .isError(true)
-            .build();
+        return builder.toString();
+    }
+
+    private McpSchema.Content toMediaContent(String url, MediaPayload mediaPayload) {
+        if (mediaPayload.mimeType().startsWith("image/")) {
+            return new McpSchema.ImageContent(null, mediaPayload.base64Data(), mediaPayload.mimeType());
+        }
+        return new McpSchema.EmbeddedResource(
+            null,
+            new McpSchema.BlobResourceContents(url, mediaPayload.mimeType(), mediaPayload.base64Data())
+        );
     }
 
     private MediaPayload parseMediaPayload(String dataUri, String mimeType) {
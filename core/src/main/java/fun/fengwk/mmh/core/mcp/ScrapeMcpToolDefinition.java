@@ -1,6 +1,8 @@
 package fun.fengwk.mmh.core.mcp;
 
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
 import io.modelcontextprotocol.spec.McpSchema;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.LinkedHashMap;
@@ -13,13 +15,18 @@ import java.util.Map;
  * @author fengwk
  */
 @Component
+@RequiredArgsConstructor
 public class ScrapeMcpToolDefinition {
 
     static final List<String> SUPPORTED_FORMATS = List.of("markdown", "links", "screenshot", "fullscreenshot");
 
     static final String SUPPORTED_FORMATS_HINT = String.join(", ", SUPPORTED_FORMATS);
 
+    private final ScrapeProperties scrapeProperties;
+
     public McpSchema.Tool tool() {
+        int outputMaxChars = scrapeProperties.getOutputMaxChars();
+
         Map<String, Object> properties = new LinkedHashMap<>();
         properties.put("url", McpToolSupport.stringProperty("Target page URL. Must be a fully-qualified http/https URL."));
 
@@ -38,20 +45,38 @@ public class ScrapeMcpToolDefinition {
         waitForProperty.put("maximum", 60000);
         properties.put("waitFor", waitForProperty);
 
+        Map<String, Object> offsetProperty = McpToolSupport.integerProperty("Start char offset of the returned content page. Optional, default 0. Use nextOffset from the previous page to continue.");
+        offsetProperty.put("minimum", 0);
+        properties.put("offset", offsetProperty);
+
+        Map<String, Object> maxCharsProperty;
+        if (outputMaxChars > 0) {
+            maxCharsProperty = McpToolSupport.integerProperty("Maximum content chars of one page. Optional, default and max " + outputMaxChars + ".");
+            maxCharsProperty.put("maximum", outputMaxChars);
+        } else {
+            maxCharsProperty = McpToolSupport.integerProperty("Maximum content chars of one page. Optional, default unlimited.");
+        }
+        maxCharsProperty.put("minimum", 1);
+        properties.put("maxChars", maxCharsProperty);
+
+        properties.put("cursor", McpToolSupport.stringProperty("Cursor from the previous page header. Optional. Continues from the content already fetched instead of scraping the page again."));
+
         return McpSchema.Tool.builder()
             .name("scrape")
             .description("""
                 scrape, Fetches content from a URL and returns text or protocol-level attachments.
                 Usage:
                 - Required input: url
-                - Optional input: format, profileMode, onlyMainContent, waitFor
+                - Optional input: format, profileMode, onlyMainContent, waitFor, offset, maxChars, cursor
                 - format values: markdown (default), links, screenshot, fullscreenshot
                 - Use onlyMainContent=true to focus on the main article/content area for text outputs
                 - profileMode values: default, master
                 - profileMode guidance: try default first; use master only for anti-bot/login-gated pages (master is serialized and slower)
                 - waitFor: fixed wait in milliseconds after DOMContentLoaded, when > 0 smart wait is skipped
+                - offset/maxChars: page through long content, call again with offset=nextOffset and the same cursor until nextOffset is absent
                 Output:
                 - Text: markdown with metadata header (format, elapsedMs) + body content; errors are in body
+                - Long text: header also carries totalChars, offset, nextOffset and cursor when more content remains
                 - Media/screenshot: protocol-level image/resource content
                 - If the model supports multimodal input, attachments are passed to the model directly
                 """)
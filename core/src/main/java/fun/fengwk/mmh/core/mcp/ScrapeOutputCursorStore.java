@@ -0,0 +1,112 @@
+package fun.fengwk.mmh.core.mcp;
+
+import fun.fengwk.convention4j.common.lang.StringUtils;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short-lived memory store of paged scrape results.
+ *
+ * <p>A result longer than one page is kept under an opaque cursor, so continuation calls read the
+ * same rendered content instead of scraping the page again. Independent of the scrape cache, entries
+ * live for {@code mmh.scrape.output-cursor-ttl-seconds} and the eldest ones are dropped once the kept
+ * content exceeds {@code mmh.scrape.output-cursor-max-chars}. Only the content and the page header
+ * fields are kept.
+ *
+ * @author fengwk
+ */
+@Component
+@RequiredArgsConstructor
+public class ScrapeOutputCursorStore {
+
+    private static final int CURSOR_BYTES = 16;
+
+    private final ScrapeProperties scrapeProperties;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Guarded by {@code this}, insertion ordered so the eldest entry expires first.
+     */
+    private final LinkedHashMap<String, CursorEntry> entries = new LinkedHashMap<>();
+    private long totalChars;
+
+    /**
+     * Keep the response content of the url under a new cursor.
+     *
+     * @return cursor, {@code null} when cursors are disabled or the content alone exceeds the limit
+     */
+    public String put(String url, ScrapeResponse response) {
+        long ttlMs = scrapeProperties.getOutputCursorTtlSeconds() * 1000L;
+        long maxChars = scrapeProperties.getOutputCursorMaxChars();
+        if (ttlMs <= 0 || response == null || response.getContent() == null) {
+            return null;
+        }
+        int chars = response.getContent().length();
+        if (chars > maxChars) {
+            return null;
+        }
+        ScrapeResponse page = ScrapeResponse.builder()
+            .statusCode(response.getStatusCode())
+            .format(response.getFormat())
+            .elapsedMs(response.getElapsedMs())
+            .content(response.getContent())
+            .build();
+        byte[] bytes = new byte[CURSOR_BYTES];
+        random.nextBytes(bytes);
+        String cursor = HexFormat.of().formatHex(bytes);
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            pruneExpired(now);
+            entries.put(cursor, new CursorEntry(url, page, now + ttlMs, chars));
+            totalChars += chars;
+            Iterator<CursorEntry> iterator = entries.values().iterator();
+            while (totalChars > maxChars && iterator.hasNext()) {
+                totalChars -= iterator.next().chars();
+                iterator.remove();
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * Response kept under the cursor for the same url.
+     *
+     * @return response, {@code null} when the cursor is unknown, expired or belongs to another url
+     */
+    public ScrapeResponse get(String cursor, String url) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        synchronized (this) {
+            pruneExpired(System.currentTimeMillis());
+            CursorEntry entry = entries.get(cursor.trim());
+            if (entry == null || !entry.url().equals(url)) {
+                return null;
+            }
+            return entry.response();
+        }
+    }
+
+    private void pruneExpired(long now) {
+        Iterator<Map.Entry<String, CursorEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            CursorEntry entry = iterator.next().getValue();
+            if (entry.expireAtMs() <= now) {
+                totalChars -= entry.chars();
+                iterator.remove();
+            }
+        }
+    }
+
+    private record CursorEntry(String url, ScrapeResponse response, long expireAtMs, int chars) {
+    }
+
+}
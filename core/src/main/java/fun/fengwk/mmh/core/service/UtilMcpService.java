@@ -1,9 +1,13 @@
 package fun.fengwk.mmh.core.service;
 
 import fun.fengwk.mmh.core.facade.search.model.SearchResponse;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
 import fun.fengwk.mmh.core.service.model.CreateTempDirResponse;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 
+import java.util.List;
+
 /**
  * @author fengwk
  */
@@ -13,6 +17,25 @@ public interface UtilMcpService {
 
     CreateTempDirResponse createTempDir();
 
-    ScrapeResponse scrape(String url, String format, Boolean onlyMainContent, Integer waitFor, String profileMode);
+    ScrapeResponse scrape(
+        String url,
+        String format,
+        Boolean onlyMainContent,
+        Integer waitFor,
+        String profileMode,
+        CancellationToken cancellationToken,
+        ScrapeProgressListener progressListener
+    );
+
+    List<ScrapeResponse> batchScrape(
+        List<String> urls,
+        String format,
+        Boolean onlyMainContent,
+        Integer waitFor,
+        String profileMode,
+        Integer concurrency,
+        CancellationToken cancellationToken,
+        ScrapeProgressListener progressListener
+    );
 
 }
@@ -42,6 +42,68 @@ public class BrowserProperties {
      */
     private int queueOfferTimeoutMs = 15000;
 
+    /**
+     * Interval of the default pool maintenance loop that pings and recycles idle workers, 0 disables it.
+     */
+    private long workerHealthCheckIntervalMs = 30000;
+
+    /**
+     * Tasks served by a default pool worker before it is recycled, 0 means unlimited.
+     */
+    private int workerMaxTasks = 500;
+
+    /**
+     * Default pool worker age before it is recycled, 0 means unlimited.
+     */
+    private long workerMaxAgeMs = 1800000;
+
+    /**
+     * Browser process tree RSS above which an idle default pool worker is evicted, 0 disables the check.
+     *
+     * <p>Read from {@code /proc}, only effective on Linux and for workers owning a browser process.
+     */
+    private long workerMaxRssMb = 0;
+
+    /**
+     * Idle time after which a default pool worker above the minimum size is closed, 0 never shrinks.
+     */
+    private long workerIdleTimeoutMs = 300000;
+
+    /**
+     * Busy share of the default pool max size at which one spare worker is launched ahead of demand, 0 disables it.
+     */
+    private double workerPrespawnHighWaterMark = 0.8;
+
+    /**
+     * Minimum gap between two ahead-of-demand worker launches.
+     */
+    private long workerSpawnMinIntervalMs = 1000;
+
+    /**
+     * Background threads launching default pool workers, 0 launches on the requesting thread.
+     */
+    private int workerLaunchParallelism = 2;
+
+    /**
+     * Whether default pool workers share browser processes and use one incognito context each.
+     */
+    private boolean sharedBrowserEnabled = false;
+
+    /**
+     * Number of shared browser processes for default pool when shared browser is enabled.
+     */
+    private int sharedBrowserCount = 1;
+
+    /**
+     * Whether default pool workers keep one warm page across tasks instead of opening a page per task.
+     */
+    private boolean pageReuseEnabled = false;
+
+    /**
+     * Tasks served by one warm page before it is closed and replaced.
+     */
+    private int pageReuseMaxUses = 20;
+
     /**
      * Regex for profile id validation.
      */
@@ -92,6 +154,16 @@ public class BrowserProperties {
      */
     private long masterProfileLockTimeoutMs = 2000;
 
+    /**
+     * Idle time a master worker stays warm between tasks, 0 closes it and releases the profile lock after every task.
+     */
+    private long masterWorkerKeepAliveMs = 0;
+
+    /**
+     * How long manual master login waits for a warm master worker to release the profile, 0 does not ask.
+     */
+    private long masterLoginHandoffTimeoutMs = 10000;
+
     /**
      * Whether to enable stealth script.
      */
@@ -9,10 +9,14 @@ import java.nio.channels.OverlappingFileLockException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 
 /**
  * Login lock manager for headed login session.
  *
+ * <p>A process waiting for a held lock can ask the holder to let go by touching a release request file next
+ * to the lock, the holder polls {@link #isReleaseRequested(Path, long)} and closes its lock cooperatively.
+ *
  * @author fengwk
  */
 @Component
@@ -58,6 +62,52 @@ public class LoginLockManager {
         return null;
     }
 
+    /**
+     * Ask the holder of {@code lockPath} to release it, refreshing the request when it already exists.
+     */
+    public boolean requestRelease(Path lockPath) {
+        Path requestPath = resolveReleaseRequestPath(lockPath);
+        try {
+            ensureParentDirectories(requestPath);
+            if (Files.exists(requestPath)) {
+                Files.setLastModifiedTime(requestPath, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                Files.createFile(requestPath);
+            }
+            return true;
+        } catch (Exception ex) {
+            log.warn("failed to request lock release, lockPath={}, error={}", lockPath, ex.getMessage(), ex);
+            return false;
+        }
+    }
+
+    /**
+     * Whether a release of {@code lockPath} was requested within the last {@code maxAgeMs}, older requests
+     * are left over by a crashed requester and ignored.
+     */
+    public boolean isReleaseRequested(Path lockPath, long maxAgeMs) {
+        Path requestPath = resolveReleaseRequestPath(lockPath);
+        try {
+            long requestedAtMs = Files.getLastModifiedTime(requestPath).toMillis();
+            return System.currentTimeMillis() - requestedAtMs <= Math.max(0L, maxAgeMs);
+        } catch (Exception ex) {
+            // No pending request.
+            return false;
+        }
+    }
+
+    public void cancelReleaseRequest(Path lockPath) {
+        try {
+            Files.deleteIfExists(resolveReleaseRequestPath(lockPath));
+        } catch (Exception ex) {
+            log.warn("failed to cancel lock release request, lockPath={}, error={}", lockPath, ex.getMessage(), ex);
+        }
+    }
+
+    private Path resolveReleaseRequestPath(Path lockPath) {
+        return lockPath.resolveSibling(lockPath.getFileName() + ".release");
+    }
+
     private void ensureParentDirectories(Path lockPath) throws Exception {
         Path normalizedLockPath = lockPath.toAbsolutePath().normalize();
         Path parent = normalizedLockPath.getParent();
@@ -3,6 +3,7 @@ package fun.fengwk.mmh.core.service.browser.runtime;
 import fun.fengwk.convention4j.common.lang.StringUtils;
 import fun.fengwk.mmh.core.service.browser.BrowserProperties;
 
+import com.microsoft.playwright.Browser;
 import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.options.Proxy;
 
@@ -14,7 +15,7 @@ import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Shared builder for Playwright persistent context options.
+ * Shared builder for Playwright persistent context, launch and new-context options.
  *
  * @author fengwk
  */
@@ -70,29 +71,88 @@ final class BrowserContextOptionsSupport {
             options.setTimezoneId(profile.getTimezoneId());
         }
 
-        Map<String, String> headers = new HashMap<>();
-        if (profile.getExtraHeaders() != null) {
-            profile.getExtraHeaders().forEach((key, value) -> {
-                if (StringUtils.isNotBlank(key) && StringUtils.isNotBlank(value)) {
-                    headers.put(key, value);
-                }
-            });
+        Map<String, String> headers = resolveExtraHeaders(profile);
+        if (!headers.isEmpty()) {
+            options.setExtraHTTPHeaders(headers);
         }
-        if (StringUtils.isNotBlank(profile.getAcceptLanguage())) {
-            headers.putIfAbsent("Accept-Language", profile.getAcceptLanguage());
+
+        Proxy proxy = resolveProxy(profile);
+        if (proxy != null) {
+            options.setProxy(proxy);
+        }
+
+        return options;
+    }
+
+    /**
+     * Build launch options for a shared browser whose contexts are created via {@link #buildNewContextOptions}.
+     *
+     * <p>Only browser level options are set, the default context of the persistent launch is never used.
+     */
+    static BrowserType.LaunchPersistentContextOptions buildLaunchOptions(
+        BrowserProperties.BrowserProfileProperties profileProperties,
+        boolean headless,
+        List<String> launchArgs
+    ) {
+        BrowserProperties.BrowserProfileProperties profile = profileProperties == null
+            ? new BrowserProperties.BrowserProfileProperties()
+            : profileProperties;
+        List<String> normalizedLaunchArgs = normalizeLaunchArgs(launchArgs);
+
+        BrowserType.LaunchPersistentContextOptions options = new BrowserType.LaunchPersistentContextOptions()
+            .setHeadless(headless);
+
+        if (profile.isIgnoreAllDefaultArgs()) {
+            options.setIgnoreAllDefaultArgs(true);
+        } else if (profile.getIgnoreDefaultArgs() != null && !profile.getIgnoreDefaultArgs().isEmpty()) {
+            options.setIgnoreDefaultArgs(profile.getIgnoreDefaultArgs());
+        }
+
+        if (!normalizedLaunchArgs.isEmpty()) {
+            options.setArgs(normalizedLaunchArgs);
+        }
+
+        if (StringUtils.isNotBlank(profile.getBrowserChannel())) {
+            options.setChannel(profile.getBrowserChannel());
+        }
+
+        if (StringUtils.isNotBlank(profile.getExecutablePath())) {
+            options.setExecutablePath(Paths.get(profile.getExecutablePath()));
+        }
+
+        return options;
+    }
+
+    /**
+     * Build per-context options for an incognito context of a shared browser.
+     */
+    static Browser.NewContextOptions buildNewContextOptions(BrowserProperties.BrowserProfileProperties profileProperties) {
+        BrowserProperties.BrowserProfileProperties profile = profileProperties == null
+            ? new BrowserProperties.BrowserProfileProperties()
+            : profileProperties;
+
+        Browser.NewContextOptions options = new Browser.NewContextOptions();
+
+        String userAgent = resolveUserAgent(profile);
+        if (StringUtils.isNotBlank(userAgent)) {
+            options.setUserAgent(userAgent);
+        }
+
+        if (StringUtils.isNotBlank(profile.getLocale())) {
+            options.setLocale(profile.getLocale());
+        }
+        if (StringUtils.isNotBlank(profile.getTimezoneId())) {
+            options.setTimezoneId(profile.getTimezoneId());
         }
+
+        Map<String, String> headers = resolveExtraHeaders(profile);
         if (!headers.isEmpty()) {
             options.setExtraHTTPHeaders(headers);
         }
 
-        if (StringUtils.isNotBlank(profile.getProxyServer())) {
-            Proxy proxy = new Proxy(profile.getProxyServer());
-            if (StringUtils.isNotBlank(profile.getProxyUsername())) {
-                proxy.setUsername(profile.getProxyUsername());
-            }
-            if (StringUtils.isNotBlank(profile.getProxyPassword())) {
-                proxy.setPassword(profile.getProxyPassword());
-            }
+        // Chromium supports per-context proxy, so shared browsers keep profile proxy semantics.
+        Proxy proxy = resolveProxy(profile);
+        if (proxy != null) {
             options.setProxy(proxy);
         }
 
@@ -113,6 +173,35 @@ final class BrowserContextOptionsSupport {
         return normalized;
     }
 
+    private static Map<String, String> resolveExtraHeaders(BrowserProperties.BrowserProfileProperties profile) {
+        Map<String, String> headers = new HashMap<>();
+        if (profile.getExtraHeaders() != null) {
+            profile.getExtraHeaders().forEach((key, value) -> {
+                if (StringUtils.isNotBlank(key) && StringUtils.isNotBlank(value)) {
+                    headers.put(key, value);
+                }
+            });
+        }
+        if (StringUtils.isNotBlank(profile.getAcceptLanguage())) {
+            headers.putIfAbsent("Accept-Language", profile.getAcceptLanguage());
+        }
+        return headers;
+    }
+
+    private static Proxy resolveProxy(BrowserProperties.BrowserProfileProperties profile) {
+        if (StringUtils.isBlank(profile.getProxyServer())) {
+            return null;
+        }
+        Proxy proxy = new Proxy(profile.getProxyServer());
+        if (StringUtils.isNotBlank(profile.getProxyUsername())) {
+            proxy.setUsername(profile.getProxyUsername());
+        }
+        if (StringUtils.isNotBlank(profile.getProxyPassword())) {
+            proxy.setPassword(profile.getProxyPassword());
+        }
+        return proxy;
+    }
+
     private static String resolveUserAgent(BrowserProperties.BrowserProfileProperties profile) {
         if (StringUtils.isNotBlank(profile.getUserAgent())) {
             return profile.getUserAgent();
@@ -0,0 +1,109 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resident memory of browser process trees launched for persistent profiles, read from {@code /proc}.
+ *
+ * <p>Every persistent context runs its own Chromium, the browser process carries {@code --user-data-dir}
+ * and the renderer, GPU and utility processes hang below it. RSS is summed over the tree, so pages shared
+ * between processes are counted more than once. Off Linux nothing is found.
+ *
+ * @author fengwk
+ */
+final class BrowserProcessMemory {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserProcessMemory.class);
+
+    private static final Path PROC_ROOT = Paths.get("/proc");
+    private static final String USER_DATA_DIR_ARG = "--user-data-dir=";
+    private static final String PROCESS_TYPE_ARG = "--type=";
+    private static final String RSS_STATUS_KEY = "VmRSS:";
+
+    private BrowserProcessMemory() {
+    }
+
+    /**
+     * RSS of each browser process tree below this JVM, keyed by normalized user data dir.
+     */
+    static Map<Path, Long> residentBytesByUserDataDir() {
+        if (!Files.isDirectory(PROC_ROOT)) {
+            return Map.of();
+        }
+        Map<Path, Long> residentBytes = new HashMap<>();
+        ProcessHandle.current().descendants().forEach(process -> {
+            Path userDataDir = parseUserDataDir(readCommandLine(process.pid()));
+            if (userDataDir == null) {
+                return;
+            }
+            long treeBytes = readResidentBytes(process.pid())
+                + process.descendants().mapToLong(child -> readResidentBytes(child.pid())).sum();
+            residentBytes.merge(userDataDir, treeBytes, Long::sum);
+        });
+        return residentBytes;
+    }
+
+    /**
+     * User data dir of a Chromium browser process, {@code null} for child processes and other programs.
+     */
+    static Path parseUserDataDir(List<String> arguments) {
+        Path userDataDir = null;
+        for (String argument : arguments) {
+            if (argument.startsWith(PROCESS_TYPE_ARG)) {
+                // Renderer and utility processes are counted through their browser process.
+                return null;
+            }
+            if (argument.startsWith(USER_DATA_DIR_ARG) && argument.length() > USER_DATA_DIR_ARG.length()) {
+                userDataDir = Paths.get(argument.substring(USER_DATA_DIR_ARG.length())).toAbsolutePath().normalize();
+            }
+        }
+        return userDataDir;
+    }
+
+    /**
+     * {@code VmRSS} of a {@code /proc/<pid>/status} file in bytes, {@code 0} when absent.
+     */
+    static long parseResidentBytes(List<String> statusLines) {
+        for (String line : statusLines) {
+            if (!line.startsWith(RSS_STATUS_KEY)) {
+                continue;
+            }
+            String[] parts = line.substring(RSS_STATUS_KEY.length()).trim().split("\\s+");
+            try {
+                return Long.parseLong(parts[0]) * 1024L;
+            } catch (NumberFormatException ex) {
+                return 0L;
+            }
+        }
+        return 0L;
+    }
+
+    private static List<String> readCommandLine(long pid) {
+        try {
+            byte[] bytes = Files.readAllBytes(PROC_ROOT.resolve(Long.toString(pid)).resolve("cmdline"));
+            return List.of(new String(bytes, StandardCharsets.UTF_8).split("\0"));
+        } catch (Exception ex) {
+            // The process exited or belongs to someone else.
+            return List.of();
+        }
+    }
+
+    private static long readResidentBytes(long pid) {
+        try {
+            return parseResidentBytes(Files.readAllLines(PROC_ROOT.resolve(Long.toString(pid)).resolve("status")));
+        } catch (Exception ex) {
+            log.debug("read process status failed, pid={}, error={}", pid, ex.getMessage());
+            return 0L;
+        }
+    }
+
+}
@@ -19,4 +19,10 @@ public class BrowserRuntimeContext {
     private BrowserContext browserContext;
     private Page page;
 
+    /**
+     * Caller cancellation, tasks check it between phases.
+     */
+    @Builder.Default
+    private CancellationToken cancellationToken = CancellationToken.none();
+
 }
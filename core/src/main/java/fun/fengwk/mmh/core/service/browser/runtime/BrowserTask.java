@@ -10,4 +10,27 @@ public interface BrowserTask<T> {
 
     T execute(BrowserRuntimeContext context) throws Exception;
 
+    /**
+     * Priority used when the pool is saturated and the task has to wait for a worker.
+     */
+    default BrowserTaskPriority priority() {
+        return BrowserTaskPriority.INTERACTIVE;
+    }
+
+    /**
+     * Absolute deadline in epoch milliseconds, {@code 0} means only the pool queue timeout applies.
+     *
+     * <p>A task whose deadline passes while waiting is dropped before it gets a worker.
+     */
+    default long deadlineAtMs() {
+        return 0L;
+    }
+
+    /**
+     * Caller cancellation, checked while waiting for a worker and passed to the task through its context.
+     */
+    default CancellationToken cancellationToken() {
+        return CancellationToken.none();
+    }
+
 }
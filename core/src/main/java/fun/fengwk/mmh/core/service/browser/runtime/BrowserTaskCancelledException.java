@@ -0,0 +1,12 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+/**
+ * Exception thrown when the caller cancelled a browser task.
+ */
+public class BrowserTaskCancelledException extends RuntimeException {
+
+    public BrowserTaskCancelledException(String message) {
+        super(message);
+    }
+
+}
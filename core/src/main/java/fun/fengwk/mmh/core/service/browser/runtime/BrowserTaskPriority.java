@@ -0,0 +1,22 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+/**
+ * Scheduling priority of a browser task waiting for a worker.
+ *
+ * <p>Declaration order is the serve order.
+ *
+ * @author fengwk
+ */
+public enum BrowserTaskPriority {
+
+    /**
+     * A caller is waiting on this single task.
+     */
+    INTERACTIVE,
+
+    /**
+     * One item of a fan-out, served after interactive tasks.
+     */
+    BATCH
+
+}
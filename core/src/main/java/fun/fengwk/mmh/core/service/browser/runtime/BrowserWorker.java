@@ -5,34 +5,59 @@ import fun.fengwk.mmh.core.service.browser.coordination.LoginLockManager;
 import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.UnrouteBehavior;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
  * Browser worker that encapsulates browser context and execution state.
  *
- * <p>Each worker owns exactly one persistent browser context and executes tasks sequentially.
+ * <p>Each worker owns exactly one browser context (persistent, or incognito on a shared browser)
+ * and executes tasks sequentially.
  * Close is idempotent and releases resources in strict order.
  *
+ * <p>With page reuse enabled the worker keeps one warm page across tasks instead of opening a page per task.
+ * Between tasks {@link #preparePage()} drops the page routes and parks it on {@code about:blank}; the page is
+ * recycled after {@code pageMaxUses} tasks or as soon as a task fails on it. Listeners and init scripts a task
+ * adds to the page itself would survive the reset, tasks keep such state on the context.
+ *
  * @author fengwk
  */
 public class BrowserWorker {
 
     private static final Logger log = LoggerFactory.getLogger(BrowserWorker.class);
 
+    private static final String BLANK_PAGE_URL = "about:blank";
+    private static final String METRIC_PAGE_RECYCLED = "mmh.browser.page.recycled";
+
     private final String profileId;
     private final Path userDataDir;
     private final boolean deleteUserDataDirOnClose;
     private final Playwright playwright;
     private final BrowserContext browserContext;
     private final LoginLockManager.LoginLock profileLock;
+
+    /**
+     * Tasks served by one warm page before it is recycled, {@code 0} opens a fresh page per task.
+     */
+    private final int pageMaxUses;
+    private final long createdAtMs = System.currentTimeMillis();
+    private final AtomicInteger taskCount = new AtomicInteger();
+    private volatile long lastUsedAtMs = createdAtMs;
     private volatile boolean closed = false;
 
+    // Only touched by the thread currently owning the worker.
+    private Page warmPage;
+    private int warmPageUses;
+    private boolean warmPageDirty;
+
     public BrowserWorker(
         String profileId,
         Path userDataDir,
@@ -40,6 +65,18 @@ public class BrowserWorker {
         Playwright playwright,
         BrowserContext browserContext,
         LoginLockManager.LoginLock profileLock
+    ) {
+        this(profileId, userDataDir, deleteUserDataDirOnClose, playwright, browserContext, profileLock, 0);
+    }
+
+    public BrowserWorker(
+        String profileId,
+        Path userDataDir,
+        boolean deleteUserDataDirOnClose,
+        Playwright playwright,
+        BrowserContext browserContext,
+        LoginLockManager.LoginLock profileLock,
+        int pageMaxUses
     ) {
         this.profileId = profileId;
         this.userDataDir = userDataDir;
@@ -47,6 +84,7 @@ public class BrowserWorker {
         this.playwright = playwright;
         this.browserContext = browserContext;
         this.profileLock = profileLock;
+        this.pageMaxUses = Math.max(0, pageMaxUses);
     }
 
     public String getProfileId() {
@@ -57,23 +95,155 @@ public class BrowserWorker {
         return closed;
     }
 
+    public Path getUserDataDir() {
+        return userDataDir;
+    }
+
+    public long getCreatedAtMs() {
+        return createdAtMs;
+    }
+
+    /**
+     * When the last task finished, the creation time before the first task.
+     */
+    public long getLastUsedAtMs() {
+        return lastUsedAtMs;
+    }
+
+    /**
+     * Tasks started on this worker, cancelled and failed ones included.
+     */
+    public int getTaskCount() {
+        return taskCount.get();
+    }
+
+    /**
+     * Round trip to the browser, {@code false} once the browser process or the driver connection is gone.
+     *
+     * <p>Must only be called by the thread owning the worker.
+     */
+    public boolean ping() {
+        if (closed) {
+            return false;
+        }
+        try {
+            // Filtered cookie read is the cheapest call that reaches the browser for every context kind.
+            browserContext.cookies(BLANK_PAGE_URL);
+            return true;
+        } catch (Exception ex) {
+            log.debug("ping browser worker failed, profile={}, error={}", profileId, ex.getMessage());
+            return false;
+        }
+    }
+
+    public boolean isPageReuseEnabled() {
+        return pageMaxUses > 0;
+    }
+
     public <T> T execute(BrowserTask<T> task) throws Exception {
         if (closed) {
             throw new IllegalStateException("worker is closed");
         }
 
-        // Use one page per task to isolate navigation state while reusing the context.
-        try (Page page = browserContext.newPage()) {
-            BrowserRuntimeContext runtimeContext = BrowserRuntimeContext.builder()
-                .profileId(profileId)
-                .baseVersion(0L)
-                .browserContext(browserContext)
-                .page(page)
-                .build();
-            return task.execute(runtimeContext);
+        CancellationToken cancellationToken = task.cancellationToken() == null
+            ? CancellationToken.none()
+            : task.cancellationToken();
+        cancellationToken.throwIfCancelled();
+        taskCount.incrementAndGet();
+
+        try {
+            if (isPageReuseEnabled()) {
+                return executeOnWarmPage(task, cancellationToken);
+            }
+
+            // Use one page per task to isolate navigation state while reusing the context.
+            // A cancelled task unwinds through here, so its page is closed before the worker is returned.
+            try (Page page = browserContext.newPage()) {
+                return task.execute(buildRuntimeContext(page, cancellationToken));
+            }
+        } finally {
+            lastUsedAtMs = System.currentTimeMillis();
         }
     }
 
+    /**
+     * Get the warm page ready for the next task: reset a used page, or open a new one when it was recycled.
+     *
+     * <p>Called between tasks by the thread owning the worker, a failed reset only costs the next task
+     * an inline {@code newPage}.
+     */
+    public void preparePage() {
+        if (!isPageReuseEnabled() || closed) {
+            return;
+        }
+        try {
+            if (warmPage != null && warmPage.isClosed()) {
+                warmPage = null;
+            }
+            if (warmPage == null) {
+                warmPage = browserContext.newPage();
+                warmPageUses = 0;
+            } else if (warmPageDirty) {
+                warmPage.unrouteAll(new Page.UnrouteAllOptions().setBehavior(UnrouteBehavior.IGNOREERRORS));
+                warmPage.navigate(BLANK_PAGE_URL);
+            }
+            warmPageDirty = false;
+        } catch (Exception ex) {
+            log.debug("prepare warm page failed, profile={}, error={}", profileId, ex.getMessage());
+            recycleWarmPage("reset_failed");
+        }
+    }
+
+    private <T> T executeOnWarmPage(BrowserTask<T> task, CancellationToken cancellationToken) throws Exception {
+        if (warmPage == null || warmPage.isClosed() || warmPageDirty) {
+            // Preparation was skipped or failed, fall back to preparing inline.
+            preparePage();
+        }
+        Page page = warmPage == null ? browserContext.newPage() : warmPage;
+        warmPage = page;
+        warmPageUses++;
+        warmPageDirty = true;
+        boolean succeeded = false;
+        try {
+            T result = task.execute(buildRuntimeContext(page, cancellationToken));
+            succeeded = true;
+            return result;
+        } finally {
+            // A failed or cancelled task may leave the page mid-navigation, never hand it to the next task.
+            if (!succeeded) {
+                recycleWarmPage("error");
+            } else if (warmPageUses >= pageMaxUses) {
+                recycleWarmPage("max_uses");
+            }
+        }
+    }
+
+    private void recycleWarmPage(String reason) {
+        Page page = warmPage;
+        warmPage = null;
+        warmPageUses = 0;
+        warmPageDirty = false;
+        Metrics.counter(METRIC_PAGE_RECYCLED, "reason", reason).increment();
+        if (page == null) {
+            return;
+        }
+        try {
+            page.close();
+        } catch (Exception ex) {
+            log.debug("close warm page failed, profile={}, error={}", profileId, ex.getMessage());
+        }
+    }
+
+    private BrowserRuntimeContext buildRuntimeContext(Page page, CancellationToken cancellationToken) {
+        return BrowserRuntimeContext.builder()
+            .profileId(profileId)
+            .baseVersion(0L)
+            .browserContext(browserContext)
+            .page(page)
+            .cancellationToken(cancellationToken)
+            .build();
+    }
+
     public void shutdown() {
         close();
     }
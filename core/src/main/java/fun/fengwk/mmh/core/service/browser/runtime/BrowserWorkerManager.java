@@ -20,7 +20,7 @@ import java.nio.file.Paths;
 public class BrowserWorkerManager {
 
     private final String masterProfileId;
-    private final DefaultBrowserWorkerPool defaultPool;
+    private final BrowserWorkerPool defaultPool;
     private final MasterBrowserWorkerPool masterPool;
 
     @Autowired
@@ -34,12 +34,7 @@ public class BrowserWorkerManager {
         Path profileRoot = Paths.get(mmhProperties.getBrowserDataPath()).toAbsolutePath().normalize();
         this.masterProfileId = profileIdValidator.normalizeProfileId(browserProperties.getDefaultProfileId());
 
-        this.defaultPool = new DefaultBrowserWorkerPool(
-            defaultPoolConfig,
-            profileRoot,
-            browserProperties,
-            loginLockManager
-        );
+        this.defaultPool = createDefaultPool(defaultPoolConfig, profileRoot, browserProperties, loginLockManager);
         this.masterPool = new MasterBrowserWorkerPool(
             profileRoot,
             this.masterProfileId,
@@ -66,11 +61,42 @@ public class BrowserWorkerManager {
         masterPool.shutdown();
     }
 
+    private BrowserWorkerPool createDefaultPool(
+        WorkerPoolConfig defaultPoolConfig,
+        Path profileRoot,
+        BrowserProperties browserProperties,
+        LoginLockManager loginLockManager
+    ) {
+        if (browserProperties.isSharedBrowserEnabled()) {
+            return new SharedBrowserWorkerPool(
+                defaultPoolConfig,
+                profileRoot,
+                browserProperties,
+                loginLockManager,
+                browserProperties.getSharedBrowserCount()
+            );
+        }
+        return new DefaultBrowserWorkerPool(
+            defaultPoolConfig,
+            profileRoot,
+            browserProperties,
+            loginLockManager
+        );
+    }
+
     private WorkerPoolConfig buildDefaultPoolConfig(BrowserProperties browserProperties) {
         return WorkerPoolConfig.builder()
             .minWorkers(browserProperties.getWorkerPoolMinSize())
             .maxWorkers(browserProperties.getWorkerPoolMaxSize())
             .queueTimeoutMs(browserProperties.getQueueOfferTimeoutMs())
+            .healthCheckIntervalMs(browserProperties.getWorkerHealthCheckIntervalMs())
+            .workerMaxTasks(browserProperties.getWorkerMaxTasks())
+            .workerMaxAgeMs(browserProperties.getWorkerMaxAgeMs())
+            .workerMaxRssBytes(browserProperties.getWorkerMaxRssMb() * 1024L * 1024L)
+            .idleTimeoutMs(browserProperties.getWorkerIdleTimeoutMs())
+            .prespawnHighWaterMark(browserProperties.getWorkerPrespawnHighWaterMark())
+            .spawnMinIntervalMs(browserProperties.getWorkerSpawnMinIntervalMs())
+            .launchParallelism(browserProperties.getWorkerLaunchParallelism())
             .build();
     }
 
@@ -8,28 +8,62 @@ import fun.fengwk.mmh.core.service.scrape.runtime.MasterProfileLockedException;
 import com.microsoft.playwright.BrowserContext;
 import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Playwright;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Base browser worker pool with unified worker management.
  *
+ * <p>Acquire and create are timed as meters and as {@link WorkerAcquireEvent}/{@link WorkerCreateEvent} JFR events.
+ *
  * <p>Lifecycle model:
  * <ul>
- *     <li>Create worker lazily (except preheated min workers).</li>
- *     <li>Borrow worker from queue -> execute task -> return worker to queue.</li>
+ *     <li>Create worker lazily (except preheated min workers). With {@code launchParallelism} set, workers are
+ *     launched by a bounded background launcher: a task finding no idle worker queues as a waiter, requests
+ *     one launch and takes whichever worker shows up first, a newly launched one or a returned one. Launches
+ *     still queued once their waiters were served are skipped.</li>
+ *     <li>Borrow worker from queue -> execute task -> return worker to queue. The most recently returned
+ *     worker is borrowed first, so surplus workers stay idle and age out.</li>
+ *     <li>Elastic sizing: workers above {@code minWorkers} idle for {@code idleTimeoutMs} are closed, and once
+ *     busy workers reach {@code prespawnHighWaterMark} of {@code maxWorkers} one spare worker is launched in
+ *     the background, at most once per {@code spawnMinIntervalMs}.</li>
+ *     <li>When saturated, tasks wait in an explicit queue ordered by priority, then deadline, then arrival;
+ *     a returned worker is handed straight to the head waiter and expired waiters are skipped.</li>
+ *     <li>A cancelled task leaves the queue right away and never starts on a worker.</li>
+ *     <li>With page reuse enabled a returned worker resets its warm page on a helper thread before it is
+ *     offered again, so neither the finishing nor the next task pays for it.</li>
+ *     <li>Workers are recycled on return once they served {@code workerMaxTasks} tasks or reached
+ *     {@code workerMaxAgeMs}; a maintenance loop also pings idle workers, evicts those whose browser
+ *     grew beyond {@code workerMaxRssBytes}, and replaces every recycled idle worker right away. When
+ *     {@link #shouldReleaseIdleWorkers()} asks for it the loop closes all idle workers without replacement.</li>
  *     <li>Track all workers in {@code allWorkers} so shutdown can close both idle and in-flight workers.</li>
  * </ul>
  *
@@ -39,6 +73,18 @@ public abstract class BrowserWorkerPool {
 
     private static final Logger log = LoggerFactory.getLogger(BrowserWorkerPool.class);
 
+    private static final String METRIC_POOL_ACQUIRE = "mmh.browser.pool.acquire";
+    private static final String METRIC_POOL_WORKERS = "mmh.browser.pool.workers";
+    private static final String METRIC_POOL_WAITERS = "mmh.browser.pool.waiters";
+    private static final String METRIC_WORKER_CREATE = "mmh.browser.worker.create";
+    private static final String METRIC_WORKER_RECYCLED = "mmh.browser.worker.recycled";
+    private static final String METRIC_POOL_SCALE = "mmh.browser.pool.scale";
+
+    private static final Comparator<Waiter> WAITER_ORDER = Comparator
+        .comparing((Waiter waiter) -> waiter.priority)
+        .thenComparingLong(waiter -> waiter.deadlineNanos)
+        .thenComparingLong(waiter -> waiter.sequence);
+
     protected final String poolName;
     protected final WorkerPoolConfig config;
     protected final Path profileRoot;
@@ -46,9 +92,26 @@ public abstract class BrowserWorkerPool {
     protected final LoginLockManager loginLockManager;
 
     /**
-     * Idle worker queue.
+     * Guards {@code availableWorkers}, {@code waiters} and {@code launchingWorkers}.
+     */
+    private final ReentrantLock queueLock = new ReentrantLock();
+
+    /**
+     * Idle worker queue, only non-empty while nobody is waiting.
+     */
+    private final Deque<BrowserWorker> availableWorkers = new ArrayDeque<>();
+
+    /**
+     * Tasks waiting for a worker, head is served first.
+     */
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(WAITER_ORDER);
+
+    private final AtomicLong waiterSequence = new AtomicLong();
+
+    /**
+     * Launches in progress on {@code workerLauncher}, guarded by {@code queueLock}.
      */
-    private final BlockingQueue<BrowserWorker> availableWorkers;
+    private int launchingWorkers;
 
     /**
      * Global worker registry for deterministic shutdown.
@@ -65,6 +128,32 @@ public abstract class BrowserWorkerPool {
      */
     private final AtomicBoolean shutdown = new AtomicBoolean(false);
 
+    /**
+     * Prepares warm pages of returned workers, {@code null} when page reuse is disabled.
+     */
+    private final ExecutorService pagePreparer;
+
+    /**
+     * Launches workers for waiting tasks, {@code null} when workers are created on the requesting thread.
+     */
+    private final ExecutorService workerLauncher;
+
+    /**
+     * Runs {@link #maintainIdleWorkers()}, idle shrinking, release checks, and ahead-of-demand launches without
+     * a launcher, started once min workers are up.
+     */
+    private volatile ScheduledExecutorService maintenanceExecutor;
+
+    /**
+     * Start time of the last ahead-of-demand launch, caps the spawn rate.
+     */
+    private final AtomicLong lastPrespawnAtMs = new AtomicLong();
+
+    /**
+     * Pool gauges, removed on shutdown so a later pool with the same name reports its own state.
+     */
+    private final List<Meter> poolMeters = new CopyOnWriteArrayList<>();
+
     protected BrowserWorkerPool(
         String poolName,
         WorkerPoolConfig config,
@@ -77,22 +166,25 @@ public abstract class BrowserWorkerPool {
         this.profileRoot = profileRoot.toAbsolutePath().normalize();
         this.browserProperties = browserProperties;
         this.loginLockManager = loginLockManager;
-        this.availableWorkers = new LinkedBlockingQueue<>(this.config.getMaxWorkers());
+        this.pagePreparer = resolvePageMaxUses() > 0 ? newPagePreparer(poolName) : null;
+        this.workerLauncher = this.config.getLaunchParallelism() > 0
+            ? newWorkerLauncher(poolName, this.config.getLaunchParallelism())
+            : null;
+        bindMetrics();
     }
 
     /**
-     * Initialize minimum workers. Must be called after construction.
+     * Initialize minimum workers and start the maintenance loop. Must be called after construction.
      */
     protected void initializeMinWorkers() {
         for (int i = 0; i < config.getMinWorkers(); i++) {
             BrowserWorker worker = tryCreateWorker();
-            if (worker == null || !availableWorkers.offer(worker)) {
-                if (worker != null) {
-                    closeWorkerAndReleaseSlot(worker);
-                }
+            if (worker == null) {
                 throw new IllegalStateException("failed to initialize " + poolName + " worker pool");
             }
+            offerWorker(worker);
         }
+        startMaintenance();
     }
 
     public <T> T execute(BrowserTask<T> task) {
@@ -103,7 +195,8 @@ public abstract class BrowserWorkerPool {
         String taskName = task == null ? "null" : task.getClass().getName();
         BrowserWorker worker = null;
         try {
-            worker = acquireWorker();
+            worker = acquireWorkerTimed(task);
+            maybePrespawnWorker();
             return worker.execute(task);
         } catch (RuntimeException ex) {
             if (isExpectedRuntimeException(ex)) {
@@ -145,11 +238,31 @@ public abstract class BrowserWorkerPool {
     public void shutdown() {
         if (shutdown.compareAndSet(false, true)) {
             log.info("shutting down {} worker pool", poolName);
+            if (pagePreparer != null) {
+                pagePreparer.shutdownNow();
+            }
+            if (workerLauncher != null) {
+                workerLauncher.shutdownNow();
+            }
+            if (maintenanceExecutor != null) {
+                maintenanceExecutor.shutdownNow();
+            }
 
-            // First close all idle workers already in queue.
-            BrowserWorker worker;
-            while ((worker = availableWorkers.poll()) != null) {
-                closeWorkerAndReleaseSlot(worker);
+            // First close all idle workers already in queue and wake waiters so they fail fast.
+            List<BrowserWorker> idleWorkers;
+            queueLock.lock();
+            try {
+                idleWorkers = new ArrayList<>(availableWorkers);
+                availableWorkers.clear();
+                for (Waiter waiter : waiters) {
+                    waiter.condition.signal();
+                }
+                waiters.clear();
+            } finally {
+                queueLock.unlock();
+            }
+            for (BrowserWorker idleWorker : idleWorkers) {
+                closeWorkerAndReleaseSlot(idleWorker);
             }
 
             // Then close remaining workers that may still be in-flight.
@@ -158,10 +271,53 @@ public abstract class BrowserWorkerPool {
                 closeWorkerAndReleaseSlot(remainingWorker);
             }
 
+            unbindMetrics();
             log.info("{} worker pool shutdown completed", poolName);
         }
     }
 
+    /**
+     * Idle workers parked in the queue.
+     */
+    public int getIdleWorkerCount() {
+        queueLock.lock();
+        try {
+            return availableWorkers.size();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Created workers, idle and busy.
+     */
+    public int getActiveWorkerCount() {
+        return activeWorkerCount.get();
+    }
+
+    /**
+     * Created workers not parked in the idle queue.
+     */
+    public int getBusyWorkerCount() {
+        return Math.max(0, activeWorkerCount.get() - getIdleWorkerCount());
+    }
+
+    public int getMaxWorkerCount() {
+        return config.getMaxWorkers();
+    }
+
+    /**
+     * Tasks waiting for a worker.
+     */
+    public int getWaiterCount() {
+        queueLock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
     /**
      * Allocate profile ID for a new worker.
      *
@@ -204,40 +360,296 @@ public abstract class BrowserWorkerPool {
         return true;
     }
 
-    private BrowserWorker acquireWorker() {
-        // Fast path: reuse an idle worker.
-        BrowserWorker worker = availableWorkers.poll();
-        if (worker != null) {
-            return worker;
+    /**
+     * Whether the maintenance loop should close every idle worker without replacing it.
+     *
+     * <p>Default pool never does; master pool releases its profile when the login command asks for it.
+     */
+    protected boolean shouldReleaseIdleWorkers() {
+        return false;
+    }
+
+    /**
+     * Interval of a dedicated {@link #shouldReleaseIdleWorkers()} check, {@code 0} leaves it to the health check loop.
+     *
+     * <p>Read once the pool is constructed, so subclasses may use their own fields.
+     */
+    protected long resolveReleaseCheckIntervalMs() {
+        return 0;
+    }
+
+    /**
+     * Tasks served by one warm page of a worker, {@code 0} when page reuse is disabled.
+     */
+    protected int resolvePageMaxUses() {
+        if (browserProperties == null || !browserProperties.isPageReuseEnabled()) {
+            return 0;
         }
+        return Math.max(1, browserProperties.getPageReuseMaxUses());
+    }
 
-        // Try to scale out if capacity allows.
-        worker = tryCreateWorker();
-        if (worker != null) {
-            return worker;
+    private void bindMetrics() {
+        bindWorkerGauge("idle", BrowserWorkerPool::getIdleWorkerCount);
+        bindWorkerGauge("active", BrowserWorkerPool::getActiveWorkerCount);
+        bindWorkerGauge("busy", BrowserWorkerPool::getBusyWorkerCount);
+        bindWorkerGauge("max", BrowserWorkerPool::getMaxWorkerCount);
+        poolMeters.add(Gauge.builder(METRIC_POOL_WAITERS, this, BrowserWorkerPool::getWaiterCount)
+            .tag("pool", poolName)
+            .register(Metrics.globalRegistry));
+    }
+
+    private void bindWorkerGauge(String state, ToDoubleFunction<BrowserWorkerPool> value) {
+        poolMeters.add(Gauge.builder(METRIC_POOL_WORKERS, this, value)
+            .tag("pool", poolName)
+            .tag("state", state)
+            .register(Metrics.globalRegistry));
+    }
+
+    private void unbindMetrics() {
+        for (Meter meter : poolMeters) {
+            Metrics.globalRegistry.remove(meter);
         }
+        poolMeters.clear();
+    }
 
-        // Capacity reached: wait for a returned worker.
+    private BrowserWorker acquireWorkerTimed(BrowserTask<?> task) {
+        WorkerAcquireEvent event = new WorkerAcquireEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        String outcome = "acquired";
+        BrowserWorker worker = null;
         try {
-            worker = availableWorkers.poll(config.getQueueTimeoutMs(), TimeUnit.MILLISECONDS);
-            if (worker == null) {
-                log.info(
-                    "worker acquire timeout, pool={}, timeoutMs={}, activeWorkers={}, idleWorkers={}",
-                    poolName,
-                    config.getQueueTimeoutMs(),
-                    activeWorkerCount.get(),
-                    availableWorkers.size()
-                );
-                throw createBusyException();
-            }
+            worker = acquireWorker(task);
             return worker;
+        } catch (RuntimeException ex) {
+            outcome = resolveAcquireFailureOutcome(ex);
+            throw ex;
+        } finally {
+            Metrics.timer(METRIC_POOL_ACQUIRE, "pool", poolName, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            event.complete(poolName, task == null ? null : task.priority(), outcome, worker);
+        }
+    }
+
+    private String resolveAcquireFailureOutcome(RuntimeException ex) {
+        if (ex instanceof BrowserTaskCancelledException) {
+            return "cancelled";
+        }
+        if (ex instanceof DefaultBrowserWorkerBusyException || ex instanceof MasterProfileBrowserWorkerBusyException) {
+            return "busy";
+        }
+        if (ex instanceof MasterProfileLockedException) {
+            return "locked";
+        }
+        return "error";
+    }
+
+    private BrowserWorker acquireWorker(BrowserTask<?> task) {
+        BrowserTaskPriority priority = task == null || task.priority() == null
+            ? BrowserTaskPriority.INTERACTIVE
+            : task.priority();
+        long deadlineNanos = resolveDeadlineNanos(task);
+        if (deadlineNanos - System.nanoTime() <= 0) {
+            // The caller has already given up, do not spend a worker on it.
+            log.info("worker acquire skipped, deadline passed, pool={}, priority={}", poolName, priority);
+            throw createBusyException();
+        }
+        CancellationToken cancellationToken = resolveCancellationToken(task);
+        cancellationToken.throwIfCancelled();
+        // Keep the arrival order across retries after a slot grant was lost to a racing caller.
+        long sequence = waiterSequence.getAndIncrement();
+
+        while (true) {
+            // Fast path: reuse the most recently returned idle worker.
+            BrowserWorker worker = pollIdleWorker();
+            if (worker != null) {
+                return worker;
+            }
+
+            if (workerLauncher == null) {
+                // Try to scale out on the calling thread if capacity allows.
+                worker = tryCreateWorker();
+                if (worker != null) {
+                    return worker;
+                }
+            }
+
+            // Wait for a returned or freshly launched worker, or a released slot.
+            Waiter waiter = new Waiter(priority, deadlineNanos, sequence, queueLock.newCondition());
+            queueLock.lock();
+            try {
+                worker = availableWorkers.pollLast();
+                if (worker != null) {
+                    return worker;
+                }
+                if (workerLauncher == null && activeWorkerCount.get() < config.getMaxWorkers()) {
+                    continue;
+                }
+                waiters.add(waiter);
+                if (workerLauncher != null) {
+                    requestWorkerLaunch();
+                }
+                if (awaitWorker(waiter, priority, cancellationToken)) {
+                    return waiter.worker;
+                }
+            } finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Block until the waiter is handed a worker or a slot, or the launch it waited for failed.
+     *
+     * @return {@code true} when a worker was handed over, {@code false} when a slot was released
+     */
+    private boolean awaitWorker(Waiter waiter, BrowserTaskPriority priority, CancellationToken cancellationToken) {
+        // Caller holds queueLock, the callback only runs while the waiter is parked in awaitNanos.
+        try (CancellationToken.Registration ignored = cancellationToken.onCancel(() -> wakeWaiter(waiter))) {
+            while (waiter.worker == null && !waiter.slotReleased && waiter.launchFailure == null) {
+                if (shutdown.get()) {
+                    waiters.remove(waiter);
+                    throw new IllegalStateException(poolName + " worker pool is shutdown");
+                }
+                if (cancellationToken.isCancelled()) {
+                    waiters.remove(waiter);
+                    log.info("worker acquire cancelled, pool={}, priority={}, reason={}", poolName, priority, cancellationToken.getReason());
+                    cancellationToken.throwIfCancelled();
+                }
+                long remainingNanos = waiter.deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    waiters.remove(waiter);
+                    log.info(
+                        "worker acquire timeout, pool={}, priority={}, timeoutMs={}, activeWorkers={}, waiters={}",
+                        poolName,
+                        priority,
+                        config.getQueueTimeoutMs(),
+                        activeWorkerCount.get(),
+                        waiters.size()
+                    );
+                    throw createBusyException();
+                }
+                waiter.condition.awaitNanos(remainingNanos);
+            }
+            if (waiter.launchFailure != null) {
+                throw waiter.launchFailure;
+            }
+            if (waiter.worker == null && cancellationToken.isCancelled()) {
+                // The freed slot was granted to a cancelled caller, pass it on instead of creating a worker.
+                signalSlotReleased();
+                cancellationToken.throwIfCancelled();
+            }
+            return waiter.worker != null;
         } catch (InterruptedException ex) {
+            waiters.remove(waiter);
+            if (waiter.worker != null) {
+                offerWorker(waiter.worker);
+            } else if (waiter.slotReleased) {
+                signalSlotReleased();
+            }
             Thread.currentThread().interrupt();
             log.warn("worker acquire interrupted, pool={}", poolName, ex);
             throw new IllegalStateException("interrupted while waiting for worker", ex);
         }
     }
 
+    private void wakeWaiter(Waiter waiter) {
+        queueLock.lock();
+        try {
+            waiter.condition.signal();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private CancellationToken resolveCancellationToken(BrowserTask<?> task) {
+        CancellationToken cancellationToken = task == null ? null : task.cancellationToken();
+        return cancellationToken == null ? CancellationToken.none() : cancellationToken;
+    }
+
+    private long resolveDeadlineNanos(BrowserTask<?> task) {
+        long now = System.nanoTime();
+        long timeoutMs = config.getQueueTimeoutMs();
+        long taskDeadlineAtMs = task == null ? 0L : task.deadlineAtMs();
+        if (taskDeadlineAtMs > 0) {
+            timeoutMs = Math.min(timeoutMs, taskDeadlineAtMs - System.currentTimeMillis());
+        }
+        return now + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    private BrowserWorker pollIdleWorker() {
+        queueLock.lock();
+        try {
+            return availableWorkers.pollLast();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private BrowserWorker pollOldestIdleWorker() {
+        queueLock.lock();
+        try {
+            return availableWorkers.pollFirst();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Hand the worker to the best live waiter, or park it in the idle queue.
+     */
+    private void offerWorker(BrowserWorker worker) {
+        queueLock.lock();
+        try {
+            Waiter waiter = pollLiveWaiter();
+            if (waiter != null) {
+                waiter.worker = worker;
+                waiter.condition.signal();
+                return;
+            }
+            // Idle size above max should not happen under normal invariants, still handled defensively.
+            if (availableWorkers.size() < config.getMaxWorkers()) {
+                availableWorkers.offerLast(worker);
+                return;
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        closeWorkerAndReleaseSlot(worker);
+    }
+
+    /**
+     * Let the best live waiter retry creating a worker in a freed slot.
+     */
+    private void signalSlotReleased() {
+        queueLock.lock();
+        try {
+            Waiter waiter = pollLiveWaiter();
+            if (waiter != null) {
+                waiter.slotReleased = true;
+                waiter.condition.signal();
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Pop the head waiter, dropping waiters whose deadline already passed. Caller holds {@code queueLock}.
+     */
+    private Waiter pollLiveWaiter() {
+        long now = System.nanoTime();
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (waiter.deadlineNanos - now > 0) {
+                return waiter;
+            }
+            // Expired: wake it so it fails with busy instead of consuming a worker.
+            waiter.condition.signal();
+        }
+        return null;
+    }
+
     private void releaseWorker(BrowserWorker worker) {
         // During shutdown, worker should be closed instead of returning to queue.
         if (shutdown.get()) {
@@ -251,9 +663,350 @@ public abstract class BrowserWorkerPool {
             return;
         }
 
-        // Queue full should not happen under normal invariants, still handled defensively.
-        if (!availableWorkers.offer(worker)) {
+        String recycleReason = resolveWornOutReason(worker);
+        if (recycleReason != null) {
+            // The freed slot goes to the head waiter, which launches a fresh worker.
+            recycleWorker(worker, recycleReason);
+            return;
+        }
+
+        if (pagePreparer != null && worker.isPageReuseEnabled()) {
+            prepareAndOfferWorker(worker);
+            return;
+        }
+        offerWorker(worker);
+    }
+
+    /**
+     * Shrink workers idle too long, then check each remaining idle worker once: recycle dead, worn out
+     * or oversized ones and launch their replacements.
+     *
+     * <p>A worker is only taken out of the idle queue for its ping, Playwright objects must not be shared.
+     * Checked workers go back to the tail in their original order, so the head keeps the longest idle one.
+     */
+    void maintainIdleWorkers() {
+        if (shouldReleaseIdleWorkers()) {
+            releaseIdleWorkers();
+            return;
+        }
+        shrinkIdleWorkers();
+        Map<Path, Long> residentBytes = config.getWorkerMaxRssBytes() > 0
+            ? BrowserProcessMemory.residentBytesByUserDataDir()
+            : Map.of();
+        int idleCount = getIdleWorkerCount();
+        int recycled = 0;
+        for (int i = 0; i < idleCount && !shutdown.get(); i++) {
+            BrowserWorker worker = pollOldestIdleWorker();
+            if (worker == null) {
+                break;
+            }
+            String recycleReason = resolveIdleRecycleReason(worker, residentBytes);
+            if (recycleReason == null) {
+                offerWorker(worker);
+                continue;
+            }
+            recycleWorker(worker, recycleReason);
+            recycled++;
+        }
+        for (int i = 0; i < recycled && !shutdown.get(); i++) {
+            replaceWorker();
+        }
+    }
+
+    private void startMaintenance() {
+        long intervalMs = config.getHealthCheckIntervalMs();
+        long idleTimeoutMs = config.getIdleTimeoutMs();
+        long releaseCheckIntervalMs = resolveReleaseCheckIntervalMs();
+        boolean idle = intervalMs <= 0 && idleTimeoutMs <= 0 && releaseCheckIntervalMs <= 0
+            && config.getPrespawnHighWaterMark() <= 0;
+        if (idle || maintenanceExecutor != null) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mmh-" + poolName + "-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (intervalMs > 0) {
+            executor.scheduleWithFixedDelay(quietly(this::maintainIdleWorkers), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+        // Shrinking must not depend on health checks, nor lag a health check interval longer than the timeout.
+        if (idleTimeoutMs > 0 && (intervalMs <= 0 || idleTimeoutMs < intervalMs)) {
+            executor.scheduleWithFixedDelay(quietly(this::shrinkIdleWorkers), idleTimeoutMs, idleTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        // Release requests are answered quickly without pinging workers at the same rate.
+        if (releaseCheckIntervalMs > 0) {
+            executor.scheduleWithFixedDelay(
+                quietly(this::releaseIdleWorkersIfRequested),
+                releaseCheckIntervalMs,
+                releaseCheckIntervalMs,
+                TimeUnit.MILLISECONDS
+            );
+        }
+        maintenanceExecutor = executor;
+    }
+
+    private void releaseIdleWorkersIfRequested() {
+        if (shouldReleaseIdleWorkers()) {
+            releaseIdleWorkers();
+        }
+    }
+
+    private void releaseIdleWorkers() {
+        List<BrowserWorker> idleWorkers;
+        queueLock.lock();
+        try {
+            idleWorkers = new ArrayList<>(availableWorkers);
+            availableWorkers.clear();
+        } finally {
+            queueLock.unlock();
+        }
+        for (BrowserWorker idleWorker : idleWorkers) {
+            recycleWorker(idleWorker, "released");
+        }
+    }
+
+    /**
+     * Close workers idle longer than {@code idleTimeoutMs}, longest idle first, never below {@code minWorkers}.
+     */
+    private void shrinkIdleWorkers() {
+        long idleTimeoutMs = config.getIdleTimeoutMs();
+        if (idleTimeoutMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<BrowserWorker> expiredWorkers = new ArrayList<>();
+        queueLock.lock();
+        try {
+            BrowserWorker worker;
+            while ((worker = availableWorkers.peekFirst()) != null
+                && activeWorkerCount.get() - expiredWorkers.size() > config.getMinWorkers()
+                && now - worker.getLastUsedAtMs() >= idleTimeoutMs) {
+                expiredWorkers.add(availableWorkers.pollFirst());
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        for (BrowserWorker expiredWorker : expiredWorkers) {
+            log.info(
+                "shrink idle browser worker, pool={}, profileId={}, idleMs={}",
+                poolName,
+                expiredWorker.getProfileId(),
+                now - expiredWorker.getLastUsedAtMs()
+            );
+            Metrics.counter(METRIC_POOL_SCALE, "pool", poolName, "direction", "down").increment();
+            closeWorkerAndReleaseSlot(expiredWorker);
+        }
+    }
+
+    /**
+     * Launch one spare worker in the background when no worker is idle and busy ones crossed the high-water mark.
+     */
+    private void maybePrespawnWorker() {
+        ExecutorService executor = workerLauncher != null ? workerLauncher : maintenanceExecutor;
+        if (config.getPrespawnHighWaterMark() <= 0 || executor == null || shutdown.get()) {
+            return;
+        }
+        int activeWorkers = activeWorkerCount.get();
+        if (activeWorkers >= config.getMaxWorkers() || getIdleWorkerCount() > 0) {
+            return;
+        }
+        if ((double) activeWorkers / config.getMaxWorkers() < config.getPrespawnHighWaterMark()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long lastPrespawnAt = lastPrespawnAtMs.get();
+        if (now - lastPrespawnAt < config.getSpawnMinIntervalMs() || !lastPrespawnAtMs.compareAndSet(lastPrespawnAt, now)) {
+            return;
+        }
+        try {
+            executor.execute(this::prespawnWorker);
+        } catch (RejectedExecutionException ex) {
+            log.debug("prespawn browser worker skipped, pool={}, shutdown in progress", poolName);
+        }
+    }
+
+    private void prespawnWorker() {
+        try {
+            BrowserWorker worker = tryCreateWorker();
+            if (worker == null) {
+                return;
+            }
+            log.debug(
+                "prespawned browser worker, pool={}, profileId={}, activeWorkers={}",
+                poolName,
+                worker.getProfileId(),
+                activeWorkerCount.get()
+            );
+            Metrics.counter(METRIC_POOL_SCALE, "pool", poolName, "direction", "up").increment();
+            if (shutdown.get()) {
+                closeWorkerAndReleaseSlot(worker);
+            } else {
+                offerWorker(worker);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("prespawn browser worker failed, pool={}, error={}", poolName, ex.getMessage());
+        }
+    }
+
+    private Runnable quietly(Runnable maintenanceTask) {
+        return () -> {
+            try {
+                maintenanceTask.run();
+            } catch (Exception ex) {
+                // A thrown exception would cancel the schedule.
+                log.warn("browser worker maintenance failed, pool={}, error={}", poolName, ex.getMessage(), ex);
+            }
+        };
+    }
+
+    private String resolveIdleRecycleReason(BrowserWorker worker, Map<Path, Long> residentBytes) {
+        if (!worker.ping()) {
+            return "dead";
+        }
+        String wornOutReason = resolveWornOutReason(worker);
+        if (wornOutReason != null) {
+            return wornOutReason;
+        }
+        Long workerResidentBytes = worker.getUserDataDir() == null ? null : residentBytes.get(worker.getUserDataDir());
+        if (workerResidentBytes != null && workerResidentBytes > config.getWorkerMaxRssBytes()) {
+            log.info(
+                "browser worker memory above limit, pool={}, profileId={}, rssBytes={}, maxRssBytes={}",
+                poolName,
+                worker.getProfileId(),
+                workerResidentBytes,
+                config.getWorkerMaxRssBytes()
+            );
+            return "memory";
+        }
+        return null;
+    }
+
+    private String resolveWornOutReason(BrowserWorker worker) {
+        if (config.getWorkerMaxTasks() > 0 && worker.getTaskCount() >= config.getWorkerMaxTasks()) {
+            return "max_tasks";
+        }
+        if (config.getWorkerMaxAgeMs() > 0 && System.currentTimeMillis() - worker.getCreatedAtMs() >= config.getWorkerMaxAgeMs()) {
+            return "max_age";
+        }
+        return null;
+    }
+
+    private void recycleWorker(BrowserWorker worker, String reason) {
+        log.info(
+            "recycle browser worker, pool={}, profileId={}, reason={}, tasks={}, ageMs={}",
+            poolName,
+            worker.getProfileId(),
+            reason,
+            worker.getTaskCount(),
+            System.currentTimeMillis() - worker.getCreatedAtMs()
+        );
+        Metrics.counter(METRIC_WORKER_RECYCLED, "pool", poolName, "reason", reason).increment();
+        closeWorkerAndReleaseSlot(worker);
+    }
+
+    /**
+     * Launch a worker for a recycled idle one, skipped when a waiter already took the slot.
+     */
+    private void replaceWorker() {
+        try {
+            BrowserWorker worker = tryCreateWorker();
+            if (worker != null) {
+                offerWorker(worker);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("replace browser worker failed, pool={}, error={}", poolName, ex.getMessage());
+        }
+    }
+
+    /**
+     * Reset the warm page off the caller thread, the worker stays out of the queue until it is ready.
+     */
+    private void prepareAndOfferWorker(BrowserWorker worker) {
+        try {
+            pagePreparer.execute(() -> {
+                worker.preparePage();
+                if (shutdown.get()) {
+                    closeWorkerAndReleaseSlot(worker);
+                } else {
+                    offerWorker(worker);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Only rejected once shutdown began.
+            closeWorkerAndReleaseSlot(worker);
+        }
+    }
+
+    /**
+     * Reserve a slot and queue a launch for the waiter just added, no-op at capacity. Caller holds {@code queueLock}.
+     */
+    private void requestWorkerLaunch() {
+        if (!reserveWorkerSlot()) {
+            return;
+        }
+        try {
+            workerLauncher.execute(this::launchForWaiters);
+        } catch (RejectedExecutionException ex) {
+            // Only rejected once shutdown began, the waiter fails on its next check.
+            activeWorkerCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Launch a worker in a slot reserved by {@link #requestWorkerLaunch()} and hand it to the head waiter.
+     *
+     * <p>Skipped when the launches already running cover every waiter, e.g. returned workers served them
+     * while this launch was queued. A failure is handed to the head waiter, the freed slot to the next one.
+     */
+    private void launchForWaiters() {
+        queueLock.lock();
+        try {
+            if (shutdown.get() || launchingWorkers >= waiters.size()) {
+                // Nobody left to serve, give the slot back without waking a waiter into another launch.
+                activeWorkerCount.decrementAndGet();
+                return;
+            }
+            launchingWorkers++;
+        } finally {
+            queueLock.unlock();
+        }
+
+        BrowserWorker worker = null;
+        RuntimeException failure = null;
+        try {
+            worker = createReservedWorker();
+        } catch (RuntimeException ex) {
+            failure = ex;
+        } finally {
+            queueLock.lock();
+            try {
+                launchingWorkers--;
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        if (worker == null) {
+            failHeadWaiter(failure);
+            releaseWorkerSlot();
+        } else if (shutdown.get()) {
             closeWorkerAndReleaseSlot(worker);
+        } else {
+            offerWorker(worker);
+        }
+    }
+
+    private void failHeadWaiter(RuntimeException failure) {
+        queueLock.lock();
+        try {
+            Waiter waiter = pollLiveWaiter();
+            if (waiter != null) {
+                waiter.launchFailure = failure;
+                waiter.condition.signal();
+            }
+        } finally {
+            queueLock.unlock();
         }
     }
 
@@ -263,24 +1016,59 @@ public abstract class BrowserWorkerPool {
             return null;
         }
         try {
-            return createWorker();
+            return createReservedWorker();
+        } catch (RuntimeException ex) {
+            releaseWorkerSlot();
+            throw ex;
+        }
+    }
+
+    /**
+     * Create a worker in an already reserved slot, the caller releases the slot on failure.
+     */
+    private BrowserWorker createReservedWorker() {
+        WorkerCreateEvent event = new WorkerCreateEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        String outcome = "failure";
+        BrowserWorker worker = null;
+        try {
+            worker = createWorker();
+            outcome = "success";
+            return worker;
         } catch (RuntimeException ex) {
             if (isExpectedRuntimeException(ex)) {
                 log.debug("create worker expected failure, pool={}, error={}", poolName, ex.getMessage());
             } else {
                 log.warn("create worker runtime failure, pool={}, error={}", poolName, ex.getMessage(), ex);
             }
-            releaseWorkerSlot();
             throw ex;
         } catch (Exception ex) {
             log.warn("create worker checked failure, pool={}, error={}", poolName, ex.getMessage(), ex);
-            releaseWorkerSlot();
             throw new IllegalStateException("failed to create " + poolName + " worker: " + ex.getMessage(), ex);
+        } finally {
+            Metrics.timer(METRIC_WORKER_CREATE, "pool", poolName, "outcome", outcome)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            event.complete(poolName, outcome, worker);
         }
     }
 
     private BrowserWorker createWorker() throws Exception {
         String profileId = allocateProfileId();
+        BrowserWorker worker = launchWorker(profileId);
+        allWorkers.add(worker);
+        worker.preparePage();
+        log.debug("created {} worker: {}", poolName, profileId);
+        return worker;
+    }
+
+    /**
+     * Launch browser resources for a new worker.
+     *
+     * <p>Default implementation starts a dedicated Playwright driver with a persistent context
+     * under {@code profileRoot}. Pools sharing browser processes can override this hook.
+     */
+    protected BrowserWorker launchWorker(String profileId) throws Exception {
         Path userDataDir = resolveUserDataDir(profileId);
         LoginLockManager.LoginLock profileLock = acquireProfileLock(profileId, userDataDir);
 
@@ -291,17 +1079,15 @@ public abstract class BrowserWorkerPool {
             browserContext = playwright.chromium().launchPersistentContext(userDataDir, buildContextOptions());
             BrowserStealthSupport.apply(browserContext, browserProperties);
 
-            BrowserWorker worker = new BrowserWorker(
+            return new BrowserWorker(
                 profileId,
                 userDataDir,
                 shouldCleanupProfileDir(profileId),
                 playwright,
                 browserContext,
-                profileLock
+                profileLock,
+                resolvePageMaxUses()
             );
-            allWorkers.add(worker);
-            log.debug("created {} worker: {}", poolName, profileId);
-            return worker;
         } catch (Exception ex) {
             log.warn(
                 "create worker failed, pool={}, profileId={}, userDataDir={}, error={}",
@@ -331,6 +1117,14 @@ public abstract class BrowserWorkerPool {
             .minWorkers(normalizedMinWorkers)
             .maxWorkers(normalizedMaxWorkers)
             .queueTimeoutMs(normalizedQueueTimeoutMs)
+            .healthCheckIntervalMs(Math.max(0L, rawConfig.getHealthCheckIntervalMs()))
+            .workerMaxTasks(Math.max(0, rawConfig.getWorkerMaxTasks()))
+            .workerMaxAgeMs(Math.max(0L, rawConfig.getWorkerMaxAgeMs()))
+            .workerMaxRssBytes(Math.max(0L, rawConfig.getWorkerMaxRssBytes()))
+            .idleTimeoutMs(Math.max(0L, rawConfig.getIdleTimeoutMs()))
+            .prespawnHighWaterMark(Math.max(0D, Math.min(1D, rawConfig.getPrespawnHighWaterMark())))
+            .spawnMinIntervalMs(Math.max(0L, rawConfig.getSpawnMinIntervalMs()))
+            .launchParallelism(Math.max(0, Math.min(normalizedMaxWorkers, rawConfig.getLaunchParallelism())))
             .build();
     }
 
@@ -349,6 +1143,9 @@ public abstract class BrowserWorkerPool {
 
     private void releaseWorkerSlot() {
         activeWorkerCount.decrementAndGet();
+        if (!shutdown.get()) {
+            signalSlotReleased();
+        }
     }
 
     private Path resolveUserDataDir(String profileId) throws Exception {
@@ -364,6 +1161,7 @@ public abstract class BrowserWorkerPool {
 
     private boolean isExpectedRuntimeException(RuntimeException ex) {
         return ex instanceof DefaultBrowserWorkerBusyException
+            || ex instanceof BrowserTaskCancelledException
             || ex instanceof MasterProfileBrowserWorkerBusyException
             || ex instanceof MasterProfileLockedException;
     }
@@ -390,7 +1188,7 @@ public abstract class BrowserWorkerPool {
         }
     }
 
-    private void closeQuietly(AutoCloseable closeable) {
+    protected void closeQuietly(AutoCloseable closeable) {
         if (closeable == null) {
             return;
         }
@@ -401,4 +1199,43 @@ public abstract class BrowserWorkerPool {
         }
     }
 
+    private static ExecutorService newPagePreparer(String poolName) {
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mmh-" + poolName + "-page-prep-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService newWorkerLauncher(String poolName, int parallelism) {
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "mmh-" + poolName + "-launcher-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class Waiter {
+
+        private final BrowserTaskPriority priority;
+        private final long deadlineNanos;
+        private final long sequence;
+        private final Condition condition;
+
+        // Guarded by queueLock.
+        private BrowserWorker worker;
+        private boolean slotReleased;
+        private RuntimeException launchFailure;
+
+        private Waiter(BrowserTaskPriority priority, long deadlineNanos, long sequence, Condition condition) {
+            this.priority = priority;
+            this.deadlineNanos = deadlineNanos;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+    }
+
 }
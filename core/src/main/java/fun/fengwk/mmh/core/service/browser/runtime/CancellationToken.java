@@ -0,0 +1,114 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cooperative cancellation signal of one caller request.
+ *
+ * <p>Cancelling never touches browser objects, Playwright is not thread safe. The thread running the
+ * task polls {@link #throwIfCancelled()} between phases, and between bounded slices of long waits, and
+ * unwinds on its own, which closes the page and returns the worker to the pool. Callbacks registered through {@link #onCancel(Runnable)} let
+ * blocked waiters wake up early.
+ *
+ * @author fengwk
+ */
+public final class CancellationToken {
+
+    private static final CancellationToken NONE = new CancellationToken(false);
+
+    private final boolean cancellable;
+    private final Set<Runnable> callbacks = ConcurrentHashMap.newKeySet();
+    private volatile String reason;
+
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    /**
+     * New token that can be cancelled.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(true);
+    }
+
+    /**
+     * Shared token that is never cancelled.
+     */
+    public static CancellationToken none() {
+        return NONE;
+    }
+
+    /**
+     * Cancel the token and run the registered callbacks once.
+     *
+     * @return {@code true} when this call cancelled the token
+     */
+    public boolean cancel(String reason) {
+        if (!cancellable) {
+            return false;
+        }
+        synchronized (this) {
+            if (this.reason != null) {
+                return false;
+            }
+            this.reason = reason == null || reason.isBlank() ? "cancelled" : reason;
+        }
+        // Whoever removes a callback runs it, so a racing onCancel never runs it twice.
+        for (Runnable callback : callbacks) {
+            if (callbacks.remove(callback)) {
+                callback.run();
+            }
+        }
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return reason != null;
+    }
+
+    /**
+     * Cancellation reason, {@code null} while not cancelled.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * @throws BrowserTaskCancelledException when the token is cancelled
+     */
+    public void throwIfCancelled() {
+        String currentReason = reason;
+        if (currentReason != null) {
+            throw new BrowserTaskCancelledException("task cancelled: " + currentReason);
+        }
+    }
+
+    /**
+     * Run the callback on cancellation, right away when already cancelled.
+     *
+     * @return registration to close once the callback is no longer needed
+     */
+    public Registration onCancel(Runnable callback) {
+        if (!cancellable) {
+            return () -> {
+            };
+        }
+        callbacks.add(callback);
+        if (reason != null && callbacks.remove(callback)) {
+            callback.run();
+        }
+        return () -> callbacks.remove(callback);
+    }
+
+    /**
+     * Handle of a cancellation callback.
+     */
+    public interface Registration extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+}
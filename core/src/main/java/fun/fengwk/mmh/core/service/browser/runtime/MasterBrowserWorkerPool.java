@@ -5,6 +5,7 @@ import fun.fengwk.mmh.core.service.browser.coordination.LoginLockManager;
 import fun.fengwk.mmh.core.service.scrape.runtime.MasterProfileLockedException;
 import fun.fengwk.convention4j.common.lang.StringUtils;
 
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +18,11 @@ import java.nio.file.Path;
  * on {@code userDataDir/browser.lock}. This keeps scrape runtime and manual login
  * command mutually exclusive on the same persistent profile.
  *
+ * <p>By default the worker and its lock are released after every task. With {@code masterWorkerKeepAliveMs}
+ * the worker stays warm until it has been idle that long, and is handed off early once the login command
+ * requests a release of the lock: a dedicated check every 500ms closes the idle worker, a busy one is closed when
+ * its task returns, and no new worker is launched while the request is pending.
+ *
  * @author fengwk
  */
 public class MasterBrowserWorkerPool extends BrowserWorkerPool {
@@ -25,8 +31,17 @@ public class MasterBrowserWorkerPool extends BrowserWorkerPool {
 
     private static final long LOCK_RETRY_INTERVAL_MS = 100;
 
+    /**
+     * Release request check interval of a warm master worker, bounds how long a login handoff request waits.
+     */
+    private static final long HANDOFF_POLL_INTERVAL_MS = 500;
+
+    private static final String METRIC_LOCK_FAILURES = "mmh.browser.master.lock.failures";
+
     private final String masterProfileId;
     private final long lockTimeoutMs;
+    private final long keepAliveMs;
+    private final Path lockPath;
 
     public MasterBrowserWorkerPool(
         Path profileRoot,
@@ -41,17 +56,27 @@ public class MasterBrowserWorkerPool extends BrowserWorkerPool {
         }
         this.masterProfileId = masterProfileId;
         this.lockTimeoutMs = Math.max(0L, lockTimeoutMs);
+        this.keepAliveMs = resolveKeepAliveMs(browserProperties);
+        // Lock path is intentionally aligned with MasterLoginCommand.
+        this.lockPath = this.profileRoot.resolve(masterProfileId).normalize().resolve("browser.lock");
         initializeMinWorkers();
     }
 
     private static WorkerPoolConfig buildMasterConfig(BrowserProperties browserProperties) {
+        long keepAliveMs = resolveKeepAliveMs(browserProperties);
         return WorkerPoolConfig.builder()
             .minWorkers(0)
             .maxWorkers(1)
             .queueTimeoutMs(browserProperties.getQueueOfferTimeoutMs())
+            .idleTimeoutMs(keepAliveMs)
+            .healthCheckIntervalMs(keepAliveMs > 0 ? browserProperties.getWorkerHealthCheckIntervalMs() : 0)
             .build();
     }
 
+    private static long resolveKeepAliveMs(BrowserProperties browserProperties) {
+        return Math.max(0L, browserProperties.getMasterWorkerKeepAliveMs());
+    }
+
     @Override
     protected String allocateProfileId() {
         return masterProfileId;
@@ -69,14 +94,45 @@ public class MasterBrowserWorkerPool extends BrowserWorkerPool {
 
     @Override
     protected boolean shouldRetainWorkerAfterTask(BrowserWorker worker) {
-        // Release lock immediately after each master task so manual login can start.
-        return false;
+        // Without keep-alive, release lock immediately after each master task so manual login can start.
+        return keepAliveMs > 0 && !isReleaseRequested();
+    }
+
+    @Override
+    protected boolean shouldReleaseIdleWorkers() {
+        if (!isReleaseRequested()) {
+            return false;
+        }
+        if (getIdleWorkerCount() > 0) {
+            log.info("master profile release requested, handing off idle worker, profileId={}", masterProfileId);
+        }
+        return true;
+    }
+
+    @Override
+    protected long resolveReleaseCheckIntervalMs() {
+        // Only stats the release request file, cheap enough to poll well below the health check interval.
+        return keepAliveMs > 0 ? HANDOFF_POLL_INTERVAL_MS : 0;
+    }
+
+    @Override
+    protected int resolvePageMaxUses() {
+        // Called from the base constructor, keep-alive is read from properties directly.
+        if (resolveKeepAliveMs(browserProperties) <= 0) {
+            // The worker never serves a second task, a warm page would only be thrown away.
+            return 0;
+        }
+        return super.resolvePageMaxUses();
     }
 
     @Override
     protected LoginLockManager.LoginLock acquireProfileLock(String profileId, Path userDataDir) {
-        // Lock path is intentionally aligned with MasterLoginCommand.
-        Path lockPath = userDataDir.resolve("browser.lock");
+        if (isReleaseRequested()) {
+            // Leave the profile to the waiting login command instead of racing it for the lock.
+            log.info("master profile release requested, skip worker launch, profileId={}, lockPath={}", profileId, lockPath);
+            Metrics.counter(METRIC_LOCK_FAILURES).increment();
+            throw new MasterProfileLockedException();
+        }
         LoginLockManager.LoginLock lock = loginLockManager.tryAcquire(
             lockPath,
             lockTimeoutMs,
@@ -90,10 +146,15 @@ public class MasterBrowserWorkerPool extends BrowserWorkerPool {
                 lockTimeoutMs,
                 LOCK_RETRY_INTERVAL_MS
             );
+            Metrics.counter(METRIC_LOCK_FAILURES).increment();
             // Preserve business semantics for upper layers.
             throw new MasterProfileLockedException();
         }
         return lock;
     }
 
+    private boolean isReleaseRequested() {
+        return loginLockManager.isReleaseRequested(lockPath, browserProperties.getMasterLoginHandoffTimeoutMs());
+    }
+
 }
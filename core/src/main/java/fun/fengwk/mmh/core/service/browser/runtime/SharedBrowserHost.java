@@ -0,0 +1,229 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import fun.fengwk.mmh.core.service.browser.BrowserProperties;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One shared Chromium process exposed through a loopback CDP endpoint.
+ *
+ * <p>The host Playwright instance is only touched by the owning pool under its host lock,
+ * workers attach through their own Playwright connection so no Playwright object is shared
+ * across threads.
+ *
+ * <p>Chromium picks the debugging port itself ({@code --remote-debugging-port=0}) and publishes it in
+ * {@code DevToolsActivePort} of the host owned user data dir, so no port is probed up front and
+ * another process cannot take it between probe and launch. Liveness is probed over HTTP on
+ * {@code /json/version}, events of the host Playwright are not pumped between launches.
+ *
+ * @author fengwk
+ */
+final class SharedBrowserHost implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedBrowserHost.class);
+
+    private static final String LOOPBACK_HOST = "127.0.0.1";
+
+    private static final String DEVTOOLS_ACTIVE_PORT_FILE = "DevToolsActivePort";
+
+    private static final long DEVTOOLS_PORT_TIMEOUT_MS = 10000;
+
+    private static final long DEVTOOLS_PORT_POLL_INTERVAL_MS = 20;
+
+    private static final long LIVENESS_PROBE_TIMEOUT_MS = 1000;
+
+    private static final HttpClient PROBE_CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(LIVENESS_PROBE_TIMEOUT_MS))
+        .proxy(HttpClient.Builder.NO_PROXY)
+        .build();
+
+    private final String hostId;
+    private final Playwright playwright;
+    private final BrowserContext context;
+    private final Path userDataDir;
+    private final String cdpEndpoint;
+    private volatile boolean closed;
+
+    private SharedBrowserHost(String hostId, Playwright playwright, BrowserContext context, Path userDataDir, String cdpEndpoint) {
+        this.hostId = hostId;
+        this.playwright = playwright;
+        this.context = context;
+        this.userDataDir = userDataDir;
+        this.cdpEndpoint = cdpEndpoint;
+    }
+
+    static SharedBrowserHost launch(String hostId, BrowserProperties.BrowserProfileProperties profileProperties) throws Exception {
+        BrowserProperties.BrowserProfileProperties profile = profileProperties == null
+            ? new BrowserProperties.BrowserProfileProperties()
+            : profileProperties;
+
+        Path userDataDir = Files.createTempDirectory("mmh-" + hostId + "-");
+        Playwright playwright = null;
+        try {
+            playwright = Playwright.create();
+            BrowserContext context = playwright.chromium().launchPersistentContext(userDataDir, BrowserContextOptionsSupport.buildLaunchOptions(
+                profile,
+                profile.isHeadless(),
+                buildLaunchArgs(profile.getLaunchArgs())
+            ));
+            int port;
+            try {
+                port = awaitDevToolsPort(userDataDir, DEVTOOLS_PORT_TIMEOUT_MS);
+            } catch (Exception ex) {
+                context.close();
+                throw ex;
+            }
+            String cdpEndpoint = "http://" + LOOPBACK_HOST + ":" + port;
+            log.info("launched shared browser, hostId={}, cdpEndpoint={}", hostId, cdpEndpoint);
+            return new SharedBrowserHost(hostId, playwright, context, userDataDir, cdpEndpoint);
+        } catch (Exception ex) {
+            if (playwright != null) {
+                try {
+                    playwright.close();
+                } catch (Exception closeEx) {
+                    log.debug("close playwright failed, hostId={}", hostId, closeEx);
+                }
+            }
+            deleteUserDataDirQuietly(hostId, userDataDir);
+            throw ex;
+        }
+    }
+
+    static List<String> buildLaunchArgs(List<String> launchArgs) {
+        List<String> args = new ArrayList<>();
+        for (String arg : BrowserContextOptionsSupport.normalizeLaunchArgs(launchArgs)) {
+            // Debugging endpoint is owned by the host, user supplied values would break attach.
+            if (arg.startsWith("--remote-debugging-port") || arg.startsWith("--remote-debugging-pipe")) {
+                continue;
+            }
+            args.add(arg);
+        }
+        args.add("--remote-debugging-port=0");
+        return args;
+    }
+
+    /**
+     * Wait for Chromium to publish its debugging port, the first line of {@code DevToolsActivePort}.
+     */
+    static int awaitDevToolsPort(Path userDataDir, long timeoutMs) throws IOException, InterruptedException {
+        Path portFile = userDataDir.resolve(DEVTOOLS_ACTIVE_PORT_FILE);
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            Integer port = readDevToolsPort(portFile);
+            if (port != null) {
+                return port;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("shared browser did not publish " + DEVTOOLS_ACTIVE_PORT_FILE
+                    + " within " + timeoutMs + "ms, dir=" + userDataDir);
+            }
+            Thread.sleep(DEVTOOLS_PORT_POLL_INTERVAL_MS);
+        }
+    }
+
+    private static Integer readDevToolsPort(Path portFile) throws IOException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(portFile, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+        // The file may be observed half written, retry until the port line is complete.
+        if (lines.size() < 2) {
+            return null;
+        }
+        try {
+            int port = Integer.parseInt(lines.get(0).trim());
+            return port > 0 ? port : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    String getHostId() {
+        return hostId;
+    }
+
+    String getCdpEndpoint() {
+        return cdpEndpoint;
+    }
+
+    /**
+     * Whether the shared Chromium still answers on its debugging endpoint.
+     */
+    boolean isConnected() {
+        return !closed && probeCdpEndpoint(cdpEndpoint);
+    }
+
+    static boolean probeCdpEndpoint(String cdpEndpoint) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(cdpEndpoint + "/json/version"))
+                .GET()
+                .timeout(Duration.ofMillis(LIVENESS_PROBE_TIMEOUT_MS))
+                .build();
+            return PROBE_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception ex) {
+            log.debug("probe shared browser failed, cdpEndpoint={}, error={}", cdpEndpoint, ex.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            context.close();
+        } catch (Exception ex) {
+            log.debug("close shared browser failed, hostId={}", hostId, ex);
+        }
+        try {
+            playwright.close();
+        } catch (Exception ex) {
+            log.debug("close shared browser playwright failed, hostId={}", hostId, ex);
+        }
+        deleteUserDataDirQuietly(hostId, userDataDir);
+        log.info("closed shared browser, hostId={}", hostId);
+    }
+
+    private static void deleteUserDataDirQuietly(String hostId, Path userDataDir) {
+        if (userDataDir == null || !Files.exists(userDataDir)) {
+            return;
+        }
+        // Delete children first, then root directory.
+        try (Stream<Path> stream = Files.walk(userDataDir)) {
+            stream
+                .sorted(Comparator.reverseOrder())
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (Exception ex) {
+                        throw new IllegalStateException("failed to delete path: " + path, ex);
+                    }
+                });
+        } catch (Exception ex) {
+            log.warn("failed to cleanup shared browser user data dir, hostId={}, dir={}", hostId, userDataDir, ex);
+        }
+    }
+
+}
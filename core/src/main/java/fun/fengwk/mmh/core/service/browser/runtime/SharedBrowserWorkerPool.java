@@ -0,0 +1,181 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import fun.fengwk.mmh.core.service.browser.BrowserProperties;
+import fun.fengwk.mmh.core.service.browser.BrowserStealthSupport;
+import fun.fengwk.mmh.core.service.browser.coordination.LoginLockManager;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default browser worker pool backed by shared Chromium processes.
+ *
+ * <p>Worker model:
+ * <ul>
+ *     <li>Up to {@code sharedBrowserCount} Chromium processes are launched lazily and reused by all workers.</li>
+ *     <li>Each worker owns one incognito context of a shared browser, assigned round-robin.</li>
+ *     <li>Each worker attaches through its own Playwright connection, since Playwright objects are not thread-safe.</li>
+ *     <li>Workers hold no profile directory, contexts are fully discarded on close.</li>
+ * </ul>
+ *
+ * @author fengwk
+ */
+public class SharedBrowserWorkerPool extends BrowserWorkerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedBrowserWorkerPool.class);
+
+    /**
+     * Current process id used in generated profile name.
+     */
+    private static final long CURRENT_PROCESS_ID = ProcessHandle.current().pid();
+
+    private static final int CDP_CONNECT_ATTEMPTS = 3;
+    private static final long CDP_CONNECT_RETRY_INTERVAL_MS = 200;
+
+    private final AtomicInteger workerCounter = new AtomicInteger(1);
+    private final AtomicInteger hostCursor = new AtomicInteger(0);
+
+    /**
+     * Shared browser slots, guarded by {@code hostLock}.
+     */
+    private final SharedBrowserHost[] hosts;
+    private final Object hostLock = new Object();
+    private boolean hostsClosed = false;
+
+    public SharedBrowserWorkerPool(
+        WorkerPoolConfig config,
+        Path profileRoot,
+        BrowserProperties browserProperties,
+        LoginLockManager loginLockManager,
+        int sharedBrowserCount
+    ) {
+        super("shared", config, profileRoot, browserProperties, loginLockManager);
+        this.hosts = new SharedBrowserHost[Math.max(1, sharedBrowserCount)];
+        initializeMinWorkers();
+    }
+
+    @Override
+    protected String allocateProfileId() {
+        return "shared_" + CURRENT_PROCESS_ID + "_" + workerCounter.getAndIncrement();
+    }
+
+    @Override
+    protected RuntimeException createBusyException() {
+        return new DefaultBrowserWorkerBusyException("default browser worker pool is busy");
+    }
+
+    @Override
+    protected BrowserProperties.BrowserProfileProperties resolveProfileProperties() {
+        return browserProperties.resolveDefaultProfile();
+    }
+
+    @Override
+    protected BrowserWorker launchWorker(String profileId) throws Exception {
+        int slot = Math.floorMod(hostCursor.getAndIncrement(), hosts.length);
+        SharedBrowserHost host = resolveHost(slot);
+
+        Playwright playwright = null;
+        BrowserContext browserContext = null;
+        try {
+            playwright = Playwright.create();
+            Browser browser = connectOverCdp(playwright, host);
+            browserContext = browser.newContext(BrowserContextOptionsSupport.buildNewContextOptions(resolveProfileProperties()));
+            BrowserStealthSupport.apply(browserContext, browserProperties);
+
+            return new BrowserWorker(profileId, null, false, playwright, browserContext, null, resolvePageMaxUses());
+        } catch (Exception ex) {
+            log.warn(
+                "create shared worker failed, pool={}, profileId={}, hostId={}, error={}",
+                poolName,
+                profileId,
+                host.getHostId(),
+                ex.getMessage(),
+                ex
+            );
+            closeQuietly(browserContext);
+            closeQuietly(playwright);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        // Contexts must be closed before the browsers hosting them.
+        super.shutdown();
+        synchronized (hostLock) {
+            hostsClosed = true;
+            for (int i = 0; i < hosts.length; i++) {
+                if (hosts[i] != null) {
+                    hosts[i].close();
+                    hosts[i] = null;
+                }
+            }
+        }
+    }
+
+    private SharedBrowserHost resolveHost(int slot) throws Exception {
+        // Host launch is rare and the host Playwright must not be used concurrently.
+        synchronized (hostLock) {
+            if (hostsClosed) {
+                throw new IllegalStateException(poolName + " worker pool is shutdown");
+            }
+            SharedBrowserHost host = hosts[slot];
+            if (host != null && host.isConnected()) {
+                return host;
+            }
+            if (host != null) {
+                log.warn("shared browser disconnected, relaunching, pool={}, hostId={}", poolName, host.getHostId());
+                host.close();
+            }
+            host = SharedBrowserHost.launch("shared_" + CURRENT_PROCESS_ID + "_host_" + slot, resolveProfileProperties());
+            hosts[slot] = host;
+            return host;
+        }
+    }
+
+    private Browser connectOverCdp(Playwright playwright, SharedBrowserHost host) throws InterruptedException {
+        RuntimeException lastError = null;
+        for (int attempt = 1; attempt <= CDP_CONNECT_ATTEMPTS; attempt++) {
+            try {
+                return playwright.chromium().connectOverCDP(host.getCdpEndpoint());
+            } catch (RuntimeException ex) {
+                lastError = ex;
+                log.debug(
+                    "connect shared browser failed, pool={}, hostId={}, attempt={}, error={}",
+                    poolName,
+                    host.getHostId(),
+                    attempt,
+                    ex.getMessage()
+                );
+                if (attempt < CDP_CONNECT_ATTEMPTS) {
+                    Thread.sleep(CDP_CONNECT_RETRY_INTERVAL_MS);
+                }
+            }
+        }
+        // Closing the host kills every context on it, only drop it when the process is really gone.
+        if (!host.isConnected()) {
+            log.warn("shared browser not responding, dropping it, pool={}, hostId={}", poolName, host.getHostId());
+            invalidateHost(host);
+        }
+        throw lastError;
+    }
+
+    private void invalidateHost(SharedBrowserHost host) {
+        synchronized (hostLock) {
+            for (int i = 0; i < hosts.length; i++) {
+                if (hosts[i] == host) {
+                    hosts[i] = null;
+                    host.close();
+                    return;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the wait for a browser worker, a launch for the task included, inline or on the pool
+ * launcher when {@code launchParallelism} is set.
+ *
+ * @author fengwk
+ */
+@Name("fun.fengwk.mmh.WorkerAcquire")
+@Label("Worker Acquire")
+@Category({"My MCP Hub", "Browser"})
+@Description("Borrow a worker from a browser pool")
+@StackTrace(false)
+public final class WorkerAcquireEvent extends Event {
+
+    @Label("Pool")
+    String pool;
+
+    @Label("Priority")
+    String priority;
+
+    @Label("Outcome")
+    @Description("acquired, busy, cancelled, locked or error")
+    String outcome;
+
+    @Label("Profile Id")
+    String profileId;
+
+    void complete(String poolName, BrowserTaskPriority taskPriority, String result, BrowserWorker worker) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        pool = poolName;
+        priority = taskPriority == null ? BrowserTaskPriority.INTERACTIVE.name() : taskPriority.name();
+        outcome = result;
+        profileId = worker == null ? null : worker.getProfileId();
+        commit();
+    }
+
+}
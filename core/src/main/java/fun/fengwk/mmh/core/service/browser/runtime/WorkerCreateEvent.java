@@ -0,0 +1,43 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the launch of one browser worker.
+ *
+ * @author fengwk
+ */
+@Name("fun.fengwk.mmh.WorkerCreate")
+@Label("Worker Create")
+@Category({"My MCP Hub", "Browser"})
+@Description("Launch a Playwright driver and browser context for a pool worker")
+@StackTrace(false)
+public final class WorkerCreateEvent extends Event {
+
+    @Label("Pool")
+    String pool;
+
+    @Label("Outcome")
+    @Description("success or failure")
+    String outcome;
+
+    @Label("Profile Id")
+    String profileId;
+
+    void complete(String poolName, String result, BrowserWorker worker) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        pool = poolName;
+        outcome = result;
+        profileId = worker == null ? null : worker.getProfileId();
+        commit();
+    }
+
+}
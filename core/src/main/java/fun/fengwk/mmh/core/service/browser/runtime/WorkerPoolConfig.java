@@ -30,4 +30,52 @@ public class WorkerPoolConfig {
     @Builder.Default
     private long queueTimeoutMs = 15000;
 
+    /**
+     * Interval of the idle worker maintenance loop, 0 disables it.
+     */
+    @Builder.Default
+    private long healthCheckIntervalMs = 0;
+
+    /**
+     * Tasks served by a worker before it is recycled, 0 means unlimited.
+     */
+    @Builder.Default
+    private int workerMaxTasks = 0;
+
+    /**
+     * Worker age before it is recycled, 0 means unlimited.
+     */
+    @Builder.Default
+    private long workerMaxAgeMs = 0;
+
+    /**
+     * Browser process tree RSS above which an idle worker is evicted, 0 disables the check.
+     */
+    @Builder.Default
+    private long workerMaxRssBytes = 0;
+
+    /**
+     * Idle time after which a worker above {@code minWorkers} is closed, 0 never shrinks the pool.
+     */
+    @Builder.Default
+    private long idleTimeoutMs = 0;
+
+    /**
+     * Busy share of {@code maxWorkers} at which one spare worker is launched ahead of demand, 0 disables it.
+     */
+    @Builder.Default
+    private double prespawnHighWaterMark = 0;
+
+    /**
+     * Minimum gap between two ahead-of-demand launches.
+     */
+    @Builder.Default
+    private long spawnMinIntervalMs = 1000;
+
+    /**
+     * Background threads launching workers for waiting tasks, 0 launches on the requesting thread.
+     */
+    @Builder.Default
+    private int launchParallelism = 0;
+
 }
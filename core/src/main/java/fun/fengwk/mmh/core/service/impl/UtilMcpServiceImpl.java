@@ -4,8 +4,11 @@ import fun.fengwk.mmh.core.facade.search.SearchFacade;
 import fun.fengwk.mmh.core.facade.search.model.SearchRequest;
 import fun.fengwk.mmh.core.facade.search.model.SearchResponse;
 import fun.fengwk.mmh.core.service.UtilMcpService;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
 import fun.fengwk.mmh.core.service.model.CreateTempDirResponse;
 import fun.fengwk.mmh.core.service.scrape.PageScrapeService;
+import fun.fengwk.mmh.core.service.scrape.model.BatchScrapeRequest;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +17,7 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * @author fengwk
@@ -51,15 +55,49 @@ public class UtilMcpServiceImpl implements UtilMcpService {
     }
 
     @Override
-    public ScrapeResponse scrape(String url, String format, Boolean onlyMainContent, Integer waitFor, String profileMode) {
+    public ScrapeResponse scrape(
+        String url,
+        String format,
+        Boolean onlyMainContent,
+        Integer waitFor,
+        String profileMode,
+        CancellationToken cancellationToken,
+        ScrapeProgressListener progressListener
+    ) {
         ScrapeRequest request = ScrapeRequest.builder()
             .url(url)
             .format(format)
             .profileMode(profileMode)
             .onlyMainContent(onlyMainContent)
             .waitFor(waitFor)
+            .cancellationToken(cancellationToken)
+            .progressListener(progressListener)
             .build();
         return pageScrapeService.scrape(request);
     }
 
+    @Override
+    public List<ScrapeResponse> batchScrape(
+        List<String> urls,
+        String format,
+        Boolean onlyMainContent,
+        Integer waitFor,
+        String profileMode,
+        Integer concurrency,
+        CancellationToken cancellationToken,
+        ScrapeProgressListener progressListener
+    ) {
+        BatchScrapeRequest request = BatchScrapeRequest.builder()
+            .urls(urls)
+            .format(format)
+            .profileMode(profileMode)
+            .onlyMainContent(onlyMainContent)
+            .waitFor(waitFor)
+            .concurrency(concurrency)
+            .cancellationToken(cancellationToken)
+            .progressListener(progressListener)
+            .build();
+        return pageScrapeService.batchScrape(request);
+    }
+
 }
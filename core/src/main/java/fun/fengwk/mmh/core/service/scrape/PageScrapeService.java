@@ -1,8 +1,11 @@
 package fun.fengwk.mmh.core.service.scrape;
 
+import fun.fengwk.mmh.core.service.scrape.model.BatchScrapeRequest;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 
+import java.util.List;
+
 /**
  * Scrape service entry.
  *
@@ -12,4 +15,11 @@ public interface PageScrapeService {
 
     ScrapeResponse scrape(ScrapeRequest request);
 
+    /**
+     * Scrape urls concurrently with shared options.
+     *
+     * @return one response per url in input order, failed or timed out items carry an error
+     */
+    List<ScrapeResponse> batchScrape(BatchScrapeRequest request);
+
 }
@@ -4,6 +4,11 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Scrape pipeline specific configuration.
  *
@@ -60,4 +65,154 @@ public class ScrapeProperties {
      */
     private double stabilityLengthChangeThreshold = 0.1D;
 
+    /**
+     * Block heavy resources and tracker domains for text formats (html/markdown/links).
+     * Screenshot formats always load every resource.
+     */
+    private boolean resourceBlockingEnabled = true;
+
+    /**
+     * Playwright resource types blocked for text formats, e.g. image, font, media.
+     */
+    private List<String> blockedResourceTypes = new ArrayList<>(List.of("image", "font", "media"));
+
+    /**
+     * Domains blocked for text formats, subdomains are matched as well.
+     */
+    private List<String> blockedDomains = new ArrayList<>(List.of(
+        "google-analytics.com",
+        "googletagmanager.com",
+        "googlesyndication.com",
+        "doubleclick.net",
+        "connect.facebook.net",
+        "hotjar.com",
+        "clarity.ms",
+        "scorecardresearch.com",
+        "hm.baidu.com",
+        "cnzz.com"
+    ));
+
+    /**
+     * Try a plain HTTP fetch before using a browser for html/markdown/links in default profile mode.
+     * The browser is still used when the static html does not look complete.
+     */
+    private boolean httpFirstEnabled = false;
+
+    /**
+     * Request timeout in milliseconds for the http-first fetch.
+     */
+    private int httpFirstTimeoutMs = 5000;
+
+    /**
+     * Maximum response body size in bytes accepted by the http-first fetch.
+     */
+    private int httpFirstMaxBodyBytes = 5 * 1024 * 1024;
+
+    /**
+     * Minimum cleaned text length for static html to be considered complete.
+     */
+    private int httpFirstMinTextLength = 200;
+
+    /**
+     * Minimum ratio of cleaned text length to raw html length for static html to be considered complete.
+     */
+    private double httpFirstMinTextDensity = 0.005D;
+
+    /**
+     * Cache successful scrape results keyed by url, format, onlyMainContent and profile mode.
+     */
+    private boolean cacheEnabled = false;
+
+    /**
+     * Memory tier capacity, weighted by cached content length in chars.
+     */
+    private long cacheMemoryMaxWeight = 32L * 1024 * 1024;
+
+    /**
+     * Persist cached results under the scrape-cache directory of mmh.config-path.
+     */
+    private boolean cacheDiskEnabled = true;
+
+    /**
+     * Maximum cached result files kept on disk, oldest files are pruned first.
+     */
+    private int cacheDiskMaxEntries = 2000;
+
+    /**
+     * Cache TTL in seconds per format, formats not listed are not cached.
+     * Origin Cache-Control max-age can only shorten the TTL.
+     */
+    private Map<String, Long> cacheTtlSeconds = new LinkedHashMap<>(Map.of(
+        "markdown", 600L,
+        "html", 600L,
+        "links", 600L,
+        "screenshot", 60L,
+        "fullscreenshot", 60L
+    ));
+
+    /**
+     * Maximum urls accepted by one batch scrape.
+     */
+    private int batchMaxUrls = 20;
+
+    /**
+     * Maximum concurrent scrapes of one batch, also the default when not requested.
+     */
+    private int batchMaxConcurrency = 4;
+
+    /**
+     * Overall batch deadline in milliseconds, keep it below the MCP request timeout.
+     */
+    private int batchTimeoutMs = 40000;
+
+    /**
+     * Enable per-host politeness limiting for outbound scrapes, cache hits are not limited.
+     */
+    private boolean hostLimitEnabled = true;
+
+    /**
+     * Maximum in-flight scrapes per host.
+     */
+    private int hostMaxConcurrency = 2;
+
+    /**
+     * Minimum spacing in milliseconds between two scrape starts on the same host, 0 disables it.
+     */
+    private int hostMinIntervalMs = 0;
+
+    /**
+     * Token bucket refill rate per host in requests per second, 0 disables the bucket.
+     */
+    private double hostRatePerSecond = 0D;
+
+    /**
+     * Token bucket capacity per host.
+     */
+    private int hostRateBurst = 1;
+
+    /**
+     * Maximum wait in milliseconds for a host permit before failing the scrape.
+     */
+    private int hostAcquireTimeoutMs = 30000;
+
+    /**
+     * Maximum hosts exported with their own metric tag, further hosts share the {@code other} tag.
+     */
+    private int hostMetricsMaxHosts = 32;
+
+    /**
+     * Maximum content chars returned by one scrape tool call, longer content is paged with offset/maxChars, 0 disables paging.
+     */
+    private int outputMaxChars = 100000;
+
+    /**
+     * Seconds a paged scrape result stays readable through its cursor, 0 disables cursors.
+     */
+    private int outputCursorTtlSeconds = 300;
+
+    /**
+     * Maximum total content chars of paged scrape results kept for cursors, the eldest ones are dropped first.
+     */
+    private long outputCursorMaxChars = 4_000_000L;
+
 }
@@ -0,0 +1,463 @@
+package fun.fengwk.mmh.core.service.scrape.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fun.fengwk.convention4j.common.lang.StringUtils;
+import fun.fengwk.mmh.core.configuration.MmhProperties;
+import fun.fengwk.mmh.core.service.browser.runtime.ProfileType;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import fun.fengwk.mmh.core.service.scrape.support.ScrapeHttpUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier scrape result cache.
+ *
+ * <p>Tiers:
+ * <ul>
+ *     <li>Memory: access-ordered LRU bounded by total content length.</li>
+ *     <li>Disk: one json file per key under {@code <config-path>/scrape-cache}, survives restarts.</li>
+ * </ul>
+ *
+ * <p>TTL comes from {@code mmh.scrape.cache-ttl-seconds} per format, origin {@code Cache-Control}
+ * can shorten it or forbid caching. Expired entries carrying an {@code ETag} are revalidated
+ * with a conditional request in default profile mode.
+ *
+ * <p>Responses marked {@code Cache-Control: private} and every master profile result depend on the
+ * logged-in session, they stay in the memory tier only and never reach the disk.
+ *
+ * @author fengwk
+ */
+@Slf4j
+@Component
+public class ScrapeCache {
+
+    private static final long ENTRY_BASE_WEIGHT = 64;
+    private static final int DISK_PRUNE_INTERVAL = 64;
+
+    private static final String METRIC_CACHE_REQUESTS = "mmh.scrape.cache.requests";
+    private static final String METRIC_CACHE_PUTS = "mmh.scrape.cache.puts";
+    private static final String METRIC_CACHE_EVICTIONS = "mmh.scrape.cache.evictions";
+    private static final String METRIC_CACHE_MEMORY_WEIGHT = "mmh.scrape.cache.memory.weight";
+
+    private final ScrapeProperties scrapeProperties;
+    private final ObjectMapper objectMapper;
+    private final Path diskRoot;
+
+    /**
+     * Memory tier, guarded by {@code this}.
+     */
+    private final LinkedHashMap<String, CacheEntry> memoryEntries = new LinkedHashMap<>(16, 0.75F, true);
+    private long memoryWeight = 0;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong revalidatedHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong diskWrites = new AtomicLong();
+
+    public ScrapeCache(ScrapeProperties scrapeProperties, MmhProperties mmhProperties, ObjectMapper objectMapper) {
+        this.scrapeProperties = scrapeProperties;
+        this.objectMapper = objectMapper;
+        this.diskRoot = Paths.get(mmhProperties.getScrapeCachePath()).toAbsolutePath().normalize();
+        bindMetrics();
+    }
+
+    public boolean isEnabled() {
+        return scrapeProperties.isCacheEnabled();
+    }
+
+    /**
+     * Find a fresh cached response, returns a copy or {@code null} on miss.
+     */
+    public ScrapeResponse get(ScrapeCacheKey key) {
+        if (!isEnabled() || resolveFormatTtlMs(key.format()) <= 0) {
+            return null;
+        }
+        String keyString = key.asString();
+        long now = System.currentTimeMillis();
+
+        CacheEntry entry = getFromMemory(keyString);
+        AtomicLong hitCounter = memoryHits;
+        if (entry == null && key.profileType() == ProfileType.DEFAULT) {
+            entry = readFromDisk(keyString);
+            hitCounter = diskHits;
+            if (entry != null && entry.getExpiresAt() > now) {
+                putToMemory(keyString, entry);
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (entry.getExpiresAt() > now) {
+            hitCounter.incrementAndGet();
+            return entry.toResponse();
+        }
+        if (revalidate(key, entry)) {
+            revalidatedHits.incrementAndGet();
+            return entry.toResponse();
+        }
+
+        remove(keyString);
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cache a successful response when both config and origin headers allow it.
+     */
+    public void put(ScrapeCacheKey key, ScrapeResponse response) {
+        if (!isEnabled() || response == null || response.getStatusCode() != 200 || StringUtils.isNotBlank(response.getError())) {
+            return;
+        }
+        long ttlMs = resolveTtlMs(key.format(), response.getCacheControl());
+        if (ttlMs < 0) {
+            return;
+        }
+        // Zero ttl is only useful when the entry can be revalidated.
+        if (ttlMs == 0 && (StringUtils.isBlank(response.getEtag()) || key.profileType() != ProfileType.DEFAULT)) {
+            return;
+        }
+
+        String keyString = key.asString();
+        CacheEntry entry = CacheEntry.of(keyString, System.currentTimeMillis() + ttlMs, response);
+        putToMemory(keyString, entry);
+        if (isDiskAllowed(key, response.getCacheControl())) {
+            writeToDisk(keyString, entry);
+        } else {
+            deleteFromDisk(keyString);
+        }
+        puts.incrementAndGet();
+    }
+
+    public ScrapeCacheStats getStats() {
+        synchronized (this) {
+            return ScrapeCacheStats.builder()
+                .memoryHits(memoryHits.get())
+                .diskHits(diskHits.get())
+                .revalidatedHits(revalidatedHits.get())
+                .misses(misses.get())
+                .puts(puts.get())
+                .evictions(evictions.get())
+                .memoryEntries(memoryEntries.size())
+                .memoryWeight(memoryWeight)
+                .build();
+        }
+    }
+
+    private void bindMetrics() {
+        bindRequestCounter("memory_hit", memoryHits);
+        bindRequestCounter("disk_hit", diskHits);
+        bindRequestCounter("revalidated_hit", revalidatedHits);
+        bindRequestCounter("miss", misses);
+        FunctionCounter.builder(METRIC_CACHE_PUTS, puts, AtomicLong::get).register(Metrics.globalRegistry);
+        FunctionCounter.builder(METRIC_CACHE_EVICTIONS, evictions, AtomicLong::get).register(Metrics.globalRegistry);
+        Gauge.builder(METRIC_CACHE_MEMORY_WEIGHT, this, cache -> cache.getStats().getMemoryWeight())
+            .register(Metrics.globalRegistry);
+    }
+
+    private void bindRequestCounter(String result, AtomicLong counter) {
+        FunctionCounter.builder(METRIC_CACHE_REQUESTS, counter, AtomicLong::get)
+            .tag("result", result)
+            .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Resolve ttl in milliseconds, negative means the response must not be cached.
+     */
+    long resolveTtlMs(ScrapeFormat format, String cacheControl) {
+        long ttlMs = resolveFormatTtlMs(format);
+        if (ttlMs <= 0) {
+            return -1;
+        }
+        if (StringUtils.isBlank(cacheControl)) {
+            return ttlMs;
+        }
+        for (String part : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String directive = part.trim();
+            if ("no-store".equals(directive)) {
+                return -1;
+            }
+            if ("no-cache".equals(directive)) {
+                ttlMs = 0;
+            } else if (directive.startsWith("max-age=")) {
+                try {
+                    long maxAgeMs = Long.parseLong(directive.substring("max-age=".length()).replace("\"", "").trim()) * 1000L;
+                    ttlMs = Math.min(ttlMs, Math.max(0, maxAgeMs));
+                } catch (NumberFormatException ignored) {
+                    // Malformed max-age is ignored, format ttl still applies.
+                }
+            }
+        }
+        return ttlMs;
+    }
+
+    /**
+     * Whether the response may be persisted, session-bound content stays in memory.
+     */
+    boolean isDiskAllowed(ScrapeCacheKey key, String cacheControl) {
+        if (key.profileType() != ProfileType.DEFAULT) {
+            return false;
+        }
+        if (StringUtils.isBlank(cacheControl)) {
+            return true;
+        }
+        for (String part : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String directive = part.trim();
+            if ("private".equals(directive) || directive.startsWith("private=")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long resolveFormatTtlMs(ScrapeFormat format) {
+        Map<String, Long> ttlSeconds = scrapeProperties.getCacheTtlSeconds();
+        if (ttlSeconds == null) {
+            return 0;
+        }
+        Long seconds = ttlSeconds.get(format.getValue());
+        return seconds == null || seconds <= 0 ? 0 : seconds * 1000L;
+    }
+
+    private boolean revalidate(ScrapeCacheKey key, CacheEntry entry) {
+        // Master profile results depend on login cookies, a bare conditional request proves nothing.
+        if (key.profileType() != ProfileType.DEFAULT || StringUtils.isBlank(entry.getEtag())) {
+            return false;
+        }
+        Integer statusCode = ScrapeHttpUtils.tryRevalidate(key.url(), entry.getEtag(), scrapeProperties.getHttpFirstTimeoutMs());
+        if (statusCode == null || statusCode != 304) {
+            return false;
+        }
+        // The origin directives stored with the entry still apply, a 304 does not widen them.
+        long ttlMs = resolveTtlMs(key.format(), entry.getCacheControl());
+        if (ttlMs < 0) {
+            return false;
+        }
+        entry.setExpiresAt(System.currentTimeMillis() + ttlMs);
+        String keyString = key.asString();
+        putToMemory(keyString, entry);
+        if (isDiskAllowed(key, entry.getCacheControl())) {
+            writeToDisk(keyString, entry);
+        }
+        return true;
+    }
+
+    private synchronized CacheEntry getFromMemory(String key) {
+        return memoryEntries.get(key);
+    }
+
+    private synchronized void putToMemory(String key, CacheEntry entry) {
+        long maxWeight = scrapeProperties.getCacheMemoryMaxWeight();
+        CacheEntry previous = memoryEntries.remove(key);
+        if (previous != null) {
+            memoryWeight -= previous.weight();
+        }
+        // An entry larger than the whole tier would only flush everything else.
+        if (entry.weight() > maxWeight) {
+            return;
+        }
+        memoryEntries.put(key, entry);
+        memoryWeight += entry.weight();
+
+        Iterator<Map.Entry<String, CacheEntry>> iterator = memoryEntries.entrySet().iterator();
+        while (memoryWeight > maxWeight && iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> eldest = iterator.next();
+            iterator.remove();
+            memoryWeight -= eldest.getValue().weight();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (this) {
+            CacheEntry previous = memoryEntries.remove(key);
+            if (previous != null) {
+                memoryWeight -= previous.weight();
+            }
+        }
+        deleteFromDisk(key);
+    }
+
+    private void deleteFromDisk(String key) {
+        if (!scrapeProperties.isCacheDiskEnabled()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(resolveDiskPath(key));
+        } catch (IOException ex) {
+            log.debug("delete scrape cache file failed, key={}, error={}", key, ex.getMessage());
+        }
+    }
+
+    private CacheEntry readFromDisk(String key) {
+        if (!scrapeProperties.isCacheDiskEnabled()) {
+            return null;
+        }
+        Path path = resolveDiskPath(key);
+        try {
+            CacheEntry entry = objectMapper.readValue(Files.readAllBytes(path), CacheEntry.class);
+            return entry != null && key.equals(entry.getKey()) ? entry : null;
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (Exception ex) {
+            log.debug("read scrape cache file failed, path={}, error={}", path, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CacheEntry entry) {
+        if (!scrapeProperties.isCacheDiskEnabled()) {
+            return;
+        }
+        Path path = resolveDiskPath(key);
+        Path tempPath = path.resolveSibling(path.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            Files.createDirectories(diskRoot);
+            Files.write(tempPath, objectMapper.writeValueAsBytes(entry));
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception ex) {
+            log.debug("write scrape cache file failed, path={}, error={}", path, ex.getMessage());
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException ignored) {
+                // Best effort cleanup.
+            }
+            return;
+        }
+        if (diskWrites.incrementAndGet() % DISK_PRUNE_INTERVAL == 0) {
+            pruneDisk();
+        }
+    }
+
+    private void pruneDisk() {
+        int maxEntries = Math.max(1, scrapeProperties.getCacheDiskMaxEntries());
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(diskRoot)) {
+            files = new ArrayList<>(stream.filter(path -> path.getFileName().toString().endsWith(".json")).toList());
+        } catch (IOException ex) {
+            log.debug("list scrape cache dir failed, dir={}, error={}", diskRoot, ex.getMessage());
+            return;
+        }
+        if (files.size() <= maxEntries) {
+            return;
+        }
+        files.sort(Comparator.comparingLong(ScrapeCache::lastModifiedMillis));
+        for (int i = 0; i < files.size() - maxEntries; i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException ex) {
+                log.debug("prune scrape cache file failed, path={}, error={}", files.get(i), ex.getMessage());
+            }
+        }
+    }
+
+    private Path resolveDiskPath(String key) {
+        return diskRoot.resolve(sha256Hex(key) + ".json");
+    }
+
+    private static long lastModifiedMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Cached response snapshot, also the disk json layout.
+     */
+    @Data
+    static class CacheEntry {
+
+        private String key;
+        private long expiresAt;
+        private String etag;
+        private String cacheControl;
+        private int statusCode;
+        private String format;
+        private String content;
+        private List<String> links;
+        private String screenshotBase64;
+        private String screenshotMime;
+
+        static CacheEntry of(String key, long expiresAt, ScrapeResponse response) {
+            CacheEntry entry = new CacheEntry();
+            entry.setKey(key);
+            entry.setExpiresAt(expiresAt);
+            entry.setEtag(response.getEtag());
+            entry.setCacheControl(response.getCacheControl());
+            entry.setStatusCode(response.getStatusCode());
+            entry.setFormat(response.getFormat());
+            entry.setContent(response.getContent());
+            entry.setLinks(response.getLinks() == null ? null : new ArrayList<>(response.getLinks()));
+            entry.setScreenshotBase64(response.getScreenshotBase64());
+            entry.setScreenshotMime(response.getScreenshotMime());
+            return entry;
+        }
+
+        ScrapeResponse toResponse() {
+            return ScrapeResponse.builder()
+                .statusCode(statusCode)
+                .format(format)
+                .content(content)
+                .links(links == null ? null : new ArrayList<>(links))
+                .screenshotBase64(screenshotBase64)
+                .screenshotMime(screenshotMime)
+                .etag(etag)
+                .cacheControl(cacheControl)
+                .build();
+        }
+
+        long weight() {
+            long weight = ENTRY_BASE_WEIGHT;
+            weight += content == null ? 0 : content.length();
+            weight += screenshotBase64 == null ? 0 : screenshotBase64.length();
+            if (links != null) {
+                for (String link : links) {
+                    weight += link == null ? 0 : link.length();
+                }
+            }
+            return weight;
+        }
+
+    }
+
+}
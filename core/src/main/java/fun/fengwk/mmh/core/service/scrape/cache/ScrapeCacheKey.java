@@ -0,0 +1,73 @@
+package fun.fengwk.mmh.core.service.scrape.cache;
+
+import fun.fengwk.convention4j.common.lang.StringUtils;
+import fun.fengwk.mmh.core.service.browser.runtime.ProfileType;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Scrape cache key: normalized url + format + onlyMainContent + profile mode.
+ *
+ * @author fengwk
+ */
+public record ScrapeCacheKey(String url, ScrapeFormat format, boolean onlyMainContent, ProfileType profileType) {
+
+    public static ScrapeCacheKey of(String url, ScrapeFormat format, Boolean onlyMainContent, ProfileType profileType) {
+        return new ScrapeCacheKey(
+            normalizeUrl(url),
+            format,
+            onlyMainContent != null && onlyMainContent,
+            profileType
+        );
+    }
+
+    /**
+     * Stable string form, also persisted in disk entries to detect file name collisions.
+     */
+    public String asString() {
+        return profileType.getValue() + '|' + format.getValue() + '|' + onlyMainContent + '|' + url;
+    }
+
+    /**
+     * Lower-case scheme and host, drop default port and fragment, keep path and query as-is.
+     */
+    static String normalizeUrl(String url) {
+        if (StringUtils.isBlank(url)) {
+            return "";
+        }
+        String trimmed = url.trim();
+        try {
+            URI uri = URI.create(trimmed);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            String host = uri.getHost() == null ? uri.getRawAuthority() : uri.getHost().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                || ("http".equals(scheme) && port == 80)
+                || ("https".equals(scheme) && port == 443);
+
+            StringBuilder normalized = new StringBuilder(trimmed.length());
+            normalized.append(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                normalized.append(uri.getRawUserInfo()).append('@');
+            }
+            normalized.append(host);
+            if (!defaultPort) {
+                normalized.append(':').append(port);
+            }
+            String path = uri.getRawPath();
+            normalized.append(StringUtils.isBlank(path) ? "/" : path);
+            if (uri.getRawQuery() != null) {
+                normalized.append('?').append(uri.getRawQuery());
+            }
+            return normalized.toString();
+        } catch (Exception ex) {
+            return trimmed;
+        }
+    }
+
+}
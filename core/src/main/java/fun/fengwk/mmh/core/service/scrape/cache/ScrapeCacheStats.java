@@ -0,0 +1,24 @@
+package fun.fengwk.mmh.core.service.scrape.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Scrape cache counters snapshot.
+ *
+ * @author fengwk
+ */
+@Data
+@Builder
+public class ScrapeCacheStats {
+
+    private long memoryHits;
+    private long diskHits;
+    private long revalidatedHits;
+    private long misses;
+    private long puts;
+    private long evictions;
+    private int memoryEntries;
+    private long memoryWeight;
+
+}
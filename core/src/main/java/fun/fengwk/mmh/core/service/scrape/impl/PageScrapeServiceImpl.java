@@ -1,10 +1,17 @@
 package fun.fengwk.mmh.core.service.scrape.impl;
 
+import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskCancelledException;
 import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskExecutor;
+import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskPriority;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
 import fun.fengwk.mmh.core.service.browser.runtime.ProfileType;
 import fun.fengwk.mmh.core.service.scrape.PageScrapeService;
 import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.cache.ScrapeCache;
+import fun.fengwk.mmh.core.service.scrape.cache.ScrapeCacheKey;
+import fun.fengwk.mmh.core.service.scrape.model.BatchScrapeRequest;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 import fun.fengwk.mmh.core.service.scrape.parser.HtmlMainContentCleaner;
@@ -16,12 +23,26 @@ import fun.fengwk.mmh.core.service.scrape.support.ScrapeMediaUtils;
 import fun.fengwk.convention4j.common.lang.StringUtils;
 import fun.fengwk.mmh.core.service.scrape.runtime.MasterProfileLockedException;
 import fun.fengwk.mmh.core.service.scrape.runtime.ScrapeBrowserTask;
+import fun.fengwk.mmh.core.service.scrape.runtime.ScrapeEvent;
+import fun.fengwk.mmh.core.service.scrape.runtime.ScrapeHostBusyException;
+import fun.fengwk.mmh.core.service.scrape.runtime.ScrapeHostLimiter;
+import fun.fengwk.mmh.core.service.scrape.runtime.StaticScrapeTask;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Scrape service implementation.
@@ -35,40 +56,63 @@ public class PageScrapeServiceImpl implements PageScrapeService {
 
     private static final String FORMAT_MEDIA = "media";
 
+    private static final String BATCH_DEADLINE_ERROR = "batch deadline exceeded";
+
+    private static final String BATCH_CANCELLED_ERROR = "batch cancelled";
+
+    /**
+     * Client closed request, the caller gave up before the scrape finished.
+     */
+    private static final int CANCELLED_STATUS_CODE = 499;
+
     private final BrowserTaskExecutor browserTaskExecutor;
     private final ScrapeProperties scrapeProperties;
     private final HtmlMainContentCleaner htmlMainContentCleaner;
     private final MarkdownRenderer markdownRenderer;
     private final MarkdownPostProcessor markdownPostProcessor;
     private final LinkExtractor linkExtractor;
+    private final ScrapeCache scrapeCache;
+    private final ScrapeHostLimiter scrapeHostLimiter;
+
+    /**
+     * Shared batch threads, each batch only borrows up to its concurrency cap.
+     */
+    private final ExecutorService batchExecutor = newBatchExecutor();
 
     @Override
     public ScrapeResponse scrape(ScrapeRequest request) {
+        ScrapeEvent event = new ScrapeEvent();
+        event.begin();
+        ScrapeResponse response = doScrape(request);
+        event.complete(request, response);
+        return response;
+    }
+
+    private ScrapeResponse doScrape(ScrapeRequest request) {
         long startAt = System.currentTimeMillis();
         try {
             validateRequest(request);
+            if (request.getCancellationToken() != null) {
+                request.getCancellationToken().throwIfCancelled();
+            }
             ScrapeFormat format = ScrapeFormat.fromValue(request.getFormat());
             ProfileType profileType = ProfileType.fromValue(request.getProfileMode());
 
-            // Low-cost HttpClient path for media resources (default mode only)
-            if (profileType == ProfileType.DEFAULT && ScrapeMediaUtils.hasMediaLikeFileExtension(request.getUrl())) {
-                ScrapeResponse quickResponse = tryQuickScrapeMedia(request.getUrl());
-                if (quickResponse != null) {
-                    quickResponse.setElapsedMs(System.currentTimeMillis() - startAt);
-                    return quickResponse;
+            ScrapeCacheKey cacheKey = null;
+            if (scrapeCache.isEnabled()) {
+                cacheKey = ScrapeCacheKey.of(request.getUrl(), format, request.getOnlyMainContent(), profileType);
+                ScrapeResponse cachedResponse = scrapeCache.get(cacheKey);
+                if (cachedResponse != null) {
+                    cachedResponse.setElapsedMs(System.currentTimeMillis() - startAt);
+                    return cachedResponse;
                 }
             }
 
-            ScrapeBrowserTask scrapeTask = new ScrapeBrowserTask(
-                request,
-                format,
-                scrapeProperties,
-                htmlMainContentCleaner,
-                markdownRenderer,
-                markdownPostProcessor,
-                linkExtractor
-            );
-            ScrapeResponse response = browserTaskExecutor.execute(profileType, scrapeTask);
+            ScrapeResponse response;
+            try (ScrapeHostLimiter.Permit ignored = scrapeHostLimiter.acquire(
+                request.getUrl(), request.getDeadlineAtMs(), request.getCancellationToken())) {
+                response = scrapeUncached(request, format, profileType);
+            }
             if (response == null) {
                 log.warn("scrape response is null, url={}", request.getUrl());
                 return ScrapeResponse.builder()
@@ -77,8 +121,29 @@ public class PageScrapeServiceImpl implements PageScrapeService {
                     .elapsedMs(System.currentTimeMillis() - startAt)
                     .build();
             }
+            putCache(cacheKey, response);
             response.setElapsedMs(System.currentTimeMillis() - startAt);
             return response;
+        } catch (BrowserTaskCancelledException ex) {
+            log.info("scrape cancelled, url={}, error={}", request.getUrl(), ex.getMessage());
+            return ScrapeResponse.builder()
+                .statusCode(CANCELLED_STATUS_CODE)
+                .error(ex.getMessage())
+                .elapsedMs(System.currentTimeMillis() - startAt)
+                .build();
+        } catch (ScrapeHostBusyException ex) {
+            return ScrapeResponse.builder()
+                .statusCode(429)
+                .error(ex.getMessage())
+                .elapsedMs(System.currentTimeMillis() - startAt)
+                .build();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return ScrapeResponse.builder()
+                .statusCode(500)
+                .error("scrape interrupted")
+                .elapsedMs(System.currentTimeMillis() - startAt)
+                .build();
         } catch (MasterProfileLockedException ex) {
             log.warn(
                 "master profile locked, url={}, profileMode={}, error={}",
@@ -116,6 +181,178 @@ public class PageScrapeServiceImpl implements PageScrapeService {
         }
     }
 
+    private ScrapeResponse scrapeUncached(ScrapeRequest request, ScrapeFormat format, ProfileType profileType) {
+        // Low-cost HttpClient path for media resources (default mode only)
+        if (profileType == ProfileType.DEFAULT && ScrapeMediaUtils.hasMediaLikeFileExtension(request.getUrl())) {
+            ScrapeResponse quickResponse = tryQuickScrapeMedia(request.getUrl());
+            if (quickResponse != null) {
+                return quickResponse;
+            }
+        }
+
+        // Browser-free path for static pages (default mode only), falls back to browser when incomplete
+        if (profileType == ProfileType.DEFAULT && StaticScrapeTask.isApplicable(scrapeProperties, request, format)) {
+            ScrapeResponse staticResponse = tryStaticScrape(request, format);
+            if (staticResponse != null) {
+                return staticResponse;
+            }
+        }
+
+        ScrapeBrowserTask scrapeTask = new ScrapeBrowserTask(
+            request,
+            format,
+            scrapeProperties,
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor
+        );
+        return browserTaskExecutor.execute(profileType, scrapeTask);
+    }
+
+    @Override
+    public List<ScrapeResponse> batchScrape(BatchScrapeRequest request) {
+        validateBatchRequest(request);
+        List<String> urls = request.getUrls();
+        int size = urls.size();
+        // Master profile is a single serialized worker, fanning out would only hit its lock timeout.
+        int concurrency = ProfileType.fromValue(request.getProfileMode()) == ProfileType.MASTER
+            ? 1
+            : resolveBatchConcurrency(request.getConcurrency(), size);
+        long startAt = System.currentTimeMillis();
+        long deadline = startAt + Math.max(1, scrapeProperties.getBatchTimeoutMs());
+
+        // Items share a batch token, so nothing keeps scraping once the batch has been answered.
+        CancellationToken batchToken = CancellationToken.create();
+        CancellationToken callerToken = request.getCancellationToken();
+        CancellationToken.Registration callerRegistration = callerToken == null
+            ? null
+            : callerToken.onCancel(() -> batchToken.cancel(callerToken.getReason()));
+        AtomicBoolean answered = new AtomicBoolean(false);
+
+        // Fixed number of drainers over a shared cursor keeps the cap exact without extra threads.
+        AtomicReferenceArray<ScrapeResponse> results = new AtomicReferenceArray<>(size);
+        AtomicInteger cursor = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        ScrapeProgressListener progressListener = request.getProgressListener() == null
+            ? ScrapeProgressListener.NOOP
+            : request.getProgressListener();
+        CountDownLatch drained = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            batchExecutor.execute(() -> {
+                try {
+                    int index;
+                    while ((index = cursor.getAndIncrement()) < size) {
+                        if (System.currentTimeMillis() >= deadline || batchToken.isCancelled()) {
+                            break;
+                        }
+                        results.set(index, scrape(toItemRequest(request, urls.get(index), deadline, batchToken)));
+                        if (!answered.get()) {
+                            notifyItemCompleted(progressListener, completed.incrementAndGet(), size, urls.get(index));
+                        }
+                    }
+                } finally {
+                    drained.countDown();
+                }
+            });
+        }
+
+        try {
+            if (!drained.await(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                log.warn("batch scrape deadline exceeded, size={}, concurrency={}", size, concurrency);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // In-flight items unwind at their next cancellation check and release workers and host permits.
+            answered.set(true);
+            batchToken.cancel(BATCH_DEADLINE_ERROR);
+            if (callerRegistration != null) {
+                callerRegistration.close();
+            }
+        }
+
+        List<ScrapeResponse> responses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ScrapeResponse response = results.get(i);
+            if (response == null) {
+                boolean cancelled = isCancelled(request);
+                response = ScrapeResponse.builder()
+                    .statusCode(cancelled ? CANCELLED_STATUS_CODE : 504)
+                    .format(request.getFormat())
+                    .error(cancelled ? BATCH_CANCELLED_ERROR : BATCH_DEADLINE_ERROR)
+                    .elapsedMs(System.currentTimeMillis() - startAt)
+                    .build();
+            }
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
+    private void validateBatchRequest(BatchScrapeRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("request is null");
+        }
+        List<String> urls = request.getUrls();
+        if (urls == null || urls.isEmpty()) {
+            throw new IllegalArgumentException("urls is empty");
+        }
+        if (urls.size() > scrapeProperties.getBatchMaxUrls()) {
+            throw new IllegalArgumentException("too many urls, max: " + scrapeProperties.getBatchMaxUrls());
+        }
+        if (request.getConcurrency() != null && request.getConcurrency() < 1) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        ScrapeFormat.fromValue(request.getFormat());
+        ProfileType.fromValue(request.getProfileMode());
+    }
+
+    private void notifyItemCompleted(ScrapeProgressListener progressListener, int completed, int size, String url) {
+        try {
+            progressListener.onItemCompleted(completed, size, url);
+        } catch (RuntimeException ex) {
+            log.debug("batch scrape progress listener failed, url={}, error={}", url, ex.getMessage());
+        }
+    }
+
+    private boolean isCancelled(BatchScrapeRequest request) {
+        return request.getCancellationToken() != null && request.getCancellationToken().isCancelled();
+    }
+
+    private int resolveBatchConcurrency(Integer requested, int size) {
+        int max = Math.max(1, scrapeProperties.getBatchMaxConcurrency());
+        int concurrency = requested == null ? max : Math.min(requested, max);
+        return Math.max(1, Math.min(concurrency, size));
+    }
+
+    private ScrapeRequest toItemRequest(BatchScrapeRequest request, String url, long deadline, CancellationToken batchToken) {
+        // Batch items yield workers to interactive scrapes and are dropped once the batch gave up.
+        return ScrapeRequest.builder()
+            .url(url)
+            .format(request.getFormat())
+            .profileMode(request.getProfileMode())
+            .onlyMainContent(request.getOnlyMainContent())
+            .waitFor(request.getWaitFor())
+            .priority(BrowserTaskPriority.BATCH)
+            .deadlineAtMs(deadline)
+            .cancellationToken(batchToken)
+            .build();
+    }
+
+    private static ExecutorService newBatchExecutor() {
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "mmh-batch-scrape-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private void validateRequest(ScrapeRequest request) {
         if (request == null) {
             throw new IllegalArgumentException("request is null");
@@ -138,6 +375,34 @@ public class PageScrapeServiceImpl implements PageScrapeService {
         ProfileType.fromValue(request.getProfileMode());
     }
 
+    private void putCache(ScrapeCacheKey cacheKey, ScrapeResponse response) {
+        if (cacheKey == null) {
+            return;
+        }
+        try {
+            scrapeCache.put(cacheKey, response);
+        } catch (Exception ex) {
+            log.debug("put scrape cache failed, url={}, error={}", cacheKey.url(), ex.getMessage());
+        }
+    }
+
+    private ScrapeResponse tryStaticScrape(ScrapeRequest request, ScrapeFormat format) {
+        try {
+            return new StaticScrapeTask(
+                request,
+                format,
+                scrapeProperties,
+                htmlMainContentCleaner,
+                markdownRenderer,
+                markdownPostProcessor,
+                linkExtractor
+            ).execute();
+        } catch (Exception ex) {
+            log.debug("static scrape failed, url={}, error={}", request.getUrl(), ex.getMessage());
+            return null;
+        }
+    }
+
     private ScrapeResponse tryQuickScrapeMedia(String url) {
         try {
             ScrapeHttpUtils.HttpBytesResponse response = ScrapeHttpUtils.tryFetchBytesWithRetry(
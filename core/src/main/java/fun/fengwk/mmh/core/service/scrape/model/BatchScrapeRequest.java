@@ -0,0 +1,39 @@
+package fun.fengwk.mmh.core.service.scrape.model;
+
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Batch scrape request model, options are shared by all urls.
+ *
+ * @author fengwk
+ */
+@Data
+@Builder
+public class BatchScrapeRequest {
+
+    private List<String> urls;
+    private String format;
+    private String profileMode;
+    private Boolean onlyMainContent;
+    private Integer waitFor;
+
+    /**
+     * Requested parallelism, capped by {@code mmh.scrape.batch-max-concurrency}.
+     */
+    private Integer concurrency;
+
+    /**
+     * Caller cancellation shared by all items, {@code null} means the batch can not be cancelled.
+     */
+    private CancellationToken cancellationToken;
+
+    /**
+     * Item completion callback, items do not report their phases, {@code null} means nobody is listening.
+     */
+    private ScrapeProgressListener progressListener;
+
+}
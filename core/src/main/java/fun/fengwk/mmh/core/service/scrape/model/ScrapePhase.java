@@ -0,0 +1,28 @@
+package fun.fengwk.mmh.core.service.scrape.model;
+
+/**
+ * Phases of a browser scrape, in execution order.
+ *
+ * @author fengwk
+ */
+public enum ScrapePhase {
+
+    DIRECT_MEDIA_PROBE("direct media probe"),
+    NAVIGATE("navigate"),
+    WAIT("wait"),
+    SCREENSHOT("screenshot"),
+    FRAME_COLLECTION("frame collection"),
+    CLEAN("clean"),
+    RENDER("render");
+
+    private final String value;
+
+    ScrapePhase(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+}
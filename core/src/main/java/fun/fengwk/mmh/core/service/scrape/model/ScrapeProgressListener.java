@@ -0,0 +1,37 @@
+package fun.fengwk.mmh.core.service.scrape.model;
+
+/**
+ * Progress callback of a scrape, called on the thread running the scrape.
+ *
+ * <p>Implementations must be cheap and must not throw, a slow listener delays the scrape itself.
+ *
+ * @author fengwk
+ */
+public interface ScrapeProgressListener {
+
+    /**
+     * Listener ignoring every event.
+     */
+    ScrapeProgressListener NOOP = new ScrapeProgressListener() {
+    };
+
+    /**
+     * A scrape phase completed.
+     *
+     * @param phase completed phase
+     * @param elapsedMs time spent in the phase
+     */
+    default void onPhaseCompleted(ScrapePhase phase, long elapsedMs) {
+    }
+
+    /**
+     * A batch item completed, successfully or not.
+     *
+     * @param completed number of completed items including this one
+     * @param total number of items in the batch
+     * @param url url of the completed item
+     */
+    default void onItemCompleted(int completed, int total, String url) {
+    }
+
+}
@@ -1,5 +1,7 @@
 package fun.fengwk.mmh.core.service.scrape.model;
 
+import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskPriority;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
 import lombok.Builder;
 import lombok.Data;
 
@@ -18,4 +20,24 @@ public class ScrapeRequest {
     private Boolean onlyMainContent;
     private Integer waitFor;
 
+    /**
+     * Worker queue priority, {@code null} means interactive.
+     */
+    private BrowserTaskPriority priority;
+
+    /**
+     * Absolute deadline in epoch milliseconds for waiting on a browser worker, {@code null} means none.
+     */
+    private Long deadlineAtMs;
+
+    /**
+     * Caller cancellation, {@code null} means the scrape can not be cancelled.
+     */
+    private CancellationToken cancellationToken;
+
+    /**
+     * Phase progress callback, {@code null} means nobody is listening.
+     */
+    private ScrapeProgressListener progressListener;
+
 }
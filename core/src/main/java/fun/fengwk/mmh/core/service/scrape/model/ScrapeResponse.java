@@ -32,4 +32,14 @@ public class ScrapeResponse {
     private Long elapsedMs;
     private String error;
 
+    /**
+     * Origin Cache-Control header, used by scrape cache only.
+     */
+    private String cacheControl;
+
+    /**
+     * Origin ETag header, used by scrape cache revalidation only.
+     */
+    private String etag;
+
 }
@@ -0,0 +1,88 @@
+package fun.fengwk.mmh.core.service.scrape.parser;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+/**
+ * Cleaned html tree produced by {@link HtmlMainContentCleaner}.
+ *
+ * <p>The root is either the selected main content element or the whole body. Consumers such as
+ * {@link MarkdownRenderer} and {@link LinkExtractor} read the tree directly, html is only
+ * serialized when a string result is requested.
+ *
+ * @author fengwk
+ */
+public final class CleanedHtml {
+
+    private static final CleanedHtml EMPTY = new CleanedHtml(null, true);
+
+    private final Element root;
+    private final boolean wholeBody;
+    private String html;
+
+    private CleanedHtml(Element root, boolean wholeBody) {
+        this.root = root;
+        this.wholeBody = wholeBody;
+    }
+
+    public static CleanedHtml empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Whole body result, serialized as body inner html.
+     */
+    public static CleanedHtml ofBody(Element body) {
+        return body == null ? EMPTY : new CleanedHtml(body, true);
+    }
+
+    /**
+     * Main content element result, serialized as element outer html.
+     */
+    public static CleanedHtml ofElement(Element element) {
+        return element == null ? EMPTY : new CleanedHtml(element, false);
+    }
+
+    /**
+     * Root element of cleaned content, {@code null} when there is no content.
+     */
+    public Element getRoot() {
+        return root;
+    }
+
+    public String html() {
+        if (html == null) {
+            if (root == null) {
+                html = "";
+            } else {
+                html = wholeBody ? root.html() : root.outerHtml();
+            }
+        }
+        return html;
+    }
+
+    /**
+     * Whether serialized html would be blank, without serializing it.
+     */
+    public boolean isEmpty() {
+        if (root == null) {
+            return true;
+        }
+        if (!wholeBody) {
+            return false;
+        }
+        for (Node child : root.childNodes()) {
+            if (!(child instanceof TextNode textNode) || !textNode.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return html();
+    }
+
+}
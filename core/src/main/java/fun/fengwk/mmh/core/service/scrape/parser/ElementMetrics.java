@@ -0,0 +1,216 @@
+package fun.fengwk.mmh.core.service.scrape.parser;
+
+import org.jsoup.nodes.Attributes;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Side table of content metrics for every element under a root, built in one traversal.
+ *
+ * <p>Replaces per-candidate {@code text()}, {@code select(..)} and {@code outerHtml()} calls, which
+ * re-walk each subtree and turn nested candidate scoring quadratic on div-heavy pages.
+ *
+ * @author fengwk
+ */
+final class ElementMetrics {
+
+    private static final Set<String> BLOCK_COUNT_TAGS = Set.of(
+        "p", "h1", "h2", "h3", "h4", "li", "pre", "blockquote", "table", "tr"
+    );
+
+    private final Map<Element, Stats> stats;
+
+    private ElementMetrics(Map<Element, Stats> stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Build metrics for {@code root} and all its descendant elements.
+     */
+    static ElementMetrics build(Element root) {
+        Collector collector = new Collector();
+        NodeTraversor.traverse(collector, root);
+        return new ElementMetrics(collector.stats);
+    }
+
+    /**
+     * Metrics of the element, computed on demand when it is outside the built root.
+     */
+    Stats get(Element element) {
+        Stats elementStats = stats.get(element);
+        if (elementStats == null) {
+            elementStats = build(element).stats.get(element);
+            stats.put(element, elementStats);
+        }
+        return elementStats;
+    }
+
+    /**
+     * Per-element metrics.
+     *
+     * @param textLength text length with whitespace runs collapsed and trimmed, same as
+     *                   {@code text().replaceAll("\\s+", " ").trim().length()}
+     * @param linkTextLength sum of text length of {@code a} elements, the element itself included
+     * @param blockCount number of block-level content elements, the element itself included
+     * @param imageCount number of {@code img} elements, the element itself included
+     * @param markupLength approximate serialized html length, without pretty-print indentation
+     */
+    record Stats(int textLength, int linkTextLength, int blockCount, int imageCount, int markupLength) {
+
+    }
+
+    private static final class Frame {
+
+        private final Element element;
+        private final int textStart;
+        private int linkTextLength;
+        private int blockCount;
+        private int imageCount;
+        private int markupLength;
+
+        private Frame(Element element, int textStart) {
+            this.element = element;
+            this.textStart = textStart;
+        }
+
+    }
+
+    /**
+     * Emits the normalized text of the whole root once, each element keeps its slice offsets.
+     *
+     * <p>Whitespace is emitted lazily, so a slice never ends with a space and starts with one
+     * only when the separator belongs to preceding content.
+     */
+    private static final class Collector implements NodeVisitor {
+
+        private final Map<Element, Stats> stats = new IdentityHashMap<>();
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private final StringBuilder text = new StringBuilder();
+        private boolean pendingSpace;
+
+        @Override
+        public void head(Node node, int depth) {
+            if (node instanceof TextNode textNode) {
+                appendText(textNode.getWholeText());
+                Frame frame = frames.peek();
+                if (frame != null) {
+                    frame.markupLength += textNode.getWholeText().length();
+                }
+                return;
+            }
+            if (!(node instanceof Element element)) {
+                return;
+            }
+            if (isTextBoundary(element)) {
+                pendingSpace = true;
+            }
+            Frame frame = new Frame(element, text.length());
+            String tagName = element.normalName();
+            if (BLOCK_COUNT_TAGS.contains(tagName)) {
+                frame.blockCount = 1;
+            }
+            if ("img".equals(tagName)) {
+                frame.imageCount = 1;
+            }
+            frame.markupLength = openTagLength(element);
+            frames.push(frame);
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+            if (!(node instanceof Element element)) {
+                return;
+            }
+            Frame frame = frames.pop();
+            int textLength = sliceLength(frame.textStart, text.length());
+            if ("a".equals(element.normalName())) {
+                frame.linkTextLength += textLength;
+            }
+            if (!element.tag().isSelfClosing()) {
+                frame.markupLength += element.tagName().length() + 3;
+            }
+            stats.put(element, new Stats(
+                textLength,
+                frame.linkTextLength,
+                frame.blockCount,
+                frame.imageCount,
+                frame.markupLength
+            ));
+
+            Frame parent = frames.peek();
+            if (parent != null) {
+                parent.linkTextLength += frame.linkTextLength;
+                parent.blockCount += frame.blockCount;
+                parent.imageCount += frame.imageCount;
+                parent.markupLength += frame.markupLength;
+            }
+            // Same rule as jsoup text(): a block is separated from following text or inline siblings.
+            if (element.isBlock() && isTextOrInline(element.nextSibling())) {
+                pendingSpace = true;
+            }
+        }
+
+        private void appendText(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (isWhitespace(c)) {
+                    pendingSpace = true;
+                    continue;
+                }
+                if (isInvisible(c)) {
+                    continue;
+                }
+                if (pendingSpace && !text.isEmpty()) {
+                    text.append(' ');
+                }
+                pendingSpace = false;
+                text.append(c);
+            }
+        }
+
+        private int sliceLength(int start, int end) {
+            if (end <= start) {
+                return 0;
+            }
+            return text.charAt(start) == ' ' ? end - start - 1 : end - start;
+        }
+
+        private static boolean isTextBoundary(Element element) {
+            return element.isBlock() || "br".equals(element.normalName());
+        }
+
+        private static boolean isTextOrInline(Node next) {
+            return next instanceof TextNode
+                || next instanceof Element nextElement && !nextElement.tag().formatAsBlock();
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0B || c == 160;
+        }
+
+        private static boolean isInvisible(char c) {
+            // Zero width space and soft hyphen, dropped by jsoup text().
+            return c == 8203 || c == 173;
+        }
+
+        private static int openTagLength(Element element) {
+            int length = element.tagName().length() + 2;
+            Attributes attributes = element.attributes();
+            if (attributes.size() > 0) {
+                length += attributes.html().length();
+            }
+            return length;
+        }
+
+    }
+
+}
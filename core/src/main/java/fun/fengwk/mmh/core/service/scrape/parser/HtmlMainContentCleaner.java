@@ -158,6 +158,35 @@ public class HtmlMainContentCleaner {
         boolean removeBase64Images
     ) {
         Document document = Jsoup.parse(html == null ? "" : html, StringUtils.isBlank(baseUrl) ? "" : baseUrl);
+        return cleanInPlace(document, baseUrl, onlyMainContent, stripChromeTags, removeBase64Images).html();
+    }
+
+    /**
+     * Clean an already parsed document.
+     *
+     * <p>The given document is never mutated, cleaning runs on a clone so the caller can clean the
+     * same parsed page again with different options (e.g. full-page fallback).
+     */
+    public CleanedHtml clean(
+        Document document,
+        String baseUrl,
+        boolean onlyMainContent,
+        boolean stripChromeTags,
+        boolean removeBase64Images
+    ) {
+        if (document == null) {
+            return CleanedHtml.empty();
+        }
+        return cleanInPlace(document.clone(), baseUrl, onlyMainContent, stripChromeTags, removeBase64Images);
+    }
+
+    private CleanedHtml cleanInPlace(
+        Document document,
+        String baseUrl,
+        boolean onlyMainContent,
+        boolean stripChromeTags,
+        boolean removeBase64Images
+    ) {
         document.select("script, style, noscript, meta, head").remove();
         if (onlyMainContent && stripChromeTags) {
             removeNonMainElements(document, true);
@@ -171,15 +200,15 @@ public class HtmlMainContentCleaner {
 
         Element body = document.body();
         if (body == null) {
-            return "";
+            return CleanedHtml.empty();
         }
         if (onlyMainContent) {
             Element mainContentElement = selectMainContentElement(document, body, baseUrl);
             if (mainContentElement != null && mainContentElement != body) {
-                return mainContentElement.outerHtml();
+                return CleanedHtml.ofElement(mainContentElement);
             }
         }
-        return body.html();
+        return CleanedHtml.ofBody(body);
     }
 
     private void removeNonMainElements(Document document, boolean strict) {
@@ -301,8 +330,10 @@ public class HtmlMainContentCleaner {
     }
 
     private Element selectMainContentElement(Document document, Element body, String baseUrl) {
+        // One traversal feeds every candidate score, nested candidates no longer re-walk their subtrees.
+        ElementMetrics metrics = ElementMetrics.build(body);
         DomainRule domainRule = resolveDomainRule(baseUrl);
-        Element preferredCandidate = findPreferredCandidate(document, domainRule, body);
+        Element preferredCandidate = findPreferredCandidate(document, domainRule, body, metrics);
         if (preferredCandidate != null) {
             return preferredCandidate;
         }
@@ -326,7 +357,7 @@ public class HtmlMainContentCleaner {
             if (candidate == null || candidate == body.parent()) {
                 continue;
             }
-            double score = scoreMainCandidate(candidate);
+            double score = scoreMainCandidate(candidate, metrics.get(candidate));
             if (score > bestScore) {
                 bestScore = score;
                 bestCandidate = candidate;
@@ -337,8 +368,8 @@ public class HtmlMainContentCleaner {
             return body;
         }
 
-        int bodyTextLength = normalizedTextLength(body.text());
-        int candidateTextLength = normalizedTextLength(bestCandidate.text());
+        int bodyTextLength = metrics.get(body).textLength();
+        int candidateTextLength = metrics.get(bestCandidate).textLength();
         int minimumTextLength = Math.min(MIN_MAIN_TEXT_LENGTH, Math.max(40, bodyTextLength / 8));
         if (candidateTextLength < minimumTextLength) {
             return body;
@@ -347,7 +378,12 @@ public class HtmlMainContentCleaner {
         return bestCandidate;
     }
 
-    private Element findPreferredCandidate(Document document, DomainRule domainRule, Element body) {
+    private Element findPreferredCandidate(
+        Document document,
+        DomainRule domainRule,
+        Element body,
+        ElementMetrics metrics
+    ) {
         if (domainRule == null) {
             return null;
         }
@@ -359,11 +395,11 @@ public class HtmlMainContentCleaner {
                 if (candidate == null || candidate == body.parent()) {
                     continue;
                 }
-                int textLength = normalizedTextLength(candidate.text());
-                if (textLength < 80) {
+                ElementMetrics.Stats stats = metrics.get(candidate);
+                if (stats.textLength() < 80) {
                     continue;
                 }
-                double score = scoreMainCandidate(candidate);
+                double score = scoreMainCandidate(candidate, stats);
                 if (score > bestScore) {
                     bestScore = score;
                     bestCandidate = candidate;
@@ -399,21 +435,17 @@ public class HtmlMainContentCleaner {
         }
     }
 
-    private double scoreMainCandidate(Element candidate) {
-        int textLength = normalizedTextLength(candidate.text());
+    private double scoreMainCandidate(Element candidate, ElementMetrics.Stats stats) {
+        int textLength = stats.textLength();
         if (textLength <= 0) {
             return Double.NEGATIVE_INFINITY;
         }
 
-        int linkTextLength = 0;
-        for (Element linkElement : candidate.select("a")) {
-            linkTextLength += normalizedTextLength(linkElement.text());
-        }
-        double linkDensity = linkTextLength / (double) Math.max(1, textLength);
+        double linkDensity = stats.linkTextLength() / (double) Math.max(1, textLength);
 
-        int blockCount = candidate.select("p, h1, h2, h3, h4, li, pre, blockquote, table, tr").size();
-        int imageCount = candidate.select("img").size();
-        int markupLength = Math.max(1, candidate.outerHtml().length());
+        int blockCount = stats.blockCount();
+        int imageCount = stats.imageCount();
+        int markupLength = Math.max(1, stats.markupLength());
         double markupOverhead = markupLength / (double) Math.max(1, textLength);
 
         double score = textLength * (1D - Math.min(0.95D, linkDensity));
@@ -489,13 +521,6 @@ public class HtmlMainContentCleaner {
         return (role + " " + id + " " + className).toLowerCase(Locale.ROOT);
     }
 
-    private int normalizedTextLength(String value) {
-        if (StringUtils.isBlank(value)) {
-            return 0;
-        }
-        return value.replaceAll("\\s+", " ").trim().length();
-    }
-
     private record SrcCandidate(String url, int size, boolean isX) {
 
     }
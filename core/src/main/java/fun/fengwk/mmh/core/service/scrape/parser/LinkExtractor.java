@@ -20,8 +20,18 @@ public class LinkExtractor {
 
     public List<String> extract(String html, String baseUrl) {
         Document document = Jsoup.parse(html == null ? "" : html, baseUrl == null ? "" : baseUrl);
+        return extract(document, baseUrl);
+    }
+
+    /**
+     * Extract links from an already parsed tree, relative links resolve against the tree base uri.
+     */
+    public List<String> extract(Element root, String baseUrl) {
+        if (root == null) {
+            return new ArrayList<>();
+        }
         Set<String> deduplicated = new LinkedHashSet<>();
-        for (Element element : document.select("a[href]")) {
+        for (Element element : root.select("a[href]")) {
             String href = element.attr("abs:href");
             if (href != null && !href.isBlank()) {
                 deduplicated.add(href);
@@ -5,198 +5,569 @@ import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Post-process markdown output.
  *
+ * <p>All rules run in one streaming pass: a character stage removes invisible chars, empty links,
+ * repeated spaces and gaps between adjacent images, then each completed line flows through code
+ * block merging, ordered list numbering and blank line folding straight into the result builder.
+ *
  * @author fengwk
  */
 @Component
 public class MarkdownPostProcessor {
 
-    private static final Pattern ORDERED_LIST_ITEM_PATTERN = Pattern.compile("^(\\s*)(\\d+)\\.\\s+(.*)$");
+    private static final String FENCE = "```";
 
     public String process(String markdown) {
         if (StringUtils.isBlank(markdown)) {
             return "";
         }
-        String normalized = markdown.replace("\r\n", "\n")
-            .replace("\uFEFF", "")
-            .replace("\u200B", "")
-            .replace("\u2060", "");
-        normalized = removeEmptyLinks(normalized);
-        normalized = compactAdjacentImages(normalized);
-        normalized = mergeAdjacentCodeBlocks(normalized);
-        normalized = normalizeOrderedListNumbers(normalized);
-        StringBuilder builder = new StringBuilder();
-        boolean previousBlank = true;
-        for (String line : normalized.split("\n", -1)) {
-            String trimmedLine = stripTrailingSpaces(line);
-            if (trimmedLine.isBlank()) {
-                if (!previousBlank) {
-                    builder.append("\n");
-                }
-                previousBlank = true;
-                continue;
-            }
-            builder.append(trimmedLine).append("\n");
-            previousBlank = false;
-        }
-        return builder.toString().trim();
+        return new Pass(markdown).run();
     }
 
-    private String removeEmptyLinks(String input) {
-        String cleaned = input.replaceAll("[\\t ]*(?<!\\!)\\[\\s*\\]\\([^)]*\\)[\\t ]*", " ");
-        return cleaned.replaceAll(" {2,}", " ");
-    }
+    /**
+     * Per-call state, stages are listed in the order chars and lines flow through them.
+     */
+    private static final class Pass {
 
-    private String compactAdjacentImages(String input) {
-        return input.replaceAll("\\)\\s+!\\[", ")![");
-    }
+        private final CharSequence input;
+        private final int length;
+        private final StringBuilder output;
 
-    private String mergeAdjacentCodeBlocks(String input) {
-        String[] lines = input.split("\n", -1);
-        StringBuilder merged = new StringBuilder();
-        int index = 0;
-        while (index < lines.length) {
-            String line = lines[index];
-            if (!isFenceLine(line)) {
-                appendLine(merged, line);
-                index++;
-                continue;
-            }
+        // empty link removal
+        private final StringBuilder blankRun = new StringBuilder();
+        private char previous;
+        private char matchLast;
+        private int closeParenScanFrom = Integer.MAX_VALUE;
+        private int closeParenIndex = -1;
 
-            int closeIndex = findFenceClose(lines, index + 1);
-            if (closeIndex < 0) {
-                appendLine(merged, line);
-                index++;
-                continue;
-            }
+        // space collapsing and adjacent image compaction
+        private boolean previousSpace;
+        private ImageGapState imageGapState = ImageGapState.IDLE;
+        private final StringBuilder imageGap = new StringBuilder();
+
+        // line assembly
+        private final StringBuilder line = new StringBuilder();
 
-            String fence = line.trim();
-            StringBuilder content = new StringBuilder();
-            appendCodeBlockContent(content, lines, index + 1, closeIndex);
-            int nextIndex = closeIndex + 1;
+        // adjacent code block merging
+        private CodeBlockState codeBlockState = CodeBlockState.NORMAL;
+        private String fence;
+        private String openLine;
+        private final StringBuilder codeContent = new StringBuilder();
+        private final StringBuilder pendingCode = new StringBuilder();
+        private int pendingCodeLines;
+        private String pendingBlank;
+
+        // ordered list numbering
+        private final Map<Integer, Integer> countersByIndent = new HashMap<>();
+        private boolean inCodeBlock;
+        private final StringBuilder listLine = new StringBuilder();
+
+        // blank line folding
+        private boolean previousBlank = true;
+
+        private Pass(CharSequence input) {
+            this.input = input;
+            this.length = input.length();
+            this.output = new StringBuilder(length);
+        }
 
-            while (true) {
-                int blankStart = nextIndex;
-                while (nextIndex < lines.length && lines[nextIndex].trim().isEmpty()) {
-                    nextIndex++;
+        private String run() {
+            int index = nextIndex(0);
+            while (index < length) {
+                char c = input.charAt(index);
+                if (c == ' ' || c == '\t') {
+                    blankRun.append(c);
+                    previous = c;
+                    index = nextIndex(index + 1);
+                    continue;
                 }
-                int blankCount = nextIndex - blankStart;
+                if (c == '[' && previous != '!') {
+                    int end = matchEmptyLink(index);
+                    if (end >= 0) {
+                        blankRun.setLength(0);
+                        collapseSpaces(' ');
+                        previous = matchLast;
+                        index = end;
+                        continue;
+                    }
+                }
+                flushBlankRun();
+                collapseSpaces(c);
+                previous = c;
+                index = nextIndex(index + 1);
+            }
+            flushBlankRun();
+            flushImageGap();
+            endLine();
+            finishCodeBlocks();
+            return trim(output);
+        }
 
-                if (blankCount > 1 || nextIndex >= lines.length || !fence.equals(lines[nextIndex].trim())) {
-                    nextIndex = blankStart;
-                    break;
+        // ---- char stage: zero width chars and CRLF ----
+
+        /**
+         * Next index at or after {@code index} that survives invisible char removal and CRLF folding.
+         */
+        private int nextIndex(int index) {
+            while (index < length) {
+                char c = input.charAt(index);
+                if (c == '\uFEFF' || c == '\u200B' || c == '\u2060') {
+                    index++;
+                } else if (c == '\r' && index + 1 < length && input.charAt(index + 1) == '\n') {
+                    index++;
+                } else {
+                    return index;
                 }
+            }
+            return length;
+        }
+
+        // ---- char stage: empty links ----
 
-                int nextClose = findFenceClose(lines, nextIndex + 1);
-                if (nextClose < 0) {
-                    nextIndex = blankStart;
+        /**
+         * Match {@code [ ](...)} plus trailing blanks at {@code start}, returns the index after the match or -1.
+         */
+        private int matchEmptyLink(int start) {
+            int index = nextIndex(start + 1);
+            while (index < length && isRegexSpace(input.charAt(index))) {
+                index = nextIndex(index + 1);
+            }
+            if (index >= length || input.charAt(index) != ']') {
+                return -1;
+            }
+            index = nextIndex(index + 1);
+            if (index >= length || input.charAt(index) != '(') {
+                return -1;
+            }
+            int close = findCloseParen(index + 1);
+            if (close < 0) {
+                return -1;
+            }
+            matchLast = ')';
+            index = nextIndex(close + 1);
+            while (index < length && (input.charAt(index) == ' ' || input.charAt(index) == '\t')) {
+                matchLast = input.charAt(index);
+                index = nextIndex(index + 1);
+            }
+            return index;
+        }
+
+        /**
+         * First ')' at or after {@code from}, remembered so runs of unclosed links stay linear.
+         */
+        private int findCloseParen(int from) {
+            if (closeParenScanFrom <= from && (closeParenIndex < 0 || closeParenIndex >= from)) {
+                return closeParenIndex;
+            }
+            closeParenScanFrom = from;
+            closeParenIndex = -1;
+            for (int i = from; i < length; i++) {
+                if (input.charAt(i) == ')') {
+                    closeParenIndex = i;
                     break;
                 }
+            }
+            return closeParenIndex;
+        }
 
-                if (content.length() > 0 && content.charAt(content.length() - 1) != '\n') {
-                    content.append("\n");
-                }
-                appendCodeBlockContent(content, lines, nextIndex + 1, nextClose);
-                nextIndex = nextClose + 1;
+        private void flushBlankRun() {
+            for (int i = 0; i < blankRun.length(); i++) {
+                collapseSpaces(blankRun.charAt(i));
+            }
+            blankRun.setLength(0);
+        }
+
+        // ---- char stage: repeated spaces ----
+
+        private void collapseSpaces(char c) {
+            boolean space = c == ' ';
+            if (space && previousSpace) {
+                return;
             }
+            previousSpace = space;
+            compactImages(c);
+        }
 
-            appendLine(merged, fence);
-            if (content.length() > 0) {
-                merged.append(content);
-                if (content.charAt(content.length() - 1) != '\n') {
-                    merged.append("\n");
+        // ---- char stage: whitespace between adjacent images ----
+
+        private void compactImages(char c) {
+            switch (imageGapState) {
+                case IDLE -> {
+                    emitChar(c);
+                    if (c == ')') {
+                        imageGapState = ImageGapState.PAREN;
+                    }
+                }
+                case PAREN -> {
+                    if (isRegexSpace(c)) {
+                        imageGap.append(c);
+                        imageGapState = ImageGapState.GAP;
+                    } else {
+                        imageGapState = ImageGapState.IDLE;
+                        compactImages(c);
+                    }
+                }
+                case GAP -> {
+                    if (isRegexSpace(c)) {
+                        imageGap.append(c);
+                    } else if (c == '!') {
+                        imageGapState = ImageGapState.BANG;
+                    } else {
+                        flushImageGap();
+                        compactImages(c);
+                    }
+                }
+                case BANG -> {
+                    if (c == '[') {
+                        imageGap.setLength(0);
+                        imageGapState = ImageGapState.IDLE;
+                        emitChar('!');
+                        emitChar('[');
+                    } else {
+                        flushImageGap();
+                        compactImages(c);
+                    }
                 }
             }
-            appendLine(merged, "```");
+        }
+
+        private void flushImageGap() {
+            for (int i = 0; i < imageGap.length(); i++) {
+                emitChar(imageGap.charAt(i));
+            }
+            imageGap.setLength(0);
+            if (imageGapState == ImageGapState.BANG) {
+                emitChar('!');
+            }
+            imageGapState = ImageGapState.IDLE;
+        }
 
-            if (nextIndex == closeIndex + 1) {
-                index = closeIndex + 1;
+        private void emitChar(char c) {
+            if (c == '\n') {
+                endLine();
             } else {
-                index = nextIndex;
+                line.append(c);
             }
         }
 
-        return merged.toString();
-    }
+        private void endLine() {
+            mergeCodeBlocks(line);
+            line.setLength(0);
+        }
+
+        // ---- line stage: adjacent code blocks with the same fence ----
 
-    private int findFenceClose(String[] lines, int start) {
-        for (int i = start; i < lines.length; i++) {
-            if (isFenceLine(lines[i])) {
-                return i;
+        private void mergeCodeBlocks(CharSequence current) {
+            switch (codeBlockState) {
+                case NORMAL -> {
+                    if (isFenceLine(current)) {
+                        openLine = current.toString();
+                        fence = openLine.trim();
+                        codeBlockState = CodeBlockState.OPEN;
+                    } else {
+                        numberOrderedList(current);
+                    }
+                }
+                case OPEN -> {
+                    if (isFenceLine(current)) {
+                        codeContent.setLength(0);
+                        codeContent.append(pendingCode);
+                        clearPendingCode();
+                        codeBlockState = CodeBlockState.CLOSED;
+                    } else {
+                        appendPendingCode(current);
+                    }
+                }
+                case CLOSED -> {
+                    if (isTrimEmpty(current)) {
+                        if (pendingBlank == null) {
+                            pendingBlank = current.toString();
+                        } else {
+                            flushCodeBlock();
+                            mergeCodeBlocks(current);
+                        }
+                    } else if (trimEquals(current, fence)) {
+                        openLine = current.toString();
+                        codeBlockState = CodeBlockState.NEXT;
+                    } else {
+                        flushCodeBlock();
+                        mergeCodeBlocks(current);
+                    }
+                }
+                case NEXT -> {
+                    if (isFenceLine(current)) {
+                        if (!codeContent.isEmpty() && codeContent.charAt(codeContent.length() - 1) != '\n') {
+                            codeContent.append('\n');
+                        }
+                        codeContent.append(pendingCode);
+                        clearPendingCode();
+                        pendingBlank = null;
+                        codeBlockState = CodeBlockState.CLOSED;
+                    } else {
+                        appendPendingCode(current);
+                    }
+                }
             }
         }
-        return -1;
-    }
 
-    private boolean isFenceLine(String line) {
-        return line != null && line.trim().startsWith("```");
-    }
+        private void finishCodeBlocks() {
+            switch (codeBlockState) {
+                case NORMAL -> {
+                }
+                case OPEN -> {
+                    // Unclosed fence, keep the remaining lines verbatim.
+                    codeBlockState = CodeBlockState.NORMAL;
+                    numberOrderedList(openLine);
+                    replayPendingCode();
+                }
+                case CLOSED -> flushCodeBlock();
+                case NEXT -> {
+                    String nextOpenLine = openLine;
+                    String code = pendingCode.toString();
+                    int codeLines = pendingCodeLines;
+                    clearPendingCode();
+                    flushCodeBlock();
+                    mergeCodeBlocks(nextOpenLine);
+                    replayLines(code, codeLines);
+                    finishCodeBlocks();
+                }
+            }
+        }
 
-    private void appendCodeBlockContent(StringBuilder content, String[] lines, int start, int endExclusive) {
-        for (int i = start; i < endExclusive; i++) {
-            content.append(lines[i]);
-            if (i < endExclusive - 1) {
-                content.append("\n");
+        /**
+         * Emit the merged block and fall back to normal processing, replaying a buffered blank line.
+         */
+        private void flushCodeBlock() {
+            numberOrderedList(fence);
+            if (!codeContent.isEmpty()) {
+                int end = codeContent.length();
+                if (codeContent.charAt(end - 1) == '\n') {
+                    end--;
+                }
+                int start = 0;
+                for (int i = 0; i <= end; i++) {
+                    if (i == end || codeContent.charAt(i) == '\n') {
+                        numberOrderedList(codeContent.subSequence(start, i));
+                        start = i + 1;
+                    }
+                }
+            }
+            numberOrderedList(FENCE);
+            codeContent.setLength(0);
+            codeBlockState = CodeBlockState.NORMAL;
+            if (pendingBlank != null) {
+                String blank = pendingBlank;
+                pendingBlank = null;
+                mergeCodeBlocks(blank);
             }
         }
-    }
 
-    private String normalizeOrderedListNumbers(String input) {
-        StringBuilder normalized = new StringBuilder();
-        Map<Integer, Integer> countersByIndent = new HashMap<>();
-        boolean inCodeBlock = false;
+        private void appendPendingCode(CharSequence current) {
+            if (pendingCodeLines > 0) {
+                pendingCode.append('\n');
+            }
+            pendingCode.append(current);
+            pendingCodeLines++;
+        }
+
+        private void replayPendingCode() {
+            String code = pendingCode.toString();
+            int codeLines = pendingCodeLines;
+            clearPendingCode();
+            replayLines(code, codeLines);
+        }
 
-        for (String line : input.split("\n", -1)) {
-            String trimmed = line.trim();
-            if (isFenceLine(line)) {
-                inCodeBlock = !inCodeBlock;
-                appendLine(normalized, line);
-                continue;
+        private void replayLines(String code, int codeLines) {
+            if (codeLines == 0) {
+                return;
             }
+            int start = 0;
+            for (int i = 0; i <= code.length(); i++) {
+                if (i == code.length() || code.charAt(i) == '\n') {
+                    mergeCodeBlocks(code.substring(start, i));
+                    start = i + 1;
+                }
+            }
+        }
+
+        private void clearPendingCode() {
+            pendingCode.setLength(0);
+            pendingCodeLines = 0;
+        }
+
+        // ---- line stage: ordered list numbering ----
 
+        private void numberOrderedList(CharSequence current) {
+            if (isFenceLine(current)) {
+                inCodeBlock = !inCodeBlock;
+                foldBlankLines(current);
+                return;
+            }
             if (inCodeBlock) {
-                appendLine(normalized, line);
-                continue;
+                foldBlankLines(current);
+                return;
             }
 
-            Matcher matcher = ORDERED_LIST_ITEM_PATTERN.matcher(line);
-            if (matcher.matches()) {
-                int indent = matcher.group(1).length();
-                clearDeeperIndentCounters(countersByIndent, indent);
-                int normalizedIndex = countersByIndent.getOrDefault(indent, 0) + 1;
-                countersByIndent.put(indent, normalizedIndex);
-                appendLine(normalized, matcher.group(1) + normalizedIndex + ". " + matcher.group(3));
-                continue;
+            int currentLength = current.length();
+            int indentEnd = 0;
+            while (indentEnd < currentLength && isRegexSpace(current.charAt(indentEnd))) {
+                indentEnd++;
+            }
+            int indent = indentEnd;
+            int digitsEnd = indentEnd;
+            while (digitsEnd < currentLength && isAsciiDigit(current.charAt(digitsEnd))) {
+                digitsEnd++;
+            }
+            if (digitsEnd > indent
+                && digitsEnd + 1 < currentLength
+                && current.charAt(digitsEnd) == '.'
+                && isRegexSpace(current.charAt(digitsEnd + 1))) {
+                int textStart = digitsEnd + 1;
+                while (textStart < currentLength && isRegexSpace(current.charAt(textStart))) {
+                    textStart++;
+                }
+                if (!containsLineTerminator(current, textStart)) {
+                    countersByIndent.keySet().removeIf(key -> key > indent);
+                    int normalizedIndex = countersByIndent.getOrDefault(indent, 0) + 1;
+                    countersByIndent.put(indent, normalizedIndex);
+                    listLine.setLength(0);
+                    listLine.append(current, 0, indent)
+                        .append(normalizedIndex)
+                        .append(". ")
+                        .append(current, textStart, currentLength);
+                    foldBlankLines(listLine);
+                    return;
+                }
             }
 
-            if (!trimmed.isEmpty() && !line.startsWith("  ")) {
+            if (!isTrimEmpty(current) && !startsWithTwoSpaces(current)) {
                 countersByIndent.clear();
             }
-            appendLine(normalized, line);
+            foldBlankLines(current);
         }
 
-        return normalized.toString();
-    }
+        // ---- line stage: trailing spaces and blank lines ----
+
+        private void foldBlankLines(CharSequence current) {
+            int end = current.length();
+            while (end > 0 && Character.isWhitespace(current.charAt(end - 1))) {
+                end--;
+            }
+            if (end == 0) {
+                if (!previousBlank) {
+                    output.append('\n');
+                }
+                previousBlank = true;
+                return;
+            }
+            output.append(current, 0, end).append('\n');
+            previousBlank = false;
+        }
+
+        // ---- helpers ----
+
+        /**
+         * Same as {@link String#trim()} on the whole builder.
+         */
+        private static String trim(StringBuilder builder) {
+            int start = 0;
+            int end = builder.length();
+            while (start < end && builder.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && builder.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return builder.substring(start, end);
+        }
+
+        private static boolean isFenceLine(CharSequence value) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (end - start < FENCE.length()) {
+                return false;
+            }
+            for (int i = 0; i < FENCE.length(); i++) {
+                if (value.charAt(start + i) != FENCE.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean trimEquals(CharSequence value, String expected) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (end - start != expected.length()) {
+                return false;
+            }
+            for (int i = 0; i < expected.length(); i++) {
+                if (value.charAt(start + i) != expected.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isTrimEmpty(CharSequence value) {
+            return trimStart(value) == value.length();
+        }
+
+        private static int trimStart(CharSequence value) {
+            int start = 0;
+            while (start < value.length() && value.charAt(start) <= ' ') {
+                start++;
+            }
+            return start;
+        }
+
+        private static int trimEnd(CharSequence value, int start) {
+            int end = value.length();
+            while (end > start && value.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return end;
+        }
+
+        private static boolean startsWithTwoSpaces(CharSequence value) {
+            return value.length() >= 2 && value.charAt(0) == ' ' && value.charAt(1) == ' ';
+        }
+
+        /**
+         * Whitespace as matched by regex {@code \s}.
+         */
+        private static boolean isRegexSpace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+        }
+
+        private static boolean isAsciiDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+
+        /**
+         * Chars that regex {@code .} does not match.
+         */
+        private static boolean containsLineTerminator(CharSequence value, int start) {
+            for (int i = start; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    return true;
+                }
+            }
+            return false;
+        }
 
-    private void clearDeeperIndentCounters(Map<Integer, Integer> countersByIndent, int indent) {
-        countersByIndent.keySet().removeIf(key -> key > indent);
     }
 
-    private void appendLine(StringBuilder builder, String line) {
-        builder.append(line).append("\n");
+    private enum ImageGapState {
+        IDLE, PAREN, GAP, BANG
     }
 
-    private String stripTrailingSpaces(String line) {
-        int end = line.length();
-        while (end > 0 && Character.isWhitespace(line.charAt(end - 1)) && line.charAt(end - 1) != '\n') {
-            end--;
-        }
-        return line.substring(0, end);
+    private enum CodeBlockState {
+        NORMAL, OPEN, CLOSED, NEXT
     }
 
 }
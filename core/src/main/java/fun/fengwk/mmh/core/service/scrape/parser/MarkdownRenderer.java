@@ -3,6 +3,9 @@ package fun.fengwk.mmh.core.service.scrape.parser;
 import com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter;
 import com.vladsch.flexmark.util.data.MutableDataSet;
 import fun.fengwk.convention4j.common.lang.StringUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.springframework.stereotype.Component;
 
 /**
@@ -33,7 +36,26 @@ public class MarkdownRenderer {
         if (StringUtils.isBlank(html)) {
             return "";
         }
-        return converter.convert(html);
+        return converter.convert(Jsoup.parse(html));
+    }
+
+    /**
+     * Render an already parsed tree, avoiding html serialization and re-parsing.
+     *
+     * <p>Output matches rendering the serialized {@link CleanedHtml}: a body root renders its own
+     * document, any other root renders from a shell document holding a copy of it, which is the tree
+     * its outer html parses back into.
+     */
+    public String render(Element root, String baseUrl) {
+        if (root == null) {
+            return "";
+        }
+        Document document = root.ownerDocument();
+        if (document == null || document.body() != root) {
+            document = Document.createShell(baseUrl == null ? "" : baseUrl);
+            document.body().appendChild(root.clone());
+        }
+        return converter.convert(document);
     }
 
 }
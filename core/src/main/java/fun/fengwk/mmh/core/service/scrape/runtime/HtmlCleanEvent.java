@@ -0,0 +1,92 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning parsing and cleaning of the page html, iframes included.
+ *
+ * @author fengwk
+ */
+@Name("fun.fengwk.mmh.HtmlClean")
+@Label("HTML Clean")
+@Category({"My MCP Hub", "Scrape"})
+@Description("Parse and clean the main document and its iframes")
+@StackTrace(false)
+public final class HtmlCleanEvent extends Event {
+
+    @Label("Host")
+    String host;
+
+    @Label("Format")
+    String format;
+
+    @Label("Only Main Content")
+    boolean onlyMainContent;
+
+    @Label("HTML Bytes")
+    @Description("Size of the main document html, UTF-8 for a browser page, the raw body for a static fetch")
+    @DataAmount(DataAmount.BYTES)
+    long htmlBytes;
+
+    @Label("Frame Count")
+    int frameCount;
+
+    void complete(String url, String scrapeFormat, boolean mainContentOnly, String html, int frames) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        record(url, scrapeFormat, mainContentOnly, utf8Length(html), frames);
+    }
+
+    /**
+     * Static fetches already hold the body bytes, their size is taken as is.
+     */
+    void complete(String url, String scrapeFormat, boolean mainContentOnly, long bodyBytes, int frames) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        record(url, scrapeFormat, mainContentOnly, bodyBytes, frames);
+    }
+
+    private void record(String url, String scrapeFormat, boolean mainContentOnly, long bytes, int frames) {
+        host = ScrapeHostLimiter.resolveHost(url);
+        format = scrapeFormat;
+        onlyMainContent = mainContentOnly;
+        htmlBytes = bytes;
+        frameCount = frames;
+        commit();
+    }
+
+    /**
+     * UTF-8 size without encoding the whole document.
+     */
+    static long utf8Length(String value) {
+        if (value == null) {
+            return 0L;
+        }
+        long length = 0L;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < 0x80) {
+                length++;
+            } else if (ch < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(ch) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+}
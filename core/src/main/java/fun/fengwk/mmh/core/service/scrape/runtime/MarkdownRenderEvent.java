@@ -0,0 +1,45 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning markdown rendering of a cleaned page, iframes included.
+ *
+ * @author fengwk
+ */
+@Name("fun.fengwk.mmh.MarkdownRender")
+@Label("Markdown Render")
+@Category({"My MCP Hub", "Scrape"})
+@Description("Render the cleaned main document and its iframes to markdown")
+@StackTrace(false)
+public final class MarkdownRenderEvent extends Event {
+
+    @Label("Host")
+    String host;
+
+    @Label("Frame Count")
+    int frameCount;
+
+    @Label("Output Size")
+    @Description("UTF-8 size of the rendered markdown")
+    @DataAmount(DataAmount.BYTES)
+    long outputSize;
+
+    void complete(String url, int frames, String markdown) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        host = ScrapeHostLimiter.resolveHost(url);
+        frameCount = frames;
+        outputSize = HtmlCleanEvent.utf8Length(markdown);
+        commit();
+    }
+
+}
@@ -11,19 +11,27 @@ import com.microsoft.playwright.options.WaitUntilState;
 import fun.fengwk.convention4j.common.lang.StringUtils;
 import fun.fengwk.mmh.core.service.browser.runtime.BrowserRuntimeContext;
 import fun.fengwk.mmh.core.service.browser.runtime.BrowserTask;
+import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskCancelledException;
+import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskPriority;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
 import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapePhase;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import fun.fengwk.mmh.core.service.scrape.parser.CleanedHtml;
 import fun.fengwk.mmh.core.service.scrape.parser.HtmlMainContentCleaner;
 import fun.fengwk.mmh.core.service.scrape.parser.LinkExtractor;
 import fun.fengwk.mmh.core.service.scrape.parser.MarkdownPostProcessor;
 import fun.fengwk.mmh.core.service.scrape.parser.MarkdownRenderer;
 import fun.fengwk.mmh.core.service.scrape.support.ScrapeHttpUtils;
 import fun.fengwk.mmh.core.service.scrape.support.ScrapeMediaUtils;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 
 import java.util.ArrayList;
 import java.util.Base64;
@@ -34,6 +42,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Scrape task adapter over generic browser task runtime.
@@ -48,6 +57,123 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
 
     private static final String FORMAT_MEDIA = "media";
 
+    private static final int SMART_WAIT_MAX_ATTEMPTS = 3;
+
+    /**
+     * Slice of an explicit {@code waitFor} or a load-state wait between two cancellation checks.
+     */
+    private static final int CANCELLATION_CHECK_INTERVAL_MS = 250;
+
+    /**
+     * Longest single smart wait evaluate, bounds how late a cancellation is noticed.
+     */
+    private static final int SMART_WAIT_SLICE_MS = 500;
+
+    private static final String METRIC_PHASE = "mmh.scrape.phase";
+    private static final String METRIC_SMART_WAIT = "mmh.scrape.smart.wait";
+    private static final String METRIC_FALLBACK = "mmh.scrape.fallback";
+
+    /**
+     * In-page content stability detector, one call runs for at most {@code sliceMs}.
+     *
+     * <p>Mirrors the text-length anchor algorithm: a round is stable when the normalized text length
+     * changes within the ratio threshold, the anchor is moved after {@code threshold} unstable rounds.
+     * Text is only re-measured when a mutation was observed or frames are present, idle pages cost
+     * nothing per tick. Same-origin frames are included, cross-origin frames are not reachable.
+     * Detector state lives on {@code window} across calls, so the caller can check cancellation between
+     * slices; a replaced document starts over with fresh state.
+     */
+    private static final String CONTENT_STABILITY_SCRIPT = """
+        async ({ intervalMs, threshold, lengthChangeThreshold, sliceMs, reset }) => {
+          const measure = () => {
+            let total = 0;
+            const collect = (doc, depth) => {
+              if (!doc || !doc.body || depth > 8) {
+                return;
+              }
+              total += (doc.body.innerText || '').replace(/\\s+/g, ' ').trim().length;
+              for (const frame of doc.querySelectorAll('iframe,frame')) {
+                try {
+                  collect(frame.contentDocument, depth + 1);
+                } catch (e) {}
+              }
+            };
+            collect(document, 0);
+            return total;
+          };
+          const isStable = (previous, current) => {
+            if (previous === 0 && current === 0) {
+              return true;
+            }
+            if (previous <= 0 || current <= 0) {
+              return false;
+            }
+            return Math.abs(current - previous) / previous <= lengthChangeThreshold;
+          };
+          let state = window.__mmhContentStability;
+          if (state && reset) {
+            state.observer.disconnect();
+            state = undefined;
+          }
+          if (!state) {
+            state = { mutations: 0, stableRounds: 0, unstableRounds: 0, rounds: 0, nextTickAt: Date.now() + intervalMs };
+            state.observer = new MutationObserver((records) => {
+              state.mutations += records.length;
+            });
+            state.observer.observe(document.documentElement || document, { subtree: true, childList: true, characterData: true });
+            state.anchor = measure();
+            state.current = state.anchor;
+            window.__mmhContentStability = state;
+          }
+          const sliceEndsAt = Date.now() + sliceMs;
+          while (true) {
+            const waitMs = Math.min(state.nextTickAt, sliceEndsAt) - Date.now();
+            if (waitMs > 0) {
+              await new Promise((resolve) => setTimeout(resolve, waitMs));
+            }
+            if (Date.now() < state.nextTickAt) {
+              return { settled: false, rounds: state.rounds, textLength: state.current };
+            }
+            state.nextTickAt = Date.now() + intervalMs;
+            state.rounds++;
+            if (state.mutations > 0 || document.querySelector('iframe,frame')) {
+              state.mutations = 0;
+              state.current = measure();
+            }
+            if (isStable(state.anchor, state.current)) {
+              state.stableRounds++;
+              state.unstableRounds = 0;
+              state.anchor = state.current;
+              if (state.stableRounds >= threshold) {
+                state.observer.disconnect();
+                delete window.__mmhContentStability;
+                return { settled: true, rounds: state.rounds, textLength: state.anchor };
+              }
+            } else {
+              state.stableRounds = 0;
+              state.unstableRounds++;
+              if (state.unstableRounds >= threshold) {
+                state.anchor = state.current;
+                state.unstableRounds = 0;
+              }
+            }
+          }
+        }
+        """;
+
+    /**
+     * Drops detector state left by a smart wait that timed out.
+     */
+    private static final String CONTENT_STABILITY_CLEANUP_SCRIPT = """
+        () => {
+          const state = window.__mmhContentStability;
+          if (state) {
+            state.observer.disconnect();
+            delete window.__mmhContentStability;
+          }
+        }
+        """;
+
     private final ScrapeRequest request;
     private final ScrapeFormat format;
     private final ScrapeProperties scrapeProperties;
@@ -56,31 +182,54 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
     private final MarkdownPostProcessor markdownPostProcessor;
     private final LinkExtractor linkExtractor;
 
+    @Override
+    public BrowserTaskPriority priority() {
+        return request.getPriority() == null ? BrowserTaskPriority.INTERACTIVE : request.getPriority();
+    }
+
+    @Override
+    public long deadlineAtMs() {
+        return request.getDeadlineAtMs() == null ? 0L : request.getDeadlineAtMs();
+    }
+
+    @Override
+    public CancellationToken cancellationToken() {
+        return request.getCancellationToken() == null ? CancellationToken.none() : request.getCancellationToken();
+    }
+
     @Override
     public ScrapeResponse execute(BrowserRuntimeContext context) {
         Page page = context.getPage();
+        CancellationToken cancellationToken = context.getCancellationToken() == null
+            ? CancellationToken.none()
+            : context.getCancellationToken();
         String requestUrl = request.getUrl();
+        PhaseRecorder phaseRecorder = new PhaseRecorder(requestUrl, request.getProgressListener());
         boolean mediaLikeUrl = ScrapeMediaUtils.hasMediaLikeFileExtension(requestUrl);
 
         DirectMedia directMedia = tryFetchDirectMedia(page, requestUrl);
         if (directMedia == null && mediaLikeUrl) {
             directMedia = tryFetchDirectMediaByHttp(requestUrl);
+            if (directMedia != null) {
+                countFallback("http_media");
+            }
         }
+        phaseRecorder.complete(ScrapePhase.DIRECT_MEDIA_PROBE);
         if (directMedia != null) {
             return toDirectMediaResponse(directMedia);
         }
 
+        cancellationToken.throwIfCancelled();
+        installResourceBlocking(page, requestUrl);
+
         Response navigateResponse = null;
         try {
-            navigateResponse = page.navigate(requestUrl,
-                new Page.NavigateOptions()
-                    .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
-                    .setTimeout((double) scrapeProperties.getNavigateTimeoutMs())
-            );
+            navigateResponse = navigate(page, requestUrl, cancellationToken);
         } catch (Exception ex) {
             if (isLikelyDownloadNavigationError(ex)) {
                 DirectMedia fallbackDirectMedia = tryFetchDirectMediaByHttp(requestUrl);
                 if (fallbackDirectMedia != null) {
+                    countFallback("http_media");
                     return toDirectMediaResponse(fallbackDirectMedia);
                 }
             }
@@ -88,74 +237,110 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
                 Integer statusCode = tryFetchHttpStatusByHttp(requestUrl);
                 if (isNoContentStatus(statusCode) && supportsEmptyTextResult(format)) {
                     log.debug("return empty result for no-content response, url={}, statusCode={}, format={}", requestUrl, statusCode, format.getValue());
+                    countFallback("no_content");
                     return toEmptyTextResponse(format);
                 }
             }
             throw ex;
         }
+        phaseRecorder.complete(ScrapePhase.NAVIGATE);
 
+        cancellationToken.throwIfCancelled();
         if (shouldSkipPostNavigateWait(navigateResponse, requestUrl)) {
             log.debug("skip post-navigate wait for error response, url={}", requestUrl);
         } else if (request.getWaitFor() != null && request.getWaitFor() > 0) {
-            page.waitForTimeout(request.getWaitFor());
+            waitForTimeout(page, request.getWaitFor(), cancellationToken);
         } else if (scrapeProperties.isSmartWaitEnabled()) {
-            waitForContentStable(page, requestUrl);
+            waitForContentStable(page, requestUrl, cancellationToken);
         } else {
-            waitForNetworkIdleBestEffort(page, requestUrl);
+            waitForNetworkIdleBestEffort(page, requestUrl, cancellationToken);
         }
-
-        String html = page.content();
-        List<FrameDocument> frameDocuments = collectFrameDocuments(page, requestUrl);
-        boolean onlyMainContent = request.getOnlyMainContent() != null && request.getOnlyMainContent();
-        String cleanedHtml = htmlMainContentCleaner.clean(
-            html,
-            requestUrl,
-            onlyMainContent,
-            scrapeProperties.isStripChromeTags(),
-            scrapeProperties.isRemoveBase64Images()
-        );
-        String fallbackHtml = onlyMainContent
-            ? htmlMainContentCleaner.clean(
-                html,
-                requestUrl,
-                false,
-                scrapeProperties.isStripChromeTags(),
-                scrapeProperties.isRemoveBase64Images()
-            )
-            : cleanedHtml;
-        List<FrameContent> frameContents = buildFrameContents(frameDocuments, onlyMainContent, requestUrl);
+        phaseRecorder.complete(ScrapePhase.WAIT);
+        cancellationToken.throwIfCancelled();
 
         ScrapeResponse.ScrapeResponseBuilder builder = ScrapeResponse.builder()
             .statusCode(200)
             .format(format.getValue());
+        applyCacheHints(builder, navigateResponse, requestUrl);
+
+        if (format == ScrapeFormat.SCREENSHOT || format == ScrapeFormat.FULLSCREENSHOT) {
+            // Screenshots never read the DOM, skip parsing and cleaning entirely.
+            byte[] screenshot = format == ScrapeFormat.FULLSCREENSHOT
+                ? page.screenshot(new Page.ScreenshotOptions().setFullPage(true))
+                : page.screenshot();
+            builder.screenshotMime(SCREENSHOT_MIME);
+            builder.screenshotBase64(toDataUri(SCREENSHOT_MIME, screenshot));
+            phaseRecorder.complete(ScrapePhase.SCREENSHOT);
+            return builder.build();
+        }
+
+        String html = page.content();
+        List<FrameDocument> frameDocuments = collectFrameDocuments(page, requestUrl, cancellationToken);
+        phaseRecorder.complete(ScrapePhase.FRAME_COLLECTION);
+        // Last check before the CPU bound cleaning and rendering.
+        cancellationToken.throwIfCancelled();
+        boolean onlyMainContent = request.getOnlyMainContent() != null && request.getOnlyMainContent();
+        HtmlCleanEvent cleanEvent = new HtmlCleanEvent();
+        cleanEvent.begin();
+        CleanedPage mainPage = cleanPage(html, requestUrl, onlyMainContent);
+        List<FrameContent> frameContents = buildFrameContents(frameDocuments, onlyMainContent, requestUrl);
+        cleanEvent.complete(requestUrl, format.getValue(), onlyMainContent, html, frameContents.size());
+        phaseRecorder.complete(ScrapePhase.CLEAN);
 
         switch (format) {
             case HTML:
-                builder.content(mergeHtml(cleanedHtml, frameContents));
+                builder.content(mergeHtml(mainPage.cleaned().html(), frameContents));
                 break;
             case MARKDOWN:
-                String markdown = renderMarkdownWithFallback(cleanedHtml, fallbackHtml, requestUrl, onlyMainContent);
-                builder.content(mergeMarkdown(markdown, frameContents, onlyMainContent));
+                MarkdownRenderEvent renderEvent = new MarkdownRenderEvent();
+                renderEvent.begin();
+                String markdown = renderMarkdownWithFallback(mainPage, onlyMainContent);
+                String mergedMarkdown = mergeMarkdown(markdown, frameContents, onlyMainContent);
+                renderEvent.complete(requestUrl, frameContents.size(), mergedMarkdown);
+                builder.content(mergedMarkdown);
                 break;
             case LINKS:
-                builder.links(extractLinks(cleanedHtml, frameContents, requestUrl));
-                break;
-            case SCREENSHOT:
-                builder.screenshotMime(SCREENSHOT_MIME);
-                builder.screenshotBase64(toDataUri(SCREENSHOT_MIME, page.screenshot()));
-                break;
-            case FULLSCREENSHOT:
-                builder.screenshotMime(SCREENSHOT_MIME);
-                builder.screenshotBase64(toDataUri(SCREENSHOT_MIME, page.screenshot(
-                    new Page.ScreenshotOptions().setFullPage(true)
-                )));
+                builder.links(extractLinks(mainPage.cleaned(), frameContents, requestUrl));
                 break;
             default:
                 throw new IllegalArgumentException("unsupported format: " + format.getValue());
         }
+        phaseRecorder.complete(ScrapePhase.RENDER);
         return builder.build();
     }
 
+    private void applyCacheHints(ScrapeResponse.ScrapeResponseBuilder builder, Response navigateResponse, String requestUrl) {
+        if (navigateResponse == null) {
+            return;
+        }
+        try {
+            // Error pages are rendered as content, they must never be cached.
+            if (navigateResponse.status() >= 400) {
+                builder.cacheControl("no-store");
+                return;
+            }
+            builder.cacheControl(navigateResponse.headerValue("cache-control"));
+            builder.etag(navigateResponse.headerValue("etag"));
+        } catch (Exception ex) {
+            log.debug("read cache headers failed, url={}, error={}", requestUrl, ex.getMessage());
+        }
+    }
+
+    /**
+     * Parse once, clean on a clone, keep the pristine tree for a lazy full-page fallback.
+     */
+    private CleanedPage cleanPage(String html, String baseUrl, boolean onlyMainContent) {
+        Document document = Jsoup.parse(html == null ? "" : html, StringUtils.isBlank(baseUrl) ? "" : baseUrl);
+        CleanedHtml cleaned = htmlMainContentCleaner.clean(
+            document,
+            baseUrl,
+            onlyMainContent,
+            scrapeProperties.isStripChromeTags(),
+            scrapeProperties.isRemoveBase64Images()
+        );
+        return new CleanedPage(document, baseUrl, onlyMainContent, cleaned);
+    }
+
     private ScrapeResponse toDirectMediaResponse(DirectMedia directMedia) {
         return ScrapeResponse.builder()
             .statusCode(200)
@@ -165,6 +350,17 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
             .build();
     }
 
+    private void installResourceBlocking(Page page, String requestUrl) {
+        if (!ScrapeResourceBlocker.isApplicable(scrapeProperties, format)) {
+            return;
+        }
+        ScrapeResourceBlocker resourceBlocker = new ScrapeResourceBlocker(scrapeProperties);
+        if (resourceBlocker.isEmpty()) {
+            return;
+        }
+        resourceBlocker.install(page, requestUrl);
+    }
+
     private boolean shouldSkipPostNavigateWait(Response navigateResponse, String requestUrl) {
         if (navigateResponse == null) {
             return false;
@@ -177,18 +373,74 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
         }
     }
 
-    private void waitForNetworkIdleBestEffort(Page page, String requestUrl) {
-        waitForNetworkIdleBestEffort(page, scrapeProperties.getNavigateTimeoutMs(), true, requestUrl);
+    /**
+     * Navigate and wait for {@code DOMCONTENTLOADED}.
+     *
+     * <p>A cancellable task only blocks in {@code navigate} until the response commits, the rest of the
+     * load is awaited in slices so a cancellation is noticed within one slice.
+     */
+    private Response navigate(Page page, String requestUrl, CancellationToken cancellationToken) {
+        long navigateTimeoutMs = scrapeProperties.getNavigateTimeoutMs();
+        if (cancellationToken == CancellationToken.none()) {
+            return page.navigate(requestUrl,
+                new Page.NavigateOptions()
+                    .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                    .setTimeout((double) navigateTimeoutMs)
+            );
+        }
+        long startedAt = System.currentTimeMillis();
+        Response response = page.navigate(requestUrl,
+            new Page.NavigateOptions()
+                .setWaitUntil(WaitUntilState.COMMIT)
+                .setTimeout((double) navigateTimeoutMs)
+        );
+        cancellationToken.throwIfCancelled();
+        long remainingMs = Math.max(1L, navigateTimeoutMs - (System.currentTimeMillis() - startedAt));
+        waitForLoadState(page, LoadState.DOMCONTENTLOADED, remainingMs, cancellationToken);
+        return response;
     }
 
-    private void waitForNetworkIdleBestEffort(Page page, long timeoutMs, boolean warnOnTimeout, String requestUrl) {
+    /**
+     * Wait for a load state, sliced for cancellable tasks. The last slice throws {@link TimeoutError} like
+     * a single wait would.
+     */
+    private void waitForLoadState(Page page, LoadState loadState, long timeoutMs, CancellationToken cancellationToken) {
+        long deadlineAt = System.currentTimeMillis() + timeoutMs;
+        long remainingMs = timeoutMs;
+        while (cancellationToken != CancellationToken.none() && remainingMs > CANCELLATION_CHECK_INTERVAL_MS) {
+            cancellationToken.throwIfCancelled();
+            try {
+                page.waitForLoadState(
+                    loadState,
+                    new Page.WaitForLoadStateOptions().setTimeout((double) CANCELLATION_CHECK_INTERVAL_MS)
+                );
+                return;
+            } catch (TimeoutError ex) {
+                remainingMs = deadlineAt - System.currentTimeMillis();
+            }
+        }
+        cancellationToken.throwIfCancelled();
+        page.waitForLoadState(
+            loadState,
+            new Page.WaitForLoadStateOptions().setTimeout((double) Math.max(1L, remainingMs))
+        );
+    }
+
+    private void waitForNetworkIdleBestEffort(Page page, String requestUrl, CancellationToken cancellationToken) {
+        waitForNetworkIdleBestEffort(page, scrapeProperties.getNavigateTimeoutMs(), true, requestUrl, cancellationToken);
+    }
+
+    private void waitForNetworkIdleBestEffort(
+        Page page,
+        long timeoutMs,
+        boolean warnOnTimeout,
+        String requestUrl,
+        CancellationToken cancellationToken
+    ) {
         long effectiveTimeoutMs = Math.max(100L, timeoutMs);
         try {
             // NETWORKIDLE may never happen for long-polling pages, treat it as best-effort.
-            page.waitForLoadState(
-                LoadState.NETWORKIDLE,
-                new Page.WaitForLoadStateOptions().setTimeout((double) effectiveTimeoutMs)
-            );
+            waitForLoadState(page, LoadState.NETWORKIDLE, effectiveTimeoutMs, cancellationToken);
         } catch (TimeoutError ex) {
             if (warnOnTimeout) {
                 log.warn("network idle timeout, url={}, timeoutMs={}", requestUrl, effectiveTimeoutMs);
@@ -198,58 +450,87 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
         }
     }
 
-    private void waitForContentStable(Page page, String requestUrl) {
+    /**
+     * Fixed wait, sliced so a cancelled task stops waiting within one slice.
+     */
+    private void waitForTimeout(Page page, int waitForMs, CancellationToken cancellationToken) {
+        if (cancellationToken == CancellationToken.none()) {
+            page.waitForTimeout(waitForMs);
+            return;
+        }
+        long deadlineAt = System.currentTimeMillis() + waitForMs;
+        long remainingMs;
+        while ((remainingMs = deadlineAt - System.currentTimeMillis()) > 0) {
+            cancellationToken.throwIfCancelled();
+            page.waitForTimeout(Math.min(remainingMs, CANCELLATION_CHECK_INTERVAL_MS));
+        }
+    }
+
+    private void waitForContentStable(Page page, String requestUrl, CancellationToken cancellationToken) {
         int checkIntervalMs = Math.max(100, scrapeProperties.getStabilityCheckIntervalMs());
         int stableThreshold = Math.max(1, scrapeProperties.getStabilityThreshold());
         double lengthChangeThreshold = resolveLengthChangeThreshold();
         long stabilityMaxWaitMs = Math.max(checkIntervalMs, scrapeProperties.getStabilityMaxWaitMs());
         long maxWaitMs = Math.max(checkIntervalMs, Math.min(scrapeProperties.getNavigateTimeoutMs(), stabilityMaxWaitMs));
+        SmartWaitEvent event = new SmartWaitEvent();
+        event.begin();
         long startedAt = System.currentTimeMillis();
         long networkIdleTimeoutMs = Math.min(
             maxWaitMs,
             Math.max((long) checkIntervalMs * stableThreshold, 1500L)
         );
-        waitForNetworkIdleBestEffort(page, networkIdleTimeoutMs, false, requestUrl);
+        waitForNetworkIdleBestEffort(page, networkIdleTimeoutMs, false, requestUrl, cancellationToken);
 
         long deadlineAt = startedAt + maxWaitMs;
-        int stableRounds = 0;
-        int unstableRounds = 0;
-        int anchorTextLength = calculateTotalTextLength(page, requestUrl);
-
-        while (System.currentTimeMillis() < deadlineAt) {
-            page.waitForTimeout(checkIntervalMs);
-
-            int currentTextLength = calculateTotalTextLength(page, requestUrl);
-            if (isLengthStable(anchorTextLength, currentTextLength, lengthChangeThreshold)) {
-                stableRounds++;
-                unstableRounds = 0;
-                anchorTextLength = currentTextLength;
-                if (stableRounds >= stableThreshold) {
-                    log.debug(
-                        "smart wait settled by text-length stability, url={}, stableRounds={}, stableThreshold={}, lengthChangeThreshold={}, anchorTextLength={}",
-                        requestUrl,
-                        stableRounds,
-                        stableThreshold,
-                        lengthChangeThreshold,
-                        anchorTextLength
-                    );
+        int attempt = 1;
+        boolean reset = true;
+        while (true) {
+            cancellationToken.throwIfCancelled();
+            long remainingMs = deadlineAt - System.currentTimeMillis();
+            if (remainingMs <= 0) {
+                break;
+            }
+
+            Map<String, Object> args = new HashMap<>();
+            args.put("intervalMs", checkIntervalMs);
+            args.put("threshold", stableThreshold);
+            args.put("lengthChangeThreshold", lengthChangeThreshold);
+            args.put("sliceMs", Math.min(remainingMs, SMART_WAIT_SLICE_MS));
+            args.put("reset", reset);
+
+            Object result;
+            try {
+                // Detector runs inside the page, each slice is one round trip and keeps its state on window.
+                result = page.evaluate(CONTENT_STABILITY_SCRIPT, args);
+                reset = false;
+            } catch (Exception ex) {
+                if (!isExecutionContextDestroyed(ex)) {
+                    log.debug("smart wait evaluate failed, url={}, error={}", requestUrl, ex.getMessage());
+                    recordSmartWait(event, requestUrl, startedAt, "error");
                     return;
                 }
-            } else {
-                stableRounds = 0;
-                unstableRounds++;
-                if (unstableRounds >= stableThreshold) {
-                    anchorTextLength = currentTextLength;
-                    unstableRounds = 0;
-                    log.debug(
-                        "smart wait re-anchored after unstable rounds, url={}, stableThreshold={}, anchorTextLength={}",
-                        requestUrl,
-                        stableThreshold,
-                        anchorTextLength
-                    );
+                if (++attempt > SMART_WAIT_MAX_ATTEMPTS) {
+                    break;
                 }
+                // Client-side redirect replaced the document, restart detection on the new one.
+                log.debug("smart wait restarted after navigation, url={}, attempt={}", requestUrl, attempt);
+                waitForDomContentLoadedBestEffort(page, deadlineAt - System.currentTimeMillis(), requestUrl, cancellationToken);
+                continue;
+            }
+
+            if (isSettled(result)) {
+                log.debug(
+                    "smart wait settled by text-length stability, url={}, stableThreshold={}, lengthChangeThreshold={}, result={}",
+                    requestUrl,
+                    stableThreshold,
+                    lengthChangeThreshold,
+                    result
+                );
+                recordSmartWait(event, requestUrl, startedAt, "stable");
+                return;
             }
         }
+        clearContentStabilityState(page, requestUrl);
 
         log.warn(
             "smart wait timeout, url={}, maxWaitMs={}, stableThreshold={}, checkIntervalMs={}, lengthChangeThreshold={}",
@@ -259,94 +540,73 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
             checkIntervalMs,
             lengthChangeThreshold
         );
+        recordSmartWait(event, requestUrl, startedAt, "timeout");
     }
 
-    private double resolveLengthChangeThreshold() {
-        double threshold = scrapeProperties.getStabilityLengthChangeThreshold();
-        if (threshold > 1D) {
-            threshold = threshold / 100D;
-        }
-        if (threshold <= 0D) {
-            return 0.1D;
+    private void clearContentStabilityState(Page page, String requestUrl) {
+        try {
+            page.evaluate(CONTENT_STABILITY_CLEANUP_SCRIPT);
+        } catch (Exception ex) {
+            log.debug("clear smart wait state failed, url={}, error={}", requestUrl, ex.getMessage());
         }
-        return Math.min(threshold, 1D);
     }
 
-    private boolean isLengthStable(int previousLength, int currentLength, double lengthChangeThreshold) {
-        if (previousLength == 0 && currentLength == 0) {
-            return true;
-        }
-        if (previousLength <= 0 || currentLength <= 0) {
-            return false;
-        }
-        double lengthChangeRatio = Math.abs(currentLength - previousLength) / (double) previousLength;
-        return lengthChangeRatio <= lengthChangeThreshold;
+    private void recordSmartWait(SmartWaitEvent event, String requestUrl, long startedAt, String result) {
+        Metrics.timer(METRIC_SMART_WAIT, "result", result)
+            .record(System.currentTimeMillis() - startedAt, TimeUnit.MILLISECONDS);
+        event.complete(requestUrl, result);
     }
 
-    private int calculateTotalTextLength(Page page, String requestUrl) {
-        int totalLength = 0;
-
-        String mainText = extractNormalizedText(page.content());
-        if (StringUtils.isNotBlank(mainText)) {
-            totalLength += mainText.length();
-        }
+    private void countFallback(String path) {
+        Metrics.counter(METRIC_FALLBACK, "path", path).increment();
+    }
 
-        Frame mainFrame = null;
-        try {
-            mainFrame = page.mainFrame();
-        } catch (Exception ex) {
-            log.debug("get main frame failed, url={}, error={}", requestUrl, ex.getMessage());
+    private void waitForDomContentLoadedBestEffort(
+        Page page,
+        long timeoutMs,
+        String requestUrl,
+        CancellationToken cancellationToken
+    ) {
+        if (timeoutMs <= 0) {
+            return;
         }
-
-        List<Frame> frames;
         try {
-            frames = page.frames();
+            waitForLoadState(page, LoadState.DOMCONTENTLOADED, timeoutMs, cancellationToken);
+        } catch (BrowserTaskCancelledException ex) {
+            throw ex;
         } catch (Exception ex) {
-            log.debug("list frames failed, url={}, error={}", requestUrl, ex.getMessage());
-            return totalLength;
-        }
-        if (frames == null || frames.isEmpty()) {
-            return totalLength;
+            log.debug("wait dom content loaded failed, url={}, error={}", requestUrl, ex.getMessage());
         }
+    }
 
-        for (Frame frame : frames) {
-            if (frame == null || frame == mainFrame) {
-                continue;
-            }
-            String frameText = safeFrameText(frame);
-            if (StringUtils.isBlank(frameText)) {
-                continue;
-            }
-            totalLength += frameText.length();
+    private boolean isSettled(Object result) {
+        if (!(result instanceof Map<?, ?> resultMap)) {
+            return false;
         }
-
-        return totalLength;
+        return Boolean.TRUE.equals(resultMap.get("settled"));
     }
 
-    private String safeFrameText(Frame frame) {
-        try {
-            if (frame.isDetached()) {
-                return "";
-            }
-            return extractNormalizedText(frame.content());
-        } catch (Exception ex) {
-            log.debug("get frame text length failed, frameUrl={}, error={}", safeFrameUrl(frame), ex.getMessage());
-            return "";
+    private boolean isExecutionContextDestroyed(Exception ex) {
+        if (ex == null || StringUtils.isBlank(ex.getMessage())) {
+            return false;
         }
+        String message = ex.getMessage().toLowerCase(Locale.ROOT);
+        return message.contains("execution context was destroyed")
+            || message.contains("cannot find context with specified id");
     }
 
-    private String extractNormalizedText(String html) {
-        if (StringUtils.isBlank(html)) {
-            return "";
+    private double resolveLengthChangeThreshold() {
+        double threshold = scrapeProperties.getStabilityLengthChangeThreshold();
+        if (threshold > 1D) {
+            threshold = threshold / 100D;
         }
-        String text = Jsoup.parse(html).text();
-        if (StringUtils.isBlank(text)) {
-            return "";
+        if (threshold <= 0D) {
+            return 0.1D;
         }
-        return text.replaceAll("\\s+", " ").trim();
+        return Math.min(threshold, 1D);
     }
 
-    private List<FrameDocument> collectFrameDocuments(Page page, String requestUrl) {
+    private List<FrameDocument> collectFrameDocuments(Page page, String requestUrl, CancellationToken cancellationToken) {
         Frame mainFrame = safeMainFrame(page, requestUrl);
         List<Frame> frames = safeFrames(page, requestUrl);
         if (frames == null || frames.isEmpty()) {
@@ -368,6 +628,7 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
             if (frame == null || frame == mainFrame) {
                 continue;
             }
+            cancellationToken.throwIfCancelled();
 
             try {
                 if (frame.isDetached()) {
@@ -527,28 +788,11 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
         List<FrameContent> frameContents = new ArrayList<>(frameDocuments.size());
         for (FrameDocument frameDocument : frameDocuments) {
             String frameUrl = StringUtils.isBlank(frameDocument.url()) ? requestUrl : frameDocument.url();
-            String cleanedHtml = htmlMainContentCleaner.clean(
-                frameDocument.html(),
-                frameUrl,
-                onlyMainContent,
-                scrapeProperties.isStripChromeTags(),
-                scrapeProperties.isRemoveBase64Images()
-            );
-            String fallbackHtml = onlyMainContent
-                ? htmlMainContentCleaner.clean(
-                    frameDocument.html(),
-                    frameUrl,
-                    false,
-                    scrapeProperties.isStripChromeTags(),
-                    scrapeProperties.isRemoveBase64Images()
-                )
-                : cleanedHtml;
             frameContents.add(new FrameContent(
                 frameDocument.id(),
                 frameDocument.parentId(),
                 frameUrl,
-                cleanedHtml,
-                fallbackHtml,
+                cleanPage(frameDocument.html(), frameUrl, onlyMainContent),
                 frameDocument.depth()
             ));
         }
@@ -562,7 +806,7 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
 
         StringBuilder merged = new StringBuilder(cleanedMainHtml == null ? "" : cleanedMainHtml);
         for (FrameContent frameContent : frameContents) {
-            String frameHtml = selectFrameHtml(frameContent);
+            String frameHtml = selectFrameHtml(frameContent).html();
             if (StringUtils.isBlank(frameHtml)) {
                 continue;
             }
@@ -593,12 +837,7 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
 
         List<RenderedFrameMarkdown> renderedFrameMarkdowns = new ArrayList<>();
         for (FrameContent frameContent : frameContents) {
-            String frameMarkdown = renderMarkdownWithFallback(
-                frameContent.cleanedHtml(),
-                frameContent.fallbackHtml(),
-                frameContent.url(),
-                onlyMainContent
-            );
+            String frameMarkdown = renderMarkdownWithFallback(frameContent.page(), onlyMainContent);
             if (StringUtils.isBlank(frameMarkdown)) {
                 continue;
             }
@@ -794,20 +1033,20 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
         return StringUtils.isBlank(frameUrl) ? "unknown" : frameUrl;
     }
 
-    private List<String> extractLinks(String cleanedMainHtml, List<FrameContent> frameContents, String requestUrl) {
+    private List<String> extractLinks(CleanedHtml cleanedMain, List<FrameContent> frameContents, String requestUrl) {
         Set<String> deduplicatedLinks = new LinkedHashSet<>();
-        List<String> mainLinks = linkExtractor.extract(cleanedMainHtml, requestUrl);
+        List<String> mainLinks = linkExtractor.extract(cleanedMain.getRoot(), requestUrl);
         if (mainLinks != null && !mainLinks.isEmpty()) {
             deduplicatedLinks.addAll(mainLinks);
         }
 
         if (frameContents != null && !frameContents.isEmpty()) {
             for (FrameContent frameContent : frameContents) {
-                String frameHtml = selectFrameHtml(frameContent);
-                if (StringUtils.isBlank(frameHtml)) {
+                CleanedHtml frameHtml = selectFrameHtml(frameContent);
+                if (frameHtml.isEmpty()) {
                     continue;
                 }
-                List<String> frameLinks = linkExtractor.extract(frameHtml, frameContent.url());
+                List<String> frameLinks = linkExtractor.extract(frameHtml.getRoot(), frameContent.url());
                 if (frameLinks != null && !frameLinks.isEmpty()) {
                     deduplicatedLinks.addAll(frameLinks);
                 }
@@ -817,19 +1056,21 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
         return new ArrayList<>(deduplicatedLinks);
     }
 
-    private String renderMarkdownWithFallback(String cleanedHtml, String fallbackHtml, String baseUrl, boolean onlyMainContent) {
-        String markdown = markdownPostProcessor.process(markdownRenderer.render(cleanedHtml, baseUrl));
+    private String renderMarkdownWithFallback(CleanedPage cleanedPage, boolean onlyMainContent) {
+        String baseUrl = cleanedPage.baseUrl();
+        String markdown = markdownPostProcessor.process(markdownRenderer.render(cleanedPage.cleaned().getRoot(), baseUrl));
         if (onlyMainContent && StringUtils.isBlank(markdown)) {
-            markdown = markdownPostProcessor.process(markdownRenderer.render(fallbackHtml, baseUrl));
+            markdown = markdownPostProcessor.process(markdownRenderer.render(cleanedPage.fallback().getRoot(), baseUrl));
         }
         return markdown;
     }
 
-    private String selectFrameHtml(FrameContent frameContent) {
-        if (StringUtils.isNotBlank(frameContent.cleanedHtml())) {
-            return frameContent.cleanedHtml();
+    private CleanedHtml selectFrameHtml(FrameContent frameContent) {
+        CleanedPage framePage = frameContent.page();
+        if (!framePage.cleaned().isEmpty()) {
+            return framePage.cleaned();
         }
-        return frameContent.fallbackHtml();
+        return framePage.fallback();
     }
 
     private String escapeHtmlAttribute(String value) {
@@ -988,13 +1229,56 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
         String id,
         String parentId,
         String url,
-        String cleanedHtml,
-        String fallbackHtml,
+        CleanedPage page,
         int depth
     ) {
 
     }
 
+    /**
+     * Parsed page with its cleaned tree, full-page fallback is cleaned on first use.
+     */
+    private final class CleanedPage {
+
+        private final Document document;
+        private final String baseUrl;
+        private final boolean onlyMainContent;
+        private final CleanedHtml cleaned;
+        private CleanedHtml fallback;
+
+        private CleanedPage(Document document, String baseUrl, boolean onlyMainContent, CleanedHtml cleaned) {
+            this.document = document;
+            this.baseUrl = baseUrl;
+            this.onlyMainContent = onlyMainContent;
+            this.cleaned = cleaned;
+        }
+
+        private String baseUrl() {
+            return baseUrl;
+        }
+
+        private CleanedHtml cleaned() {
+            return cleaned;
+        }
+
+        private CleanedHtml fallback() {
+            if (!onlyMainContent) {
+                return cleaned;
+            }
+            if (fallback == null) {
+                fallback = htmlMainContentCleaner.clean(
+                    document,
+                    baseUrl,
+                    false,
+                    scrapeProperties.isStripChromeTags(),
+                    scrapeProperties.isRemoveBase64Images()
+                );
+            }
+            return fallback;
+        }
+
+    }
+
     private record RenderedFrameMarkdown(FrameContent frameContent, String markdown) {
 
     }
@@ -1003,4 +1287,34 @@ public class ScrapeBrowserTask implements BrowserTask<ScrapeResponse> {
 
     }
 
+    /**
+     * Times consecutive phases of one scrape, a failing listener never fails the scrape.
+     */
+    private static final class PhaseRecorder {
+
+        private final String url;
+        private final ScrapeProgressListener listener;
+        private long phaseStartAt = System.currentTimeMillis();
+
+        private PhaseRecorder(String url, ScrapeProgressListener listener) {
+            this.url = url;
+            this.listener = listener == null ? ScrapeProgressListener.NOOP : listener;
+        }
+
+        private void complete(ScrapePhase phase) {
+            long now = System.currentTimeMillis();
+            long elapsedMs = now - phaseStartAt;
+            phaseStartAt = now;
+            log.debug("scrape phase completed, url={}, phase={}, elapsedMs={}", url, phase.getValue(), elapsedMs);
+            Metrics.timer(METRIC_PHASE, "phase", phase.name().toLowerCase(Locale.ROOT))
+                .record(elapsedMs, TimeUnit.MILLISECONDS);
+            try {
+                listener.onPhaseCompleted(phase, elapsedMs);
+            } catch (RuntimeException ex) {
+                log.debug("scrape progress listener failed, url={}, phase={}, error={}", url, phase.getValue(), ex.getMessage());
+            }
+        }
+
+    }
+
 }
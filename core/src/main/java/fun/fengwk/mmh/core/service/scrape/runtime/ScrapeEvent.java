@@ -0,0 +1,83 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one scrape from validation to the final response, cache hits included.
+ *
+ * @author fengwk
+ */
+@Name("fun.fengwk.mmh.Scrape")
+@Label("Scrape")
+@Category({"My MCP Hub", "Scrape"})
+@Description("One scrape request, from validation to the final response")
+@StackTrace(false)
+public final class ScrapeEvent extends Event {
+
+    @Label("Host")
+    String host;
+
+    @Label("Format")
+    String format;
+
+    @Label("Profile Mode")
+    String profileMode;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Output Size")
+    @Description("UTF-8 size of content or screenshot data uri")
+    @DataAmount(DataAmount.BYTES)
+    long outputSize;
+
+    @Label("Link Count")
+    int linkCount;
+
+    /**
+     * End the event and commit it when a recording asks for it, fields are only resolved then.
+     */
+    public void complete(ScrapeRequest request, ScrapeResponse response) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        if (request != null) {
+            host = ScrapeHostLimiter.resolveHost(request.getUrl());
+            profileMode = request.getProfileMode();
+        }
+        if (response != null) {
+            format = response.getFormat() == null && request != null ? request.getFormat() : response.getFormat();
+            statusCode = response.getStatusCode();
+            outcome = resolveOutcome(response.getStatusCode());
+            outputSize = HtmlCleanEvent.utf8Length(response.getContent())
+                + HtmlCleanEvent.utf8Length(response.getScreenshotBase64());
+            linkCount = response.getLinks() == null ? 0 : response.getLinks().size();
+        }
+        commit();
+    }
+
+    private static String resolveOutcome(int statusCode) {
+        if (statusCode >= 200 && statusCode < 300) {
+            return "success";
+        }
+        return switch (statusCode) {
+            case 400 -> "invalid";
+            case 429 -> "host_busy";
+            case 499 -> "cancelled";
+            default -> "error";
+        };
+    }
+
+}
@@ -0,0 +1,14 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+/**
+ * Thrown when a host permit can not be acquired within the configured timeout.
+ *
+ * @author fengwk
+ */
+public class ScrapeHostBusyException extends RuntimeException {
+
+    public ScrapeHostBusyException(String host) {
+        super("Too many concurrent scrapes for host " + host + "; please retry later.");
+    }
+
+}
@@ -0,0 +1,458 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import fun.fengwk.convention4j.common.lang.StringUtils;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Host-keyed politeness limiter in front of every outbound scrape.
+ *
+ * <p>Each host gets a FIFO in-flight queue that wakes up on caller cancellation, plus start-time spacing that combines a minimum
+ * interval with an optional token bucket (GCRA form). Cache hits never reach the limiter.
+ *
+ * <p>Metrics carry a {@code host} tag for at most {@code hostMetricsMaxHosts} tracked hosts, further
+ * hosts share the {@code other} tag. A pruned host gives its tag slot back.
+ *
+ * @author fengwk
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScrapeHostLimiter {
+
+    /**
+     * Idle host states are pruned once the map grows beyond this size.
+     */
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private static final long IDLE_EXPIRE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final String METRIC_HOST_QUEUE = "mmh.scrape.host.queue";
+    private static final String METRIC_HOST_REJECTED = "mmh.scrape.host.rejected";
+    private static final String METRIC_HOST_IN_FLIGHT = "mmh.scrape.host.in_flight";
+    private static final String METRIC_HOST_WAITING = "mmh.scrape.host.waiting";
+
+    static final String OTHER_HOST_TAG = "other";
+
+    private static final Permit NOOP_PERMIT = () -> {
+    };
+
+    private final ScrapeProperties scrapeProperties;
+
+    private final Map<String, HostState> hostStates = new ConcurrentHashMap<>();
+
+    private final AtomicInteger taggedHosts = new AtomicInteger();
+
+    /**
+     * Acquire a permit for the url host, blocking until the in-flight cap and spacing allow a start.
+     *
+     * @return permit to close once the outbound work is finished
+     * @throws ScrapeHostBusyException when the wait would exceed {@code hostAcquireTimeoutMs}
+     */
+    public Permit acquire(String url) throws InterruptedException {
+        return acquire(url, null, CancellationToken.none());
+    }
+
+    /**
+     * Acquire a permit like {@link #acquire(String)}, waiting no longer than the caller deadline and
+     * giving up as soon as the caller cancels.
+     *
+     * @param deadlineAtMs absolute deadline in epoch milliseconds, {@code null} means only {@code hostAcquireTimeoutMs}
+     * @param cancellationToken caller cancellation, {@code null} means not cancellable
+     * @throws ScrapeHostBusyException when the wait would exceed either limit
+     * @throws fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskCancelledException when cancelled while waiting
+     */
+    public Permit acquire(String url, Long deadlineAtMs, CancellationToken cancellationToken)
+        throws InterruptedException {
+        if (!scrapeProperties.isHostLimitEnabled()) {
+            return NOOP_PERMIT;
+        }
+        String host = resolveHost(url);
+        if (host == null) {
+            return NOOP_PERMIT;
+        }
+        HostState state = resolveState(host);
+        long startAt = System.nanoTime();
+        long timeoutMs = Math.max(0, scrapeProperties.getHostAcquireTimeoutMs());
+        if (deadlineAtMs != null) {
+            timeoutMs = Math.min(timeoutMs, Math.max(0L, deadlineAtMs - System.currentTimeMillis()));
+        }
+        long deadline = startAt + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        CancellationToken token = cancellationToken == null ? CancellationToken.none() : cancellationToken;
+
+        state.waiting.incrementAndGet();
+        boolean acquired = false;
+        try {
+            token.throwIfCancelled();
+            if (!state.acquireSlot(deadline, token)) {
+                throw reject(state);
+            }
+            acquired = true;
+            long startNanos = state.reserveStart(System.nanoTime(), deadline);
+            if (startNanos < 0) {
+                throw reject(state);
+            }
+            sleepUntil(startNanos, token);
+        } catch (InterruptedException | RuntimeException ex) {
+            if (acquired) {
+                state.releaseSlot();
+            }
+            throw ex;
+        } finally {
+            state.waiting.decrementAndGet();
+            state.touch();
+        }
+
+        long queuedNanos = System.nanoTime() - startAt;
+        long queuedMs = TimeUnit.NANOSECONDS.toMillis(queuedNanos);
+        state.recordAcquired(queuedMs);
+        state.queueTimer.record(queuedNanos, TimeUnit.NANOSECONDS);
+        if (queuedMs > 0) {
+            log.debug("scrape host queued, host={}, queuedMs={}", host, queuedMs);
+        }
+        if (hostStates.size() > PRUNE_THRESHOLD) {
+            pruneIdleStates();
+        }
+        return new HostPermit(state);
+    }
+
+    /**
+     * Snapshot of every tracked host.
+     */
+    public List<ScrapeHostStats> getStats() {
+        List<ScrapeHostStats> stats = new ArrayList<>(hostStates.size());
+        for (HostState state : hostStates.values()) {
+            stats.add(state.snapshot());
+        }
+        return stats;
+    }
+
+    static String resolveHost(String url) {
+        if (StringUtils.isBlank(url)) {
+            return null;
+        }
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return StringUtils.isBlank(host) ? null : host.toLowerCase(Locale.ROOT);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private void sleepUntil(long startNanos, CancellationToken token) throws InterruptedException {
+        long sleepNanos = startNanos - System.nanoTime();
+        if (sleepNanos <= 0) {
+            return;
+        }
+        CountDownLatch cancelled = new CountDownLatch(1);
+        try (CancellationToken.Registration ignored = token.onCancel(cancelled::countDown)) {
+            if (cancelled.await(sleepNanos, TimeUnit.NANOSECONDS)) {
+                token.throwIfCancelled();
+            }
+        }
+    }
+
+    private HostState resolveState(String host) {
+        HostState state = hostStates.get(host);
+        if (state != null) {
+            return state;
+        }
+        if (taggedHosts.get() >= scrapeProperties.getHostMetricsMaxHosts()) {
+            // Free the tags of idle hosts before a new host falls back to the shared tag.
+            pruneIdleStates();
+        }
+        return hostStates.computeIfAbsent(host, this::newHostState);
+    }
+
+    private HostState newHostState(String host) {
+        boolean tagged = taggedHosts.incrementAndGet() <= scrapeProperties.getHostMetricsMaxHosts();
+        if (!tagged) {
+            taggedHosts.decrementAndGet();
+        }
+        HostState state = new HostState(host, scrapeProperties);
+        state.bindMetrics(tagged);
+        return state;
+    }
+
+    private ScrapeHostBusyException reject(HostState state) {
+        state.rejected.incrementAndGet();
+        state.rejectedCounter.increment();
+        log.warn("scrape host busy, host={}, inFlight={}, waiting={}",
+            state.host, state.inFlight(), state.waiting.get());
+        return new ScrapeHostBusyException(state.host);
+    }
+
+    private void pruneIdleStates() {
+        long now = System.nanoTime();
+        // A racing acquire may still hold a pruned state, which only loosens politeness for that call.
+        for (HostState state : hostStates.values()) {
+            if (state.isIdle(now) && hostStates.remove(state.host, state) && state.unbindMetrics()) {
+                taggedHosts.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Host permit, release exactly once.
+     */
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+
+    }
+
+    private static final class HostPermit implements Permit {
+
+        private final HostState state;
+        private boolean closed;
+
+        private HostPermit(HostState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            state.releaseSlot();
+            state.touch();
+        }
+
+    }
+
+    private static final class HostState {
+
+        private final String host;
+        private final int maxInFlight;
+        private final long minIntervalNanos;
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final ReentrantLock slotLock = new ReentrantLock();
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicLong acquired = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalQueuedMs = new AtomicLong();
+        private final AtomicLong maxQueuedMs = new AtomicLong();
+        private volatile long lastUsedNanos = System.nanoTime();
+        private boolean tagged;
+        private Timer queueTimer;
+        private Counter rejectedCounter;
+        private final List<Meter> hostMeters = new ArrayList<>(4);
+
+        // Guarded by slotLock.
+        private int inFlight;
+        private final ArrayDeque<SlotWaiter> slotWaiters = new ArrayDeque<>();
+
+        // Guarded by this.
+        private long lastStartNanos;
+        private long theoreticalArrivalNanos;
+        private boolean started;
+
+        private HostState(String host, ScrapeProperties scrapeProperties) {
+            this.host = host;
+            this.maxInFlight = Math.max(1, scrapeProperties.getHostMaxConcurrency());
+            this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, scrapeProperties.getHostMinIntervalMs()));
+            double rate = scrapeProperties.getHostRatePerSecond();
+            this.emissionIntervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0L;
+            this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, scrapeProperties.getHostRateBurst() - 1);
+        }
+
+        private void bindMetrics(boolean tagged) {
+            this.tagged = tagged;
+            String metricHost = tagged ? host : OTHER_HOST_TAG;
+            queueTimer = Metrics.timer(METRIC_HOST_QUEUE, "host", metricHost);
+            rejectedCounter = Metrics.counter(METRIC_HOST_REJECTED, "host", metricHost);
+            if (!tagged) {
+                return;
+            }
+            hostMeters.add(queueTimer);
+            hostMeters.add(rejectedCounter);
+            hostMeters.add(Gauge.builder(METRIC_HOST_IN_FLIGHT, this, HostState::inFlight)
+                .tag("host", host)
+                .register(Metrics.globalRegistry));
+            hostMeters.add(Gauge.builder(METRIC_HOST_WAITING, waiting, AtomicInteger::get)
+                .tag("host", host)
+                .register(Metrics.globalRegistry));
+        }
+
+        /**
+         * Remove the host tagged meters.
+         *
+         * @return whether the state held a host tag slot
+         */
+        private boolean unbindMetrics() {
+            for (Meter meter : hostMeters) {
+                Metrics.globalRegistry.remove(meter);
+            }
+            hostMeters.clear();
+            return tagged;
+        }
+
+        /**
+         * Take an in-flight slot, waiting in arrival order.
+         *
+         * @return {@code false} when the deadline passed first (nothing taken)
+         */
+        private boolean acquireSlot(long deadline, CancellationToken token) throws InterruptedException {
+            slotLock.lock();
+            try {
+                if (slotWaiters.isEmpty() && inFlight < maxInFlight) {
+                    inFlight++;
+                    return true;
+                }
+                SlotWaiter waiter = new SlotWaiter(slotLock.newCondition());
+                slotWaiters.addLast(waiter);
+                try (CancellationToken.Registration ignored = token.onCancel(() -> wake(waiter))) {
+                    while (!waiter.granted) {
+                        if (token.isCancelled()) {
+                            slotWaiters.remove(waiter);
+                            token.throwIfCancelled();
+                        }
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            slotWaiters.remove(waiter);
+                            return false;
+                        }
+                        waiter.condition.awaitNanos(remaining);
+                    }
+                    return true;
+                } catch (InterruptedException ex) {
+                    if (waiter.granted) {
+                        releaseSlot();
+                    } else {
+                        slotWaiters.remove(waiter);
+                    }
+                    throw ex;
+                }
+            } finally {
+                slotLock.unlock();
+            }
+        }
+
+        /**
+         * Hand the slot to the oldest waiter, or free it when nobody waits.
+         */
+        private void releaseSlot() {
+            slotLock.lock();
+            try {
+                SlotWaiter next = slotWaiters.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+                next.granted = true;
+                next.condition.signal();
+            } finally {
+                slotLock.unlock();
+            }
+        }
+
+        private void wake(SlotWaiter waiter) {
+            slotLock.lock();
+            try {
+                waiter.condition.signal();
+            } finally {
+                slotLock.unlock();
+            }
+        }
+
+        /**
+         * Reserve the next start slot.
+         *
+         * @return start time in nanos, {@code -1} when the slot is after the deadline (nothing reserved)
+         */
+        private synchronized long reserveStart(long now, long deadline) {
+            long startAt = now;
+            if (started) {
+                startAt = Math.max(startAt, lastStartNanos + minIntervalNanos);
+                if (emissionIntervalNanos > 0) {
+                    startAt = Math.max(startAt, theoreticalArrivalNanos - burstToleranceNanos);
+                }
+            }
+            if (startAt > deadline) {
+                return -1L;
+            }
+            if (emissionIntervalNanos > 0) {
+                long base = started ? Math.max(theoreticalArrivalNanos, startAt) : startAt;
+                theoreticalArrivalNanos = base + emissionIntervalNanos;
+            }
+            lastStartNanos = startAt;
+            started = true;
+            return startAt;
+        }
+
+        private void recordAcquired(long queuedMs) {
+            acquired.incrementAndGet();
+            totalQueuedMs.addAndGet(queuedMs);
+            maxQueuedMs.accumulateAndGet(queuedMs, Math::max);
+        }
+
+        private void touch() {
+            lastUsedNanos = System.nanoTime();
+        }
+
+        private int inFlight() {
+            slotLock.lock();
+            try {
+                return inFlight;
+            } finally {
+                slotLock.unlock();
+            }
+        }
+
+        private boolean isIdle(long now) {
+            return inFlight() == 0 && waiting.get() == 0 && now - lastUsedNanos > IDLE_EXPIRE_NANOS;
+        }
+
+        private ScrapeHostStats snapshot() {
+            return ScrapeHostStats.builder()
+                .host(host)
+                .inFlight(inFlight())
+                .waiting(waiting.get())
+                .acquired(acquired.get())
+                .rejected(rejected.get())
+                .totalQueuedMs(totalQueuedMs.get())
+                .maxQueuedMs(maxQueuedMs.get())
+                .build();
+        }
+
+    }
+
+    private static final class SlotWaiter {
+
+        private final Condition condition;
+        // Guarded by the host slotLock.
+        private boolean granted;
+
+        private SlotWaiter(Condition condition) {
+            this.condition = condition;
+        }
+
+    }
+
+}
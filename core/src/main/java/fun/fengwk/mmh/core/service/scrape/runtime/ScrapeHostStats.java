@@ -0,0 +1,23 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Per-host limiter counters snapshot.
+ *
+ * @author fengwk
+ */
+@Data
+@Builder
+public class ScrapeHostStats {
+
+    private String host;
+    private int inFlight;
+    private int waiting;
+    private long acquired;
+    private long rejected;
+    private long totalQueuedMs;
+    private long maxQueuedMs;
+
+}
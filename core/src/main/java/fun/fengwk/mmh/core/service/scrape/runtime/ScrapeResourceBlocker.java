@@ -0,0 +1,159 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import com.microsoft.playwright.Frame;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import fun.fengwk.convention4j.common.lang.StringUtils;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Request interception policy for text-format scrapes.
+ *
+ * <p>Text formats only read the DOM, so images, fonts, media and tracker requests are aborted
+ * before they hit the network. The top-level document is never blocked.
+ *
+ * @author fengwk
+ */
+@Slf4j
+final class ScrapeResourceBlocker {
+
+    private static final String ROUTE_ALL = "**/*";
+
+    private final Set<String> blockedResourceTypes;
+    private final List<String> blockedDomains;
+
+    ScrapeResourceBlocker(ScrapeProperties scrapeProperties) {
+        this.blockedResourceTypes = normalizeResourceTypes(scrapeProperties.getBlockedResourceTypes());
+        this.blockedDomains = normalizeDomains(scrapeProperties.getBlockedDomains());
+    }
+
+    static boolean isApplicable(ScrapeProperties scrapeProperties, ScrapeFormat format) {
+        if (!scrapeProperties.isResourceBlockingEnabled()) {
+            return false;
+        }
+        // Screenshots need the fully rendered page.
+        return format == ScrapeFormat.HTML
+            || format == ScrapeFormat.MARKDOWN
+            || format == ScrapeFormat.LINKS;
+    }
+
+    boolean isEmpty() {
+        return blockedResourceTypes.isEmpty() && blockedDomains.isEmpty();
+    }
+
+    void install(Page page, String requestUrl) {
+        try {
+            page.route(ROUTE_ALL, this::handle);
+        } catch (Exception ex) {
+            log.debug("install resource blocking route failed, url={}, error={}", requestUrl, ex.getMessage());
+        }
+    }
+
+    boolean shouldBlock(Request request) {
+        if (request == null || isMainFrameNavigation(request)) {
+            return false;
+        }
+        String resourceType = request.resourceType();
+        if (resourceType != null && blockedResourceTypes.contains(resourceType.toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        return isBlockedDomain(request.url());
+    }
+
+    boolean isBlockedDomain(String url) {
+        if (blockedDomains.isEmpty() || StringUtils.isBlank(url)) {
+            return false;
+        }
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (Exception ex) {
+            return false;
+        }
+        if (StringUtils.isBlank(host)) {
+            return false;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        for (String domain : blockedDomains) {
+            if (host.equals(domain) || host.endsWith("." + domain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void handle(Route route) {
+        boolean block;
+        try {
+            block = shouldBlock(route.request());
+        } catch (Exception ex) {
+            block = false;
+        }
+        try {
+            if (block) {
+                route.abort();
+            } else {
+                route.resume();
+            }
+        } catch (Exception ex) {
+            // Page may be closing while late requests are still routed.
+            log.debug("handle routed request failed, block={}, error={}", block, ex.getMessage());
+        }
+    }
+
+    private boolean isMainFrameNavigation(Request request) {
+        if (!request.isNavigationRequest()) {
+            return false;
+        }
+        try {
+            Frame frame = request.frame();
+            return frame == null || frame.parentFrame() == null;
+        } catch (Exception ex) {
+            return true;
+        }
+    }
+
+    private static Set<String> normalizeResourceTypes(List<String> resourceTypes) {
+        Set<String> normalized = new HashSet<>();
+        if (resourceTypes == null) {
+            return normalized;
+        }
+        for (String resourceType : resourceTypes) {
+            if (StringUtils.isNotBlank(resourceType)) {
+                normalized.add(resourceType.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return normalized;
+    }
+
+    private static List<String> normalizeDomains(List<String> domains) {
+        List<String> normalized = new ArrayList<>();
+        if (domains == null) {
+            return normalized;
+        }
+        for (String domain : domains) {
+            if (StringUtils.isBlank(domain)) {
+                continue;
+            }
+            String value = domain.trim().toLowerCase(Locale.ROOT);
+            while (value.startsWith(".")) {
+                value = value.substring(1);
+            }
+            if (!value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        return normalized;
+    }
+
+}
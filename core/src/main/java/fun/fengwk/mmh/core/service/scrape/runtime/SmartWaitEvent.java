@@ -0,0 +1,39 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the smart wait of a browser scrape.
+ *
+ * @author fengwk
+ */
+@Name("fun.fengwk.mmh.SmartWait")
+@Label("Smart Wait")
+@Category({"My MCP Hub", "Scrape"})
+@Description("Wait for the page text to stop changing after navigation")
+@StackTrace(false)
+public final class SmartWaitEvent extends Event {
+
+    @Label("Host")
+    String host;
+
+    @Label("Outcome")
+    @Description("stable, timeout or error")
+    String outcome;
+
+    void complete(String url, String result) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        host = ScrapeHostLimiter.resolveHost(url);
+        outcome = result;
+        commit();
+    }
+
+}
@@ -0,0 +1,179 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import fun.fengwk.convention4j.common.lang.StringUtils;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import fun.fengwk.mmh.core.service.scrape.parser.CleanedHtml;
+import fun.fengwk.mmh.core.service.scrape.parser.HtmlMainContentCleaner;
+import fun.fengwk.mmh.core.service.scrape.parser.LinkExtractor;
+import fun.fengwk.mmh.core.service.scrape.parser.MarkdownPostProcessor;
+import fun.fengwk.mmh.core.service.scrape.parser.MarkdownRenderer;
+import fun.fengwk.mmh.core.service.scrape.support.ScrapeHttpUtils;
+import fun.fengwk.mmh.core.service.scrape.support.ScrapeMediaUtils;
+import fun.fengwk.mmh.core.service.scrape.support.StaticPageHeuristics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/**
+ * Browser-free scrape over a plain HTTP fetch.
+ *
+ * <p>Only serves text formats. {@link #execute()} returns {@code null} whenever the static
+ * response does not look complete, the caller is expected to fall back to {@link ScrapeBrowserTask}.
+ *
+ * @author fengwk
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class StaticScrapeTask {
+
+    private final ScrapeRequest request;
+    private final ScrapeFormat format;
+    private final ScrapeProperties scrapeProperties;
+    private final HtmlMainContentCleaner htmlMainContentCleaner;
+    private final MarkdownRenderer markdownRenderer;
+    private final MarkdownPostProcessor markdownPostProcessor;
+    private final LinkExtractor linkExtractor;
+
+    public static boolean isApplicable(ScrapeProperties scrapeProperties, ScrapeRequest request, ScrapeFormat format) {
+        if (!scrapeProperties.isHttpFirstEnabled()) {
+            return false;
+        }
+        // Explicit waitFor means the caller expects client-side rendering.
+        if (request.getWaitFor() != null) {
+            return false;
+        }
+        return format == ScrapeFormat.HTML
+            || format == ScrapeFormat.MARKDOWN
+            || format == ScrapeFormat.LINKS;
+    }
+
+    public ScrapeResponse execute() {
+        String requestUrl = request.getUrl();
+        ScrapeHttpUtils.HttpPageResponse response = ScrapeHttpUtils.tryFetchPage(
+            requestUrl,
+            scrapeProperties.getHttpFirstTimeoutMs(),
+            scrapeProperties.getHttpFirstMaxBodyBytes()
+        );
+        if (response == null) {
+            return null;
+        }
+        // Error pages are left to the browser, which reports status consistently.
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            log.debug("http-first skipped, url={}, statusCode={}", requestUrl, response.statusCode());
+            return null;
+        }
+        byte[] body = response.body();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+
+        String mime = ScrapeMediaUtils.resolveMime(response.headers());
+        String baseUrl = StringUtils.isBlank(response.finalUrl()) ? requestUrl : response.finalUrl();
+        Charset charset = resolveCharset(ScrapeMediaUtils.findHeader(response.headers(), "content-type"));
+        boolean onlyMainContent = request.getOnlyMainContent() != null && request.getOnlyMainContent();
+
+        HtmlCleanEvent cleanEvent = new HtmlCleanEvent();
+        cleanEvent.begin();
+        Document document;
+        if (StaticPageHeuristics.isHtmlMime(mime)) {
+            try {
+                document = Jsoup.parse(
+                    new ByteArrayInputStream(body),
+                    charset == null ? null : charset.name(),
+                    baseUrl
+                );
+            } catch (Exception ex) {
+                log.debug("http-first parse failed, url={}, error={}", requestUrl, ex.getMessage());
+                return null;
+            }
+        } else if (StaticPageHeuristics.isPlainTextMime(mime)) {
+            // Same shape the browser renders for text/plain documents.
+            document = Document.createShell(baseUrl);
+            document.body().appendElement("pre").text(new String(body, charset == null ? StandardCharsets.UTF_8 : charset));
+        } else {
+            log.debug("http-first skipped, url={}, mime={}", requestUrl, mime);
+            return null;
+        }
+
+        CleanedHtml cleaned = htmlMainContentCleaner.clean(
+            document,
+            baseUrl,
+            onlyMainContent,
+            scrapeProperties.isStripChromeTags(),
+            scrapeProperties.isRemoveBase64Images()
+        );
+        cleanEvent.complete(requestUrl, format.getValue(), onlyMainContent, body.length, 0);
+        if (StaticPageHeuristics.isHtmlMime(mime)) {
+            String reason = StaticPageHeuristics.findInsufficientReason(
+                document,
+                cleaned,
+                body.length,
+                scrapeProperties.getHttpFirstMinTextLength(),
+                scrapeProperties.getHttpFirstMinTextDensity()
+            );
+            if (reason != null) {
+                log.debug("http-first fallback to browser, url={}, reason={}", requestUrl, reason);
+                return null;
+            }
+        } else if (cleaned.isEmpty()) {
+            return null;
+        }
+
+        ScrapeResponse.ScrapeResponseBuilder builder = ScrapeResponse.builder()
+            .statusCode(200)
+            .format(format.getValue())
+            .cacheControl(ScrapeMediaUtils.findHeader(response.headers(), "cache-control"))
+            .etag(ScrapeMediaUtils.findHeader(response.headers(), "etag"));
+        switch (format) {
+            case HTML:
+                builder.content(cleaned.html());
+                break;
+            case MARKDOWN:
+                MarkdownRenderEvent renderEvent = new MarkdownRenderEvent();
+                renderEvent.begin();
+                String markdown = markdownPostProcessor.process(markdownRenderer.render(cleaned.getRoot(), baseUrl));
+                renderEvent.complete(requestUrl, 0, markdown);
+                if (StringUtils.isBlank(markdown)) {
+                    return null;
+                }
+                builder.content(markdown);
+                break;
+            case LINKS:
+                builder.links(new ArrayList<>(linkExtractor.extract(cleaned.getRoot(), baseUrl)));
+                break;
+            default:
+                return null;
+        }
+        return builder.build();
+    }
+
+    static Charset resolveCharset(String contentType) {
+        if (StringUtils.isBlank(contentType)) {
+            return null;
+        }
+        for (String part : contentType.split(";")) {
+            String param = part.trim();
+            if (!param.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                continue;
+            }
+            String name = param.substring("charset=".length()).trim().replace("\"", "").replace("'", "");
+            try {
+                return Charset.forName(name);
+            } catch (Exception ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+}
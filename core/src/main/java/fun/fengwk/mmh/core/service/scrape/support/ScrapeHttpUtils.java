@@ -7,9 +7,11 @@ import fun.fengwk.convention4j.common.http.client.ProxySelectorAdapter;
 import fun.fengwk.convention4j.common.lang.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -31,6 +33,9 @@ public final class ScrapeHttpUtils {
     private static final String DEFAULT_USER_AGENT =
         "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
 
+    private static final String PAGE_ACCEPT =
+        "text/html,application/xhtml+xml,text/plain;q=0.9,*/*;q=0.8";
+
     private static final HttpClient SCRAPE_HTTP_CLIENT = HttpClient.newBuilder()
         .followRedirects(HttpClient.Redirect.NORMAL)
         .connectTimeout(Duration.ofSeconds(15))
@@ -73,6 +78,77 @@ public final class ScrapeHttpUtils {
         return tryFetchBytes(url, retryTimeoutMs);
     }
 
+    /**
+     * Fetch a page document without retry, returns {@code null} on error or when the body exceeds
+     * {@code maxBodyBytes}. The final url reflects followed redirects.
+     */
+    public static HttpPageResponse tryFetchPage(String url, int timeoutMs, int maxBodyBytes) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                .GET()
+                .header("Accept", PAGE_ACCEPT)
+                .header("User-Agent", DEFAULT_USER_AGENT)
+                .timeout(Duration.ofMillis(resolveProbeTimeoutMs(timeoutMs)))
+                .build();
+        } catch (Exception ex) {
+            log.debug("build page request failed, url={}, timeoutMs={}, error={}", url, timeoutMs, ex.getMessage());
+            return null;
+        }
+
+        try {
+            HttpResponse<InputStream> response = SCRAPE_HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                byte[] bytes = body.readNBytes(maxBodyBytes + 1);
+                if (bytes.length > maxBodyBytes) {
+                    log.debug("page body too large, url={}, maxBodyBytes={}", url, maxBodyBytes);
+                    return null;
+                }
+                return new HttpPageResponse(
+                    response.statusCode(),
+                    response.uri() == null ? url : response.uri().toString(),
+                    toFirstValueHeaders(response.headers().map()),
+                    bytes
+                );
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception ex) {
+            log.debug("fetch page failed, url={}, timeoutMs={}, error={}", url, timeoutMs, ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Conditional GET with {@code If-None-Match}, returns status code or {@code null} on error.
+     */
+    public static Integer tryRevalidate(String url, String etag, int timeoutMs) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                .GET()
+                .header("Accept", PAGE_ACCEPT)
+                .header("User-Agent", DEFAULT_USER_AGENT)
+                .header("If-None-Match", etag)
+                .timeout(Duration.ofMillis(resolveProbeTimeoutMs(timeoutMs)))
+                .build();
+        } catch (Exception ex) {
+            log.debug("build revalidate request failed, url={}, error={}", url, ex.getMessage());
+            return null;
+        }
+
+        try {
+            return SCRAPE_HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception ex) {
+            log.debug("revalidate failed, url={}, error={}", url, ex.getMessage());
+            return null;
+        }
+    }
+
     private static Integer tryFetchStatusCode(String url, int timeoutMs) {
         HttpRequest request;
         try {
@@ -155,4 +231,7 @@ public final class ScrapeHttpUtils {
     public record HttpBytesResponse(int statusCode, Map<String, String> headers, byte[] body) {
     }
 
+    public record HttpPageResponse(int statusCode, String finalUrl, Map<String, String> headers, byte[] body) {
+    }
+
 }
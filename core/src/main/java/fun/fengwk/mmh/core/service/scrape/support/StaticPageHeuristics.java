@@ -0,0 +1,98 @@
+package fun.fengwk.mmh.core.service.scrape.support;
+
+import fun.fengwk.mmh.core.service.scrape.parser.CleanedHtml;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Heuristics deciding whether statically fetched html is complete without running javascript.
+ *
+ * @author fengwk
+ */
+public final class StaticPageHeuristics {
+
+    /**
+     * Well-known client-side rendering mount points, only suspicious when left empty.
+     */
+    private static final String SPA_ROOT_SELECTOR =
+        "#root, #app, #__next, #__nuxt, #___gatsby, #svelte, app-root, [data-reactroot], [ng-app], [ng-version]";
+
+    private static final List<String> NOSCRIPT_REQUIRE_HINTS = List.of(
+        "enable", "require", "turn on", "need", "启用", "开启", "需要"
+    );
+
+    private StaticPageHeuristics() {
+    }
+
+    public static boolean isHtmlMime(String mime) {
+        return "text/html".equals(mime) || "application/xhtml+xml".equals(mime);
+    }
+
+    public static boolean isPlainTextMime(String mime) {
+        return "text/plain".equals(mime);
+    }
+
+    /**
+     * Find the reason why the static page needs a browser.
+     *
+     * @param document raw parsed document, before cleaning
+     * @param cleaned cleaned content of the document
+     * @param htmlLength raw html size, bytes are an adequate approximation
+     * @return reason text, {@code null} when the static page is sufficient
+     */
+    public static String findInsufficientReason(
+        Document document,
+        CleanedHtml cleaned,
+        int htmlLength,
+        int minTextLength,
+        double minTextDensity
+    ) {
+        if (document == null || cleaned == null || cleaned.isEmpty()) {
+            return "empty content";
+        }
+        if (hasEmptySpaRoot(document)) {
+            return "empty spa root";
+        }
+        if (hasJavascriptRequiredNoscript(document)) {
+            return "noscript requires javascript";
+        }
+
+        int textLength = cleaned.getRoot().text().length();
+        if (textLength < minTextLength) {
+            return "text too short: " + textLength;
+        }
+        double density = htmlLength <= 0 ? 1D : (double) textLength / htmlLength;
+        if (density < minTextDensity) {
+            return "text density too low: " + String.format(Locale.ROOT, "%.4f", density);
+        }
+        return null;
+    }
+
+    static boolean hasEmptySpaRoot(Document document) {
+        for (Element root : document.select(SPA_ROOT_SELECTOR)) {
+            if (root.text().isBlank() && root.select("img, svg, video, canvas").isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean hasJavascriptRequiredNoscript(Document document) {
+        for (Element noscript : document.select("noscript")) {
+            String text = noscript.text().toLowerCase(Locale.ROOT);
+            if (!text.contains("javascript")) {
+                continue;
+            }
+            for (String hint : NOSCRIPT_REQUIRE_HINTS) {
+                if (text.contains(hint)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,168 @@
+package fun.fengwk.mmh.core.configuration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author fengwk
+ */
+public class ConcurrentStdioServerTransportProviderTest {
+
+    private static final String MULTILINE_TEXT = "first\nsecond\r\nthird\rfourth";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldWriteEachMessageAsOneLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PipedOutputStream stdin = new PipedOutputStream()) {
+            ConcurrentStdioServerTransportProvider provider = new ConcurrentStdioServerTransportProvider(
+                objectMapper, new McpStdioProperties(), new ToolCallCancellationRegistry(),
+                new PipedInputStream(stdin), output
+            );
+            McpServerTransport transport = startTransport(provider);
+
+            transport.sendMessage(response(1, MULTILINE_TEXT)).block();
+            transport.sendMessage(response(2, "plain")).block();
+
+            List<String> lines = awaitLines(output, 2);
+            assertThat(lines).hasSize(2);
+            assertResponse(lines.get(0), 1, MULTILINE_TEXT);
+            assertResponse(lines.get(1), 2, "plain");
+        }
+    }
+
+    @Test
+    public void shouldFlushWholeConcurrentBurst() throws Exception {
+        int threads = 8;
+        int messagesPerThread = 50;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (PipedOutputStream stdin = new PipedOutputStream()) {
+            ConcurrentStdioServerTransportProvider provider = new ConcurrentStdioServerTransportProvider(
+                objectMapper, new McpStdioProperties(), new ToolCallCancellationRegistry(),
+                new PipedInputStream(stdin), output
+            );
+            McpServerTransport transport = startTransport(provider);
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * messagesPerThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < messagesPerThread; i++) {
+                        transport.sendMessage(response(base + i, MULTILINE_TEXT)).block();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            // Nothing closes the transport, the last write of the burst must flush on its own.
+            List<String> lines = awaitLines(output, threads * messagesPerThread);
+            assertThat(lines).hasSize(threads * messagesPerThread);
+            boolean[] seen = new boolean[threads * messagesPerThread];
+            for (String line : lines) {
+                JsonNode node = objectMapper.readTree(line);
+                assertThat(node.path("result").path("text").asText()).isEqualTo(MULTILINE_TEXT);
+                seen[node.path("id").asInt()] = true;
+            }
+            for (boolean s : seen) {
+                assertThat(s).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldEscapeNewlinesWithJsonMapperFallback() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PipedOutputStream stdin = new PipedOutputStream()) {
+            // Without an ObjectMapper the provider serializes through McpJsonMapper only.
+            ConcurrentStdioServerTransportProvider provider = new ConcurrentStdioServerTransportProvider(
+                new JacksonMcpJsonMapper(objectMapper), new PipedInputStream(stdin), output
+            );
+            McpServerTransport transport = startTransport(provider);
+
+            transport.sendMessage(response(1, MULTILINE_TEXT)).block();
+
+            List<String> lines = awaitLines(output, 1);
+            assertThat(lines).hasSize(1);
+            assertResponse(lines.get(0), 1, MULTILINE_TEXT);
+        }
+    }
+
+    private McpServerTransport startTransport(ConcurrentStdioServerTransportProvider provider) {
+        AtomicReference<McpServerTransport> transport = new AtomicReference<>();
+        provider.setSessionFactory(sessionTransport -> {
+            transport.set(sessionTransport);
+            return mock(McpServerSession.class);
+        });
+        return transport.get();
+    }
+
+    private McpSchema.JSONRPCResponse response(int id, String text) {
+        return new McpSchema.JSONRPCResponse(McpSchema.JSONRPC_VERSION, id, Map.of("text", text), null);
+    }
+
+    private void assertResponse(String line, int id, String text) throws Exception {
+        JsonNode node = objectMapper.readTree(line);
+        assertThat(node.path("id").asInt()).isEqualTo(id);
+        assertThat(node.path("result").path("text").asText()).isEqualTo(text);
+    }
+
+    private List<String> awaitLines(ByteArrayOutputStream output, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<String> lines = lines(output);
+        while (lines.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            lines = lines(output);
+        }
+        return lines;
+    }
+
+    private List<String> lines(ByteArrayOutputStream output) {
+        String text = output.toString(StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        int end;
+        // Only complete lines count, a CR anywhere would also show up as an extra line.
+        while ((end = indexOfLineBreak(text, start)) >= 0) {
+            lines.add(text.substring(start, end));
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    private int indexOfLineBreak(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,130 @@
+package fun.fengwk.mmh.core.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author fengwk
+ */
+public class JsonRpcLineReaderTest {
+
+    @Test
+    public void shouldSplitLinesAndSkipBlankLines() throws IOException {
+        JsonRpcLineReader reader = reader("{\"a\":1}\n\r\n\n{\"b\":2}\r\n{\"c\":3}", 64);
+
+        assertThat(nextLine(reader)).isEqualTo("{\"a\":1}");
+        assertThat(nextLine(reader)).isEqualTo("{\"b\":2}\r");
+        assertThat(nextLine(reader)).isEqualTo("{\"c\":3}");
+        assertThat(reader.readLine()).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldReadLinesSpanningSeveralReads() throws IOException {
+        String longLine = "{\"text\":\"" + "x".repeat(200_000) + "\"}";
+        JsonRpcLineReader reader = new JsonRpcLineReader(new TrickleInputStream(longLine + "\n{}\n"), 1024 * 1024);
+
+        assertThat(nextLine(reader)).isEqualTo(longLine);
+        assertThat(nextLine(reader)).isEqualTo("{}");
+        assertThat(reader.readLine()).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldSkipOversizedLineAndKeepReading() throws IOException {
+        JsonRpcLineReader reader = reader("{\"tooLong\":\"0123456789\"}\n{\"ok\":1}\n", 16);
+
+        assertThatThrownBy(reader::readLine)
+            .isInstanceOf(JsonRpcLineReader.OversizedMessageException.class)
+            .hasMessageContaining("maxMessageBytes=16");
+        assertThat(nextLine(reader)).isEqualTo("{\"ok\":1}");
+        assertThat(reader.readLine()).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldRecoverIdOfOversizedLineFromHead() throws IOException {
+        String payload = "x".repeat(10_000);
+        JsonRpcLineReader reader = reader(
+            "{\"jsonrpc\":\"2.0\",\"params\":{\"id\":99,\"text\":\"a\\\"id\\\":1\"},\"id\":7,\"method\":\"tools/call\",\"x\":\"" + payload + "\"}\n"
+                + "{\"ok\":1}\n",
+            1024
+        );
+
+        assertThatThrownBy(reader::readLine)
+            .isInstanceOfSatisfying(JsonRpcLineReader.OversizedMessageException.class,
+                ex -> assertThat(ex.getId()).isEqualTo(7L));
+        assertThat(nextLine(reader)).isEqualTo("{\"ok\":1}");
+    }
+
+    @Test
+    public void shouldRecoverIdOfOversizedLineFromTail() throws IOException {
+        String payload = "x".repeat(200_000);
+        JsonRpcLineReader reader = new JsonRpcLineReader(new TrickleInputStream(
+            "{\"method\":\"tools/call\",\"params\":{\"text\":\"" + payload + "\"},\"id\" : \"req-1\" }\r\n"), 1024);
+
+        assertThatThrownBy(reader::readLine)
+            .isInstanceOfSatisfying(JsonRpcLineReader.OversizedMessageException.class,
+                ex -> assertThat(ex.getId()).isEqualTo("req-1"));
+    }
+
+    @Test
+    public void shouldReportNoIdWhenItCannotBeRecovered() throws IOException {
+        String payload = "x".repeat(10_000);
+        JsonRpcLineReader reader = reader(
+            "{\"method\":\"tools/call\",\"params\":{\"id\":3,\"text\":\"" + payload + "\"}}\n", 1024);
+
+        assertThatThrownBy(reader::readLine)
+            .isInstanceOfSatisfying(JsonRpcLineReader.OversizedMessageException.class,
+                ex -> assertThat(ex.getId()).isNull());
+    }
+
+    @Test
+    public void shouldShrinkLineBufferAfterLargeLine() throws IOException {
+        String large = "{\"id\":1,\"pad\":\"" + "x".repeat(1024 * 1024) + "\"}";
+        JsonRpcLineReader reader = reader(large + "\n{\"id\":2}\n", 2 * 1024 * 1024);
+
+        assertThat(nextLine(reader)).isEqualTo(large);
+        assertThat(reader.lineCapacity()).isGreaterThanOrEqualTo(large.length());
+        assertThat(nextLine(reader)).isEqualTo("{\"id\":2}");
+        assertThat(reader.lineCapacity()).isEqualTo(8 * 1024);
+    }
+
+    private JsonRpcLineReader reader(String input, int maxMessageBytes) {
+        return new JsonRpcLineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), maxMessageBytes);
+    }
+
+    private String nextLine(JsonRpcLineReader reader) throws IOException {
+        int length = reader.readLine();
+        assertThat(length).isGreaterThanOrEqualTo(0);
+        return new String(reader.buffer(), 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns at most 1000 bytes per read, like a pipe delivering a large message in pieces.
+     */
+    private static final class TrickleInputStream extends InputStream {
+
+        private final ByteArrayInputStream delegate;
+
+        private TrickleInputStream(String content) {
+            this.delegate = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int read() {
+            return delegate.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return delegate.read(b, off, Math.min(len, 1000));
+        }
+
+    }
+
+}
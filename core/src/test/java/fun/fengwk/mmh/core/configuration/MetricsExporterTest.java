@@ -0,0 +1,72 @@
+package fun.fengwk.mmh.core.configuration;
+
+import io.micrometer.core.instrument.Metrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fengwk
+ */
+public class MetricsExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldWriteSnapshotOfGlobalMeters() throws Exception {
+        MetricsProperties metricsProperties = new MetricsProperties();
+        metricsProperties.setJmxEnabled(false);
+        metricsProperties.setFilePath(tempDir.resolve("metrics.txt").toString());
+        MetricsExporter exporter = new MetricsExporter(metricsProperties, new MmhProperties());
+
+        exporter.start();
+        try {
+            Metrics.counter("mmh.test.exported", "kind", "snapshot").increment();
+            exporter.writeSnapshot();
+
+            assertThat(exporter.getSnapshotPath()).isEqualTo(tempDir.resolve("metrics.txt").toAbsolutePath().normalize());
+            assertThat(Files.readString(exporter.getSnapshotPath()))
+                .startsWith("# mmh metrics snapshot at ")
+                .contains("mmh.test.exported");
+        } finally {
+            exporter.stop();
+        }
+        assertThat(tempDir.resolve("metrics.txt.tmp")).doesNotExist();
+    }
+
+    @Test
+    public void shouldUseConfigPathWhenFilePathBlank() {
+        MetricsProperties metricsProperties = new MetricsProperties();
+        metricsProperties.setJmxEnabled(false);
+        MmhProperties mmhProperties = new MmhProperties();
+        mmhProperties.setConfigPath(tempDir.toString());
+        MetricsExporter exporter = new MetricsExporter(metricsProperties, mmhProperties);
+
+        exporter.start();
+        exporter.stop();
+
+        assertThat(exporter.getSnapshotPath()).isEqualTo(tempDir.resolve("metrics.txt").toAbsolutePath().normalize());
+        assertThat(exporter.getSnapshotPath()).exists();
+    }
+
+    @Test
+    public void shouldExportNothingWhenDisabled() {
+        MetricsProperties metricsProperties = new MetricsProperties();
+        metricsProperties.setEnabled(false);
+        MmhProperties mmhProperties = new MmhProperties();
+        mmhProperties.setConfigPath(tempDir.toString());
+        MetricsExporter exporter = new MetricsExporter(metricsProperties, mmhProperties);
+
+        exporter.start();
+        exporter.stop();
+
+        assertThat(exporter.getSnapshotPath()).isNull();
+        assertThat(tempDir.resolve("metrics.txt")).doesNotExist();
+    }
+
+}
@@ -0,0 +1,97 @@
+package fun.fengwk.mmh.core.configuration;
+
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fengwk
+ */
+public class ToolCallCancellationRegistryTest {
+
+    private final ToolCallCancellationRegistry registry = new ToolCallCancellationRegistry();
+
+    @Test
+    public void shouldStampRequestIdAndResolveTokenFromCallMeta() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        McpSchema.JSONRPCRequest request = new McpSchema.JSONRPCRequest(
+            McpSchema.JSONRPC_VERSION,
+            McpSchema.METHOD_TOOLS_CALL,
+            7,
+            Map.of("name", "scrape", "arguments", Map.of("url", "https://example.com"), "_meta", Map.of("progressToken", "p1"))
+        );
+
+        McpSchema.JSONRPCRequest stamped = registry.register(request, cancellationToken);
+
+        Map<?, ?> params = (Map<?, ?>) stamped.params();
+        Map<?, ?> meta = (Map<?, ?>) params.get("_meta");
+        assertThat(stamped.id()).isEqualTo(7);
+        assertThat(params.get("arguments")).isEqualTo(Map.of("url", "https://example.com"));
+        assertThat(meta.get("progressToken")).isEqualTo("p1");
+        assertThat(meta.get(ToolCallCancellationRegistry.REQUEST_ID_META_KEY)).isEqualTo("7");
+
+        @SuppressWarnings("unchecked")
+        McpSchema.CallToolRequest callToolRequest = new McpSchema.CallToolRequest(
+            "scrape", Map.of(), (Map<String, Object>) meta
+        );
+        assertThat(registry.tokenOf(callToolRequest)).isSameAs(cancellationToken);
+    }
+
+    @Test
+    public void shouldCancelRegisteredCallOnNotification() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        registry.register(toolCall("req-1"), cancellationToken);
+
+        boolean cancelled = registry.cancel(new McpSchema.JSONRPCNotification(
+            McpSchema.JSONRPC_VERSION,
+            ToolCallCancellationRegistry.METHOD_NOTIFICATION_CANCELLED,
+            Map.of("requestId", "req-1", "reason", "user aborted")
+        ));
+
+        assertThat(cancelled).isTrue();
+        assertThat(cancellationToken.isCancelled()).isTrue();
+        assertThat(cancellationToken.getReason()).isEqualTo("user aborted");
+    }
+
+    @Test
+    public void shouldIgnoreCancelAfterCallFinished() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        registry.register(toolCall(3), cancellationToken);
+        registry.unregister(3, cancellationToken);
+
+        boolean cancelled = registry.cancel(new McpSchema.JSONRPCNotification(
+            McpSchema.JSONRPC_VERSION,
+            ToolCallCancellationRegistry.METHOD_NOTIFICATION_CANCELLED,
+            Map.of("requestId", 3)
+        ));
+
+        assertThat(cancelled).isFalse();
+        assertThat(cancellationToken.isCancelled()).isFalse();
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    public void shouldLeaveOtherRequestsUntouched() {
+        McpSchema.JSONRPCRequest request = new McpSchema.JSONRPCRequest(
+            McpSchema.JSONRPC_VERSION, McpSchema.METHOD_TOOLS_LIST, 1, null
+        );
+
+        assertThat(registry.register(request, CancellationToken.create())).isSameAs(request);
+        assertThat(registry.size()).isZero();
+        assertThat(registry.tokenOf(new McpSchema.CallToolRequest("scrape", Map.of()))).isSameAs(CancellationToken.none());
+    }
+
+    private McpSchema.JSONRPCRequest toolCall(Object id) {
+        return new McpSchema.JSONRPCRequest(
+            McpSchema.JSONRPC_VERSION,
+            McpSchema.METHOD_TOOLS_CALL,
+            id,
+            Map.of("name", "scrape", "arguments", Map.of())
+        );
+    }
+
+}
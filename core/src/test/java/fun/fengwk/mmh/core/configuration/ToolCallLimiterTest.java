@@ -0,0 +1,72 @@
+package fun.fengwk.mmh.core.configuration;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fengwk
+ */
+public class ToolCallLimiterTest {
+
+    @Test
+    public void shouldOnlyLimitConfiguredToolCalls() {
+        ToolCallLimiter limiter = new ToolCallLimiter(2, Set.of("scrape"));
+
+        assertThat(limiter.limitedToolName(toolCall(1, "scrape"))).isEqualTo("scrape");
+        assertThat(limiter.limitedToolName(toolCall(2, "create_temp_dir"))).isNull();
+        assertThat(limiter.limitedToolName(new McpSchema.JSONRPCRequest(
+            McpSchema.JSONRPC_VERSION, McpSchema.METHOD_TOOLS_LIST, 3, null))).isNull();
+        assertThat(limiter.limitedToolName(new McpSchema.JSONRPCNotification(
+            McpSchema.JSONRPC_VERSION, McpSchema.METHOD_NOTIFICATION_INITIALIZED, null))).isNull();
+    }
+
+    @Test
+    public void shouldRejectWhenPermitsExhaustedAndRecoverAfterRelease() {
+        ToolCallLimiter limiter = new ToolCallLimiter(2, Set.of("scrape"));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release();
+
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void shouldNotLimitWhenDisabled() {
+        ToolCallLimiter limiter = new ToolCallLimiter(0, Set.of("scrape"));
+
+        assertThat(limiter.limitedToolName(toolCall(1, "scrape"))).isNull();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void shouldBuildBusyErrorForRequestId() {
+        ToolCallLimiter limiter = new ToolCallLimiter(4, Set.of("scrape"));
+        McpSchema.JSONRPCRequest request = toolCall("req-7", "scrape");
+
+        McpSchema.JSONRPCResponse response = limiter.busyResponse(request, "scrape");
+
+        assertThat(response.id()).isEqualTo("req-7");
+        assertThat(response.result()).isNull();
+        assertThat(response.error().code()).isEqualTo(ToolCallLimiter.BUSY_ERROR_CODE);
+        assertThat(response.error().message()).contains("server busy").contains("max 4").contains("scrape");
+    }
+
+    private McpSchema.JSONRPCRequest toolCall(Object id, String name) {
+        return new McpSchema.JSONRPCRequest(
+            McpSchema.JSONRPC_VERSION,
+            McpSchema.METHOD_TOOLS_CALL,
+            id,
+            Map.of("name", name, "arguments", Map.of())
+        );
+    }
+
+}
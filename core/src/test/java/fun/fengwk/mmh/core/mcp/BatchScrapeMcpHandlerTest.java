@@ -0,0 +1,104 @@
+package fun.fengwk.mmh.core.mcp;
+
+import fun.fengwk.mmh.core.service.UtilMcpService;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchScrapeMcpHandlerTest {
+
+    @Mock
+    private UtilMcpService utilMcpService;
+
+    @Test
+    public void testBatchScrapeKeepsInputOrderAndReportsPerItemErrors() {
+        List<String> urls = List.of("https://example.com/a", "https://example.com/b");
+        when(utilMcpService.batchScrape(urls, "markdown", null, null, null, 2, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(List.of(
+            ScrapeResponse.builder().statusCode(200).format("markdown").content("# A").elapsedMs(10L).build(),
+            ScrapeResponse.builder().statusCode(504).format("markdown").error("batch deadline exceeded").build()
+        ));
+
+        McpSchema.CallToolResult result = newHandler().handle(new McpSchema.CallToolRequest("batch_scrape", Map.of(
+            "urls", List.of(" https://example.com/a ", "https://example.com/b"),
+            "format", "MARKDOWN",
+            "concurrency", 2
+        )));
+
+        assertThat(result.isError()).isFalse();
+        assertThat(result.content()).hasSize(1);
+        String text = ((McpSchema.TextContent) result.content().get(0)).text();
+        assertThat(text).contains("total: 2").contains("succeeded: 1").contains("failed: 1");
+        assertThat(text.indexOf("## [1] https://example.com/a")).isLessThan(text.indexOf("## [2] https://example.com/b"));
+        assertThat(text).contains("# A");
+        assertThat(text).contains("error: batch deadline exceeded");
+    }
+
+    @Test
+    public void testBatchScrapeIsErrorWhenAllItemsFailed() {
+        List<String> urls = List.of("https://example.com/a");
+        when(utilMcpService.batchScrape(urls, null, null, null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(List.of(
+            ScrapeResponse.builder().statusCode(500).error("boom").build()
+        ));
+
+        McpSchema.CallToolResult result = newHandler().handle(new McpSchema.CallToolRequest("batch_scrape", Map.of(
+            "urls", urls
+        )));
+
+        assertThat(result.isError()).isTrue();
+        assertThat(((McpSchema.TextContent) result.content().get(0)).text()).contains("failed: 1");
+    }
+
+    @Test
+    public void testBatchScrapeRejectsTooManyUrls() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setBatchMaxUrls(1);
+        BatchScrapeMcpHandler handler = new BatchScrapeMcpHandler(utilMcpService, new ScrapeMcpResultMapper(), scrapeProperties);
+
+        McpSchema.CallToolResult result = handler.handle(new McpSchema.CallToolRequest("batch_scrape", Map.of(
+            "urls", List.of("https://example.com/a", "https://example.com/b")
+        )));
+
+        assertThat(result.isError()).isTrue();
+        assertThat(((McpSchema.TextContent) result.content().get(0)).text()).contains("too many urls, max: 1");
+        verifyNoInteractions(utilMcpService);
+    }
+
+    @Test
+    public void testBatchScrapeRejectsUnsupportedFormat() {
+        McpSchema.CallToolResult result = newHandler().handle(new McpSchema.CallToolRequest("batch_scrape", Map.of(
+            "urls", List.of("https://example.com/a"),
+            "format", "pdf"
+        )));
+
+        assertThat(result.isError()).isTrue();
+        assertThat(((McpSchema.TextContent) result.content().get(0)).text()).contains("unsupported format: pdf");
+        verifyNoInteractions(utilMcpService);
+    }
+
+    @Test
+    public void testBatchScrapeRequiresUrls() {
+        McpSchema.CallToolResult result = newHandler().handle(new McpSchema.CallToolRequest("batch_scrape", Map.of()));
+
+        assertThat(result.isError()).isTrue();
+        verifyNoInteractions(utilMcpService);
+    }
+
+    private BatchScrapeMcpHandler newHandler() {
+        return new BatchScrapeMcpHandler(utilMcpService, new ScrapeMcpResultMapper(), new ScrapeProperties());
+    }
+
+}
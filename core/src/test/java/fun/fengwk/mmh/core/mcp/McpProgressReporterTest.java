@@ -0,0 +1,85 @@
+package fun.fengwk.mmh.core.mcp;
+
+import fun.fengwk.mmh.core.service.scrape.model.ScrapePhase;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * @author fengwk
+ */
+@ExtendWith(MockitoExtension.class)
+public class McpProgressReporterTest {
+
+    @Mock
+    private McpSyncServerExchange exchange;
+
+    @Test
+    public void shouldNotReportWithoutProgressToken() {
+        McpSchema.CallToolRequest request = new McpSchema.CallToolRequest("scrape", Map.of());
+
+        ScrapeProgressListener listener = McpProgressReporter.of(exchange, request);
+        listener.onPhaseCompleted(ScrapePhase.NAVIGATE, 10);
+
+        assertThat(listener).isSameAs(ScrapeProgressListener.NOOP);
+        verifyNoInteractions(exchange);
+    }
+
+    @Test
+    public void shouldRelayPhaseAsProgressNotification() {
+        ScrapeProgressListener listener = McpProgressReporter.of(exchange, requestWithProgressToken("p1"));
+
+        listener.onPhaseCompleted(ScrapePhase.NAVIGATE, 812);
+
+        ArgumentCaptor<McpSchema.ProgressNotification> captor = ArgumentCaptor.forClass(McpSchema.ProgressNotification.class);
+        verify(exchange).progressNotification(captor.capture());
+        assertThat(captor.getValue().progressToken()).isEqualTo("p1");
+        assertThat(captor.getValue().progress()).isEqualTo(ScrapePhase.NAVIGATE.ordinal() + 1);
+        assertThat(captor.getValue().total()).isEqualTo((double) ScrapePhase.values().length);
+        assertThat(captor.getValue().message()).isEqualTo("navigate done in 812ms");
+    }
+
+    @Test
+    public void shouldDropProgressGoingBackwards() {
+        ScrapeProgressListener listener = McpProgressReporter.of(exchange, requestWithProgressToken("p1"));
+
+        listener.onItemCompleted(2, 3, "https://example.com/b");
+        listener.onItemCompleted(1, 3, "https://example.com/a");
+        listener.onItemCompleted(3, 3, "https://example.com/c");
+
+        ArgumentCaptor<McpSchema.ProgressNotification> captor = ArgumentCaptor.forClass(McpSchema.ProgressNotification.class);
+        verify(exchange, times(2)).progressNotification(captor.capture());
+        assertThat(captor.getAllValues())
+            .extracting(McpSchema.ProgressNotification::message)
+            .containsExactly("scraped 2/3: https://example.com/b", "scraped 3/3: https://example.com/c");
+    }
+
+    @Test
+    public void shouldSwallowNotificationFailure() {
+        doThrow(new IllegalStateException("closed")).when(exchange).progressNotification(any());
+        ScrapeProgressListener listener = McpProgressReporter.of(exchange, requestWithProgressToken(7));
+
+        listener.onPhaseCompleted(ScrapePhase.WAIT, 5);
+
+        verify(exchange).progressNotification(any());
+    }
+
+    private static McpSchema.CallToolRequest requestWithProgressToken(Object progressToken) {
+        return new McpSchema.CallToolRequest("scrape", Map.of(), Map.of(McpProgressReporter.PROGRESS_TOKEN_META_KEY, progressToken));
+    }
+
+}
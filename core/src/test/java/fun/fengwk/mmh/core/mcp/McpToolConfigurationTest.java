@@ -1,5 +1,7 @@
 package fun.fengwk.mmh.core.mcp;
 
+import fun.fengwk.mmh.core.configuration.ToolCallCancellationRegistry;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
 import fun.fengwk.mmh.core.service.skill.SkillProperties;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import org.junit.jupiter.api.Test;
@@ -20,12 +22,15 @@ public class McpToolConfigurationTest {
             mock(SkillMcpToolDefinition.class),
             mock(SkillMcpHandler.class),
             scrapeMcpToolDefinition(),
-            mock(ScrapeMcpHandler.class)
+            mock(ScrapeMcpHandler.class),
+            new BatchScrapeMcpToolDefinition(new ScrapeProperties()),
+            mock(BatchScrapeMcpHandler.class),
+            new ToolCallCancellationRegistry()
         );
 
         assertThat(specifications)
             .extracting(specification -> specification.tool().name())
-            .containsExactly("scrape");
+            .containsExactly("scrape", "batch_scrape");
     }
 
     @Test
@@ -45,16 +50,32 @@ public class McpToolConfigurationTest {
             skillMcpToolDefinition,
             mock(SkillMcpHandler.class),
             scrapeMcpToolDefinition(),
-            mock(ScrapeMcpHandler.class)
+            mock(ScrapeMcpHandler.class),
+            new BatchScrapeMcpToolDefinition(new ScrapeProperties()),
+            mock(BatchScrapeMcpHandler.class),
+            new ToolCallCancellationRegistry()
         );
 
         assertThat(specifications)
             .extracting(specification -> specification.tool().name())
-            .containsExactly("skill", "scrape");
+            .containsExactly("skill", "scrape", "batch_scrape");
+    }
+
+    @Test
+    public void testScrapeToolOmitsMaxCharsMaximumWhenPagingDisabled() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setOutputMaxChars(0);
+
+        Object maxChars = new ScrapeMcpToolDefinition(scrapeProperties).tool().inputSchema().properties().get("maxChars");
+
+        assertThat(maxChars).isInstanceOf(java.util.Map.class);
+        assertThat((java.util.Map<?, ?>) maxChars).doesNotContainKey("maximum").containsEntry("minimum", 1);
+        assertThat((java.util.Map<?, ?>) new ScrapeMcpToolDefinition(new ScrapeProperties()).tool().inputSchema().properties().get("maxChars"))
+            .containsEntry("maximum", 100000);
     }
 
     private ScrapeMcpToolDefinition scrapeMcpToolDefinition() {
-        return new ScrapeMcpToolDefinition();
+        return new ScrapeMcpToolDefinition(new ScrapeProperties());
     }
 
 }
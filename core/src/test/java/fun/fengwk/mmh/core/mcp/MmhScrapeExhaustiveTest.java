@@ -1,6 +1,8 @@
 package fun.fengwk.mmh.core.mcp;
 
 import fun.fengwk.mmh.core.CoreTestApplication;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 import fun.fengwk.mmh.core.service.UtilMcpService;
 import lombok.extern.slf4j.Slf4j;
@@ -65,7 +67,7 @@ public class MmhScrapeExhaustiveTest {
         long start = System.currentTimeMillis();
         String params = String.format("url=%s, format=%s, profileMode=%s, onlyMainContent=%s", url, format, profileMode, onlyMainContent);
         try {
-            ScrapeResponse r = utilMcpService.scrape(url, format, onlyMainContent, null, profileMode);
+            ScrapeResponse r = utilMcpService.scrape(url, format, onlyMainContent, null, profileMode, CancellationToken.none(), ScrapeProgressListener.NOOP);
             long elapsed = System.currentTimeMillis() - start;
             if (r == null) return new CaseResult(caseId, group, params, false, "unexpected_error", elapsed, "response is null");
             if (r.getError() != null && !r.getError().isEmpty()) {
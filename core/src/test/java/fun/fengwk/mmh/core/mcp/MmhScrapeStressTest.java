@@ -2,6 +2,8 @@ package fun.fengwk.mmh.core.mcp;
 
 import fun.fengwk.mmh.core.CoreTestApplication;
 import fun.fengwk.mmh.core.service.browser.BrowserProperties;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 import fun.fengwk.mmh.core.service.UtilMcpService;
 import lombok.extern.slf4j.Slf4j;
@@ -185,7 +187,9 @@ public class MmhScrapeStressTest {
                 task.format, 
                 task.onlyMainContent, 
                 null, 
-                "default"
+                "default",
+                CancellationToken.none(),
+                ScrapeProgressListener.NOOP
             );
             long elapsedMs = System.currentTimeMillis() - startMs;
             
@@ -1,7 +1,11 @@
 package fun.fengwk.mmh.core.mcp;
 
+import fun.fengwk.mmh.core.configuration.ToolCallCancellationRegistry;
 import fun.fengwk.mmh.core.service.UtilMcpService;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
 import fun.fengwk.mmh.core.service.skill.SkillProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import io.modelcontextprotocol.spec.McpSchema;
@@ -13,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -31,7 +36,7 @@ public class ScrapeMcpHandlerTest {
             .screenshotMime("image/webp")
             .screenshotBase64("data:image/webp;base64,AAAA")
             .build();
-        when(utilMcpService.scrape("https://example.com/a.webp", null, null, null, null)).thenReturn(response);
+        when(utilMcpService.scrape("https://example.com/a.webp", null, null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
 
         McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
             null,
@@ -55,7 +60,7 @@ public class ScrapeMcpHandlerTest {
             .screenshotMime("application/pdf")
             .screenshotBase64("data:application/pdf;base64,BBBB")
             .build();
-        when(utilMcpService.scrape("https://example.com/a.pdf", null, null, null, null)).thenReturn(response);
+        when(utilMcpService.scrape("https://example.com/a.pdf", null, null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
 
         McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
             null,
@@ -83,7 +88,7 @@ public class ScrapeMcpHandlerTest {
             .content("# Hello")
             .elapsedMs(123L)
             .build();
-        when(utilMcpService.scrape("https://example.com/doc", "markdown", true, null, "master")).thenReturn(response);
+        when(utilMcpService.scrape("https://example.com/doc", "markdown", true, null, "master", CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
 
         McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
             null,
@@ -116,7 +121,7 @@ public class ScrapeMcpHandlerTest {
             .content("ok")
             .elapsedMs(66L)
             .build();
-        when(utilMcpService.scrape("https://example.com/wait", "markdown", false, 250, "default")).thenReturn(response);
+        when(utilMcpService.scrape("https://example.com/wait", "markdown", false, 250, "default", CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
 
         McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
             null,
@@ -147,7 +152,7 @@ public class ScrapeMcpHandlerTest {
             .format("markdown")
             .content("ok")
             .build();
-        when(utilMcpService.scrape("https://example.com/trim", "markdown", null, null, null)).thenReturn(response);
+        when(utilMcpService.scrape("https://example.com/trim", "markdown", null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
 
         McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
             null,
@@ -161,7 +166,7 @@ public class ScrapeMcpHandlerTest {
         );
 
         assertThat(result.isError()).isFalse();
-        verify(utilMcpService).scrape("https://example.com/trim", "markdown", null, null, null);
+        verify(utilMcpService).scrape("https://example.com/trim", "markdown", null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP);
     }
 
     @Test
@@ -206,6 +211,128 @@ public class ScrapeMcpHandlerTest {
         verifyNoInteractions(utilMcpService);
     }
 
+    @Test
+    public void testScrapePagesContentLongerThanOutputMaxChars() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setOutputMaxChars(4);
+        ScrapeResponse response = ScrapeResponse.builder()
+            .statusCode(200)
+            .format("markdown")
+            .content("abcdefghij")
+            .elapsedMs(5L)
+            .build();
+        when(utilMcpService.scrape("https://example.com/long", null, null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
+
+        McpSchema.CallToolResult firstPage = buildSpecification(scrapeProperties).callHandler().apply(
+            null,
+            new McpSchema.CallToolRequest("scrape", Map.of("url", "https://example.com/long", "maxChars", 100))
+        );
+        McpSchema.CallToolResult lastPage = buildSpecification(scrapeProperties).callHandler().apply(
+            null,
+            new McpSchema.CallToolRequest("scrape", Map.of("url", "https://example.com/long", "offset", 8))
+        );
+
+        assertThat(firstPage.isError()).isFalse();
+        String firstText = ((McpSchema.TextContent) firstPage.content().get(0)).text();
+        assertThat(firstText).contains("totalChars: 10");
+        assertThat(firstText).contains("offset: 0");
+        assertThat(firstText).contains("nextOffset: 4");
+        assertThat(firstText).endsWith("---\nabcd");
+
+        assertThat(lastPage.isError()).isFalse();
+        String lastText = ((McpSchema.TextContent) lastPage.content().get(0)).text();
+        assertThat(lastText).contains("offset: 8");
+        assertThat(lastText).doesNotContain("nextOffset");
+        assertThat(lastText).endsWith("---\nij");
+    }
+
+    @Test
+    public void testScrapeContinuesFromCursorWithoutScrapingAgain() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setOutputMaxChars(4);
+        ScrapeResponse response = ScrapeResponse.builder()
+            .statusCode(200)
+            .format("markdown")
+            .content("abcdefghij")
+            .elapsedMs(5L)
+            .build();
+        when(utilMcpService.scrape("https://example.com/long", null, null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
+        McpServerFeatures.SyncToolSpecification specification = buildSpecification(scrapeProperties);
+
+        String firstText = ((McpSchema.TextContent) specification.callHandler().apply(
+            null,
+            new McpSchema.CallToolRequest("scrape", Map.of("url", "https://example.com/long"))
+        ).content().get(0)).text();
+        assertThat(firstText).contains("nextOffset: 4");
+        String cursor = firstText.lines()
+            .filter(line -> line.startsWith("cursor: "))
+            .map(line -> line.substring("cursor: ".length()))
+            .findFirst()
+            .orElseThrow();
+
+        McpSchema.CallToolResult secondPage = specification.callHandler().apply(
+            null,
+            new McpSchema.CallToolRequest("scrape", Map.of("url", "https://example.com/long", "offset", 4, "cursor", cursor))
+        );
+        McpSchema.CallToolResult lastPage = specification.callHandler().apply(
+            null,
+            new McpSchema.CallToolRequest("scrape", Map.of("url", "https://example.com/long", "offset", 8, "cursor", cursor))
+        );
+
+        String secondText = ((McpSchema.TextContent) secondPage.content().get(0)).text();
+        assertThat(secondText).contains("nextOffset: 8");
+        assertThat(secondText).contains("cursor: " + cursor);
+        assertThat(secondText).endsWith("---\nefgh");
+        String lastText = ((McpSchema.TextContent) lastPage.content().get(0)).text();
+        assertThat(lastText).doesNotContain("nextOffset").doesNotContain("cursor:");
+        assertThat(lastText).endsWith("---\nij");
+        verify(utilMcpService, times(1)).scrape("https://example.com/long", null, null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP);
+    }
+
+    @Test
+    public void testScrapeRejectsUnknownCursor() {
+        McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
+            null,
+            new McpSchema.CallToolRequest("scrape", Map.of("url", "https://example.com/long", "offset", 4, "cursor", "missing"))
+        );
+
+        assertThat(result.isError()).isTrue();
+        assertThat(((McpSchema.TextContent) result.content().get(0)).text()).contains("error: cursor expired or unknown");
+        verifyNoInteractions(utilMcpService);
+    }
+
+    @Test
+    public void testScrapeRejectsOffsetBeyondContent() {
+        ScrapeResponse response = ScrapeResponse.builder()
+            .statusCode(200)
+            .format("markdown")
+            .content("short")
+            .build();
+        when(utilMcpService.scrape("https://example.com/short", null, null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
+
+        McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
+            null,
+            new McpSchema.CallToolRequest("scrape", Map.of("url", "https://example.com/short", "offset", 6))
+        );
+
+        assertThat(result.isError()).isTrue();
+        McpSchema.TextContent textContent = (McpSchema.TextContent) result.content().get(0);
+        assertThat(textContent.text()).contains("error: offset out of range, totalChars: 5");
+    }
+
+    @Test
+    public void testScrapeRejectsNegativeOffset() {
+        McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
+            null,
+            new McpSchema.CallToolRequest("scrape", Map.of("url", "https://example.com/doc", "offset", -1))
+        );
+
+        assertThat(result.isError()).isTrue();
+        McpSchema.TextContent textContent = (McpSchema.TextContent) result.content().get(0);
+        assertThat(textContent.text()).contains("error: offset must not be negative");
+        verifyNoInteractions(utilMcpService);
+    }
+
     @Test
     public void testScrapeRejectsNonBooleanOnlyMainContent() {
         McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
@@ -380,7 +507,7 @@ public class ScrapeMcpHandlerTest {
             .error("boom")
             .elapsedMs(98L)
             .build();
-        when(utilMcpService.scrape("https://example.com/error", null, null, null, null)).thenReturn(response);
+        when(utilMcpService.scrape("https://example.com/error", null, null, null, null, CancellationToken.none(), ScrapeProgressListener.NOOP)).thenReturn(response);
 
         McpSchema.CallToolResult result = buildSpecification().callHandler().apply(
             null,
@@ -399,14 +526,22 @@ public class ScrapeMcpHandlerTest {
     }
 
     private McpServerFeatures.SyncToolSpecification buildSpecification() {
+        return buildSpecification(new ScrapeProperties());
+    }
+
+    private McpServerFeatures.SyncToolSpecification buildSpecification(ScrapeProperties scrapeProperties) {
         McpToolConfiguration configuration = new McpToolConfiguration();
         SkillProperties skillProperties = new SkillProperties();
         return configuration.explicitToolSpecifications(
                 skillProperties,
                 null,
                 null,
-                new ScrapeMcpToolDefinition(),
-                new ScrapeMcpHandler(utilMcpService, new ScrapeMcpResultMapper())
+                new ScrapeMcpToolDefinition(scrapeProperties),
+                new ScrapeMcpHandler(utilMcpService, new ScrapeMcpResultMapper(), scrapeProperties,
+                    new ScrapeOutputCursorStore(scrapeProperties)),
+                new BatchScrapeMcpToolDefinition(new ScrapeProperties()),
+                new BatchScrapeMcpHandler(utilMcpService, new ScrapeMcpResultMapper(), new ScrapeProperties()),
+                new ToolCallCancellationRegistry()
             )
             .get(0);
     }
@@ -0,0 +1,57 @@
+package fun.fengwk.mmh.core.mcp;
+
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fengwk
+ */
+public class ScrapeOutputCursorStoreTest {
+
+    @Test
+    public void shouldEvictEldestEntriesByTotalChars() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setOutputCursorMaxChars(25);
+        ScrapeOutputCursorStore store = new ScrapeOutputCursorStore(scrapeProperties);
+
+        String first = store.put("https://example.com/1", response("a".repeat(10)));
+        String second = store.put("https://example.com/2", response("b".repeat(10)));
+        String third = store.put("https://example.com/3", response("c".repeat(10)));
+
+        assertThat(store.get(first, "https://example.com/1")).isNull();
+        assertThat(store.get(second, "https://example.com/2").getContent()).isEqualTo("b".repeat(10));
+        assertThat(store.get(third, "https://example.com/3").getContent()).isEqualTo("c".repeat(10));
+    }
+
+    @Test
+    public void shouldSkipContentLargerThanLimitAndKeepOnlyPageFields() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setOutputCursorMaxChars(8);
+        ScrapeOutputCursorStore store = new ScrapeOutputCursorStore(scrapeProperties);
+
+        assertThat(store.put("https://example.com/big", response("x".repeat(9)))).isNull();
+
+        ScrapeResponse response = response("small");
+        response.setLinks(List.of("https://example.com/a"));
+        response.setScreenshotBase64("data:image/png;base64,AAAA");
+        String cursor = store.put("https://example.com/small", response);
+        ScrapeResponse kept = store.get(cursor, "https://example.com/small");
+
+        assertThat(kept.getContent()).isEqualTo("small");
+        assertThat(kept.getFormat()).isEqualTo("markdown");
+        assertThat(kept.getElapsedMs()).isEqualTo(5L);
+        assertThat(kept.getLinks()).isNull();
+        assertThat(kept.getScreenshotBase64()).isNull();
+        assertThat(store.get(cursor, "https://example.com/other")).isNull();
+    }
+
+    private ScrapeResponse response(String content) {
+        return ScrapeResponse.builder().statusCode(200).format("markdown").content(content).elapsedMs(5L).build();
+    }
+
+}
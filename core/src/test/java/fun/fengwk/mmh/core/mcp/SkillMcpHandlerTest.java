@@ -1,5 +1,7 @@
 package fun.fengwk.mmh.core.mcp;
 
+import fun.fengwk.mmh.core.configuration.ToolCallCancellationRegistry;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
 import fun.fengwk.mmh.core.service.skill.SkillManager;
 import fun.fengwk.mmh.core.service.skill.SkillProperties;
 import fun.fengwk.mmh.core.service.skill.model.Skill;
@@ -118,8 +120,12 @@ public class SkillMcpHandlerTest {
                 skillProperties,
                 new SkillMcpToolDefinition(skillManager, mcpFormatter),
                 new SkillMcpHandler(skillManager, new SkillMcpResultMapper(mcpFormatter)),
-                new ScrapeMcpToolDefinition(),
-                new ScrapeMcpHandler(null, new ScrapeMcpResultMapper())
+                new ScrapeMcpToolDefinition(new ScrapeProperties()),
+                new ScrapeMcpHandler(null, new ScrapeMcpResultMapper(), new ScrapeProperties(),
+                    new ScrapeOutputCursorStore(new ScrapeProperties())),
+                new BatchScrapeMcpToolDefinition(new ScrapeProperties()),
+                new BatchScrapeMcpHandler(null, new ScrapeMcpResultMapper(), new ScrapeProperties()),
+                new ToolCallCancellationRegistry()
             )
             .get(0);
     }
@@ -4,7 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -48,6 +50,26 @@ public class LoginLockManagerTest {
         }
     }
 
+    @Test
+    public void shouldSignalReleaseRequestUntilCancelled() {
+        assertThat(loginLockManager.isReleaseRequested(profileLockPath, 10000)).isFalse();
+
+        assertThat(loginLockManager.requestRelease(profileLockPath)).isTrue();
+        assertThat(loginLockManager.isReleaseRequested(profileLockPath, 10000)).isTrue();
+
+        loginLockManager.cancelReleaseRequest(profileLockPath);
+        assertThat(loginLockManager.isReleaseRequested(profileLockPath, 10000)).isFalse();
+    }
+
+    @Test
+    public void shouldIgnoreStaleReleaseRequest() throws Exception {
+        assertThat(loginLockManager.requestRelease(profileLockPath)).isTrue();
+        Path requestPath = profileLockPath.resolveSibling("browser.lock.release");
+        Files.setLastModifiedTime(requestPath, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+
+        assertThat(loginLockManager.isReleaseRequested(profileLockPath, 10000)).isFalse();
+    }
+
     @Test
     public void shouldAcquireLockByPath() {
         Path lockPath = tempDir.resolve("custom").resolve("runtime.lock");
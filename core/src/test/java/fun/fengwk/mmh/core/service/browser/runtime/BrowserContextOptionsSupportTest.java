@@ -1,12 +1,18 @@
 package fun.fengwk.mmh.core.service.browser.runtime;
 
+import com.microsoft.playwright.Browser;
 import com.microsoft.playwright.BrowserType;
+import com.sun.net.httpserver.HttpServer;
 import fun.fengwk.mmh.core.service.browser.BrowserProperties;
 import org.junit.jupiter.api.Test;
 
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * @author fengwk
@@ -73,4 +79,85 @@ public class BrowserContextOptionsSupportTest {
         assertThat(options.viewportSize).isEmpty();
     }
 
+    @Test
+    public void shouldSplitSharedBrowserOptionsBetweenLaunchAndContext() {
+        BrowserProperties.BrowserProfileProperties profile = new BrowserProperties.BrowserProfileProperties();
+        profile.setBrowserChannel("chrome");
+        profile.setUserAgent("ua-from-config");
+        profile.setProxyServer("http://proxy-from-config:8080");
+        profile.setTimezoneId("Asia/Shanghai");
+        profile.setAcceptLanguage("zh-CN,zh;q=0.9");
+
+        BrowserType.LaunchPersistentContextOptions launchOptions = BrowserContextOptionsSupport.buildLaunchOptions(
+            profile,
+            true,
+            List.of(" --disable-gpu ", " ")
+        );
+        Browser.NewContextOptions contextOptions = BrowserContextOptionsSupport.buildNewContextOptions(profile);
+
+        assertThat(launchOptions.headless).isTrue();
+        assertThat(launchOptions.channel).isEqualTo("chrome");
+        assertThat(launchOptions.args).containsExactly("--disable-gpu");
+        assertThat(launchOptions.ignoreDefaultArgs).containsExactly("--enable-automation");
+        assertThat(contextOptions.userAgent).isEqualTo("ua-from-config");
+        assertThat(contextOptions.timezoneId).isEqualTo("Asia/Shanghai");
+        assertThat(contextOptions.proxy).isNotNull();
+        assertThat(contextOptions.proxy.server).isEqualTo("http://proxy-from-config:8080");
+        assertThat(contextOptions.extraHTTPHeaders).containsEntry("Accept-Language", "zh-CN,zh;q=0.9");
+    }
+
+    @Test
+    public void shouldOwnRemoteDebuggingPortForSharedBrowserHost() {
+        List<String> args = SharedBrowserHost.buildLaunchArgs(
+            List.of("--disable-gpu", "--remote-debugging-port=9222", "--remote-debugging-pipe")
+        );
+
+        assertThat(args).containsExactly("--disable-gpu", "--remote-debugging-port=0");
+    }
+
+    @Test
+    public void shouldReadPortFromDevToolsActivePort() throws Exception {
+        Path userDataDir = Files.createTempDirectory("mmh-devtools-");
+        try {
+            Files.writeString(userDataDir.resolve("DevToolsActivePort"), "40123\n/devtools/browser/abc\n");
+
+            assertThat(SharedBrowserHost.awaitDevToolsPort(userDataDir, 1000)).isEqualTo(40123);
+        } finally {
+            Files.deleteIfExists(userDataDir.resolve("DevToolsActivePort"));
+            Files.deleteIfExists(userDataDir);
+        }
+    }
+
+    @Test
+    public void shouldFailWhenDevToolsActivePortNeverAppears() throws Exception {
+        Path userDataDir = Files.createTempDirectory("mmh-devtools-");
+        try {
+            assertThatThrownBy(() -> SharedBrowserHost.awaitDevToolsPort(userDataDir, 100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("DevToolsActivePort");
+        } finally {
+            Files.deleteIfExists(userDataDir);
+        }
+    }
+
+    @Test
+    public void shouldProbeCdpEndpointLiveness() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/json/version", exchange -> {
+            byte[] body = "{\"Browser\":\"Chrome\"}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        String cdpEndpoint = "http://127.0.0.1:" + server.getAddress().getPort();
+        try {
+            assertThat(SharedBrowserHost.probeCdpEndpoint(cdpEndpoint)).isTrue();
+        } finally {
+            server.stop(0);
+        }
+
+        assertThat(SharedBrowserHost.probeCdpEndpoint(cdpEndpoint)).isFalse();
+    }
+
 }
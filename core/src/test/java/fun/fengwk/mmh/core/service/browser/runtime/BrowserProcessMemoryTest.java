@@ -0,0 +1,54 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fengwk
+ */
+public class BrowserProcessMemoryTest {
+
+    @Test
+    public void shouldParseUserDataDirOfBrowserProcess() {
+        List<String> arguments = List.of(
+            "/opt/chromium/chrome",
+            "--headless",
+            "--user-data-dir=/tmp/mmh/browser/slave_1_1",
+            "--remote-debugging-pipe"
+        );
+
+        assertThat(BrowserProcessMemory.parseUserDataDir(arguments))
+            .isEqualTo(Paths.get("/tmp/mmh/browser/slave_1_1"));
+    }
+
+    @Test
+    public void shouldIgnoreChildProcessesAndOtherPrograms() {
+        List<String> renderer = List.of(
+            "/opt/chromium/chrome",
+            "--type=renderer",
+            "--user-data-dir=/tmp/mmh/browser/slave_1_1"
+        );
+
+        assertThat(BrowserProcessMemory.parseUserDataDir(renderer)).isNull();
+        assertThat(BrowserProcessMemory.parseUserDataDir(List.of("node", "cli.js", "run-driver"))).isNull();
+        assertThat(BrowserProcessMemory.parseUserDataDir(List.of())).isNull();
+    }
+
+    @Test
+    public void shouldParseResidentBytesFromStatus() {
+        List<String> statusLines = List.of(
+            "Name:\tchrome",
+            "VmPeak:\t  912340 kB",
+            "VmRSS:\t  204800 kB",
+            "Threads:\t23"
+        );
+
+        assertThat(BrowserProcessMemory.parseResidentBytes(statusLines)).isEqualTo(204800L * 1024L);
+        assertThat(BrowserProcessMemory.parseResidentBytes(List.of("Name:\tkthreadd"))).isZero();
+    }
+
+}
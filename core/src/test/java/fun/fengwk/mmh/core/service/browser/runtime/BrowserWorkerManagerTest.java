@@ -61,6 +61,29 @@ public class BrowserWorkerManagerTest {
         assertThat(result).isEqualTo("ok");
     }
 
+    @Test
+    public void shouldExecuteDefaultTaskOnSharedBrowser() {
+        MmhProperties mmhProperties = createMmhProperties();
+        BrowserProperties properties = new BrowserProperties();
+        properties.setWorkerPoolMinSize(0);
+        properties.setWorkerPoolMaxSize(2);
+        properties.setQueueOfferTimeoutMs(100);
+        properties.setDefaultProfileId("master");
+        properties.setSharedBrowserEnabled(true);
+        properties.setSharedBrowserCount(1);
+
+        manager = new BrowserWorkerManager(
+            mmhProperties,
+            properties,
+            mock(LoginLockManager.class),
+            new ProfileIdValidator(properties)
+        );
+
+        String result = manager.executeDefault(context -> context.getProfileId());
+
+        assertThat(result).startsWith("shared_" + ProcessHandle.current().pid() + "_");
+    }
+
     @Test
     public void shouldPropagateDefaultTaskFailure() {
         MmhProperties mmhProperties = createMmhProperties();
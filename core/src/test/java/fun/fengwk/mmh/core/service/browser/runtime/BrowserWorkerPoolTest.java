@@ -0,0 +1,558 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import fun.fengwk.mmh.core.service.browser.BrowserProperties;
+import fun.fengwk.mmh.core.service.browser.coordination.LoginLockManager;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author fengwk
+ */
+public class BrowserWorkerPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private StubBrowserWorkerPool workerPool;
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        if (workerPool != null) {
+            workerPool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldServeInteractiveWaiterBeforeEarlierBatchWaiter() throws Exception {
+        workerPool = createPool(5000);
+        CountDownLatch holderRelease = new CountDownLatch(1);
+        CompletableFuture<String> holder = submit(new HoldingTask("holder", holderRelease));
+        waitUntilExecuted("holder");
+
+        CompletableFuture<String> batch = submit(new RecordingTask("batch", BrowserTaskPriority.BATCH, 0L));
+        Thread.sleep(100);
+        CompletableFuture<String> interactive = submit(new RecordingTask("interactive", BrowserTaskPriority.INTERACTIVE, 0L));
+        Thread.sleep(100);
+
+        holderRelease.countDown();
+        holder.get(2, TimeUnit.SECONDS);
+        batch.get(2, TimeUnit.SECONDS);
+        interactive.get(2, TimeUnit.SECONDS);
+
+        assertThat(executed).containsExactly("holder", "interactive", "batch");
+    }
+
+    @Test
+    public void shouldServeShortestDeadlineFirstWithinSamePriority() throws Exception {
+        workerPool = createPool(5000);
+        CountDownLatch holderRelease = new CountDownLatch(1);
+        CompletableFuture<String> holder = submit(new HoldingTask("holder", holderRelease));
+        waitUntilExecuted("holder");
+
+        long now = System.currentTimeMillis();
+        CompletableFuture<String> late = submit(new RecordingTask("late", BrowserTaskPriority.BATCH, now + 4000));
+        Thread.sleep(100);
+        CompletableFuture<String> soon = submit(new RecordingTask("soon", BrowserTaskPriority.BATCH, now + 2000));
+        Thread.sleep(100);
+
+        holderRelease.countDown();
+        holder.get(2, TimeUnit.SECONDS);
+        late.get(2, TimeUnit.SECONDS);
+        soon.get(2, TimeUnit.SECONDS);
+
+        assertThat(executed).containsExactly("holder", "soon", "late");
+    }
+
+    @Test
+    public void shouldDropWaiterWhoseDeadlinePassed() throws Exception {
+        workerPool = createPool(5000);
+        CountDownLatch holderRelease = new CountDownLatch(1);
+        CompletableFuture<String> holder = submit(new HoldingTask("holder", holderRelease));
+        waitUntilExecuted("holder");
+
+        CompletableFuture<String> expired = submit(
+            new RecordingTask("expired", BrowserTaskPriority.BATCH, System.currentTimeMillis() + 100)
+        );
+
+        assertThatThrownBy(() -> expired.get(2, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(DefaultBrowserWorkerBusyException.class);
+        holderRelease.countDown();
+        holder.get(2, TimeUnit.SECONDS);
+        assertThat(executed).containsExactly("holder");
+    }
+
+    @Test
+    public void shouldRejectTaskWithPassedDeadlineWithoutUsingIdleWorker() {
+        workerPool = createPool(5000);
+
+        assertThatThrownBy(() -> workerPool.execute(
+            new RecordingTask("stale", BrowserTaskPriority.INTERACTIVE, System.currentTimeMillis() - 1)
+        )).isInstanceOf(DefaultBrowserWorkerBusyException.class);
+        assertThat(executed).isEmpty();
+        assertThat(workerPool.launchedWorkers.get()).isZero();
+    }
+
+    @Test
+    public void shouldTimeoutWithBusyExceptionWhenSaturated() throws Exception {
+        workerPool = createPool(100);
+        CountDownLatch holderRelease = new CountDownLatch(1);
+        CompletableFuture<String> holder = submit(new HoldingTask("holder", holderRelease));
+        waitUntilExecuted("holder");
+
+        assertThatThrownBy(() -> workerPool.execute(new RecordingTask("waiter", BrowserTaskPriority.INTERACTIVE, 0L)))
+            .isInstanceOf(DefaultBrowserWorkerBusyException.class);
+
+        holderRelease.countDown();
+        holder.get(2, TimeUnit.SECONDS);
+        assertThat(workerPool.execute(new RecordingTask("next", BrowserTaskPriority.INTERACTIVE, 0L))).isEqualTo("next");
+        assertThat(workerPool.launchedWorkers.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldWakeCancelledWaiterBeforeQueueTimeout() throws Exception {
+        workerPool = createPool(5000);
+        CountDownLatch holderRelease = new CountDownLatch(1);
+        CompletableFuture<String> holder = submit(new HoldingTask("holder", holderRelease));
+        waitUntilExecuted("holder");
+
+        CancellationToken cancellationToken = CancellationToken.create();
+        CompletableFuture<String> cancelled = submit(new CancellableTask("cancelled", cancellationToken));
+        CompletableFuture<String> next = submit(new RecordingTask("next", BrowserTaskPriority.BATCH, 0L));
+        Thread.sleep(100);
+        cancellationToken.cancel("client cancelled");
+
+        assertThatThrownBy(() -> cancelled.get(1, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(BrowserTaskCancelledException.class)
+            .hasMessageContaining("client cancelled");
+        holderRelease.countDown();
+        holder.get(2, TimeUnit.SECONDS);
+        next.get(2, TimeUnit.SECONDS);
+        assertThat(executed).containsExactly("holder", "next");
+        assertThat(workerPool.launchedWorkers.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotStartCancelledTask() {
+        workerPool = createPool(5000);
+        CancellationToken cancellationToken = CancellationToken.create();
+        cancellationToken.cancel("client cancelled");
+
+        assertThatThrownBy(() -> workerPool.execute(new CancellableTask("cancelled", cancellationToken)))
+            .isInstanceOf(BrowserTaskCancelledException.class);
+        assertThat(executed).isEmpty();
+        assertThat(workerPool.launchedWorkers.get()).isZero();
+    }
+
+    @Test
+    public void shouldRecordAcquireOutcomeAndExposeWorkerCounts() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        try {
+            workerPool = createPool(5000);
+
+            assertThat(workerPool.execute(new RecordingTask("first", BrowserTaskPriority.INTERACTIVE, 0L))).isEqualTo("first");
+            assertThatThrownBy(() -> workerPool.execute(
+                new RecordingTask("stale", BrowserTaskPriority.INTERACTIVE, System.currentTimeMillis() - 1)
+            )).isInstanceOf(DefaultBrowserWorkerBusyException.class);
+
+            assertThat(meterRegistry.get("mmh.browser.pool.acquire").tags("pool", "stub", "outcome", "acquired").timer().count())
+                .isEqualTo(1);
+            assertThat(meterRegistry.get("mmh.browser.pool.acquire").tags("pool", "stub", "outcome", "busy").timer().count())
+                .isEqualTo(1);
+            assertThat(meterRegistry.get("mmh.browser.worker.create").tags("pool", "stub", "outcome", "success").timer().count())
+                .isEqualTo(1);
+            assertThat(workerPool.getActiveWorkerCount()).isEqualTo(1);
+            assertThat(workerPool.getIdleWorkerCount()).isEqualTo(1);
+            assertThat(workerPool.getMaxWorkerCount()).isEqualTo(1);
+            assertThat(workerPool.getWaiterCount()).isZero();
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+            meterRegistry.close();
+        }
+    }
+
+    @Test
+    public void shouldRemovePoolGaugesOnShutdownSoSameNamedPoolReportsItself() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        try {
+            StubBrowserWorkerPool firstPool = createPool(5000);
+            firstPool.execute(new RecordingTask("first", BrowserTaskPriority.INTERACTIVE, 0L));
+            assertThat(meterRegistry.get("mmh.browser.pool.workers").tags("pool", "stub", "state", "active").gauge().value())
+                .isEqualTo(1D);
+
+            firstPool.shutdown();
+            assertThat(meterRegistry.find("mmh.browser.pool.workers").tags("pool", "stub").gauges()).isEmpty();
+            assertThat(meterRegistry.find("mmh.browser.pool.waiters").tags("pool", "stub").gauge()).isNull();
+
+            workerPool = new StubBrowserWorkerPool(
+                WorkerPoolConfig.builder().minWorkers(0).maxWorkers(3).queueTimeoutMs(5000).build(),
+                tempDir
+            );
+            assertThat(meterRegistry.get("mmh.browser.pool.workers").tags("pool", "stub", "state", "max").gauge().value())
+                .isEqualTo(3D);
+            assertThat(meterRegistry.get("mmh.browser.pool.workers").tags("pool", "stub", "state", "active").gauge().value())
+                .isZero();
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+            meterRegistry.close();
+        }
+    }
+
+    @Test
+    public void shouldRecycleWorkerAfterMaxTasks() {
+        workerPool = new StubBrowserWorkerPool(
+            WorkerPoolConfig.builder().minWorkers(0).maxWorkers(1).queueTimeoutMs(5000).workerMaxTasks(2).build(),
+            tempDir
+        );
+
+        workerPool.execute(new RecordingTask("first", BrowserTaskPriority.INTERACTIVE, 0L));
+        workerPool.execute(new RecordingTask("second", BrowserTaskPriority.INTERACTIVE, 0L));
+        workerPool.execute(new RecordingTask("third", BrowserTaskPriority.INTERACTIVE, 0L));
+
+        assertThat(workerPool.launchedWorkers.get()).isEqualTo(2);
+        verify(workerPool.browserContexts.get(0)).close();
+        assertThat(workerPool.getActiveWorkerCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReplaceDeadIdleWorkerDuringMaintenance() {
+        workerPool = createPool(5000);
+        workerPool.execute(new RecordingTask("first", BrowserTaskPriority.INTERACTIVE, 0L));
+        BrowserContext deadContext = workerPool.browserContexts.get(0);
+        when(deadContext.cookies(anyString())).thenThrow(new PlaywrightException("Target page, context or browser has been closed"));
+
+        workerPool.maintainIdleWorkers();
+
+        verify(deadContext).close();
+        assertThat(workerPool.launchedWorkers.get()).isEqualTo(2);
+        assertThat(workerPool.getActiveWorkerCount()).isEqualTo(1);
+        assertThat(workerPool.getIdleWorkerCount()).isEqualTo(1);
+        assertThat(workerPool.execute(new RecordingTask("next", BrowserTaskPriority.INTERACTIVE, 0L))).isEqualTo("next");
+    }
+
+    @Test
+    public void shouldKeepHealthyIdleWorkerDuringMaintenance() {
+        workerPool = createPool(5000);
+        workerPool.execute(new RecordingTask("first", BrowserTaskPriority.INTERACTIVE, 0L));
+
+        workerPool.maintainIdleWorkers();
+
+        verify(workerPool.browserContexts.get(0), never()).close();
+        assertThat(workerPool.launchedWorkers.get()).isEqualTo(1);
+        assertThat(workerPool.getIdleWorkerCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldShrinkIdleWorkersDownToMinAfterIdleTimeout() throws Exception {
+        workerPool = new StubBrowserWorkerPool(
+            WorkerPoolConfig.builder().minWorkers(0).maxWorkers(2).queueTimeoutMs(5000).idleTimeoutMs(300).build(),
+            tempDir
+        );
+        CountDownLatch holderRelease = new CountDownLatch(1);
+        CompletableFuture<String> first = submit(new HoldingTask("first", holderRelease));
+        CompletableFuture<String> second = submit(new HoldingTask("second", holderRelease));
+        waitUntilExecuted("first");
+        waitUntilExecuted("second");
+        holderRelease.countDown();
+        first.get(2, TimeUnit.SECONDS);
+        second.get(2, TimeUnit.SECONDS);
+        assertThat(workerPool.getIdleWorkerCount()).isEqualTo(2);
+
+        workerPool.maintainIdleWorkers();
+        assertThat(workerPool.getActiveWorkerCount()).isEqualTo(2);
+
+        Thread.sleep(400);
+        workerPool.maintainIdleWorkers();
+
+        assertThat(workerPool.getActiveWorkerCount()).isZero();
+        assertThat(workerPool.getIdleWorkerCount()).isZero();
+        verify(workerPool.browserContexts.get(0)).close();
+        verify(workerPool.browserContexts.get(1)).close();
+    }
+
+    @Test
+    public void shouldShrinkIdleWorkersOnScheduleWithoutHealthChecks() throws Exception {
+        workerPool = new StubBrowserWorkerPool(
+            WorkerPoolConfig.builder().minWorkers(0).maxWorkers(1).queueTimeoutMs(5000).idleTimeoutMs(50).build(),
+            tempDir
+        );
+        assertThat(workerPool.execute(new RecordingTask("only", BrowserTaskPriority.INTERACTIVE, 0L))).isEqualTo("only");
+        assertThat(workerPool.getIdleWorkerCount()).isEqualTo(1);
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (workerPool.getActiveWorkerCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(workerPool.getActiveWorkerCount()).isZero();
+        verify(workerPool.browserContexts.get(0)).close();
+    }
+
+    @Test
+    public void shouldPrespawnSpareWorkerAtHighWaterMark() throws Exception {
+        workerPool = new StubBrowserWorkerPool(
+            WorkerPoolConfig.builder().minWorkers(0).maxWorkers(2).queueTimeoutMs(5000).prespawnHighWaterMark(0.5).build(),
+            tempDir
+        );
+        CountDownLatch holderRelease = new CountDownLatch(1);
+        CompletableFuture<String> holder = submit(new HoldingTask("holder", holderRelease));
+        waitUntilExecuted("holder");
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (workerPool.getIdleWorkerCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(workerPool.launchedWorkers.get()).isEqualTo(2);
+        assertThat(workerPool.getIdleWorkerCount()).isEqualTo(1);
+        assertThat(workerPool.getBusyWorkerCount()).isEqualTo(1);
+        holderRelease.countDown();
+        holder.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldLaunchWorkerOnLauncherThread() throws Exception {
+        workerPool = new StubBrowserWorkerPool(
+            WorkerPoolConfig.builder().minWorkers(0).maxWorkers(2).queueTimeoutMs(5000).launchParallelism(1).build(),
+            tempDir
+        );
+
+        String result = submit(new RecordingTask("first", BrowserTaskPriority.INTERACTIVE, 0L)).get(2, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo("first");
+        assertThat(workerPool.launchThreads).containsExactly("mmh-stub-launcher-1");
+        assertThat(workerPool.getIdleWorkerCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldHandReturnedWorkerToWaiterAndSkipUnneededLaunch() throws Exception {
+        workerPool = new StubBrowserWorkerPool(
+            WorkerPoolConfig.builder().minWorkers(0).maxWorkers(3).queueTimeoutMs(5000).launchParallelism(1).build(),
+            tempDir
+        );
+        CountDownLatch holderRelease = new CountDownLatch(1);
+        CompletableFuture<String> holder = submit(new HoldingTask("holder", holderRelease));
+        waitUntilExecuted("holder");
+
+        CountDownLatch launchGate = new CountDownLatch(1);
+        workerPool.launchGate = launchGate;
+        CompletableFuture<String> first = submit(new RecordingTask("first", BrowserTaskPriority.INTERACTIVE, 0L));
+        CompletableFuture<String> second = submit(new RecordingTask("second", BrowserTaskPriority.INTERACTIVE, 0L));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (workerPool.getWaiterCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(workerPool.getWaiterCount()).isEqualTo(2);
+
+        // The holder's worker serves both waiters while the first launch is still blocked.
+        holderRelease.countDown();
+        holder.get(2, TimeUnit.SECONDS);
+        first.get(2, TimeUnit.SECONDS);
+        second.get(2, TimeUnit.SECONDS);
+        assertThat(workerPool.launchedWorkers.get()).isEqualTo(1);
+
+        launchGate.countDown();
+        deadline = System.currentTimeMillis() + 2000;
+        while (workerPool.getIdleWorkerCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+
+        // The blocked launch lands in the idle queue, the queued one is dropped.
+        assertThat(workerPool.launchedWorkers.get()).isEqualTo(2);
+        assertThat(workerPool.getActiveWorkerCount()).isEqualTo(2);
+        assertThat(workerPool.getIdleWorkerCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldFailWaiterWhenBackgroundLaunchFails() throws Exception {
+        workerPool = new StubBrowserWorkerPool(
+            WorkerPoolConfig.builder().minWorkers(0).maxWorkers(2).queueTimeoutMs(5000).launchParallelism(1).build(),
+            tempDir
+        );
+        workerPool.launchFailure = new IllegalStateException("launch failed");
+
+        CompletableFuture<String> future = submit(new RecordingTask("first", BrowserTaskPriority.INTERACTIVE, 0L));
+
+        assertThatThrownBy(() -> future.get(2, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasRootCauseMessage("launch failed");
+        long deadline = System.currentTimeMillis() + 2000;
+        while (workerPool.getActiveWorkerCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertThat(workerPool.getActiveWorkerCount()).isZero();
+        assertThat(workerPool.getWaiterCount()).isZero();
+    }
+
+    private StubBrowserWorkerPool createPool(long queueTimeoutMs) {
+        WorkerPoolConfig config = WorkerPoolConfig.builder()
+            .minWorkers(0)
+            .maxWorkers(1)
+            .queueTimeoutMs(queueTimeoutMs)
+            .build();
+        return new StubBrowserWorkerPool(config, tempDir);
+    }
+
+    private CompletableFuture<String> submit(BrowserTask<String> task) {
+        return CompletableFuture.supplyAsync(() -> workerPool.execute(task), callers);
+    }
+
+    private void waitUntilExecuted(String name) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!executed.contains(name) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executed).contains(name);
+    }
+
+    private class RecordingTask implements BrowserTask<String> {
+
+        private final String name;
+        private final BrowserTaskPriority priority;
+        private final long deadlineAtMs;
+
+        private RecordingTask(String name, BrowserTaskPriority priority, long deadlineAtMs) {
+            this.name = name;
+            this.priority = priority;
+            this.deadlineAtMs = deadlineAtMs;
+        }
+
+        @Override
+        public String execute(BrowserRuntimeContext context) throws Exception {
+            executed.add(name);
+            return name;
+        }
+
+        @Override
+        public BrowserTaskPriority priority() {
+            return priority;
+        }
+
+        @Override
+        public long deadlineAtMs() {
+            return deadlineAtMs;
+        }
+
+    }
+
+    private class CancellableTask extends RecordingTask {
+
+        private final CancellationToken cancellationToken;
+
+        private CancellableTask(String name, CancellationToken cancellationToken) {
+            super(name, BrowserTaskPriority.INTERACTIVE, 0L);
+            this.cancellationToken = cancellationToken;
+        }
+
+        @Override
+        public CancellationToken cancellationToken() {
+            return cancellationToken;
+        }
+
+    }
+
+    private class HoldingTask extends RecordingTask {
+
+        private final CountDownLatch release;
+
+        private HoldingTask(String name, CountDownLatch release) {
+            super(name, BrowserTaskPriority.INTERACTIVE, 0L);
+            this.release = release;
+        }
+
+        @Override
+        public String execute(BrowserRuntimeContext context) throws Exception {
+            String result = super.execute(context);
+            release.await(5, TimeUnit.SECONDS);
+            return result;
+        }
+
+    }
+
+    private static class StubBrowserWorkerPool extends BrowserWorkerPool {
+
+        private final AtomicInteger launchedWorkers = new AtomicInteger();
+
+        private final List<BrowserContext> browserContexts = new CopyOnWriteArrayList<>();
+
+        private final List<String> launchThreads = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch launchGate;
+
+        private volatile RuntimeException launchFailure;
+
+        private StubBrowserWorkerPool(WorkerPoolConfig config, Path profileRoot) {
+            super("stub", config, profileRoot, new BrowserProperties(), mock(LoginLockManager.class));
+            initializeMinWorkers();
+        }
+
+        @Override
+        protected String allocateProfileId() {
+            return "stub_" + launchedWorkers.get();
+        }
+
+        @Override
+        protected RuntimeException createBusyException() {
+            return new DefaultBrowserWorkerBusyException("stub browser worker pool is busy");
+        }
+
+        @Override
+        protected BrowserProperties.BrowserProfileProperties resolveProfileProperties() {
+            return browserProperties.resolveDefaultProfile();
+        }
+
+        @Override
+        protected BrowserWorker launchWorker(String profileId) throws Exception {
+            launchThreads.add(Thread.currentThread().getName());
+            CountDownLatch gate = launchGate;
+            if (gate != null) {
+                gate.await(5, TimeUnit.SECONDS);
+            }
+            if (launchFailure != null) {
+                throw launchFailure;
+            }
+            launchedWorkers.incrementAndGet();
+            BrowserContext browserContext = mock(BrowserContext.class);
+            when(browserContext.newPage()).thenReturn(mock(Page.class));
+            browserContexts.add(browserContext);
+            return new BrowserWorker(profileId, null, false, null, browserContext, null);
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package fun.fengwk.mmh.core.service.browser.runtime;
 import fun.fengwk.mmh.core.service.browser.coordination.LoginLockManager;
 
 import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -11,9 +12,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author fengwk
@@ -76,4 +81,79 @@ public class BrowserWorkerTest {
         assertThat(Files.exists(nestedFile)).isTrue();
     }
 
+    @Test
+    public void shouldReuseWarmPageAcrossTasks() throws Exception {
+        BrowserContext browserContext = mock(BrowserContext.class);
+        Page page = mock(Page.class);
+        when(browserContext.newPage()).thenReturn(page);
+        BrowserWorker worker = new BrowserWorker("shared_1", null, false, null, browserContext, null, 5);
+
+        worker.preparePage();
+        Page firstPage = worker.execute(BrowserRuntimeContext::getPage);
+        worker.preparePage();
+        Page secondPage = worker.execute(BrowserRuntimeContext::getPage);
+
+        assertThat(firstPage).isSameAs(page);
+        assertThat(secondPage).isSameAs(page);
+        verify(browserContext, times(1)).newPage();
+        verify(page, times(1)).unrouteAll(any(Page.UnrouteAllOptions.class));
+        verify(page, times(1)).navigate("about:blank");
+        verify(page, never()).close();
+    }
+
+    @Test
+    public void shouldRecycleWarmPageAfterMaxUses() throws Exception {
+        BrowserContext browserContext = mock(BrowserContext.class);
+        Page firstPage = mock(Page.class);
+        Page secondPage = mock(Page.class);
+        when(browserContext.newPage()).thenReturn(firstPage, secondPage);
+        BrowserWorker worker = new BrowserWorker("shared_1", null, false, null, browserContext, null, 2);
+
+        worker.preparePage();
+        worker.execute(BrowserRuntimeContext::getPage);
+        worker.preparePage();
+        worker.execute(BrowserRuntimeContext::getPage);
+        worker.preparePage();
+        Page thirdTaskPage = worker.execute(BrowserRuntimeContext::getPage);
+
+        assertThat(thirdTaskPage).isSameAs(secondPage);
+        verify(firstPage).close();
+        verify(browserContext, times(2)).newPage();
+    }
+
+    @Test
+    public void shouldRecycleWarmPageWhenTaskFails() throws Exception {
+        BrowserContext browserContext = mock(BrowserContext.class);
+        Page firstPage = mock(Page.class);
+        Page secondPage = mock(Page.class);
+        when(browserContext.newPage()).thenReturn(firstPage, secondPage);
+        BrowserWorker worker = new BrowserWorker("shared_1", null, false, null, browserContext, null, 5);
+
+        worker.preparePage();
+        assertThatThrownBy(() -> worker.execute(context -> {
+            throw new IllegalStateException("navigation failed");
+        })).isInstanceOf(IllegalStateException.class);
+        worker.preparePage();
+        Page nextTaskPage = worker.execute(BrowserRuntimeContext::getPage);
+
+        assertThat(nextTaskPage).isSameAs(secondPage);
+        verify(firstPage).close();
+        verify(firstPage, never()).navigate("about:blank");
+    }
+
+    @Test
+    public void shouldOpenPagePerTaskWhenReuseDisabled() throws Exception {
+        BrowserContext browserContext = mock(BrowserContext.class);
+        Page page = mock(Page.class);
+        when(browserContext.newPage()).thenReturn(page);
+        BrowserWorker worker = new BrowserWorker("slave_1_1", null, false, null, browserContext, null);
+
+        worker.preparePage();
+        worker.execute(BrowserRuntimeContext::getPage);
+        worker.execute(BrowserRuntimeContext::getPage);
+
+        verify(browserContext, times(2)).newPage();
+        verify(page, times(2)).close();
+    }
+
 }
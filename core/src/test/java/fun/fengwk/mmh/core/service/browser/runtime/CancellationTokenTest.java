@@ -0,0 +1,65 @@
+package fun.fengwk.mmh.core.service.browser.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author fengwk
+ */
+public class CancellationTokenTest {
+
+    @Test
+    public void shouldRunCallbacksOnceWhenCancelled() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        AtomicInteger calls = new AtomicInteger();
+        cancellationToken.onCancel(calls::incrementAndGet);
+
+        assertThat(cancellationToken.cancel("client cancelled")).isTrue();
+        assertThat(cancellationToken.cancel("again")).isFalse();
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cancellationToken.isCancelled()).isTrue();
+        assertThat(cancellationToken.getReason()).isEqualTo("client cancelled");
+        assertThatThrownBy(cancellationToken::throwIfCancelled)
+            .isInstanceOf(BrowserTaskCancelledException.class)
+            .hasMessage("task cancelled: client cancelled");
+    }
+
+    @Test
+    public void shouldRunLateCallbackImmediately() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        cancellationToken.cancel(null);
+        AtomicInteger calls = new AtomicInteger();
+
+        cancellationToken.onCancel(calls::incrementAndGet);
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(cancellationToken.getReason()).isEqualTo("cancelled");
+    }
+
+    @Test
+    public void shouldSkipClosedRegistration() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        AtomicInteger calls = new AtomicInteger();
+        CancellationToken.Registration registration = cancellationToken.onCancel(calls::incrementAndGet);
+
+        registration.close();
+        cancellationToken.cancel("client cancelled");
+
+        assertThat(calls.get()).isZero();
+    }
+
+    @Test
+    public void shouldNeverCancelNoneToken() {
+        CancellationToken cancellationToken = CancellationToken.none();
+
+        assertThat(cancellationToken.cancel("client cancelled")).isFalse();
+        assertThat(cancellationToken.isCancelled()).isFalse();
+        cancellationToken.throwIfCancelled();
+    }
+
+}
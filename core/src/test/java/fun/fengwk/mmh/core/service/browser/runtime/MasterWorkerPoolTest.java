@@ -3,6 +3,8 @@ package fun.fengwk.mmh.core.service.browser.runtime;
 import fun.fengwk.mmh.core.service.browser.BrowserProperties;
 import fun.fengwk.mmh.core.service.browser.coordination.LoginLockManager;
 import fun.fengwk.mmh.core.service.scrape.runtime.MasterProfileLockedException;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -11,12 +13,17 @@ import org.mockito.ArgumentCaptor;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -84,4 +91,108 @@ public class MasterWorkerPoolTest {
         assertThat(masterWorkerPool.config.getQueueTimeoutMs()).isEqualTo(1500);
     }
 
+    @Test
+    public void shouldCloseMasterWorkerAfterEachTaskWithoutKeepAlive() {
+        LoginLockManager loginLockManager = mockLoginLockManager();
+        StubMasterBrowserWorkerPool pool = new StubMasterBrowserWorkerPool(
+            tempDir.resolve("browser-data"),
+            new BrowserProperties(),
+            loginLockManager
+        );
+        masterWorkerPool = pool;
+
+        masterWorkerPool.execute(context -> "first");
+        masterWorkerPool.execute(context -> "second");
+
+        assertThat(pool.launchedWorkers.get()).isEqualTo(2);
+        assertThat(masterWorkerPool.getActiveWorkerCount()).isZero();
+    }
+
+    @Test
+    public void shouldKeepMasterWorkerWarmUntilReleaseRequested() {
+        LoginLockManager loginLockManager = mockLoginLockManager();
+        LoginLockManager.LoginLock profileLock = mock(LoginLockManager.LoginLock.class);
+        when(loginLockManager.tryAcquire(any(Path.class), anyLong(), anyLong())).thenReturn(profileLock);
+        BrowserProperties browserProperties = new BrowserProperties();
+        browserProperties.setMasterWorkerKeepAliveMs(60000);
+        StubMasterBrowserWorkerPool pool = new StubMasterBrowserWorkerPool(
+            tempDir.resolve("browser-data"),
+            browserProperties,
+            loginLockManager
+        );
+        masterWorkerPool = pool;
+
+        masterWorkerPool.execute(context -> "first");
+        masterWorkerPool.execute(context -> "second");
+
+        assertThat(pool.launchedWorkers.get()).isEqualTo(1);
+        assertThat(masterWorkerPool.getIdleWorkerCount()).isEqualTo(1);
+        verify(profileLock, never()).close();
+
+        when(loginLockManager.isReleaseRequested(any(Path.class), anyLong())).thenReturn(true);
+        masterWorkerPool.maintainIdleWorkers();
+
+        assertThat(masterWorkerPool.getActiveWorkerCount()).isZero();
+        verify(profileLock).close();
+        assertThatThrownBy(() -> masterWorkerPool.execute(context -> "third"))
+            .isInstanceOf(MasterProfileLockedException.class);
+        assertThat(pool.launchedWorkers.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldHandOffIdleMasterWorkerWithoutHealthChecks() throws Exception {
+        LoginLockManager loginLockManager = mockLoginLockManager();
+        BrowserProperties browserProperties = new BrowserProperties();
+        browserProperties.setMasterWorkerKeepAliveMs(60000);
+        browserProperties.setWorkerHealthCheckIntervalMs(0);
+        StubMasterBrowserWorkerPool pool = new StubMasterBrowserWorkerPool(
+            tempDir.resolve("browser-data"),
+            browserProperties,
+            loginLockManager
+        );
+        masterWorkerPool = pool;
+        masterWorkerPool.execute(context -> "first");
+        assertThat(masterWorkerPool.getIdleWorkerCount()).isEqualTo(1);
+
+        when(loginLockManager.isReleaseRequested(any(Path.class), anyLong())).thenReturn(true);
+        long deadline = System.currentTimeMillis() + 3000;
+        while (masterWorkerPool.getActiveWorkerCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(masterWorkerPool.getActiveWorkerCount()).isZero();
+        // The release check never pings the warm worker.
+        verify(pool.browserContexts.get(0), never()).cookies(anyString());
+    }
+
+    private LoginLockManager mockLoginLockManager() {
+        LoginLockManager loginLockManager = mock(LoginLockManager.class);
+        when(loginLockManager.tryAcquire(any(Path.class), anyLong(), anyLong()))
+            .thenAnswer(invocation -> mock(LoginLockManager.LoginLock.class));
+        return loginLockManager;
+    }
+
+    private static class StubMasterBrowserWorkerPool extends MasterBrowserWorkerPool {
+
+        private final AtomicInteger launchedWorkers = new AtomicInteger();
+
+        private final List<BrowserContext> browserContexts = new CopyOnWriteArrayList<>();
+
+        private StubMasterBrowserWorkerPool(Path profileRoot, BrowserProperties browserProperties, LoginLockManager loginLockManager) {
+            super(profileRoot, "master", browserProperties, loginLockManager, 0);
+        }
+
+        @Override
+        protected BrowserWorker launchWorker(String profileId) {
+            Path userDataDir = profileRoot.resolve(profileId);
+            LoginLockManager.LoginLock profileLock = acquireProfileLock(profileId, userDataDir);
+            launchedWorkers.incrementAndGet();
+            BrowserContext browserContext = mock(BrowserContext.class);
+            when(browserContext.newPage()).thenReturn(mock(Page.class));
+            browserContexts.add(browserContext);
+            return new BrowserWorker(profileId, userDataDir, false, null, browserContext, profileLock);
+        }
+
+    }
+
 }
@@ -2,7 +2,10 @@ package fun.fengwk.mmh.core.service.impl;
 
 import fun.fengwk.mmh.core.facade.search.SearchFacade;
 import fun.fengwk.mmh.core.facade.search.model.SearchResponse;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
 import fun.fengwk.mmh.core.service.scrape.PageScrapeService;
+import fun.fengwk.mmh.core.service.scrape.model.BatchScrapeRequest;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -66,7 +70,12 @@ public class UtilMcpServiceImplTest {
             .build();
         when(pageScrapeService.scrape(any())).thenReturn(response);
 
-        ScrapeResponse result = utilMcpService.scrape("https://example.com", "html", true, 100, "master");
+        CancellationToken cancellationToken = CancellationToken.create();
+        ScrapeProgressListener progressListener = new ScrapeProgressListener() {
+        };
+        ScrapeResponse result = utilMcpService.scrape(
+            "https://example.com", "html", true, 100, "master", cancellationToken, progressListener
+        );
 
         assertThat(result).isEqualTo(response);
         ArgumentCaptor<fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest> captor =
@@ -77,6 +86,29 @@ public class UtilMcpServiceImplTest {
         assertThat(captor.getValue().getProfileMode()).isEqualTo("master");
         assertThat(captor.getValue().getOnlyMainContent()).isTrue();
         assertThat(captor.getValue().getWaitFor()).isEqualTo(100);
+        assertThat(captor.getValue().getCancellationToken()).isSameAs(cancellationToken);
+        assertThat(captor.getValue().getProgressListener()).isSameAs(progressListener);
+    }
+
+    @Test
+    public void testBatchScrape() {
+        List<ScrapeResponse> responses = List.of(ScrapeResponse.builder().statusCode(200).build());
+        when(pageScrapeService.batchScrape(any())).thenReturn(responses);
+
+        List<ScrapeResponse> result = utilMcpService.batchScrape(
+            List.of("https://example.com"), "markdown", true, 100, "default", 2, CancellationToken.none(), ScrapeProgressListener.NOOP
+        );
+
+        assertThat(result).isEqualTo(responses);
+        ArgumentCaptor<BatchScrapeRequest> captor = ArgumentCaptor.forClass(BatchScrapeRequest.class);
+        verify(pageScrapeService).batchScrape(captor.capture());
+        assertThat(captor.getValue().getUrls()).containsExactly("https://example.com");
+        assertThat(captor.getValue().getFormat()).isEqualTo("markdown");
+        assertThat(captor.getValue().getProfileMode()).isEqualTo("default");
+        assertThat(captor.getValue().getOnlyMainContent()).isTrue();
+        assertThat(captor.getValue().getWaitFor()).isEqualTo(100);
+        assertThat(captor.getValue().getConcurrency()).isEqualTo(2);
+        assertThat(captor.getValue().getProgressListener()).isSameAs(ScrapeProgressListener.NOOP);
     }
 
     @Test
@@ -0,0 +1,249 @@
+package fun.fengwk.mmh.core.service.scrape.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import fun.fengwk.mmh.core.configuration.MmhProperties;
+import fun.fengwk.mmh.core.service.browser.runtime.ProfileType;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fengwk
+ */
+public class ScrapeCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldHitMemoryAfterPut() {
+        ScrapeCache cache = newCache(newProperties());
+        ScrapeCacheKey key = key("https://example.com/a", ScrapeFormat.MARKDOWN);
+
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, response("hello"));
+        ScrapeResponse cached = cache.get(key);
+
+        assertThat(cached.getContent()).isEqualTo("hello");
+        assertThat(cached.getStatusCode()).isEqualTo(200);
+        assertThat(cache.getStats().getMemoryHits()).isEqualTo(1);
+        assertThat(cache.getStats().getMisses()).isEqualTo(1);
+        assertThat(cache.getStats().getPuts()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReturnIndependentCopies() {
+        ScrapeCache cache = newCache(newProperties());
+        ScrapeCacheKey key = key("https://example.com/a", ScrapeFormat.LINKS);
+        cache.put(key, ScrapeResponse.builder().statusCode(200).format("links").links(List.of("https://a.com")).build());
+
+        cache.get(key).setElapsedMs(100L);
+
+        assertThat(cache.get(key).getElapsedMs()).isNull();
+    }
+
+    @Test
+    public void shouldHitDiskAcrossInstances() {
+        ScrapeProperties properties = newProperties();
+        ScrapeCacheKey key = key("https://example.com/a", ScrapeFormat.HTML);
+        newCache(properties).put(key, response("<p>disk</p>"));
+
+        ScrapeCache restarted = newCache(properties);
+
+        assertThat(restarted.get(key).getContent()).isEqualTo("<p>disk</p>");
+        assertThat(restarted.getStats().getDiskHits()).isEqualTo(1);
+        assertThat(restarted.get(key)).isNotNull();
+        assertThat(restarted.getStats().getMemoryHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCacheErrorsOrNoStoreResponses() {
+        ScrapeCache cache = newCache(newProperties());
+        ScrapeCacheKey key = key("https://example.com/a", ScrapeFormat.MARKDOWN);
+
+        cache.put(key, ScrapeResponse.builder().statusCode(500).error("boom").build());
+        ScrapeResponse noStore = response("private");
+        noStore.setCacheControl("private, no-store");
+        cache.put(key, noStore);
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.getStats().getPuts()).isZero();
+    }
+
+    @Test
+    public void shouldKeepPrivateResponsesInMemoryOnly() {
+        ScrapeProperties properties = newProperties();
+        ScrapeCache cache = newCache(properties);
+        ScrapeCacheKey key = key("https://example.com/account", ScrapeFormat.MARKDOWN);
+        cache.put(key, response("public copy"));
+        ScrapeResponse privateResponse = response("my account");
+        privateResponse.setCacheControl("private, max-age=60");
+
+        cache.put(key, privateResponse);
+
+        assertThat(cache.get(key).getContent()).isEqualTo("my account");
+        // The earlier public copy on disk is dropped as well.
+        assertThat(newCache(properties).get(key)).isNull();
+    }
+
+    @Test
+    public void shouldKeepMasterProfileResultsInMemoryOnly() {
+        ScrapeProperties properties = newProperties();
+        ScrapeCache cache = newCache(properties);
+        ScrapeCacheKey key = ScrapeCacheKey.of("https://example.com/feed", ScrapeFormat.MARKDOWN, true, ProfileType.MASTER);
+
+        cache.put(key, response("logged in feed"));
+
+        assertThat(cache.get(key).getContent()).isEqualTo("logged in feed");
+        assertThat(newCache(properties).get(key)).isNull();
+        assertThat(cache.isDiskAllowed(key, null)).isFalse();
+        assertThat(cache.isDiskAllowed(key("https://example.com/a", ScrapeFormat.MARKDOWN), "public, max-age=60")).isTrue();
+    }
+
+    @Test
+    public void shouldKeepPrivateEntryOffDiskAfterRevalidation() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = startNotModifiedServer(requests);
+        try {
+            ScrapeProperties properties = newProperties();
+            ScrapeCache cache = newCache(properties);
+            ScrapeCacheKey key = key(baseUrl(server) + "/account", ScrapeFormat.MARKDOWN);
+            ScrapeResponse response = response("my account");
+            response.setCacheControl("private, no-cache");
+            response.setEtag("\"v1\"");
+            cache.put(key, response);
+
+            assertThat(cache.get(key).getContent()).isEqualTo("my account");
+            assertThat(requests.get()).isEqualTo(1);
+            assertThat(newCache(properties).get(key)).isNull();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldKeepRevalidatingNoCacheEntryAfterNotModified() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = startNotModifiedServer(requests);
+        try {
+            ScrapeCache cache = newCache(newProperties());
+            ScrapeCacheKey key = key(baseUrl(server) + "/feed", ScrapeFormat.MARKDOWN);
+            ScrapeResponse response = response("feed");
+            response.setCacheControl("no-cache");
+            response.setEtag("\"v1\"");
+            cache.put(key, response);
+
+            assertThat(cache.get(key).getContent()).isEqualTo("feed");
+            assertThat(cache.get(key).getContent()).isEqualTo("feed");
+
+            // A 304 must not turn a no-cache entry into one served for the whole format ttl.
+            assertThat(requests.get()).isEqualTo(2);
+            assertThat(cache.getStats().getRevalidatedHits()).isEqualTo(2);
+            assertThat(cache.getStats().getMemoryHits()).isZero();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldLetCacheControlShortenFormatTtl() {
+        ScrapeCache cache = newCache(newProperties());
+
+        assertThat(cache.resolveTtlMs(ScrapeFormat.MARKDOWN, null)).isEqualTo(600_000L);
+        assertThat(cache.resolveTtlMs(ScrapeFormat.MARKDOWN, "public, max-age=30")).isEqualTo(30_000L);
+        assertThat(cache.resolveTtlMs(ScrapeFormat.MARKDOWN, "max-age=86400")).isEqualTo(600_000L);
+        assertThat(cache.resolveTtlMs(ScrapeFormat.MARKDOWN, "no-cache")).isZero();
+        assertThat(cache.resolveTtlMs(ScrapeFormat.MARKDOWN, "no-store")).isNegative();
+    }
+
+    @Test
+    public void shouldSkipZeroTtlEntryWithoutEtag() {
+        ScrapeCache cache = newCache(newProperties());
+        ScrapeCacheKey key = key("https://example.com/a", ScrapeFormat.MARKDOWN);
+        ScrapeResponse response = response("fresh");
+        response.setCacheControl("max-age=0");
+
+        cache.put(key, response);
+
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedByWeight() {
+        ScrapeProperties properties = newProperties();
+        properties.setCacheDiskEnabled(false);
+        properties.setCacheMemoryMaxWeight(300);
+        ScrapeCache cache = newCache(properties);
+        ScrapeCacheKey first = key("https://example.com/1", ScrapeFormat.MARKDOWN);
+        ScrapeCacheKey second = key("https://example.com/2", ScrapeFormat.MARKDOWN);
+        ScrapeCacheKey third = key("https://example.com/3", ScrapeFormat.MARKDOWN);
+
+        cache.put(first, response("a".repeat(80)));
+        cache.put(second, response("b".repeat(80)));
+        cache.get(first);
+        cache.put(third, response("c".repeat(80)));
+
+        assertThat(cache.get(first)).isNotNull();
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(third)).isNotNull();
+        assertThat(cache.getStats().getEvictions()).isEqualTo(1);
+        assertThat(cache.getStats().getMemoryWeight()).isLessThanOrEqualTo(300);
+    }
+
+    @Test
+    public void shouldNormalizeUrlInKey() {
+        ScrapeCacheKey key = ScrapeCacheKey.of("HTTPS://Example.COM:443?q=1#top", ScrapeFormat.MARKDOWN, null, ProfileType.DEFAULT);
+
+        assertThat(key.url()).isEqualTo("https://example.com/?q=1");
+        assertThat(key).isEqualTo(ScrapeCacheKey.of("https://example.com/?q=1", ScrapeFormat.MARKDOWN, false, ProfileType.DEFAULT));
+        assertThat(key).isNotEqualTo(ScrapeCacheKey.of("https://example.com/?q=1", ScrapeFormat.MARKDOWN, true, ProfileType.DEFAULT));
+        assertThat(key).isNotEqualTo(ScrapeCacheKey.of("https://example.com/?q=1", ScrapeFormat.MARKDOWN, false, ProfileType.MASTER));
+    }
+
+    private static HttpServer startNotModifiedServer(AtomicInteger requests) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private ScrapeProperties newProperties() {
+        ScrapeProperties properties = new ScrapeProperties();
+        properties.setCacheEnabled(true);
+        return properties;
+    }
+
+    private ScrapeCache newCache(ScrapeProperties properties) {
+        MmhProperties mmhProperties = new MmhProperties();
+        mmhProperties.setConfigPath(tempDir.toString());
+        return new ScrapeCache(properties, mmhProperties, new ObjectMapper());
+    }
+
+    private ScrapeCacheKey key(String url, ScrapeFormat format) {
+        return ScrapeCacheKey.of(url, format, true, ProfileType.DEFAULT);
+    }
+
+    private ScrapeResponse response(String content) {
+        return ScrapeResponse.builder().statusCode(200).format("markdown").content(content).build();
+    }
+
+}
@@ -1,8 +1,14 @@
 package fun.fengwk.mmh.core.service.scrape.impl;
 
+import fun.fengwk.mmh.core.service.browser.runtime.BrowserTask;
 import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskExecutor;
 import fun.fengwk.mmh.core.service.browser.runtime.ProfileType;
 import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.cache.ScrapeCache;
+import fun.fengwk.mmh.core.service.scrape.cache.ScrapeCacheKey;
+import fun.fengwk.mmh.core.service.scrape.model.BatchScrapeRequest;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
 import fun.fengwk.mmh.core.service.scrape.parser.HtmlMainContentCleaner;
@@ -10,8 +16,13 @@ import fun.fengwk.mmh.core.service.scrape.parser.LinkExtractor;
 import fun.fengwk.mmh.core.service.scrape.parser.MarkdownPostProcessor;
 import fun.fengwk.mmh.core.service.scrape.parser.MarkdownRenderer;
 import fun.fengwk.mmh.core.service.scrape.runtime.MasterProfileLockedException;
+import fun.fengwk.mmh.core.service.scrape.runtime.ScrapeEvent;
+import fun.fengwk.mmh.core.service.scrape.runtime.ScrapeHostLimiter;
 
 import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,9 +32,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -51,6 +70,9 @@ public class PageScrapeServiceImplTest {
     @Mock
     private LinkExtractor linkExtractor;
 
+    @Mock
+    private ScrapeCache scrapeCache;
+
     private PageScrapeServiceImpl pageScrapeService;
 
     @BeforeEach
@@ -62,7 +84,9 @@ public class PageScrapeServiceImplTest {
             htmlMainContentCleaner,
             markdownRenderer,
             markdownPostProcessor,
-            linkExtractor
+            linkExtractor,
+            scrapeCache,
+            new ScrapeHostLimiter(scrapeProperties)
         );
     }
 
@@ -194,6 +218,33 @@ public class PageScrapeServiceImplTest {
         verify(browserTaskExecutor).execute(eq(ProfileType.DEFAULT), any());
     }
 
+    @Test
+    public void shouldEmitScrapeEventWhenRecording() throws Exception {
+        ScrapeResponse expected = ScrapeResponse.builder().statusCode(200).format("html").content("héllo").build();
+        when(browserTaskExecutor.execute(eq(ProfileType.DEFAULT), any())).thenReturn(expected);
+
+        Path recordingPath = Files.createTempFile("mmh-scrape", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ScrapeEvent.class);
+            recording.start();
+            pageScrapeService.scrape(ScrapeRequest.builder().url("https://Example.com/page").format("html").build());
+            recording.stop();
+            recording.dump(recordingPath);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(recordingPath);
+            assertThat(events).hasSize(1);
+            RecordedEvent event = events.get(0);
+            assertThat(event.getString("host")).isEqualTo("example.com");
+            assertThat(event.getString("format")).isEqualTo("html");
+            assertThat(event.getInt("statusCode")).isEqualTo(200);
+            assertThat(event.getString("outcome")).isEqualTo("success");
+            // UTF-8 bytes, not characters.
+            assertThat(event.getLong("outputSize")).isEqualTo(6L);
+        } finally {
+            Files.deleteIfExists(recordingPath);
+        }
+    }
+
     @Test
     public void shouldTrimUrlBeforeExecute() {
         ScrapeResponse expected = ScrapeResponse.builder().statusCode(200).format("html").content("ok").build();
@@ -260,4 +311,333 @@ public class PageScrapeServiceImplTest {
         assertThat(response.getError()).contains("boom");
     }
 
+    @Test
+    public void shouldServeStaticPageWithoutBrowserWhenHttpFirstEnabled() throws Exception {
+        String html = "<html><body><main><h1>Static</h1><p>" + "server rendered ".repeat(30) + "</p></main></body></html>";
+        HttpServer server = startHtmlServer("/doc", html);
+
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/doc";
+        try {
+            ScrapeResponse response = newHttpFirstScrapeService().scrape(
+                ScrapeRequest.builder().url(url).format("html").onlyMainContent(true).build()
+            );
+
+            assertThat(response.getStatusCode()).isEqualTo(200);
+            assertThat(response.getFormat()).isEqualTo("html");
+            assertThat(response.getContent()).contains("Static").contains("server rendered");
+            verify(browserTaskExecutor, never()).execute(any(ProfileType.class), any());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldFallbackToBrowserWhenStaticPageIsSpaShell() throws Exception {
+        String html = "<html><body><div id=\"app\"></div><script src=\"/app.js\"></script></body></html>";
+        HttpServer server = startHtmlServer("/spa", html);
+
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/spa";
+        ScrapeResponse expected = ScrapeResponse.builder().statusCode(200).format("html").content("ok").build();
+        when(browserTaskExecutor.execute(eq(ProfileType.DEFAULT), any())).thenReturn(expected);
+
+        try {
+            ScrapeResponse response = newHttpFirstScrapeService().scrape(
+                ScrapeRequest.builder().url(url).format("html").build()
+            );
+
+            assertThat(response).isEqualTo(expected);
+            verify(browserTaskExecutor).execute(eq(ProfileType.DEFAULT), any());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void shouldReturnCachedResponseWithoutBrowser() {
+        ScrapeCacheKey cacheKey = ScrapeCacheKey.of("https://example.com", ScrapeFormat.MARKDOWN, true, ProfileType.DEFAULT);
+        ScrapeResponse cached = ScrapeResponse.builder().statusCode(200).format("markdown").content("cached").build();
+        when(scrapeCache.isEnabled()).thenReturn(true);
+        when(scrapeCache.get(cacheKey)).thenReturn(cached);
+
+        ScrapeResponse response = pageScrapeService.scrape(
+            ScrapeRequest.builder().url("https://EXAMPLE.com").format("markdown").onlyMainContent(true).build()
+        );
+
+        assertThat(response.getContent()).isEqualTo("cached");
+        assertThat(response.getElapsedMs()).isNotNull();
+        verify(browserTaskExecutor, never()).execute(any(ProfileType.class), any());
+    }
+
+    @Test
+    public void shouldPutBrowserResponseIntoCacheOnMiss() {
+        ScrapeCacheKey cacheKey = ScrapeCacheKey.of("https://example.com", ScrapeFormat.HTML, null, ProfileType.DEFAULT);
+        ScrapeResponse expected = ScrapeResponse.builder().statusCode(200).format("html").content("ok").build();
+        when(scrapeCache.isEnabled()).thenReturn(true);
+        when(browserTaskExecutor.execute(eq(ProfileType.DEFAULT), any())).thenReturn(expected);
+
+        ScrapeResponse response = pageScrapeService.scrape(
+            ScrapeRequest.builder().url("https://example.com").format("html").build()
+        );
+
+        assertThat(response).isEqualTo(expected);
+        verify(scrapeCache).put(cacheKey, expected);
+    }
+
+    @Test
+    public void shouldKeepInputOrderAndIsolateItemErrorsInBatch() {
+        ScrapeResponse expected = ScrapeResponse.builder().statusCode(200).format("html").content("ok").build();
+        when(browserTaskExecutor.execute(eq(ProfileType.DEFAULT), any())).thenReturn(expected);
+
+        List<ScrapeResponse> responses = pageScrapeService.batchScrape(
+            BatchScrapeRequest.builder()
+                .urls(List.of("https://example.com/a", "ftp://example.com/b", "https://example.com/c"))
+                .format("html")
+                .build()
+        );
+
+        assertThat(responses).hasSize(3);
+        assertThat(responses.get(0).getContent()).isEqualTo("ok");
+        assertThat(responses.get(1).getStatusCode()).isEqualTo(400);
+        assertThat(responses.get(2).getContent()).isEqualTo("ok");
+    }
+
+    @Test
+    public void shouldReportBatchItemCompletion() {
+        ScrapeResponse expected = ScrapeResponse.builder().statusCode(200).format("html").content("ok").build();
+        when(browserTaskExecutor.execute(eq(ProfileType.DEFAULT), any())).thenReturn(expected);
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        pageScrapeService.batchScrape(
+            BatchScrapeRequest.builder()
+                .urls(List.of("https://example.com/a", "ftp://example.com/b"))
+                .format("html")
+                .concurrency(1)
+                .progressListener(new ScrapeProgressListener() {
+                    @Override
+                    public void onItemCompleted(int completed, int total, String url) {
+                        events.add(completed + "/" + total + " " + url);
+                    }
+                })
+                .build()
+        );
+
+        // Failed items count as completed too.
+        assertThat(events).containsExactly("1/2 https://example.com/a", "2/2 ftp://example.com/b");
+    }
+
+    @Test
+    public void shouldCapBatchConcurrency() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setBatchMaxConcurrency(2);
+        PageScrapeServiceImpl scrapeService = new PageScrapeServiceImpl(
+            browserTaskExecutor,
+            scrapeProperties,
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor,
+            scrapeCache,
+            new ScrapeHostLimiter(scrapeProperties)
+        );
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(browserTaskExecutor.execute(eq(ProfileType.DEFAULT), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } finally {
+                running.decrementAndGet();
+            }
+            return ScrapeResponse.builder().statusCode(200).format("html").content("ok").build();
+        });
+
+        try {
+            List<ScrapeResponse> responses = scrapeService.batchScrape(
+                BatchScrapeRequest.builder()
+                    .urls(List.of("https://example.com/1", "https://example.com/2", "https://example.com/3",
+                        "https://example.com/4", "https://example.com/5"))
+                    .format("html")
+                    .concurrency(8)
+                    .build()
+            );
+
+            assertThat(responses).extracting(ScrapeResponse::getStatusCode).containsOnly(200);
+            assertThat(maxRunning.get()).isBetween(1, 2);
+        } finally {
+            scrapeService.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldReturn504ForUnfinishedItemsAfterBatchDeadline() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setBatchTimeoutMs(200);
+        PageScrapeServiceImpl scrapeService = new PageScrapeServiceImpl(
+            browserTaskExecutor,
+            scrapeProperties,
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor,
+            scrapeCache,
+            new ScrapeHostLimiter(scrapeProperties)
+        );
+        when(browserTaskExecutor.execute(eq(ProfileType.DEFAULT), any())).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return ScrapeResponse.builder().statusCode(200).format("html").content("late").build();
+        });
+
+        try {
+            long startAt = System.currentTimeMillis();
+            List<ScrapeResponse> responses = scrapeService.batchScrape(
+                BatchScrapeRequest.builder()
+                    .urls(List.of("https://example.com/a", "https://example.com/b"))
+                    .format("html")
+                    .concurrency(1)
+                    .build()
+            );
+
+            assertThat(System.currentTimeMillis() - startAt).isLessThan(1500);
+            assertThat(responses).hasSize(2);
+            assertThat(responses).extracting(ScrapeResponse::getStatusCode).containsOnly(504);
+            assertThat(responses.get(1).getError()).isEqualTo("batch deadline exceeded");
+        } finally {
+            scrapeService.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldCancelInFlightItemsAndStopProgressAfterBatchDeadline() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setBatchTimeoutMs(200);
+        PageScrapeServiceImpl scrapeService = new PageScrapeServiceImpl(
+            browserTaskExecutor,
+            scrapeProperties,
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor,
+            scrapeCache,
+            new ScrapeHostLimiter(scrapeProperties)
+        );
+        CountDownLatch itemCancelled = new CountDownLatch(1);
+        when(browserTaskExecutor.execute(eq(ProfileType.DEFAULT), any())).thenAnswer(invocation -> {
+            BrowserTask<?> task = invocation.getArgument(1);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!task.cancellationToken().isCancelled() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            if (task.cancellationToken().isCancelled()) {
+                itemCancelled.countDown();
+            }
+            task.cancellationToken().throwIfCancelled();
+            return ScrapeResponse.builder().statusCode(200).format("html").content("late").build();
+        });
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        try {
+            List<ScrapeResponse> responses = scrapeService.batchScrape(
+                BatchScrapeRequest.builder()
+                    .urls(List.of("https://example.com/a", "https://example.com/b"))
+                    .format("html")
+                    .concurrency(1)
+                    .progressListener(new ScrapeProgressListener() {
+                        @Override
+                        public void onItemCompleted(int completed, int total, String url) {
+                            events.add(url);
+                        }
+                    })
+                    .build()
+            );
+
+            assertThat(responses).extracting(ScrapeResponse::getStatusCode).containsOnly(504);
+            assertThat(itemCancelled.await(2, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            assertThat(events).isEmpty();
+            verify(browserTaskExecutor).execute(eq(ProfileType.DEFAULT), any());
+        } finally {
+            scrapeService.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRejectBatchWithTooManyUrls() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setBatchMaxUrls(1);
+        PageScrapeServiceImpl scrapeService = new PageScrapeServiceImpl(
+            browserTaskExecutor,
+            scrapeProperties,
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor,
+            scrapeCache,
+            new ScrapeHostLimiter(scrapeProperties)
+        );
+
+        assertThatThrownBy(() -> scrapeService.batchScrape(
+            BatchScrapeRequest.builder()
+                .urls(List.of("https://example.com/a", "https://example.com/b"))
+                .build()
+        )).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("too many urls");
+        verify(browserTaskExecutor, never()).execute(any(ProfileType.class), any());
+    }
+
+    @Test
+    public void shouldReturn429WhenHostPermitUnavailable() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostMaxConcurrency(1);
+        scrapeProperties.setHostAcquireTimeoutMs(50);
+        ScrapeHostLimiter scrapeHostLimiter = new ScrapeHostLimiter(scrapeProperties);
+        PageScrapeServiceImpl scrapeService = new PageScrapeServiceImpl(
+            browserTaskExecutor,
+            scrapeProperties,
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor,
+            scrapeCache,
+            scrapeHostLimiter
+        );
+
+        try (ScrapeHostLimiter.Permit ignored = scrapeHostLimiter.acquire("https://example.com/a")) {
+            ScrapeResponse response = scrapeService.scrape(
+                ScrapeRequest.builder().url("https://EXAMPLE.com/b").format("html").build()
+            );
+
+            assertThat(response.getStatusCode()).isEqualTo(429);
+            assertThat(response.getError()).contains("example.com");
+        }
+        verify(browserTaskExecutor, never()).execute(any(ProfileType.class), any());
+    }
+
+    private PageScrapeServiceImpl newHttpFirstScrapeService() {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHttpFirstEnabled(true);
+        return new PageScrapeServiceImpl(
+            browserTaskExecutor,
+            scrapeProperties,
+            new HtmlMainContentCleaner(),
+            new MarkdownRenderer(),
+            new MarkdownPostProcessor(),
+            new LinkExtractor(),
+            scrapeCache,
+            new ScrapeHostLimiter(scrapeProperties)
+        );
+    }
+
+    private HttpServer startHtmlServer(String path, String html) throws Exception {
+        byte[] htmlBytes = html.getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext(path, exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, htmlBytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(htmlBytes);
+            }
+        });
+        server.start();
+        return server;
+    }
+
 }
@@ -0,0 +1,63 @@
+package fun.fengwk.mmh.core.service.scrape.parser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fengwk
+ */
+public class ElementMetricsTest {
+
+    private static final String HTML = """
+        <html><body>
+          <div class="navigation"><a href="/a">Home</a> <a href="/b">Docs</a></div>
+          <main id="main-content">
+            <h1>  Deep   Article </h1>
+            <p>First paragraph with <a href="#x">a link</a> and <b>bold</b> text.</p>
+            <ul><li>one</li><li>two<br>lines</li></ul>
+            <div><img src="a.png"><span>caption</span></div>
+            <table><tr><td>cell 1</td><td>cell 2</td></tr></table>
+          </main>
+        </body></html>
+        """;
+
+    @Test
+    public void shouldMatchPerElementJsoupMetrics() {
+        Document document = Jsoup.parse(HTML);
+        ElementMetrics metrics = ElementMetrics.build(document.body());
+
+        for (Element element : document.body().getAllElements()) {
+            ElementMetrics.Stats stats = metrics.get(element);
+            assertThat(stats.textLength())
+                .as("text length of %s", element.cssSelector())
+                .isEqualTo(element.text().replaceAll("\\s+", " ").trim().length());
+            assertThat(stats.linkTextLength())
+                .as("link text length of %s", element.cssSelector())
+                .isEqualTo(element.select("a").stream().mapToInt(link -> link.text().length()).sum());
+            assertThat(stats.blockCount())
+                .as("block count of %s", element.cssSelector())
+                .isEqualTo(element.select("p,h1,h2,h3,h4,li,pre,blockquote,table,tr").size());
+            assertThat(stats.imageCount())
+                .as("image count of %s", element.cssSelector())
+                .isEqualTo(element.select("img").size());
+        }
+    }
+
+    @Test
+    public void shouldComputeMetricsForElementOutsideRoot() {
+        Document document = Jsoup.parse(HTML);
+        Element main = document.selectFirst("main");
+        ElementMetrics metrics = ElementMetrics.build(main);
+
+        ElementMetrics.Stats stats = metrics.get(document.selectFirst(".navigation"));
+
+        assertThat(stats.textLength()).isEqualTo("Home Docs".length());
+        assertThat(stats.linkTextLength()).isEqualTo("HomeDocs".length());
+        assertThat(stats.markupLength()).isPositive();
+    }
+
+}
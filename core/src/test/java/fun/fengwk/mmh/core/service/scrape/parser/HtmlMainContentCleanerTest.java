@@ -1,5 +1,7 @@
 package fun.fengwk.mmh.core.service.scrape.parser;
 
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -163,4 +165,26 @@ public class HtmlMainContentCleanerTest {
         assertThat(result).doesNotContain("copybutton");
     }
 
+    @Test
+    public void shouldCleanParsedDocumentWithoutMutatingIt() {
+        String html = "<html><body><header>nav</header><div id=\"main\"><p>hello</p></div></body></html>";
+        Document document = Jsoup.parse(html, "https://example.com");
+
+        CleanedHtml mainContent = cleaner.clean(document, "https://example.com", true, true, true);
+        CleanedHtml fullPage = cleaner.clean(document, "https://example.com", false, false, true);
+
+        assertThat(mainContent.isEmpty()).isFalse();
+        assertThat(mainContent.html()).contains("hello").doesNotContain("nav");
+        assertThat(fullPage.html()).contains("nav").contains("hello");
+        assertThat(document.select("header")).hasSize(1);
+    }
+
+    @Test
+    public void shouldReturnEmptyForNullDocument() {
+        CleanedHtml result = cleaner.clean((Document) null, "https://example.com", true, true, true);
+
+        assertThat(result.isEmpty()).isTrue();
+        assertThat(result.html()).isEmpty();
+    }
+
 }
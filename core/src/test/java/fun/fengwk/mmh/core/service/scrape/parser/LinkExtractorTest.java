@@ -1,5 +1,7 @@
 package fun.fengwk.mmh.core.service.scrape.parser;
 
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -50,4 +52,12 @@ public class LinkExtractorTest {
         );
     }
 
+    @Test
+    public void shouldExtractFromParsedElement() {
+        Element body = Jsoup.parse("<html><body><a href=\"/a\">a</a></body></html>", "https://example.com/").body();
+
+        assertThat(linkExtractor.extract(body, "https://example.com/")).containsExactly("https://example.com/a");
+        assertThat(linkExtractor.extract((Element) null, "https://example.com/")).isEmpty();
+    }
+
 }
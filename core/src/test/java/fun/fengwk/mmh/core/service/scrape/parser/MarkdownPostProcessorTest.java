@@ -2,6 +2,9 @@ package fun.fengwk.mmh.core.service.scrape.parser;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -87,4 +90,24 @@ public class MarkdownPostProcessorTest {
             """.trim());
     }
 
+    @Test
+    public void shouldMatchPreviousMultiPassOutputOnCorpus() {
+        // Expected values were produced by the previous regex and split based implementation.
+        Map<String, String> corpus = new LinkedHashMap<>();
+        corpus.put("text [](\nhttp://a.com\n) more", "text more");
+        corpus.put("! [](x) and [[](y)", "! and [");
+        corpus.put("```java\nint a;\n```\n\n```java\nint b;\n```", "```java\nint a;\nint b;\n```");
+        corpus.put("```java\nint a;\n```\n\n\n```java\nint b;\n```", "```java\nint a;\n```\n\n```java\nint b;\n```");
+        corpus.put("```java\nint a;\n```\n```python\nb = 1\n```", "```java\nint a;\n```\n```python\nb = 1\n```");
+        corpus.put("```\nunclosed\n1. one\n1. two", "```\nunclosed\n1. one\n1. two");
+        corpus.put("1. a\n1. b\n   1. c\n   1. d\n1. e\nreset\n1. f", "1. a\n2. b\n 1. c\n 2. d\n3. e\nreset\n1. f");
+        corpus.put("![](a.png)\n\n![](b.png)", "![](a.png)![](b.png)");
+        corpus.put("line one  \r\nline two\t\r\n\r\n\r\n\r\nline three", "line one\nline two\n\nline three");
+        corpus.put("```\n1. inside\n1. code\n```\n1. outside\n1. list", "```\n1. inside\n1. code\n```\n1. outside\n2. list");
+
+        corpus.forEach((input, expected) -> assertThat(markdownPostProcessor.process(input))
+            .as("input: %s", input)
+            .isEqualTo(expected));
+    }
+
 }
@@ -1,5 +1,8 @@
 package fun.fengwk.mmh.core.service.scrape.parser;
 
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -9,7 +12,20 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 public class MarkdownRendererTest {
 
+    private static final String BASE_URL = "https://example.com/docs/";
+
+    private static final String RICH_CONTENT = """
+        <h2>Section</h2>
+        <p>Intro with <a href="https://example.com/a">link</a> and <code>inline</code>.</p>
+        <ul><li>first</li><li>second<ol><li>nested</li></ol></li></ul>
+        <table><thead><tr><th>Name</th><th>Value</th></tr></thead>
+        <tbody><tr><td>alpha</td><td>1</td></tr><tr><td>beta</td><td>2</td></tr></tbody></table>
+        <pre><code>line1
+          indented line2</code></pre>
+        """;
+
     private final MarkdownRenderer markdownRenderer = new MarkdownRenderer();
+    private final HtmlMainContentCleaner htmlMainContentCleaner = new HtmlMainContentCleaner();
 
     @Test
     public void shouldRenderStructuredMarkdown() {
@@ -27,6 +43,37 @@ public class MarkdownRendererTest {
         assertThat(result).contains("* item");
     }
 
+    @Test
+    public void shouldRenderBodyRootLikeSerializedHtml() {
+        Document document = Jsoup.parse("<html><body><div>" + RICH_CONTENT + "</div></body></html>", BASE_URL);
+        CleanedHtml cleaned = htmlMainContentCleaner.clean(document, BASE_URL, false, false, false);
+
+        assertParity(cleaned);
+    }
+
+    @Test
+    public void shouldRenderMainRootLikeSerializedHtml() {
+        Document document = Jsoup.parse(
+            "<html><body><nav>menu</nav><main>" + RICH_CONTENT + "</main><footer>footer</footer></body></html>",
+            BASE_URL
+        );
+        CleanedHtml cleaned = htmlMainContentCleaner.clean(document, BASE_URL, true, true, false);
+
+        assertThat(cleaned.getRoot().normalName()).isNotEqualTo("body");
+        assertParity(cleaned);
+    }
+
+    @Test
+    public void shouldRenderArticleRootLikeSerializedHtml() {
+        Element article = Jsoup.parse("<html><body><article>" + RICH_CONTENT + "</article></body></html>", BASE_URL)
+            .selectFirst("article");
+        CleanedHtml cleaned = CleanedHtml.ofElement(article);
+
+        assertParity(cleaned);
+        // The source tree is left untouched.
+        assertThat(article.parent().normalName()).isEqualTo("body");
+    }
+
     @Test
     public void shouldHandleNullInput() {
         assertThat(markdownRenderer.render(null)).isEmpty();
@@ -68,4 +115,12 @@ public class MarkdownRendererTest {
         assertThat(result).contains("Desc");
     }
 
+    private void assertParity(CleanedHtml cleaned) {
+        String fromTree = markdownRenderer.render(cleaned.getRoot(), BASE_URL);
+        String fromHtml = markdownRenderer.render(cleaned.html(), BASE_URL);
+
+        assertThat(fromTree).isEqualTo(fromHtml);
+        assertThat(fromTree).contains("Section", "[link](https://example.com/a)", "nested", "alpha", "indented line2");
+    }
+
 }
@@ -4,36 +4,50 @@ import com.microsoft.playwright.APIRequestContext;
 import com.microsoft.playwright.APIResponse;
 import com.microsoft.playwright.Frame;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
 import com.microsoft.playwright.Response;
+import com.microsoft.playwright.TimeoutError;
 import com.sun.net.httpserver.HttpServer;
 import com.microsoft.playwright.options.LoadState;
 import com.microsoft.playwright.options.RequestOptions;
+import com.microsoft.playwright.options.WaitUntilState;
 import fun.fengwk.mmh.core.service.browser.runtime.BrowserRuntimeContext;
+import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskCancelledException;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
 import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapePhase;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeProgressListener;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeRequest;
 import fun.fengwk.mmh.core.service.scrape.model.ScrapeResponse;
+import fun.fengwk.mmh.core.service.scrape.parser.CleanedHtml;
 import fun.fengwk.mmh.core.service.scrape.parser.HtmlMainContentCleaner;
 import fun.fengwk.mmh.core.service.scrape.parser.LinkExtractor;
 import fun.fengwk.mmh.core.service.scrape.parser.MarkdownPostProcessor;
 import fun.fengwk.mmh.core.service.scrape.parser.MarkdownRenderer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.atLeastOnce;
@@ -95,13 +109,13 @@ public class ScrapeBrowserTaskTest {
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            "<html><body>raw</body></html>",
-            "https://example.com",
-            true,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
+            any(Document.class),
+            eq("https://example.com"),
+            eq(true),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<main>cleaned</main>");
+            .thenReturn(cleaned("<main>cleaned</main>"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -118,12 +132,13 @@ public class ScrapeBrowserTaskTest {
         assertThat(response.getStatusCode()).isEqualTo(200);
         assertThat(response.getContent()).isEqualTo("<main>cleaned</main>");
         verify(page, atLeastOnce()).waitForLoadState(eq(LoadState.NETWORKIDLE), any(Page.WaitForLoadStateOptions.class));
-        verify(page, atLeastOnce()).waitForTimeout(anyDouble());
+        verify(page).evaluate(anyString(), any());
+        verify(page, never()).waitForTimeout(anyDouble());
         verify(apiResponse).dispose();
     }
 
     @Test
-    public void shouldTreatLengthChangeWithinThresholdAsStable() {
+    public void shouldPassStabilityTuningToInPageDetector() {
         ScrapeRequest request = ScrapeRequest.builder()
             .url("https://example.com")
             .format("html")
@@ -134,28 +149,19 @@ public class ScrapeBrowserTaskTest {
         properties.setStabilityLengthChangeThreshold(0.1D);
         BrowserRuntimeContext context = BrowserRuntimeContext.builder().page(page).build();
 
-        String text100 = "A".repeat(100);
-        String text108 = "A".repeat(108);
-        String text110 = "A".repeat(110);
-        String text112 = "A".repeat(112);
-        when(page.content()).thenReturn(
-            "<html><body>" + text100 + "</body></html>",
-            "<html><body>" + text108 + "</body></html>",
-            "<html><body>" + text110 + "</body></html>",
-            "<html><body>" + text112 + "</body></html>",
-            "<html><body>" + text112 + "</body></html>"
-        );
+        when(page.content()).thenReturn("<html><body>" + "A".repeat(112) + "</body></html>");
+        when(page.evaluate(anyString(), any())).thenReturn(Map.of("settled", true, "rounds", 3, "textLength", 112));
         when(page.request()).thenReturn(apiRequestContext);
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            anyString(),
+            any(Document.class),
             eq("https://example.com"),
             eq(false),
             eq(properties.isStripChromeTags()),
             eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>stable</body></html>");
+            .thenReturn(cleaned("stable"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -170,8 +176,16 @@ public class ScrapeBrowserTaskTest {
         ScrapeResponse response = task.execute(context);
 
         assertThat(response.getStatusCode()).isEqualTo(200);
-        verify(page, atLeastOnce()).waitForLoadState(eq(LoadState.NETWORKIDLE), any(Page.WaitForLoadStateOptions.class));
-        verify(page, times(3)).waitForTimeout(anyDouble());
+        ArgumentCaptor<Object> argsCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(page, times(1)).evaluate(anyString(), argsCaptor.capture());
+        Map<?, ?> args = (Map<?, ?>) argsCaptor.getValue();
+        assertThat(args.get("intervalMs")).isEqualTo(100);
+        assertThat(args.get("threshold")).isEqualTo(3);
+        assertThat(args.get("lengthChangeThreshold")).isEqualTo(0.1D);
+        assertThat((Long) args.get("sliceMs")).isPositive().isLessThanOrEqualTo(500L);
+        assertThat(args.get("reset")).isEqualTo(true);
+        verify(page, times(1)).content();
+        verify(page, never()).waitForTimeout(anyDouble());
         verify(apiResponse).dispose();
     }
 
@@ -191,63 +205,13 @@ public class ScrapeBrowserTaskTest {
         when(navigateResponse.status()).thenReturn(404);
         when(page.content()).thenReturn("<html><body>Not Found</body></html>");
         when(htmlMainContentCleaner.clean(
-            "<html><body>Not Found</body></html>",
-            "https://example.com/not-found",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        ))
-            .thenReturn("<html><body>Not Found</body></html>");
-
-        ScrapeBrowserTask task = new ScrapeBrowserTask(
-            request,
-            ScrapeFormat.HTML,
-            properties,
-            htmlMainContentCleaner,
-            markdownRenderer,
-            markdownPostProcessor,
-            linkExtractor
-        );
-
-        ScrapeResponse response = task.execute(context);
-
-        assertThat(response.getStatusCode()).isEqualTo(200);
-        assertThat(response.getContent()).contains("Not Found");
-        verify(page, never()).waitForLoadState(eq(LoadState.NETWORKIDLE), any(Page.WaitForLoadStateOptions.class));
-        verify(page, never()).waitForTimeout(anyDouble());
-        verify(apiResponse).dispose();
-    }
-
-    @Test
-    public void shouldTreatEmptyContentAsStable() {
-        ScrapeRequest request = ScrapeRequest.builder()
-            .url("https://example.com/empty")
-            .format("html")
-            .build();
-        ScrapeProperties properties = new ScrapeProperties();
-        properties.setStabilityCheckIntervalMs(100);
-        properties.setStabilityThreshold(3);
-        properties.setStabilityLengthChangeThreshold(0.1D);
-        BrowserRuntimeContext context = BrowserRuntimeContext.builder().page(page).build();
-
-        when(page.content()).thenReturn(
-            "<html><body></body></html>",
-            "<html><body></body></html>",
-            "<html><body></body></html>",
-            "<html><body></body></html>",
-            "<html><body></body></html>"
-        );
-        when(page.request()).thenReturn(apiRequestContext);
-        when(apiRequestContext.get(eq("https://example.com/empty"), any(RequestOptions.class))).thenReturn(apiResponse);
-        when(apiResponse.ok()).thenReturn(false);
-        when(htmlMainContentCleaner.clean(
-            anyString(),
-            eq("https://example.com/empty"),
+            any(Document.class),
+            eq("https://example.com/not-found"),
             eq(false),
             eq(properties.isStripChromeTags()),
             eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("");
+            .thenReturn(cleaned("Not Found"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -262,42 +226,37 @@ public class ScrapeBrowserTaskTest {
         ScrapeResponse response = task.execute(context);
 
         assertThat(response.getStatusCode()).isEqualTo(200);
-        assertThat(response.getContent()).isEqualTo("");
-        verify(page, times(3)).waitForTimeout(anyDouble());
+        assertThat(response.getContent()).contains("Not Found");
+        verify(page, never()).waitForLoadState(eq(LoadState.NETWORKIDLE), any(Page.WaitForLoadStateOptions.class));
+        verify(page, never()).waitForTimeout(anyDouble());
         verify(apiResponse).dispose();
     }
 
     @Test
-    public void shouldSkipUnstableChangeAndKeepComparingWithAnchor() {
+    public void shouldRestartSmartWaitWhenExecutionContextDestroyed() {
         ScrapeRequest request = ScrapeRequest.builder()
             .url("https://example.com")
             .format("html")
             .build();
         ScrapeProperties properties = new ScrapeProperties();
         properties.setStabilityCheckIntervalMs(100);
-        properties.setStabilityThreshold(3);
-        properties.setStabilityLengthChangeThreshold(0.1D);
         BrowserRuntimeContext context = BrowserRuntimeContext.builder().page(page).build();
 
-        when(page.content()).thenReturn(
-            "<html><body>" + "A".repeat(100) + "</body></html>",
-            "<html><body>" + "A".repeat(140) + "</body></html>",
-            "<html><body>" + "A".repeat(110) + "</body></html>",
-            "<html><body>" + "A".repeat(112) + "</body></html>",
-            "<html><body>" + "A".repeat(113) + "</body></html>",
-            "<html><body>" + "A".repeat(113) + "</body></html>"
-        );
+        when(page.content()).thenReturn("<html><body>redirected</body></html>");
+        when(page.evaluate(anyString(), any()))
+            .thenThrow(new PlaywrightException("Execution context was destroyed, most likely because of a navigation"))
+            .thenReturn(Map.of("settled", true));
         when(page.request()).thenReturn(apiRequestContext);
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            anyString(),
+            any(Document.class),
             eq("https://example.com"),
             eq(false),
             eq(properties.isStripChromeTags()),
             eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>stable</body></html>");
+            .thenReturn(cleaned("redirected"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -312,46 +271,33 @@ public class ScrapeBrowserTaskTest {
         ScrapeResponse response = task.execute(context);
 
         assertThat(response.getStatusCode()).isEqualTo(200);
-        verify(page, times(4)).waitForTimeout(anyDouble());
+        verify(page, times(2)).evaluate(anyString(), any());
+        verify(page).waitForLoadState(eq(LoadState.DOMCONTENTLOADED), any(Page.WaitForLoadStateOptions.class));
         verify(apiResponse).dispose();
     }
 
     @Test
-    public void shouldKeepWaitingWhenLengthChangeExceedsThreshold() {
+    public void shouldStopSmartWaitWhenDetectorFails() {
         ScrapeRequest request = ScrapeRequest.builder()
             .url("https://example.com")
             .format("html")
             .build();
         ScrapeProperties properties = new ScrapeProperties();
-        properties.setStabilityMaxWaitMs(350);
-        properties.setStabilityCheckIntervalMs(100);
-        properties.setStabilityThreshold(3);
-        properties.setStabilityLengthChangeThreshold(0.1D);
         BrowserRuntimeContext context = BrowserRuntimeContext.builder().page(page).build();
 
-        when(page.content()).thenReturn(
-            "<html><body>" + "A".repeat(100) + "</body></html>",
-            "<html><body>" + "A".repeat(130) + "</body></html>",
-            "<html><body>" + "A".repeat(160) + "</body></html>",
-            "<html><body>" + "A".repeat(190) + "</body></html>",
-            "<html><body>" + "A".repeat(220) + "</body></html>"
-        );
+        when(page.content()).thenReturn("<html><body>raw</body></html>");
+        when(page.evaluate(anyString(), any())).thenThrow(new PlaywrightException("MutationObserver is not defined"));
         when(page.request()).thenReturn(apiRequestContext);
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            anyString(),
+            any(Document.class),
             eq("https://example.com"),
             eq(false),
             eq(properties.isStripChromeTags()),
             eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>raw</body></html>");
-        doAnswer(invocation -> {
-            long sleepMillis = ((Double) invocation.getArgument(0)).longValue();
-            Thread.sleep(sleepMillis);
-            return null;
-        }).when(page).waitForTimeout(anyDouble());
+            .thenReturn(cleaned("raw"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -366,7 +312,8 @@ public class ScrapeBrowserTaskTest {
         ScrapeResponse response = task.execute(context);
 
         assertThat(response.getStatusCode()).isEqualTo(200);
-        verify(page, atLeastOnce()).waitForTimeout(anyDouble());
+        assertThat(response.getContent()).isEqualTo("raw");
+        verify(page, times(1)).evaluate(anyString(), any());
         verify(apiResponse).dispose();
     }
 
@@ -383,24 +330,19 @@ public class ScrapeBrowserTaskTest {
         properties.setDirectMediaProbeTimeoutMs(100);
         BrowserRuntimeContext context = BrowserRuntimeContext.builder().page(page).build();
 
-        AtomicInteger counter = new AtomicInteger(0);
-        when(page.content()).thenAnswer(invocation -> "<html><body>dynamic-" + counter.incrementAndGet() + "</body></html>");
+        when(page.content()).thenReturn("<html><body>dynamic</body></html>");
+        when(page.evaluate(anyString(), any())).thenReturn(Map.of("settled", false));
         when(page.request()).thenReturn(apiRequestContext);
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            anyString(),
+            any(Document.class),
             eq("https://example.com"),
             eq(false),
             eq(properties.isStripChromeTags()),
             eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>raw</body></html>");
-        doAnswer(invocation -> {
-            long sleepMillis = ((Double) invocation.getArgument(0)).longValue();
-            Thread.sleep(sleepMillis);
-            return null;
-        }).when(page).waitForTimeout(anyDouble());
+            .thenReturn(cleaned("raw"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -412,13 +354,15 @@ public class ScrapeBrowserTaskTest {
             linkExtractor
         );
 
-        long startAt = System.currentTimeMillis();
         ScrapeResponse response = task.execute(context);
-        long elapsedMs = System.currentTimeMillis() - startAt;
 
         assertThat(response.getStatusCode()).isEqualTo(200);
-        assertThat(elapsedMs).isLessThan(2500L);
-        verify(page, atLeastOnce()).waitForTimeout(anyDouble());
+        ArgumentCaptor<Object> argsCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(page, atLeastOnce()).evaluate(anyString(), argsCaptor.capture());
+        assertThat(argsCaptor.getAllValues())
+            .allSatisfy(args -> assertThat((Long) ((Map<?, ?>) args).get("sliceMs")).isLessThanOrEqualTo(300L));
+        // Detector state of the timed out wait is dropped.
+        verify(page).evaluate(anyString());
         verify(apiResponse).dispose();
     }
 
@@ -435,24 +379,19 @@ public class ScrapeBrowserTaskTest {
         properties.setStabilityLengthChangeThreshold(10D);
         BrowserRuntimeContext context = BrowserRuntimeContext.builder().page(page).build();
 
-        when(page.content()).thenReturn(
-            "<html><body>" + "A".repeat(100) + "</body></html>",
-            "<html><body>" + "A".repeat(108) + "</body></html>",
-            "<html><body>" + "A".repeat(110) + "</body></html>",
-            "<html><body>" + "A".repeat(111) + "</body></html>",
-            "<html><body>" + "A".repeat(111) + "</body></html>"
-        );
+        when(page.content()).thenReturn("<html><body>" + "A".repeat(111) + "</body></html>");
+        when(page.evaluate(anyString(), any())).thenReturn(Map.of("settled", true));
         when(page.request()).thenReturn(apiRequestContext);
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            anyString(),
+            any(Document.class),
             eq("https://example.com"),
             eq(false),
             eq(properties.isStripChromeTags()),
             eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>raw</body></html>");
+            .thenReturn(cleaned("raw"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -467,7 +406,11 @@ public class ScrapeBrowserTaskTest {
         ScrapeResponse response = task.execute(context);
 
         assertThat(response.getStatusCode()).isEqualTo(200);
-        verify(page, times(3)).waitForTimeout(anyDouble());
+        ArgumentCaptor<Object> argsCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(page).evaluate(anyString(), argsCaptor.capture());
+        Map<?, ?> args = (Map<?, ?>) argsCaptor.getValue();
+        assertThat(args.get("lengthChangeThreshold")).isEqualTo(0.1D);
+        assertThat((Long) args.get("sliceMs")).isLessThanOrEqualTo(500L);
         verify(apiResponse).dispose();
     }
 
@@ -486,13 +429,13 @@ public class ScrapeBrowserTaskTest {
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            "<html><body>raw</body></html>",
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>raw</body></html>");
+            .thenReturn(cleaned("raw"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -526,13 +469,13 @@ public class ScrapeBrowserTaskTest {
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            "<html><body>raw</body></html>",
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>raw</body></html>");
+            .thenReturn(cleaned("raw"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
             request,
@@ -566,24 +509,24 @@ public class ScrapeBrowserTaskTest {
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            "<html><body>raw</body></html>",
-            "https://example.com",
-            true,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
+            any(Document.class),
+            eq("https://example.com"),
+            eq(true),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<main></main>");
+            .thenReturn(cleaned("<main></main>"));
         when(htmlMainContentCleaner.clean(
-            "<html><body>raw</body></html>",
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>raw</body></html>");
-        when(markdownRenderer.render("<main></main>", "https://example.com")).thenReturn("   ");
+            .thenReturn(cleaned("raw"));
+        when(markdownRenderer.render(rootHtml("<main></main>"), eq("https://example.com"))).thenReturn("   ");
         when(markdownPostProcessor.process("   ")).thenReturn("");
-        when(markdownRenderer.render("<html><body>raw</body></html>", "https://example.com")).thenReturn("raw");
+        when(markdownRenderer.render(rootHtml("raw"), eq("https://example.com"))).thenReturn("raw");
         when(markdownPostProcessor.process("raw")).thenReturn("raw");
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
@@ -628,23 +571,23 @@ public class ScrapeBrowserTaskTest {
         when(childFrame.content()).thenReturn(frameHtml);
 
         when(htmlMainContentCleaner.clean(
-            mainHtml,
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<h1>Main</h1>");
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<h1>Main</h1>"));
         when(htmlMainContentCleaner.clean(
-            frameHtml,
-            frameUrl,
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<article>Doc Body</article>");
-
-        when(markdownRenderer.render("<h1>Main</h1>", "https://example.com")).thenReturn("Main");
+            any(Document.class),
+            eq(frameUrl),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<article>Doc Body</article>"));
+
+        when(markdownRenderer.render(rootHtml("<h1>Main</h1>"), eq("https://example.com"))).thenReturn("Main");
         when(markdownPostProcessor.process("Main")).thenReturn("Main");
-        when(markdownRenderer.render("<article>Doc Body</article>", frameUrl)).thenReturn("Doc Body");
+        when(markdownRenderer.render(rootHtml("<article>Doc Body</article>"), eq(frameUrl))).thenReturn("Doc Body");
         when(markdownPostProcessor.process("Doc Body")).thenReturn("Doc Body");
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
@@ -712,44 +655,44 @@ public class ScrapeBrowserTaskTest {
         when(siblingFrame.content()).thenReturn(siblingFrameHtml);
 
         when(htmlMainContentCleaner.clean(
-            mainHtml,
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<h1>Main</h1>");
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<h1>Main</h1>"));
         when(htmlMainContentCleaner.clean(
-            parentFrameHtml,
-            parentFrameUrl,
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<article>Parent Body</article>");
+            any(Document.class),
+            eq(parentFrameUrl),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<article>Parent Body</article>"));
         when(htmlMainContentCleaner.clean(
-            nestedFrameHtml,
-            nestedFrameUrl,
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<article>Child Body</article>");
+            any(Document.class),
+            eq(nestedFrameUrl),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<article>Child Body</article>"));
         when(htmlMainContentCleaner.clean(
-            siblingFrameHtml,
-            siblingFrameUrl,
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<article>Sibling Body</article>");
-
-        when(markdownRenderer.render("<h1>Main</h1>", "https://example.com")).thenReturn("Main");
+            any(Document.class),
+            eq(siblingFrameUrl),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<article>Sibling Body</article>"));
+
+        when(markdownRenderer.render(rootHtml("<h1>Main</h1>"), eq("https://example.com"))).thenReturn("Main");
         when(markdownPostProcessor.process("Main")).thenReturn("Main");
 
-        when(markdownRenderer.render("<article>Parent Body</article>", parentFrameUrl)).thenReturn("Parent Body");
+        when(markdownRenderer.render(rootHtml("<article>Parent Body</article>"), eq(parentFrameUrl))).thenReturn("Parent Body");
         when(markdownPostProcessor.process("Parent Body")).thenReturn("Parent Body");
 
-        when(markdownRenderer.render("<article>Child Body</article>", nestedFrameUrl)).thenReturn("Child Body");
+        when(markdownRenderer.render(rootHtml("<article>Child Body</article>"), eq(nestedFrameUrl))).thenReturn("Child Body");
         when(markdownPostProcessor.process("Child Body")).thenReturn("Child Body");
 
-        when(markdownRenderer.render("<article>Sibling Body</article>", siblingFrameUrl)).thenReturn("Sibling Body");
+        when(markdownRenderer.render(rootHtml("<article>Sibling Body</article>"), eq(siblingFrameUrl))).thenReturn("Sibling Body");
         when(markdownPostProcessor.process("Sibling Body")).thenReturn("Sibling Body");
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
@@ -806,37 +749,23 @@ public class ScrapeBrowserTaskTest {
         when(childFrame.content()).thenReturn(frameHtml);
 
         when(htmlMainContentCleaner.clean(
-            mainHtml,
-            "https://example.com",
-            true,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<h1>Main</h1>");
-        when(htmlMainContentCleaner.clean(
-            mainHtml,
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<h1>Main</h1>");
-        when(htmlMainContentCleaner.clean(
-            frameHtml,
-            frameUrl,
-            true,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<div>toolbar</div>");
+            any(Document.class),
+            eq("https://example.com"),
+            eq(true),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<h1>Main</h1>"));
         when(htmlMainContentCleaner.clean(
-            frameHtml,
-            frameUrl,
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<div>toolbar</div>");
-
-        when(markdownRenderer.render("<h1>Main</h1>", "https://example.com")).thenReturn("Main");
+            any(Document.class),
+            eq(frameUrl),
+            eq(true),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<div>toolbar</div>"));
+
+        when(markdownRenderer.render(rootHtml("<h1>Main</h1>"), eq("https://example.com"))).thenReturn("Main");
         when(markdownPostProcessor.process("Main")).thenReturn("Main");
-        when(markdownRenderer.render("<div>toolbar</div>", frameUrl)).thenReturn(frameMarkdown);
+        when(markdownRenderer.render(rootHtml("<div>toolbar</div>"), eq(frameUrl))).thenReturn(frameMarkdown);
         when(markdownPostProcessor.process(frameMarkdown)).thenReturn(frameMarkdown);
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
@@ -883,23 +812,23 @@ public class ScrapeBrowserTaskTest {
         when(childFrame.content()).thenReturn(frameHtml);
 
         when(htmlMainContentCleaner.clean(
-            mainHtml,
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<h1>Main</h1>");
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<h1>Main</h1>"));
         when(htmlMainContentCleaner.clean(
-            frameHtml,
-            frameUrl,
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        )).thenReturn("<div>toolbar</div>");
-
-        when(markdownRenderer.render("<h1>Main</h1>", "https://example.com")).thenReturn("Main");
+            any(Document.class),
+            eq(frameUrl),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        )).thenReturn(cleaned("<div>toolbar</div>"));
+
+        when(markdownRenderer.render(rootHtml("<h1>Main</h1>"), eq("https://example.com"))).thenReturn("Main");
         when(markdownPostProcessor.process("Main")).thenReturn("Main");
-        when(markdownRenderer.render("<div>toolbar</div>", frameUrl)).thenReturn(frameMarkdown);
+        when(markdownRenderer.render(rootHtml("<div>toolbar</div>"), eq(frameUrl))).thenReturn(frameMarkdown);
         when(markdownPostProcessor.process(frameMarkdown)).thenReturn(frameMarkdown);
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
@@ -931,15 +860,6 @@ public class ScrapeBrowserTaskTest {
         when(page.request()).thenReturn(apiRequestContext);
         when(apiRequestContext.get(eq("https://example.com/page"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
-        when(page.content()).thenReturn("<html><body>raw</body></html>");
-        when(htmlMainContentCleaner.clean(
-            "<html><body>raw</body></html>",
-            "https://example.com/page",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
-        ))
-            .thenReturn("<html><body>raw</body></html>");
         when(page.screenshot()).thenReturn(new byte[] {1, 2, 3});
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
@@ -1145,14 +1065,14 @@ public class ScrapeBrowserTaskTest {
         when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
         when(apiResponse.ok()).thenReturn(false);
         when(htmlMainContentCleaner.clean(
-            "<html><body>raw</body></html>",
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
         ))
-            .thenReturn("<html><body>raw</body></html>");
-        when(linkExtractor.extract("<html><body>raw</body></html>", "https://example.com"))
+            .thenReturn(cleaned("raw"));
+        when(linkExtractor.extract(rootHtml("raw"), eq("https://example.com")))
             .thenReturn(List.of("https://a.com"));
 
         ScrapeBrowserTask task = new ScrapeBrowserTask(
@@ -1169,13 +1089,266 @@ public class ScrapeBrowserTaskTest {
 
         assertThat(response.getLinks()).containsExactly("https://a.com");
         verify(htmlMainContentCleaner).clean(
-            "<html><body>raw</body></html>",
-            "https://example.com",
-            false,
-            properties.isStripChromeTags(),
-            properties.isRemoveBase64Images()
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
         );
         verify(apiResponse).dispose();
     }
 
+    @Test
+    public void shouldNotNavigateWhenCancelledBeforeStart() {
+        ScrapeRequest request = ScrapeRequest.builder()
+            .url("https://example.com")
+            .format("html")
+            .build();
+        CancellationToken cancellationToken = CancellationToken.create();
+        BrowserRuntimeContext context = BrowserRuntimeContext.builder()
+            .page(page)
+            .cancellationToken(cancellationToken)
+            .build();
+
+        when(page.request()).thenReturn(apiRequestContext);
+        when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenAnswer(invocation -> {
+            cancellationToken.cancel("client cancelled");
+            return apiResponse;
+        });
+        when(apiResponse.ok()).thenReturn(false);
+
+        ScrapeBrowserTask task = new ScrapeBrowserTask(
+            request,
+            ScrapeFormat.HTML,
+            new ScrapeProperties(),
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor
+        );
+
+        assertThatThrownBy(() -> task.execute(context))
+            .isInstanceOf(BrowserTaskCancelledException.class)
+            .hasMessageContaining("client cancelled");
+        verify(page, never()).navigate(anyString(), any(Page.NavigateOptions.class));
+        verify(page, never()).content();
+    }
+
+    @Test
+    public void shouldStopExplicitWaitWhenCancelled() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        ScrapeRequest request = ScrapeRequest.builder()
+            .url("https://example.com")
+            .format("html")
+            .waitFor(5000)
+            .cancellationToken(cancellationToken)
+            .build();
+        BrowserRuntimeContext context = BrowserRuntimeContext.builder()
+            .page(page)
+            .cancellationToken(cancellationToken)
+            .build();
+
+        when(page.request()).thenReturn(apiRequestContext);
+        when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
+        when(apiResponse.ok()).thenReturn(false);
+        doAnswer(invocation -> {
+            cancellationToken.cancel("client cancelled");
+            return null;
+        }).when(page).waitForTimeout(anyDouble());
+
+        ScrapeBrowserTask task = new ScrapeBrowserTask(
+            request,
+            ScrapeFormat.HTML,
+            new ScrapeProperties(),
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor
+        );
+
+        assertThat(task.cancellationToken()).isSameAs(cancellationToken);
+        assertThatThrownBy(() -> task.execute(context))
+            .isInstanceOf(BrowserTaskCancelledException.class);
+        // Only the first slice ran, the rest of the 5s wait was skipped.
+        verify(page, times(1)).waitForTimeout(anyDouble());
+        verify(page, never()).content();
+    }
+
+    @Test
+    public void shouldStopSmartWaitBetweenSlicesWhenCancelled() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        ScrapeRequest request = ScrapeRequest.builder()
+            .url("https://example.com")
+            .format("html")
+            .cancellationToken(cancellationToken)
+            .build();
+        BrowserRuntimeContext context = BrowserRuntimeContext.builder()
+            .page(page)
+            .cancellationToken(cancellationToken)
+            .build();
+
+        when(page.request()).thenReturn(apiRequestContext);
+        when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
+        when(apiResponse.ok()).thenReturn(false);
+        when(page.evaluate(anyString(), any())).thenAnswer(invocation -> {
+            cancellationToken.cancel("client cancelled");
+            return Map.of("settled", false);
+        });
+
+        ScrapeBrowserTask task = new ScrapeBrowserTask(
+            request,
+            ScrapeFormat.HTML,
+            new ScrapeProperties(),
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor
+        );
+
+        assertThatThrownBy(() -> task.execute(context))
+            .isInstanceOf(BrowserTaskCancelledException.class);
+        // Only the first slice ran, the rest of the stability wait was skipped.
+        verify(page, times(1)).evaluate(anyString(), any());
+        verify(page, never()).content();
+    }
+
+    @Test
+    public void shouldWaitForLoadInSlicesAfterCommitWhenCancellable() {
+        CancellationToken cancellationToken = CancellationToken.create();
+        ScrapeRequest request = ScrapeRequest.builder()
+            .url("https://example.com")
+            .format("html")
+            .cancellationToken(cancellationToken)
+            .build();
+        BrowserRuntimeContext context = BrowserRuntimeContext.builder()
+            .page(page)
+            .cancellationToken(cancellationToken)
+            .build();
+
+        when(page.request()).thenReturn(apiRequestContext);
+        when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
+        when(apiResponse.ok()).thenReturn(false);
+        doAnswer(invocation -> {
+            cancellationToken.cancel("client cancelled");
+            throw new TimeoutError("Timeout 250ms exceeded");
+        }).when(page).waitForLoadState(eq(LoadState.DOMCONTENTLOADED), any(Page.WaitForLoadStateOptions.class));
+
+        ScrapeBrowserTask task = new ScrapeBrowserTask(
+            request,
+            ScrapeFormat.HTML,
+            new ScrapeProperties(),
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor
+        );
+
+        assertThatThrownBy(() -> task.execute(context))
+            .isInstanceOf(BrowserTaskCancelledException.class);
+        ArgumentCaptor<Page.NavigateOptions> optionsCaptor = ArgumentCaptor.forClass(Page.NavigateOptions.class);
+        verify(page).navigate(eq("https://example.com"), optionsCaptor.capture());
+        assertThat(optionsCaptor.getValue().waitUntil).isEqualTo(WaitUntilState.COMMIT);
+        verify(page, times(1)).waitForLoadState(eq(LoadState.DOMCONTENTLOADED), any(Page.WaitForLoadStateOptions.class));
+        verify(page, never()).evaluate(anyString(), any());
+    }
+
+    @Test
+    public void shouldReportPhasesInExecutionOrder() {
+        List<ScrapePhase> phases = new ArrayList<>();
+        ScrapeRequest request = ScrapeRequest.builder()
+            .url("https://example.com")
+            .format("html")
+            .waitFor(120)
+            .progressListener(new ScrapeProgressListener() {
+                @Override
+                public void onPhaseCompleted(ScrapePhase phase, long elapsedMs) {
+                    assertThat(elapsedMs).isNotNegative();
+                    phases.add(phase);
+                }
+            })
+            .build();
+        ScrapeProperties properties = new ScrapeProperties();
+        BrowserRuntimeContext context = BrowserRuntimeContext.builder().page(page).build();
+
+        when(page.content()).thenReturn("<html><body>raw</body></html>");
+        when(page.request()).thenReturn(apiRequestContext);
+        when(apiRequestContext.get(eq("https://example.com"), any(RequestOptions.class))).thenReturn(apiResponse);
+        when(apiResponse.ok()).thenReturn(false);
+        when(htmlMainContentCleaner.clean(
+            any(Document.class),
+            eq("https://example.com"),
+            eq(false),
+            eq(properties.isStripChromeTags()),
+            eq(properties.isRemoveBase64Images())
+        ))
+            .thenReturn(cleaned("raw"));
+
+        ScrapeBrowserTask task = new ScrapeBrowserTask(
+            request,
+            ScrapeFormat.HTML,
+            properties,
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor
+        );
+
+        task.execute(context);
+
+        assertThat(phases).containsExactly(
+            ScrapePhase.DIRECT_MEDIA_PROBE,
+            ScrapePhase.NAVIGATE,
+            ScrapePhase.WAIT,
+            ScrapePhase.FRAME_COLLECTION,
+            ScrapePhase.CLEAN,
+            ScrapePhase.RENDER
+        );
+    }
+
+    @Test
+    public void shouldIgnoreFailingProgressListener() {
+        ScrapeRequest request = ScrapeRequest.builder()
+            .url("https://example.com/page")
+            .format("screenshot")
+            .progressListener(new ScrapeProgressListener() {
+                @Override
+                public void onPhaseCompleted(ScrapePhase phase, long elapsedMs) {
+                    throw new IllegalStateException("client gone");
+                }
+            })
+            .build();
+        BrowserRuntimeContext context = BrowserRuntimeContext.builder().page(page).build();
+
+        when(page.request()).thenReturn(apiRequestContext);
+        when(apiRequestContext.get(eq("https://example.com/page"), any(RequestOptions.class))).thenReturn(apiResponse);
+        when(apiResponse.ok()).thenReturn(false);
+        when(page.screenshot()).thenReturn(new byte[] {1, 2, 3});
+
+        ScrapeBrowserTask task = new ScrapeBrowserTask(
+            request,
+            ScrapeFormat.SCREENSHOT,
+            new ScrapeProperties(),
+            htmlMainContentCleaner,
+            markdownRenderer,
+            markdownPostProcessor,
+            linkExtractor
+        );
+
+        ScrapeResponse response = task.execute(context);
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        assertThat(response.getScreenshotBase64()).isEqualTo("data:image/png;base64,AQID");
+    }
+
+    private static CleanedHtml cleaned(String html) {
+        Document document = Jsoup.parseBodyFragment(html);
+        document.outputSettings().prettyPrint(false);
+        return CleanedHtml.ofBody(document.body());
+    }
+
+    private static Element rootHtml(String html) {
+        String expected = cleaned(html).html();
+        return argThat(root -> root != null && expected.equals(root.html()));
+    }
+
 }
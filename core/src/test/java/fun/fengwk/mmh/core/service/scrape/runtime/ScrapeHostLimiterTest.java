@@ -0,0 +1,221 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import fun.fengwk.mmh.core.service.browser.runtime.BrowserTaskCancelledException;
+import fun.fengwk.mmh.core.service.browser.runtime.CancellationToken;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author fengwk
+ */
+public class ScrapeHostLimiterTest {
+
+    @Test
+    public void shouldRejectWhenHostInFlightCapReached() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostMaxConcurrency(1);
+        scrapeProperties.setHostAcquireTimeoutMs(50);
+        ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+
+        try (ScrapeHostLimiter.Permit ignored = limiter.acquire("https://example.com/a")) {
+            assertThatThrownBy(() -> limiter.acquire("https://Example.com/b"))
+                .isInstanceOf(ScrapeHostBusyException.class);
+            // Other hosts are independent.
+            limiter.acquire("https://other.example.org/").close();
+        }
+
+        limiter.acquire("https://example.com/c").close();
+        ScrapeHostStats stats = findStats(limiter.getStats(), "example.com");
+        assertThat(stats.getAcquired()).isEqualTo(2);
+        assertThat(stats.getRejected()).isEqualTo(1);
+        assertThat(stats.getInFlight()).isZero();
+    }
+
+    @Test
+    public void shouldExportHostTaggedMetricsForBoundedHosts() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Metrics.addRegistry(meterRegistry);
+        try {
+            ScrapeProperties scrapeProperties = new ScrapeProperties();
+            scrapeProperties.setHostMaxConcurrency(1);
+            scrapeProperties.setHostAcquireTimeoutMs(50);
+            scrapeProperties.setHostMetricsMaxHosts(1);
+            ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+
+            try (ScrapeHostLimiter.Permit ignored = limiter.acquire("https://tagged.example.com/a")) {
+                assertThat(meterRegistry.get("mmh.scrape.host.in_flight").tag("host", "tagged.example.com").gauge().value())
+                    .isEqualTo(1D);
+                assertThatThrownBy(() -> limiter.acquire("https://tagged.example.com/b"))
+                    .isInstanceOf(ScrapeHostBusyException.class);
+            }
+            limiter.acquire("https://other.example.org/").close();
+
+            assertThat(meterRegistry.get("mmh.scrape.host.in_flight").tag("host", "tagged.example.com").gauge().value())
+                .isZero();
+            assertThat(meterRegistry.get("mmh.scrape.host.rejected").tag("host", "tagged.example.com").counter().count())
+                .isEqualTo(1D);
+            assertThat(meterRegistry.get("mmh.scrape.host.queue").tag("host", "tagged.example.com").timer().count())
+                .isEqualTo(1);
+            assertThat(meterRegistry.get("mmh.scrape.host.queue").tag("host", ScrapeHostLimiter.OTHER_HOST_TAG).timer().count())
+                .isEqualTo(1);
+            assertThat(meterRegistry.find("mmh.scrape.host.in_flight").tag("host", "other.example.org").gauge()).isNull();
+        } finally {
+            Metrics.removeRegistry(meterRegistry);
+            meterRegistry.close();
+        }
+    }
+
+    @Test
+    public void shouldWakeWaiterWhenPermitReleased() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostMaxConcurrency(1);
+        ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+
+        ScrapeHostLimiter.Permit first = limiter.acquire("https://example.com/a");
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire("https://example.com/b").close();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(waiter).isNotDone();
+
+        first.close();
+        waiter.get(2, TimeUnit.SECONDS);
+        assertThat(findStats(limiter.getStats(), "example.com").getMaxQueuedMs()).isPositive();
+    }
+
+    @Test
+    public void shouldStopWaitingWhenCancelledAndKeepQueueOrder() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostMaxConcurrency(1);
+        scrapeProperties.setHostAcquireTimeoutMs(10000);
+        ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+        CancellationToken token = CancellationToken.create();
+
+        ScrapeHostLimiter.Permit first = limiter.acquire("https://example.com/a");
+        CompletableFuture<Void> cancelled = CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire("https://example.com/b", null, token).close();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(100);
+        CompletableFuture<Void> next = CompletableFuture.runAsync(() -> {
+            try {
+                limiter.acquire("https://example.com/c").close();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Thread.sleep(100);
+
+        long cancelAt = System.nanoTime();
+        token.cancel("caller gone");
+        assertThatThrownBy(() -> cancelled.get(2, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(BrowserTaskCancelledException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cancelAt)).isLessThan(1000);
+        assertThat(next).isNotDone();
+
+        first.close();
+        next.get(2, TimeUnit.SECONDS);
+        assertThat(findStats(limiter.getStats(), "example.com").getInFlight()).isZero();
+    }
+
+    @Test
+    public void shouldStopSpacingSleepWhenCancelled() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostMinIntervalMs(5000);
+        scrapeProperties.setHostAcquireTimeoutMs(10000);
+        ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+        CancellationToken token = CancellationToken.create();
+
+        limiter.acquire("https://example.com/a").close();
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> token.cancel("caller gone"));
+
+        long startAt = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire("https://example.com/b", null, token))
+            .isInstanceOf(BrowserTaskCancelledException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startAt)).isLessThan(2000);
+        assertThat(findStats(limiter.getStats(), "example.com").getInFlight()).isZero();
+    }
+
+    @Test
+    public void shouldSpaceStartsByMinInterval() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostMinIntervalMs(100);
+        ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+
+        long startAt = System.nanoTime();
+        limiter.acquire("https://example.com/a").close();
+        limiter.acquire("https://example.com/b").close();
+        limiter.acquire("https://example.com/c").close();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startAt)).isGreaterThanOrEqualTo(190);
+    }
+
+    @Test
+    public void shouldAllowBurstThenThrottleByTokenBucket() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostRatePerSecond(10);
+        scrapeProperties.setHostRateBurst(2);
+        ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+
+        long startAt = System.nanoTime();
+        limiter.acquire("https://example.com/a").close();
+        limiter.acquire("https://example.com/b").close();
+        long burstMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startAt);
+        limiter.acquire("https://example.com/c").close();
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startAt);
+
+        assertThat(burstMs).isLessThan(50);
+        assertThat(totalMs).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    public void shouldRejectWhenSpacingExceedsAcquireTimeout() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostMinIntervalMs(10000);
+        scrapeProperties.setHostAcquireTimeoutMs(50);
+        ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+
+        limiter.acquire("https://example.com/a").close();
+
+        assertThatThrownBy(() -> limiter.acquire("https://example.com/b"))
+            .isInstanceOf(ScrapeHostBusyException.class);
+        assertThat(findStats(limiter.getStats(), "example.com").getInFlight()).isZero();
+    }
+
+    @Test
+    public void shouldPassThroughWhenDisabledOrHostMissing() throws Exception {
+        ScrapeProperties scrapeProperties = new ScrapeProperties();
+        scrapeProperties.setHostLimitEnabled(false);
+        scrapeProperties.setHostMaxConcurrency(1);
+        ScrapeHostLimiter limiter = new ScrapeHostLimiter(scrapeProperties);
+
+        try (ScrapeHostLimiter.Permit ignored = limiter.acquire("https://example.com/a")) {
+            limiter.acquire("https://example.com/b").close();
+        }
+        assertThat(limiter.getStats()).isEmpty();
+        assertThat(ScrapeHostLimiter.resolveHost("not a url")).isNull();
+    }
+
+    private ScrapeHostStats findStats(List<ScrapeHostStats> stats, String host) {
+        return stats.stream().filter(item -> host.equals(item.getHost())).findFirst().orElseThrow();
+    }
+
+}
@@ -0,0 +1,94 @@
+package fun.fengwk.mmh.core.service.scrape.runtime;
+
+import com.microsoft.playwright.Frame;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import fun.fengwk.mmh.core.service.scrape.ScrapeProperties;
+import fun.fengwk.mmh.core.service.scrape.model.ScrapeFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author fengwk
+ */
+public class ScrapeResourceBlockerTest {
+
+    @Test
+    public void shouldOnlyApplyToTextFormats() {
+        ScrapeProperties properties = new ScrapeProperties();
+
+        assertThat(ScrapeResourceBlocker.isApplicable(properties, ScrapeFormat.MARKDOWN)).isTrue();
+        assertThat(ScrapeResourceBlocker.isApplicable(properties, ScrapeFormat.HTML)).isTrue();
+        assertThat(ScrapeResourceBlocker.isApplicable(properties, ScrapeFormat.LINKS)).isTrue();
+        assertThat(ScrapeResourceBlocker.isApplicable(properties, ScrapeFormat.SCREENSHOT)).isFalse();
+        assertThat(ScrapeResourceBlocker.isApplicable(properties, ScrapeFormat.FULLSCREENSHOT)).isFalse();
+
+        properties.setResourceBlockingEnabled(false);
+        assertThat(ScrapeResourceBlocker.isApplicable(properties, ScrapeFormat.MARKDOWN)).isFalse();
+    }
+
+    @Test
+    public void shouldBlockConfiguredResourceTypes() {
+        ScrapeResourceBlocker blocker = new ScrapeResourceBlocker(new ScrapeProperties());
+
+        assertThat(blocker.shouldBlock(mockRequest("https://example.com/a.png", "image", false))).isTrue();
+        assertThat(blocker.shouldBlock(mockRequest("https://example.com/a.woff2", "font", false))).isTrue();
+        assertThat(blocker.shouldBlock(mockRequest("https://example.com/app.js", "script", false))).isFalse();
+        assertThat(blocker.shouldBlock(mockRequest("https://example.com/api", "fetch", false))).isFalse();
+    }
+
+    @Test
+    public void shouldBlockConfiguredDomainsIncludingSubdomains() {
+        ScrapeProperties properties = new ScrapeProperties();
+        properties.setBlockedDomains(List.of(" .Tracker.Example ", ""));
+        ScrapeResourceBlocker blocker = new ScrapeResourceBlocker(properties);
+
+        assertThat(blocker.isBlockedDomain("https://tracker.example/collect")).isTrue();
+        assertThat(blocker.isBlockedDomain("https://cdn.tracker.example/t.js")).isTrue();
+        assertThat(blocker.isBlockedDomain("https://nottracker.example/t.js")).isFalse();
+        assertThat(blocker.isBlockedDomain("not a url")).isFalse();
+    }
+
+    @Test
+    public void shouldNeverBlockMainFrameNavigation() {
+        ScrapeProperties properties = new ScrapeProperties();
+        properties.setBlockedDomains(List.of("example.com"));
+        ScrapeResourceBlocker blocker = new ScrapeResourceBlocker(properties);
+
+        Request request = mockRequest("https://example.com/page", "document", true);
+        Frame frame = mock(Frame.class);
+        when(request.frame()).thenReturn(frame);
+        when(frame.parentFrame()).thenReturn(null);
+
+        assertThat(blocker.shouldBlock(request)).isFalse();
+    }
+
+    @Test
+    public void shouldInstallCatchAllRoute() {
+        Page page = mock(Page.class);
+        ScrapeResourceBlocker blocker = new ScrapeResourceBlocker(new ScrapeProperties());
+
+        blocker.install(page, "https://example.com");
+
+        verify(page).route(eq("**/*"), any());
+    }
+
+    private Request mockRequest(String url, String resourceType, boolean navigation) {
+        Request request = mock(Request.class);
+        when(request.isNavigationRequest()).thenReturn(navigation);
+        if (!navigation) {
+            when(request.resourceType()).thenReturn(resourceType);
+            when(request.url()).thenReturn(url);
+        }
+        return request;
+    }
+
+}
@@ -0,0 +1,71 @@
+package fun.fengwk.mmh.core.service.scrape.support;
+
+import fun.fengwk.mmh.core.service.scrape.parser.CleanedHtml;
+import fun.fengwk.mmh.core.service.scrape.parser.HtmlMainContentCleaner;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author fengwk
+ */
+public class StaticPageHeuristicsTest {
+
+    private final HtmlMainContentCleaner cleaner = new HtmlMainContentCleaner();
+
+    @Test
+    public void shouldAcceptServerRenderedArticle() {
+        String html = "<html><body><main><h1>Title</h1><p>" + "static content ".repeat(30) + "</p></main></body></html>";
+
+        assertThat(findReason(html, 200, 0.005D)).isNull();
+    }
+
+    @Test
+    public void shouldRejectEmptySpaRoot() {
+        String html = "<html><body><div id=\"root\"></div><p>" + "footer text ".repeat(30) + "</p></body></html>";
+
+        assertThat(findReason(html, 10, 0D)).isEqualTo("empty spa root");
+    }
+
+    @Test
+    public void shouldAcceptPrerenderedSpaRoot() {
+        String html = "<html><body><div id=\"__next\"><article>" + "prerendered ".repeat(30) + "</article></div></body></html>";
+
+        assertThat(findReason(html, 200, 0.005D)).isNull();
+    }
+
+    @Test
+    public void shouldRejectJavascriptRequiredNoscript() {
+        String html = "<html><body><noscript>You need to enable JavaScript to run this app.</noscript>"
+            + "<main>" + "content ".repeat(50) + "</main></body></html>";
+
+        assertThat(findReason(html, 10, 0D)).isEqualTo("noscript requires javascript");
+    }
+
+    @Test
+    public void shouldRejectShortOrSparseText() {
+        String shortHtml = "<html><body><main><p>loading</p></main></body></html>";
+        String sparseHtml = "<html><head><script>" + "var x = 1;".repeat(5000) + "</script></head>"
+            + "<body><main><p>" + "text ".repeat(50) + "</p></main></body></html>";
+
+        assertThat(findReason(shortHtml, 200, 0D)).startsWith("text too short");
+        assertThat(findReason(sparseHtml, 10, 0.05D)).startsWith("text density too low");
+    }
+
+    @Test
+    public void shouldRecognizeSupportedMimes() {
+        assertThat(StaticPageHeuristics.isHtmlMime("text/html")).isTrue();
+        assertThat(StaticPageHeuristics.isHtmlMime("application/xhtml+xml")).isTrue();
+        assertThat(StaticPageHeuristics.isPlainTextMime("text/plain")).isTrue();
+        assertThat(StaticPageHeuristics.isHtmlMime("application/json")).isFalse();
+    }
+
+    private String findReason(String html, int minTextLength, double minTextDensity) {
+        Document document = Jsoup.parse(html, "https://example.com");
+        CleanedHtml cleaned = cleaner.clean(document, "https://example.com", true, true, true);
+        return StaticPageHeuristics.findInsufficientReason(document, cleaned, html.length(), minTextLength, minTextDensity);
+    }
+
+}
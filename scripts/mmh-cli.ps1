@@ -27,8 +27,13 @@ function Resolve-FullPathOrNull {
 $scriptHome = Split-Path -Parent $MyInvocation.MyCommand.Path
 $appHome = Split-Path -Parent $scriptHome
 
+# 虚拟线程模式需要 JDK 21+，优先使用 JAVA_HOME_21
+$virtualThreads = $env:MMH_MCP_VIRTUAL_THREADS -eq "true"
+
 $javaHome = ""
-if (-not [string]::IsNullOrWhiteSpace($env:JAVA_HOME_17)) {
+if ($virtualThreads -and -not [string]::IsNullOrWhiteSpace($env:JAVA_HOME_21)) {
+    $javaHome = $env:JAVA_HOME_21
+} elseif (-not [string]::IsNullOrWhiteSpace($env:JAVA_HOME_17)) {
     $javaHome = $env:JAVA_HOME_17
 } elseif (-not [string]::IsNullOrWhiteSpace($env:JAVA_HOME)) {
     $javaHome = $env:JAVA_HOME
@@ -163,6 +168,11 @@ $javaOpts = @(
     "-Dspring.main.banner-mode=off"
 )
 
+# 工具调用运行在 Reactor boundedElastic 上，JDK 21+ 时可切换为虚拟线程（低于 21 时 Reactor 自动回退平台线程）
+if ($virtualThreads) {
+    $javaOpts += "-Dreactor.schedulers.defaultBoundedElasticOnVirtualThreads=true"
+}
+
 if (-not [string]::IsNullOrWhiteSpace($env:JAVA_OPTS)) {
     $javaOpts += ($env:JAVA_OPTS -split "\s+" | Where-Object { -not [string]::IsNullOrWhiteSpace($_) })
 }